@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 构造 benchmark 使用的测试数据.
+ * 
+ * <p>
+ * 使用固定的随机种子,保证每次运行(以及不同版本之间)的数据一致.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public final class BenchmarkData{
+
+    /** 固定随机种子. */
+    private static final long SEED = 20081010L;
+
+    /** Don't let anyone instantiate this class. */
+    private BenchmarkData(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构造 <code>size</code> 个 {@link BenchmarkUser}.
+     * 
+     * <p>
+     * name 有 <code>size/10</code> 个不同的值(至少1个),age 在 [0,100) 之间,方便 group/sort 有重复的 key.
+     * </p>
+     *
+     * @param size
+     *            the size
+     * @return the list
+     */
+    public static List<BenchmarkUser> newUserList(int size){
+        Random random = new Random(SEED);
+        int nameCardinality = Math.max(1, size / 10);
+
+        BenchmarkUser parent = new BenchmarkUser(0L, "parent", 60);
+
+        List<BenchmarkUser> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            BenchmarkUser user = new BenchmarkUser((long) i, "name" + random.nextInt(nameCardinality), random.nextInt(100));
+            user.setMoney(BigDecimal.valueOf(random.nextInt(100000), 2));
+            user.setDate(new Date(1500000000000L + random.nextInt(Integer.MAX_VALUE)));
+            user.setParent(parent);
+            list.add(user);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * benchmark 使用的 bean.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class BenchmarkUser{
+
+    /** The id. */
+    private Long          id;
+
+    /** The name. */
+    private String        name;
+
+    /** The age. */
+    private Integer       age;
+
+    /** The money. */
+    private BigDecimal    money;
+
+    /** The date. */
+    private Date          date;
+
+    /** The parent. */
+    private BenchmarkUser parent;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new benchmark user.
+     */
+    public BenchmarkUser(){
+        super();
+    }
+
+    /**
+     * Instantiates a new benchmark user.
+     *
+     * @param id
+     *            the id
+     * @param name
+     *            the name
+     * @param age
+     *            the age
+     */
+    public BenchmarkUser(Long id, String name, Integer age){
+        this.id = id;
+        this.name = name;
+        this.age = age;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Gets the id.
+     *
+     * @return the id
+     */
+    public Long getId(){
+        return id;
+    }
+
+    /**
+     * Sets the id.
+     *
+     * @param id
+     *            the id to set
+     */
+    public void setId(Long id){
+        this.id = id;
+    }
+
+    /**
+     * Gets the name.
+     *
+     * @return the name
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Sets the name.
+     *
+     * @param name
+     *            the name to set
+     */
+    public void setName(String name){
+        this.name = name;
+    }
+
+    /**
+     * Gets the age.
+     *
+     * @return the age
+     */
+    public Integer getAge(){
+        return age;
+    }
+
+    /**
+     * Sets the age.
+     *
+     * @param age
+     *            the age to set
+     */
+    public void setAge(Integer age){
+        this.age = age;
+    }
+
+    /**
+     * Gets the money.
+     *
+     * @return the money
+     */
+    public BigDecimal getMoney(){
+        return money;
+    }
+
+    /**
+     * Sets the money.
+     *
+     * @param money
+     *            the money to set
+     */
+    public void setMoney(BigDecimal money){
+        this.money = money;
+    }
+
+    /**
+     * Gets the date.
+     *
+     * @return the date
+     */
+    public Date getDate(){
+        return date;
+    }
+
+    /**
+     * Sets the date.
+     *
+     * @param date
+     *            the date to set
+     */
+    public void setDate(Date date){
+        this.date = date;
+    }
+
+    /**
+     * Gets the parent.
+     *
+     * @return the parent
+     */
+    public BenchmarkUser getParent(){
+        return parent;
+    }
+
+    /**
+     * Sets the parent.
+     *
+     * @param parent
+     *            the parent to set
+     */
+    public void setParent(BenchmarkUser parent){
+        this.parent = parent;
+    }
+}
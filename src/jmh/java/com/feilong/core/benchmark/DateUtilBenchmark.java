@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.feilong.core.date.DateUtil;
+
+/**
+ * {@link DateUtil#toString(Date, String)} 和 {@link DateUtil#toDate(String, String...)} 的 benchmark.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+public class DateUtilBenchmark{
+
+    /** 日期的数量. */
+    @Param({ "10", "1000", "100000" })
+    private int          size;
+
+    /** The dates. */
+    private List<Date>   dates;
+
+    /** The date strings. */
+    private List<String> dateStrings;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        dates = new ArrayList<>(size);
+        dateStrings = new ArrayList<>(size);
+        for (BenchmarkUser user : BenchmarkData.newUserList(size)){
+            dates.add(user.getDate());
+            dateStrings.add(DateUtil.toString(user.getDate(), COMMON_DATE_AND_TIME));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Date 转 String.
+     *
+     * @param blackhole
+     *            the blackhole
+     */
+    @Benchmark
+    public void toStringBenchmark(Blackhole blackhole){
+        for (Date date : dates){
+            blackhole.consume(DateUtil.toString(date, COMMON_DATE_AND_TIME));
+        }
+    }
+
+    /**
+     * String 转 Date.
+     *
+     * @param blackhole
+     *            the blackhole
+     */
+    @Benchmark
+    public void toDate(Blackhole blackhole){
+        for (String dateString : dateStrings){
+            blackhole.consume(DateUtil.toDate(dateString, COMMON_DATE_AND_TIME));
+        }
+    }
+}
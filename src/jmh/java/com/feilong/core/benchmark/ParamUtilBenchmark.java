@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.benchmark;
+
+import static com.feilong.core.CharsetType.UTF8;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.feilong.core.net.ParamUtil;
+
+/**
+ * {@link ParamUtil#toSingleValueMap(String, String)} 的 benchmark.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3,time = 1)
+@Measurement(iterations = 5,time = 1)
+public class ParamUtilBenchmark{
+
+    /** query string 中参数的数量. */
+    @Param({ "10", "1000" })
+    private int    paramCount;
+
+    /** The query string. */
+    private String queryString;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup(){
+        StringBuilder sb = new StringBuilder();
+        for (BenchmarkUser user : BenchmarkData.newUserList(paramCount)){
+            if (sb.length() > 0){
+                sb.append('&');
+            }
+            sb.append("key").append(user.getId()).append('=').append(user.getName()).append("%E9%A3%9E%E5%A4%A9");
+        }
+        queryString = sb.toString();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 需要解码/编码.
+     *
+     * @param blackhole
+     *            the blackhole
+     */
+    @Benchmark
+    public void toSingleValueMap(Blackhole blackhole){
+        blackhole.consume(ParamUtil.toSingleValueMap(queryString, UTF8));
+    }
+
+    /**
+     * 不需要解码/编码.
+     *
+     * @param blackhole
+     *            the blackhole
+     */
+    @Benchmark
+    public void toSingleValueMapNoCharset(Blackhole blackhole){
+        blackhole.consume(ParamUtil.toSingleValueMap(queryString, null));
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * feilong-core 热点方法的 JMH 性能基准测试.
+ * 
+ * <h3>运行:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * mvn -Pjmh test-compile exec:exec
+ * 
+ * <span style="color:green">//只运行指定的 benchmark</span>
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=PropertyUtilBenchmark
+ * </pre>
+ * 
+ * </blockquote>
+ * 
+ * <p>
+ * 默认会开启 gc profiler,结果里面的 <code>·gc.alloc.rate.norm</code> 是每次调用分配的字节数,结果同时会写到 <code>target/jmh-result.json</code>,方便不同版本之间对比.
+ * </p>
+ * 
+ * @since 1.13.1
+ */
+package com.feilong.core.benchmark;
@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.util.MapUtil.newConcurrentHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.expression.Resolver;
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * {@link BeanUtil#copyProperties(Object, Object, String...)} 使用的 bean 复制器.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>每个 (fromClass, toClass, includePropertyNames) 只解析一次,匹配好的 getter/setter 对缓存起来,后续复制不再查找 PropertyDescriptor</li>
+ * <li>如果值可以直接赋给目标属性(类型相同/子类/自动装箱),直接调用 setter,<b>不做</b> {@code Object--->String--->Object} 转换</li>
+ * <li>只有类型不一致时才会交给 commons-beanutils 转换,转换规则和原来保持一致</li>
+ * <li>Map/DynaBean,以及 nested/indexed/mapped 的属性名称不使用本类,仍然走 commons-beanutils,see {@link #isSupport(Object, Object, String[])}</li>
+ * <li>缓存使用 {@link ClassValue} 挂在 classloader 更"子"的那个 class 上(通常是 webapp 的 class),共享的 class 不会持有 webapp 的 class,不会阻止
+ * webapp classloader 被回收</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class BeanCopier{
+
+    /** 没有指定 includePropertyNames 时使用的 key. */
+    private static final List<String>                                                                  ALL_PROPERTY_NAMES = Collections.emptyList();
+
+    /** commons-beanutils 使用的属性表达式解析器. */
+    private static final Resolver                                                                      RESOLVER           = BeanUtilsBean
+                    .getInstance().getPropertyUtils().getResolver();
+
+    /** 将 write method 统一转换成 (Object,Object)void 签名. */
+    private static final MethodType                                                                    SETTER_TYPE        = MethodType
+                    .methodType(void.class, Object.class, Object.class);
+
+    //---------------------------------------------------------------
+
+    /**
+     * toClass 对应的 fromClass,includePropertyNames 和 copier map.
+     * 
+     * <p>
+     * toClass 的 classloader 和 fromClass 相同,或者是它的子 classloader 时使用,比如 fromClass 是父 classloader 加载的共享 DTO,toClass 是 webapp 加载的;
+     * 缓存挂在生命周期更短的 toClass 上,webapp 卸载时可以被回收.
+     * </p>
+     */
+    private static final ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>>> TO_CLASS_CACHE     = new CopierCache();
+
+    /** fromClass 对应的 toClass,includePropertyNames 和 copier map,其余情况使用. */
+    private static final ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>>> FROM_CLASS_CACHE   = new CopierCache();
+
+    //---------------------------------------------------------------
+
+    /** 每个属性的复制器. */
+    private final PropertyCopier[]                                                                     propertyCopiers;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bean copier.
+     *
+     * @param propertyCopiers
+     *            the property copiers
+     */
+    private BeanCopier(PropertyCopier[] propertyCopiers){
+        this.propertyCopiers = propertyCopiers;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否可以使用 {@link BeanCopier} 复制.
+     *
+     * @param toObj
+     *            目标对象
+     * @param fromObj
+     *            原始对象
+     * @param includePropertyNames
+     *            包含的属性名字数组
+     * @return 如果 <code>toObj</code> 和 <code>fromObj</code> 都不是 Map/DynaBean,并且 <code>includePropertyNames</code> 都是简单属性名称,返回true
+     */
+    static boolean isSupport(Object toObj,Object fromObj,String[] includePropertyNames){
+        if (isMapOrDynaBean(toObj) || isMapOrDynaBean(fromObj)){
+            return false;
+        }
+        if (null != includePropertyNames){
+            for (String propertyName : includePropertyNames){
+                if (null == propertyName || RESOLVER.hasNested(propertyName) || RESOLVER.isIndexed(propertyName)
+                                || RESOLVER.isMapped(propertyName)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if is map or dyna bean.
+     *
+     * @param obj
+     *            the obj
+     * @return true, if is map or dyna bean
+     */
+    private static boolean isMapOrDynaBean(Object obj){
+        return obj instanceof Map || obj instanceof DynaBean;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>fromClass</code> 到 <code>toClass</code> 的复制器,如果缓存中没有,解析并放入缓存.
+     *
+     * @param toObj
+     *            目标对象
+     * @param fromObj
+     *            原始对象
+     * @param includePropertyNames
+     *            包含的属性名字数组,如果是null或者empty,表示复制全部可读可写的属性
+     * @return the bean copier
+     */
+    static BeanCopier get(Object toObj,Object fromObj,String...includePropertyNames){
+        ConcurrentMap<List<String>, BeanCopier> propertyNamesAndCopierMap = getPropertyNamesAndCopierMap(fromObj.getClass(), toObj.getClass());
+
+        List<String> key = null == includePropertyNames || includePropertyNames.length == 0 ? ALL_PROPERTY_NAMES
+                        : Arrays.asList(includePropertyNames);
+
+        BeanCopier beanCopier = propertyNamesAndCopierMap.get(key);
+        if (null == beanCopier){
+            beanCopier = ALL_PROPERTY_NAMES == key ? buildAll(toObj, fromObj) : buildInclude(toObj, fromObj, includePropertyNames);
+
+            //key 需要拷贝一份,防止调用方修改数组
+            BeanCopier existCopier = propertyNamesAndCopierMap
+                            .putIfAbsent(ALL_PROPERTY_NAMES == key ? key : Arrays.asList(includePropertyNames.clone()), beanCopier);
+            if (null != existCopier){
+                beanCopier = existCopier;
+            }
+        }
+        return beanCopier;
+    }
+
+    /**
+     * Gets the property names and copier map.
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @return the property names and copier map
+     */
+    private static ConcurrentMap<List<String>, BeanCopier> getPropertyNamesAndCopierMap(Class<?> fromClass,Class<?> toClass){
+        //缓存挂在 classloader 更"子"的那个 class 上,避免共享的 class 持有 webapp 的 class,导致 webapp classloader 无法回收
+        boolean holdByToClass = isSameOrDescendant(toClass.getClassLoader(), fromClass.getClassLoader());
+
+        ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>> classAndCopierMap = holdByToClass ? TO_CLASS_CACHE.get(toClass)
+                        : FROM_CLASS_CACHE.get(fromClass);
+        Class<?> keyClass = holdByToClass ? fromClass : toClass;
+
+        ConcurrentMap<List<String>, BeanCopier> propertyNamesAndCopierMap = classAndCopierMap.get(keyClass);
+        if (null == propertyNamesAndCopierMap){
+            ConcurrentMap<List<String>, BeanCopier> newMap = newConcurrentHashMap();
+            propertyNamesAndCopierMap = classAndCopierMap.putIfAbsent(keyClass, newMap);
+            if (null == propertyNamesAndCopierMap){
+                propertyNamesAndCopierMap = newMap;
+            }
+        }
+        return propertyNamesAndCopierMap;
+    }
+
+    /**
+     * <code>classLoader</code> 是否和 <code>parent</code> 相同,或者是它的子 classloader.
+     *
+     * @param classLoader
+     *            the class loader,null 表示 bootstrap classloader
+     * @param parent
+     *            the parent,null 表示 bootstrap classloader
+     * @return 如果是,返回true
+     */
+    private static boolean isSameOrDescendant(ClassLoader classLoader,ClassLoader parent){
+        if (null == parent){
+            return true;
+        }
+        for (ClassLoader current = classLoader; null != current; current = current.getParent()){
+            if (current == parent){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>fromObj</code> 的属性复制到 <code>toObj</code>.
+     *
+     * @param toObj
+     *            目标对象
+     * @param fromObj
+     *            原始对象
+     * @throws Exception
+     *             复制过程中出现的异常
+     */
+    void copy(Object toObj,Object fromObj) throws Exception{
+        for (PropertyCopier propertyCopier : propertyCopiers){
+            propertyCopier.copy(toObj, fromObj);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 复制全部属性,和 {@link BeanUtilsBean#copyProperties(Object, Object)} 一样,只复制 <code>fromObj</code> 可读并且 <code>toObj</code> 可写的属性.
+     *
+     * @param toObj
+     *            the to obj
+     * @param fromObj
+     *            the from obj
+     * @return the bean copier
+     */
+    private static BeanCopier buildAll(Object toObj,Object fromObj){
+        Class<?> fromClass = fromObj.getClass();
+        Class<?> toClass = toObj.getClass();
+
+        List<PropertyCopier> list = new ArrayList<>();
+        for (PropertyDescriptor fromPropertyDescriptor : PropertyUtils.getPropertyDescriptors(fromClass)){
+            String propertyName = fromPropertyDescriptor.getName();
+            if ("class".equals(propertyName) || !PropertyUtils.isReadable(fromObj, propertyName)
+                            || !PropertyUtils.isWriteable(toObj, propertyName)){
+                continue;
+            }
+
+            PropertyCopier propertyCopier = buildDirect(fromClass, toClass, propertyName, false);
+            list.add(null != propertyCopier ? propertyCopier : new CopyPropertyCopier(propertyName));
+        }
+        return new BeanCopier(list.toArray(new PropertyCopier[list.size()]));
+    }
+
+    /**
+     * 复制指定的属性,和原来循环调用 {@link BeanUtil#getProperty(Object, String)} 再 {@link BeanUtil#setProperty(Object, String, Object)} 的行为保持一致.
+     *
+     * @param toObj
+     *            the to obj
+     * @param fromObj
+     *            the from obj
+     * @param includePropertyNames
+     *            the include property names
+     * @return the bean copier
+     */
+    private static BeanCopier buildInclude(Object toObj,Object fromObj,String...includePropertyNames){
+        Class<?> fromClass = fromObj.getClass();
+        Class<?> toClass = toObj.getClass();
+
+        PropertyCopier[] propertyCopiers = new PropertyCopier[includePropertyNames.length];
+        for (int i = 0; i < includePropertyNames.length; ++i){
+            String propertyName = includePropertyNames[i];
+
+            PropertyCopier propertyCopier = buildDirect(fromClass, toClass, propertyName, true);
+            //fromObj 没有这个属性(需要抛出异常),或者 toObj 没有可写的这个属性(需要跳过),都交给原来的方式处理
+            propertyCopiers[i] = null != propertyCopier ? propertyCopier : new StringConvertPropertyCopier(propertyName);
+        }
+        return new BeanCopier(propertyCopiers);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构造直接调用 getter/setter 的属性复制器.
+     *
+     * @param fromClass
+     *            the from class
+     * @param toClass
+     *            the to class
+     * @param propertyName
+     *            the property name
+     * @param isStringConvert
+     *            类型不一致时,是否使用 {@code Object--->String--->Object} 的转换方式
+     * @return 如果 <code>fromClass</code> 没有可访问的 getter,或者 <code>toClass</code> 没有可访问的 setter,返回null
+     */
+    private static PropertyCopier buildDirect(Class<?> fromClass,Class<?> toClass,String propertyName,boolean isStringConvert){
+        PropertyGetter propertyGetter = PropertyGetterCache
+                        .buildReadMethodGetter(fromClass, PropertyGetterCache.findPropertyDescriptor(fromClass, propertyName));
+        if (null == propertyGetter){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        PropertyDescriptor toPropertyDescriptor = PropertyGetterCache.findPropertyDescriptor(toClass, propertyName);
+        if (null == toPropertyDescriptor || null == toPropertyDescriptor.getWriteMethod()){
+            return null;
+        }
+        Method writeMethod = MethodUtils.getAccessibleMethod(toClass, toPropertyDescriptor.getWriteMethod());
+        if (null == writeMethod){
+            return null;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            MethodHandle setter = MethodHandles.publicLookup().unreflect(writeMethod).asType(SETTER_TYPE);
+            return new DirectPropertyCopier(propertyName, propertyGetter, setter, writeMethod.getParameterTypes()[0], isStringConvert);
+        }catch (IllegalAccessException e){
+            return null;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 单个属性的复制器.
+     */
+    private interface PropertyCopier{
+
+        /**
+         * 复制单个属性.
+         *
+         * @param toObj
+         *            the to obj
+         * @param fromObj
+         *            the from obj
+         * @throws Exception
+         *             the exception
+         */
+        void copy(Object toObj,Object fromObj) throws Exception;
+    }
+
+    /**
+     * 值可以直接赋值时直接调用 setter,否则交给 commons-beanutils 转换.
+     */
+    private static final class DirectPropertyCopier implements PropertyCopier{
+
+        /** The property name. */
+        private final String         propertyName;
+
+        /** The property getter. */
+        private final PropertyGetter propertyGetter;
+
+        /** (Object,Object)void 签名的 setter. */
+        private final MethodHandle   setter;
+
+        /** setter 参数类型,如果是基本类型,转成对应的包装类型. */
+        private final Class<?>       wrapperPropertyType;
+
+        /** 是否是基本类型. */
+        private final boolean        isPrimitive;
+
+        /** 类型不一致时,是否使用 {@code Object--->String--->Object} 的转换方式. */
+        private final boolean        isStringConvert;
+
+        /**
+         * Instantiates a new direct property copier.
+         *
+         * @param propertyName
+         *            the property name
+         * @param propertyGetter
+         *            the property getter
+         * @param setter
+         *            the setter
+         * @param propertyType
+         *            the property type
+         * @param isStringConvert
+         *            类型不一致时,是否使用 {@code Object--->String--->Object} 的转换方式
+         */
+        private DirectPropertyCopier(String propertyName, PropertyGetter propertyGetter, MethodHandle setter, Class<?> propertyType,
+                        boolean isStringConvert){
+            this.propertyName = propertyName;
+            this.propertyGetter = propertyGetter;
+            this.setter = setter;
+            this.wrapperPropertyType = ClassUtils.primitiveToWrapper(propertyType);
+            this.isPrimitive = propertyType.isPrimitive();
+            this.isStringConvert = isStringConvert;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.BeanCopier.PropertyCopier#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj) throws Exception{
+            Object value = propertyGetter.getValue(fromObj);
+
+            boolean isAssignable = null == value ? !isPrimitive : wrapperPropertyType.isInstance(value);
+            if (!isAssignable){
+                convert(toObj, value);
+                return;
+            }
+
+            try{
+                setter.invokeExact(toObj, value);
+            }catch (Exception | Error e){
+                throw e;
+            }catch (Throwable e){
+                throw new BeanOperationException(e);
+            }
+        }
+
+        /**
+         * 类型不一致,转换之后再设置.
+         *
+         * @param toObj
+         *            the to obj
+         * @param value
+         *            the value
+         * @throws Exception
+         *             the exception
+         */
+        private void convert(Object toObj,Object value) throws Exception{
+            if (isStringConvert){
+                //和 BeanUtils.getProperty 一样,先转成 String
+                BeanUtil.setProperty(toObj, propertyName, BeanUtilsBean.getInstance().getConvertUtils().convert(value));
+                return;
+            }
+            BeanUtils.copyProperty(toObj, propertyName, value);
+        }
+    }
+
+    /**
+     * 使用 {@link BeanUtils#copyProperty(Object, String, Object)} 转换并复制,和 {@link BeanUtilsBean#copyProperties(Object, Object)} 内部一致.
+     */
+    private static final class CopyPropertyCopier implements PropertyCopier{
+
+        /** The property name. */
+        private final String propertyName;
+
+        /**
+         * Instantiates a new copy property copier.
+         *
+         * @param propertyName
+         *            the property name
+         */
+        private CopyPropertyCopier(String propertyName){
+            this.propertyName = propertyName;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.BeanCopier.PropertyCopier#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj) throws Exception{
+            BeanUtils.copyProperty(toObj, propertyName, PropertyUtils.getSimpleProperty(fromObj, propertyName));
+        }
+    }
+
+    /**
+     * 使用 {@code Object--->String--->Object} 的方式转换并复制.
+     */
+    private static final class StringConvertPropertyCopier implements PropertyCopier{
+
+        /** The property name. */
+        private final String propertyName;
+
+        /**
+         * Instantiates a new string convert property copier.
+         *
+         * @param propertyName
+         *            the property name
+         */
+        private StringConvertPropertyCopier(String propertyName){
+            this.propertyName = propertyName;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.BeanCopier.PropertyCopier#copy(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public void copy(Object toObj,Object fromObj){
+            BeanUtil.setProperty(toObj, propertyName, BeanUtil.getProperty(fromObj, propertyName));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 挂在 Class 上的 copier 缓存.
+     */
+    private static final class CopierCache extends ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>>>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected ConcurrentMap<Class<?>, ConcurrentMap<List<String>, BeanCopier>> computeValue(Class<?> type){
+            return newConcurrentHashMap();
+        }
+    }
+}
@@ -206,6 +206,8 @@ public final class BeanUtil{
      * <li>此方法调用了 {@link BeanUtils#copyProperties(Object, Object)},会自动进行{@code Object--->String--->Object}类型转换</li>
      * <li>如果指定了<code>includePropertyNames</code>,会调用 {@link #getProperty(Object, String)},在自动进行{@code Object--->String}
      * 类型转换过程中,如果发现值是数组,只会取第一个元素重新构造数组转到 <code>toObj</code>中,规则参见 {@link ConvertUtil#toString(Object)}</li>
+     * <li>since 1.13.1, 如果 <code>toObj</code> 和 <code>fromObj</code> 都是普通的 javabean(不是Map/DynaBean),并且 <code>includePropertyNames</code>
+     * 都是简单属性名称,会使用缓存的 getter/setter 直接复制;值的类型可以直接赋给目标属性时,<b>不再</b>进行上面的类型转换(数组也会完整复制),只有类型不一致时才转换</li>
      * <li>不支持<code>toObj</code>是map类型,从{@link BeanUtilsBean#copyProperties(Object, Object)}源码可以看出, <code class="code">fromObj</code>可以是map
      * </li>
      * </ol>
@@ -292,6 +294,20 @@ public final class BeanUtil{
 
         //---------------------------------------------------------------
 
+        //since 1.13.1 普通 javabean 之间的复制,使用缓存的 BeanCopier
+        if (BeanCopier.isSupport(toObj, fromObj, includePropertyNames)){
+            try{
+                BeanCopier.get(toObj, fromObj, includePropertyNames).copy(toObj, fromObj);
+                return;
+            }catch (BeanOperationException e){
+                throw e;
+            }catch (Exception e){
+                String pattern = "copyProperties exception,toObj:[{}],fromObj:[{}],includePropertyNames:[{}]";
+                throw new BeanOperationException(Slf4jUtil.format(pattern, toObj, fromObj, includePropertyNames), e);
+            }
+        }
+
+        //---------------------------------------------------------------
         if (isNullOrEmpty(includePropertyNames)){
             try{
                 BeanUtils.copyProperties(toObj, fromObj);
@@ -335,7 +351,7 @@ public final class BeanUtil{
      * @see org.apache.commons.beanutils.PropertyUtils#setProperty(Object, String, Object)
      * @see com.feilong.core.bean.PropertyUtil#setProperty(Object, String, Object)
      */
-    private static void setProperty(Object bean,String propertyName,Object value){
+    static void setProperty(Object bean,String propertyName,Object value){
         try{
             BeanUtils.setProperty(bean, propertyName, value);
         }catch (Exception e){
@@ -371,9 +387,9 @@ public final class BeanUtil{
      * @see org.apache.commons.beanutils.BeanUtils#getProperty(Object, String)
      * @see org.apache.commons.beanutils.PropertyUtils#getProperty(Object, String)
      * @see com.feilong.core.bean.PropertyUtil#getProperty(Object, String)
-     * @since 1.9.0 change access to private
+     * @since 1.9.0 change access to private, 1.13.1 change access to package, used by {@link BeanCopier}
      */
-    private static String getProperty(Object bean,String propertyName){
+    static String getProperty(Object bean,String propertyName){
         Validate.notNull(bean, "bean can't be null!");
         Validate.notBlank(propertyName, "propertyName can't be blank!");
 
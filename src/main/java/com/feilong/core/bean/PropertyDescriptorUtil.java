@@ -15,16 +15,20 @@
  */
 package com.feilong.core.bean;
 
-import static com.feilong.core.bean.SpringBeanUtilsHelper.getSpringBeanUtilsClass;
-import static com.feilong.core.bean.SpringBeanUtilsHelper.hasSpringBeanUtilsClass;
-import static com.feilong.core.lang.reflect.MethodUtil.invokeStaticMethod;
+import static com.feilong.core.bean.SpringBeanUtilsHelper.getSpringGetPropertyDescriptorMethod;
 import static com.feilong.core.util.MapUtil.newConcurrentHashMap;
 
 import java.beans.PropertyDescriptor;
-import java.util.Map;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The Class PropertyDescriptorUtil.
+ * 
+ * <p>
+ * spring 解析出来的 {@link PropertyDescriptor} 按照 class 缓存在 {@link ClassValue} 上,key 直接是 propertyName,
+ * 重复读取同一个属性时不需要拼接 key,也不会再反射调用 spring BeanUtils,并且不会阻止 classloader 被回收.
+ * </p>
  *
  * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
  * @since 1.12.0
@@ -40,114 +44,73 @@ public class PropertyDescriptorUtil{
 
     //---------------------------------------------------------------
 
-    /** <code>{@value}</code>. */
-    private static final String              TYPE_SPRING            = "spring";
-
-    /** The Constant TYPE_COMMONS_BEANUTILS. */
-    private static final String              TYPE_COMMONS_BEANUTILS = "commons.beanutils";
-
-    //---------------------------------------------------------------
-
-    /** key 和对应的操作方式. */
-    private static final Map<String, String> KEY_AND_TYPE_MAP       = newConcurrentHashMap(200);
-
-    //---------------------------------------------------------------
+    /**
+     * spring 解析不了(或者环境中没有 spring)时,放到缓存里面的占位对象 (ConcurrentMap 不支持 null value).
+     * 
+     * @since 1.13.1
+     */
+    private static final Object                                    NONE                               = new Object();
 
     /**
-     * 是否用 spring 来操作.
-     *
-     * @param klass
-     *            the klass
-     * @param propertyName
-     *            the property name
-     * @return 如果解析出来的类型是 {@link #TYPE_SPRING}, 表示可以使用spring来解析
+     * class 对应的 propertyName 和 spring PropertyDescriptor(或者 {@link #NONE}) map.
+     * 
+     * @since 1.13.1
      */
-    static boolean isUseSpringOperate(Class<?> klass,String propertyName){
-        String type = getType(klass, propertyName);
-        return TYPE_SPRING.equals(type);
-    }
+    private static final ClassValue<ConcurrentMap<String, Object>> CLASS_AND_PROPERTY_DESCRIPTOR_MAP = new ClassValue<ConcurrentMap<String, Object>>(){
+
+                                                                                                          @Override
+                                                                                                          protected ConcurrentMap<String, Object> computeValue(
+                                                                                                                          Class<?> type){
+                                                                                                              return newConcurrentHashMap();
+                                                                                                          }
+                                                                                                      };
 
     //---------------------------------------------------------------
 
     /**
-     * Builds the type.
+     * 获得 spring 的 PropertyDescriptor.
      *
      * @param klass
      *            the klass
      * @param propertyName
      *            the property name
-     * @return the string
+     * @return the corresponding PropertyDescriptor, or {@code null} if none
      */
-    private static String getType(Class<?> klass,String propertyName){
-        String key = buildKey(klass, propertyName);
+    static PropertyDescriptor getSpringPropertyDescriptor(Class<?> klass,String propertyName){
+        ConcurrentMap<String, Object> propertyNameAndDescriptorMap = CLASS_AND_PROPERTY_DESCRIPTOR_MAP.get(klass);
 
-        //---------------------------------------------------------------
-        if (KEY_AND_TYPE_MAP.containsKey(key)){
-            return KEY_AND_TYPE_MAP.get(key);
+        Object value = propertyNameAndDescriptorMap.get(propertyName);
+        if (null == value){
+            value = resolveSpringPropertyDescriptor(klass, propertyName);
+            propertyNameAndDescriptorMap.putIfAbsent(propertyName, value);
         }
-
-        String type = buildType(klass, propertyName);
-
-        //---------------------------------------------------------------
-        KEY_AND_TYPE_MAP.put(key, type);
-        return type;
+        return NONE == value ? null : (PropertyDescriptor) value;
     }
 
     //---------------------------------------------------------------
 
     /**
-     * Builds the type.
+     * 调用 spring <code>BeanUtils.getPropertyDescriptor(Class, String)</code> 解析.
      *
      * @param klass
      *            the klass
      * @param propertyName
      *            the property name
-     * @return the string
+     * @return 如果环境中没有spring,或者spring解析不了,返回 {@link #NONE}
      * @see <a href="https://github.com/venusdrogon/feilong-core/issues/760">PropertyUtil.getProperty(Object, String) 排序异常 #760</a>
-     * @since 1.12.1
+     * @since 1.13.1
      */
-    private static String buildType(Class<?> klass,String propertyName){
+    private static Object resolveSpringPropertyDescriptor(Class<?> klass,String propertyName){
+        Method method = getSpringGetPropertyDescriptorMethod();
+        if (null == method){
+            return NONE;
+        }
         try{
-            PropertyDescriptor springPropertyDescriptor = getSpringPropertyDescriptor(klass, propertyName);
-            if (null != springPropertyDescriptor){
-                return TYPE_SPRING;
-            }
+            Object propertyDescriptor = method.invoke(null, klass, propertyName);
+            return null == propertyDescriptor ? NONE : propertyDescriptor;
         }catch (Exception e){
-            // nothing to do 
-        }
-        return TYPE_COMMONS_BEANUTILS;
-    }
-
-    //---------------------------------------------------------------
-
-    /**
-     * Builds the key.
-     *
-     * @param klass
-     *            the klass
-     * @param propertyName
-     *            the property name
-     * @return the string
-     */
-    private static String buildKey(Class<? extends Object> klass,String propertyName){
-        return klass.getName() + "@@" + propertyName;
-    }
-
-    //---------------------------------------------------------------
-
-    /**
-     * 获得 spring 的 PropertyDescriptor.
-     *
-     * @param klass
-     *            the klass
-     * @param propertyName
-     *            the property name
-     * @return the corresponding PropertyDescriptor, or {@code null} if none
-     */
-    static PropertyDescriptor getSpringPropertyDescriptor(Class<?> klass,String propertyName){
-        if (hasSpringBeanUtilsClass()){
-            return invokeStaticMethod(getSpringBeanUtilsClass(), "getPropertyDescriptor", klass, propertyName);
+            // nothing to do
+            return NONE;
         }
-        return null;
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+/**
+ * 已经解析好的属性读取器,对应一个 (Class, propertyName).
+ * 
+ * <p>
+ * 实例由 {@link PropertyGetterCache#get(Class, String)} 创建并缓存,属性表达式的解析、PropertyDescriptor 的查找都只在创建时做一次.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PropertyGetterCache
+ * @since 1.13.1
+ */
+interface PropertyGetter{
+
+    /**
+     * 读取 <code>bean</code> 的属性值.
+     *
+     * @param bean
+     *            the bean,不能为null,并且类型需要是创建该 getter 时的类型
+     * @return the value
+     * @throws Exception
+     *             读取时出现的异常
+     */
+    Object getValue(Object bean) throws Exception;
+}
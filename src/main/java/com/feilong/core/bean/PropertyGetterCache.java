@@ -0,0 +1,418 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.util.MapUtil.newConcurrentHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.DynaBean;
+import org.apache.commons.beanutils.MethodUtils;
+import org.apache.commons.beanutils.NestedNullException;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.beanutils.expression.Resolver;
+
+/**
+ * (Class, propertyName) 对应的 {@link PropertyGetter} 缓存.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>属性表达式只解析一次,nested(a.b)/indexed(a[0])/mapped(a(key)) 会组合成一个 getter,使用和 {@link PropertyUtils#getProperty(Object, String)}
+ * 相同的 {@link Resolver} 拆分</li>
+ * <li>普通 javabean 的简单属性,会解析出可访问的 read method 并转成 {@link MethodHandle},后续调用不再查找 PropertyDescriptor/Method</li>
+ * <li>Map/DynaBean/indexed/mapped 片段仍然交给 commons-beanutils 处理,保持原有的语义</li>
+ * <li>嵌套路径中每一段使用当前值的<b>实际类型</b>查找缓存,所以中间属性声明成父类/接口也不影响结果</li>
+ * <li>缓存使用 {@link ClassValue} 挂在 Class 上,不会阻止 classloader 被回收</li>
+ * <li>Map/DynaBean 的属性以及含 indexed/mapped 片段的属性名称不缓存,直接交给 {@link PropertyUtils#getProperty(Object, String)};
+ * 这些属性名称(map key,下标等)的取值范围不固定,缓存会无限增长</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class PropertyGetterCache{
+
+    /** commons-beanutils 使用的属性表达式解析器. */
+    private static final Resolver                                            RESOLVER = BeanUtilsBean.getInstance().getPropertyUtils().getResolver();
+
+    /** The Constant LOOKUP. */
+    private static final MethodHandles.Lookup                                LOOKUP   = MethodHandles.publicLookup();
+
+    /** 将 read method 统一转换成 (Object)Object 签名. */
+    private static final MethodType                                          GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    //---------------------------------------------------------------
+
+    /** class 对应的 propertyName 和 getter map. */
+    private static final ClassValue<ConcurrentMap<String, PropertyGetter>> CACHE    = new ClassValue<ConcurrentMap<String, PropertyGetter>>(){
+
+                                                                                         @Override
+                                                                                         protected ConcurrentMap<String, PropertyGetter> computeValue(
+                                                                                                         Class<?> type){
+                                                                                             return newConcurrentHashMap();
+                                                                                         }
+                                                                                     };
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private PropertyGetterCache(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>klass</code> 的 <code>propertyName</code> 对应的 getter,如果缓存中没有,解析并放入缓存.
+     *
+     * @param klass
+     *            bean 的实际类型
+     * @param propertyName
+     *            属性名称 (can be nested/indexed/mapped/combo)
+     * @return the property getter
+     */
+    static PropertyGetter get(Class<?> klass,String propertyName){
+        if (isDynamic(klass)){
+            return new CommonsPropertyGetter(propertyName);
+        }
+
+        ConcurrentMap<String, PropertyGetter> propertyNameAndGetterMap = CACHE.get(klass);
+
+        PropertyGetter propertyGetter = propertyNameAndGetterMap.get(propertyName);
+        if (null == propertyGetter){
+            if (hasIndexedOrMapped(propertyName)){
+                return new CommonsPropertyGetter(propertyName);
+            }
+            propertyGetter = build(klass, propertyName);
+
+            PropertyGetter existGetter = propertyNameAndGetterMap.putIfAbsent(propertyName, propertyGetter);
+            if (null != existGetter){
+                propertyGetter = existGetter;
+            }
+        }
+        return propertyGetter;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 <code>propertyName</code>.
+     *
+     * @param klass
+     *            the klass
+     * @param propertyName
+     *            the property name
+     * @return the property getter
+     */
+    private static PropertyGetter build(Class<?> klass,String propertyName){
+        //spring 可以解析的(简单属性),使用 spring 的 PropertyDescriptor, see https://github.com/venusdrogon/feilong-core/issues/760
+        PropertyGetter springPropertyGetter = buildReadMethodGetter(klass, PropertyDescriptorUtil.getSpringPropertyDescriptor(klass, propertyName));
+        if (null != springPropertyGetter){
+            return springPropertyGetter;
+        }
+
+        //---------------------------------------------------------------
+        if (!RESOLVER.hasNested(propertyName)){
+            return buildSegmentGetter(klass, propertyName);
+        }
+
+        List<String> segments = new ArrayList<>();
+        String name = propertyName;
+        while (RESOLVER.hasNested(name)){
+            segments.add(RESOLVER.next(name));
+            name = RESOLVER.remove(name);
+        }
+        segments.add(name);
+        return new NestedPropertyGetter(segments.toArray(new String[segments.size()]));
+    }
+
+    /**
+     * 解析不含嵌套的单个片段.
+     *
+     * @param klass
+     *            the klass
+     * @param segment
+     *            不含嵌套的属性片段,比如 name,loves[1],attrMap(key)
+     * @return the property getter
+     */
+    private static PropertyGetter buildSegmentGetter(Class<?> klass,String segment){
+        if (!isDynamic(klass) && !isIndexedOrMapped(segment)){
+            PropertyGetter propertyGetter = buildReadMethodGetter(klass, findPropertyDescriptor(klass, segment));
+            if (null != propertyGetter){
+                return propertyGetter;
+            }
+        }
+        //其余情况,包括属性不存在/没有 getter,交给 commons-beanutils,由它抛出对应的异常
+        return new CommonsPropertyGetter(segment);
+    }
+
+    /**
+     * <code>klass</code> 是否是 Map/DynaBean,属性是动态的 key,不是固定的 getter.
+     *
+     * @param klass
+     *            the klass
+     * @return 如果是,返回true
+     */
+    private static boolean isDynamic(Class<?> klass){
+        return Map.class.isAssignableFrom(klass) || DynaBean.class.isAssignableFrom(klass);
+    }
+
+    /**
+     * 片段是否是 indexed(a[0]) 或者 mapped(a(key)).
+     *
+     * @param segment
+     *            不含嵌套的属性片段
+     * @return 如果是,返回true
+     */
+    private static boolean isIndexedOrMapped(String segment){
+        return RESOLVER.isIndexed(segment) || RESOLVER.isMapped(segment);
+    }
+
+    /**
+     * <code>propertyName</code> 是否有 indexed 或者 mapped 的片段.
+     *
+     * @param propertyName
+     *            属性名称 (can be nested/indexed/mapped/combo)
+     * @return 如果有,返回true
+     */
+    private static boolean hasIndexedOrMapped(String propertyName){
+        String name = propertyName;
+        while (RESOLVER.hasNested(name)){
+            if (isIndexedOrMapped(RESOLVER.next(name))){
+                return true;
+            }
+            name = RESOLVER.remove(name);
+        }
+        return isIndexedOrMapped(name);
+    }
+
+    /**
+     * 查找 <code>klass</code> 名字是 <code>name</code> 的 PropertyDescriptor.
+     *
+     * @param klass
+     *            the klass
+     * @param name
+     *            the name
+     * @return 如果没有,返回null
+     */
+    static PropertyDescriptor findPropertyDescriptor(Class<?> klass,String name){
+        for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(klass)){
+            if (name.equals(propertyDescriptor.getName())){
+                return propertyDescriptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 基于 <code>propertyDescriptor</code> 的 read method 构造 getter.
+     *
+     * @param klass
+     *            the klass
+     * @param propertyDescriptor
+     *            the property descriptor
+     * @return 如果 <code>propertyDescriptor</code> 是null,或者没有可访问的 read method,返回null
+     */
+    static PropertyGetter buildReadMethodGetter(Class<?> klass,PropertyDescriptor propertyDescriptor){
+        if (null == propertyDescriptor || null == propertyDescriptor.getReadMethod()){
+            return null;
+        }
+
+        //see https://github.com/venusdrogon/feilong-core/issues/760
+        Method readMethod = MethodUtils.getAccessibleMethod(klass, propertyDescriptor.getReadMethod());
+        if (null == readMethod){
+            return null;
+        }
+
+        try{
+            return new MethodHandlePropertyGetter(LOOKUP.unreflect(readMethod).asType(GETTER_TYPE));
+        }catch (IllegalAccessException e){
+            return new MethodPropertyGetter(readMethod);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 基于 {@link MethodHandle} 的 getter.
+     */
+    private static final class MethodHandlePropertyGetter implements PropertyGetter{
+
+        /** (Object)Object 签名的 method handle. */
+        private final MethodHandle methodHandle;
+
+        /**
+         * Instantiates a new method handle property getter.
+         *
+         * @param methodHandle
+         *            the method handle
+         */
+        private MethodHandlePropertyGetter(MethodHandle methodHandle){
+            this.methodHandle = methodHandle;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PropertyGetter#getValue(java.lang.Object)
+         */
+        @Override
+        public Object getValue(Object bean) throws Exception{
+            try{
+                return (Object) methodHandle.invokeExact(bean);
+            }catch (Exception | Error e){
+                throw e;
+            }catch (Throwable e){
+                throw new BeanOperationException(e);
+            }
+        }
+    }
+
+    /**
+     * 基于 {@link Method} 反射的 getter,{@link MethodHandle} 不可用时使用.
+     */
+    private static final class MethodPropertyGetter implements PropertyGetter{
+
+        /** The read method. */
+        private final Method readMethod;
+
+        /**
+         * Instantiates a new method property getter.
+         *
+         * @param readMethod
+         *            the read method
+         */
+        private MethodPropertyGetter(Method readMethod){
+            this.readMethod = readMethod;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PropertyGetter#getValue(java.lang.Object)
+         */
+        @Override
+        public Object getValue(Object bean) throws Exception{
+            return readMethod.invoke(bean);
+        }
+    }
+
+    /**
+     * 交给 {@link PropertyUtils#getProperty(Object, String)} 处理的 getter.
+     */
+    private static final class CommonsPropertyGetter implements PropertyGetter{
+
+        /** The property name. */
+        private final String propertyName;
+
+        /**
+         * Instantiates a new commons property getter.
+         *
+         * @param propertyName
+         *            the property name
+         */
+        private CommonsPropertyGetter(String propertyName){
+            this.propertyName = propertyName;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PropertyGetter#getValue(java.lang.Object)
+         */
+        @Override
+        public Object getValue(Object bean) throws Exception{
+            return PropertyUtils.getProperty(bean, propertyName);
+        }
+    }
+
+    /**
+     * 嵌套属性的 getter,每一段使用当前值的实际类型查找 {@link PropertyGetterCache}.
+     */
+    private static final class NestedPropertyGetter implements PropertyGetter{
+
+        /** 拆分之后的每一段. */
+        private final String[] segments;
+
+        /**
+         * Instantiates a new nested property getter.
+         *
+         * @param segments
+         *            the segments
+         */
+        private NestedPropertyGetter(String[] segments){
+            this.segments = segments;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see com.feilong.core.bean.PropertyGetter#getValue(java.lang.Object)
+         */
+        @Override
+        public Object getValue(Object bean) throws Exception{
+            Object current = bean;
+            for (int i = 0; i < segments.length; ++i){
+                if (null == current){
+                    //和 PropertyUtilsBean#getNestedProperty 保持一致
+                    throw new NestedNullException(
+                                    "Null property value for '" + segments[i - 1] + "' on bean class '" + bean.getClass() + "'");
+                }
+                current = getSegmentGetter(current.getClass(), segments[i]).getValue(current);
+            }
+            return current;
+        }
+
+        /**
+         * 获得单个片段的 getter.
+         *
+         * @param klass
+         *            the klass
+         * @param segment
+         *            the segment
+         * @return the segment getter
+         */
+        private static PropertyGetter getSegmentGetter(Class<?> klass,String segment){
+            //Map/DynaBean 的 key 不缓存,避免缓存无限增长
+            if (isDynamic(klass)){
+                return new CommonsPropertyGetter(segment);
+            }
+
+            ConcurrentMap<String, PropertyGetter> propertyNameAndGetterMap = CACHE.get(klass);
+
+            PropertyGetter propertyGetter = propertyNameAndGetterMap.get(segment);
+            if (null == propertyGetter){
+                propertyGetter = buildSegmentGetter(klass, segment);
+                propertyNameAndGetterMap.putIfAbsent(segment, propertyGetter);
+            }
+            return propertyGetter;
+        }
+    }
+}
@@ -15,18 +15,11 @@
  */
 package com.feilong.core.bean;
 
-import static com.feilong.core.bean.PropertyDescriptorUtil.getSpringPropertyDescriptor;
-import static com.feilong.core.bean.PropertyDescriptorUtil.isUseSpringOperate;
-
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.util.Collection;
 
-import org.apache.commons.beanutils.PropertyUtils;
-import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.lang3.Validate;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.feilong.core.DefaultRuntimeException;
 import com.feilong.tools.slf4j.Slf4jUtil;
@@ -39,9 +32,6 @@ import com.feilong.tools.slf4j.Slf4jUtil;
  */
 public final class PropertyValueObtainer{
 
-    /** The Constant log. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(PropertyValueObtainer.class);
-
     /** Don't let anyone instantiate this class. */
     private PropertyValueObtainer(){
         //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
@@ -53,6 +43,10 @@ public final class PropertyValueObtainer{
 
     /**
      * Gets the property focus.
+     * 
+     * <p>
+     * 属性表达式的解析以及 read method 的查找会按照 (bean.getClass(), propertyName) 缓存,see {@link PropertyGetterCache}.
+     * </p>
      *
      * @param <T>
      *            the generic type
@@ -63,54 +57,27 @@ public final class PropertyValueObtainer{
      * @return the property focus
      */
     static <T> T obtain(Object bean,String propertyName){
-        if (PropertyDescriptorUtil.isUseSpringOperate(bean.getClass(), propertyName)){
-            return getDataUseSpring(bean, propertyName);
-        }
-        return getDataUseApache(bean, propertyName);
+        return obtain(bean, propertyName, PropertyGetterCache.get(bean.getClass(), propertyName));
     }
 
-    //---------------------------------------------------------------
-
     /**
-     * Gets the data use apache.
+     * 使用指定的 <code>propertyGetter</code> 获得属性值.
      *
      * @param <T>
      *            the generic type
      * @param bean
      *            the bean
      * @param propertyName
-     *            the property name
-     * @return the data use apache
+     *            the property name,用于异常信息
+     * @param propertyGetter
+     *            the property getter
+     * @return the t
+     * @since 1.13.1
      */
     @SuppressWarnings("unchecked")
-    private static <T> T getDataUseApache(Object bean,String propertyName){
-        //---------------------------------------------------------------
-        try{
-            return (T) PropertyUtils.getProperty(bean, propertyName);
-        }catch (Exception e){
-            String pattern = "getProperty exception,bean:[{}],propertyName:[{}]";
-            throw new BeanOperationException(Slf4jUtil.format(pattern, bean, propertyName), e);
-        }
-    }
-
-    //---------------------------------------------------------------
-
-    /**
-     * Gets the data use spring.
-     *
-     * @param <T>
-     *            the generic type
-     * @param bean
-     *            the bean
-     * @param propertyName
-     *            the property name
-     * @return the data use spring
-     */
-    private static <T> T getDataUseSpring(Object bean,String propertyName){
-        LOGGER.trace("will use spring beanutils to excute:[{}],propertyName:[{}]", bean, propertyName);
+    private static <T> T obtain(Object bean,String propertyName,PropertyGetter propertyGetter){
         try{
-            PropertyDescriptor propertyDescriptor = PropertyDescriptorUtil.getSpringPropertyDescriptor(bean.getClass(), propertyName);
-            return getValue(bean, propertyDescriptor);
+            return (T) propertyGetter.getValue(bean);
         }catch (Exception e){
             String pattern = "getProperty exception,bean:[{}],propertyName:[{}]";
             throw new BeanOperationException(Slf4jUtil.format(pattern, bean, propertyName), e);
@@ -158,20 +125,18 @@ public final class PropertyValueObtainer{
         Validate.notBlank(propertyName, "propertyName can't be null/empty!");
 
         //---------------------------------------------------------------
-        O o = IterableUtils.get(beanIterable, 0);
-        Class<?> klass = o.getClass();
-        //spring 操作
-        if (isUseSpringOperate(klass, propertyName)){
-            PropertyDescriptor propertyDescriptor = getSpringPropertyDescriptor(klass, propertyName);
-            for (O bean : beanIterable){
-                returnCollection.add(PropertyValueObtainer.<T, O> getValue(bean, propertyDescriptor));
-            }
-            return returnCollection;
-        }
-
-        //---------------------------------------------------------------
+        //相邻元素类型相同的时候(绝大部分场景),复用同一个 getter,不需要每次查找缓存
+        Class<?> lastClass = null;
+        PropertyGetter propertyGetter = null;
         for (O bean : beanIterable){
-            returnCollection.add(PropertyUtil.<T> getProperty(bean, propertyName));
+            Validate.notNull(bean, "bean can't be null!");
+
+            Class<?> klass = bean.getClass();
+            if (klass != lastClass){
+                propertyGetter = PropertyGetterCache.get(klass, propertyName);
+                lastClass = klass;
+            }
+            returnCollection.add(PropertyValueObtainer.<T> obtain(bean, propertyName, propertyGetter));
         }
         return returnCollection;
     }
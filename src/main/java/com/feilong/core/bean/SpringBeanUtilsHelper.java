@@ -15,6 +15,8 @@
  */
 package com.feilong.core.bean;
 
+import java.lang.reflect.Method;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,15 +44,20 @@ class SpringBeanUtilsHelper{
 
     //---------------------------------------------------------------
 
-    /** The spring bean utils class. */
-    private static Class<?> springBeanUtilsClass = null;
+    /**
+     * spring <code>BeanUtils.getPropertyDescriptor(Class, String)</code> 方法,只在类加载时查找一次.
+     * 
+     * @since 1.13.1
+     */
+    private static Method getPropertyDescriptorMethod = null;
 
     //---------------------------------------------------------------
 
     static{
         String className = "org.springframework.beans.BeanUtils";
         try{
-            springBeanUtilsClass = ClassUtil.getClass(className);
+            Class<?> klass = ClassUtil.getClass(className);
+            getPropertyDescriptorMethod = klass.getMethod("getPropertyDescriptor", Class.class, String.class);
             LOGGER.info("find and load:[{}]", className);
         }catch (Exception e){
             //just want to use e.toString
@@ -61,20 +68,12 @@ class SpringBeanUtilsHelper{
     //---------------------------------------------------------------
 
     /**
-     * 判断环境中是否有Spring BeanUtils.
-     *
-     * @return 如果 SPRING_BEAN_UTILS_CLASS 不是null ,表示有, 返回true; 否则返回false
-     */
-    static boolean hasSpringBeanUtilsClass(){
-        return springBeanUtilsClass != null;
-    }
-
-    /**
-     * 返回 Spring BeanUtils.
+     * 返回 spring <code>BeanUtils.getPropertyDescriptor(Class, String)</code> 方法.
      *
-     * @return the spring bean utils class
+     * @return 如果环境中没有 Spring BeanUtils,返回null
+     * @since 1.13.1
      */
-    static Class<?> getSpringBeanUtilsClass(){
-        return springBeanUtilsClass;
+    static Method getSpringGetPropertyDescriptorMethod(){
+        return getPropertyDescriptorMethod;
     }
 }
@@ -357,9 +357,17 @@ final class CalendarUtil{
      *            ...
      * @return 如果 <code>calendar</code> 是null,抛出 {@link NullPointerException}<br>
      * @see #getFieldValue(Calendar, int)
+     * @see EpochCalendar#getFieldValue(long, int)
      * @since 1.3.0
+     * @since 1.13.1 常用字段不再创建 {@link Calendar},直接使用 {@link EpochCalendar} 计算
      */
     static int getFieldValue(Date date,int field){
+        Validate.notNull(date, "date can't be null!");
+
+        int value = EpochCalendar.getFieldValue(date.getTime(), field);
+        if (EpochCalendar.NOT_SUPPORTED_FIELD != value){
+            return value;
+        }
         Calendar calendar = DateUtil.toCalendar(date);
         return getFieldValue(calendar, field);
     }
@@ -0,0 +1,454 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import com.feilong.core.DatePattern;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 编译好的<b>多模式</b>时间字符串解析器,不可变,线程安全.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>语义和 {@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 一致:使用默认时区和默认 Locale,日历<b>宽松模式</b>,
+ * 按照 <code>datePatterns</code> 的顺序尝试,第一个能解析<b>整个</b>字符串的模式的结果作为返回值</li>
+ * <li>{@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 每次调用都会为每个模式重新构造一个解析器;而本类在
+ * {@link #getInstance(String...)} 的时候,每个模式只编译一次,并且按照 <b>(默认时区,默认Locale,模式)</b> 缓存</li>
+ * <li>解析之前,先比较字符串和模式的"形状"(去掉空白,连续的数字看成一个数字段之后,剩下的分隔符序列),形状不一致的模式直接跳过,不需要真正去解析</li>
+ * <li>模式中含有文本字段(比如 <code>MMM</code>,<code>EEE</code>,<code>a</code>,<code>Z</code>)时,无法确定形状,这个模式总是会去尝试解析</li>
+ * <li>{@link com.feilong.core.DatePattern#COMMON_DATE_AND_TIME},{@link com.feilong.core.DatePattern#TIMESTAMP} 等定长纯数字常量,优先直接计算,不需要
+ * {@link Calendar}</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * private static final CompiledDateParser PARSER = CompiledDateParser.getInstance(COMMON_DATE_AND_TIME, COMMON_DATE);
+ * 
+ * PARSER.parse("2016-06-28 01:21:12")     = 2016-06-28 01:21:12
+ * PARSER.parse("2016-06-28")              = 2016-06-28 00:00:00
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DateUtil#toDate(String, String...)
+ * @see org.apache.commons.lang3.time.FastDateFormat
+ * @since 1.13.1
+ */
+public final class CompiledDateParser{
+
+    /** 缓存,key 是 (时区,Locale,模式...). */
+    private static final ConcurrentMap<List<Object>, CompiledDateParser> CACHE = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** The date patterns. */
+    private final List<String>                                           datePatterns;
+
+    /** The time zone. */
+    private final TimeZone                                               timeZone;
+
+    /** The locale. */
+    private final Locale                                                 locale;
+
+    /** 每个模式编译之后的结果,和 {@link #datePatterns} 顺序一致. */
+    private final CompiledPattern[]                                      compiledPatterns;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new compiled date parser.
+     *
+     * @param timeZone
+     *            the time zone
+     * @param locale
+     *            the locale
+     * @param datePatterns
+     *            the date patterns
+     */
+    private CompiledDateParser(TimeZone timeZone, Locale locale, String...datePatterns){
+        this.timeZone = timeZone;
+        this.locale = locale;
+        this.datePatterns = Collections.unmodifiableList(Arrays.asList(datePatterns.clone()));
+
+        this.compiledPatterns = new CompiledPattern[datePatterns.length];
+        for (int i = 0; i < datePatterns.length; ++i){
+            compiledPatterns[i] = new CompiledPattern(datePatterns[i], timeZone, locale);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得使用默认时区和默认 Locale 的 <code>datePatterns</code> 解析器(有缓存).
+     * 
+     * <p>
+     * 相同的 (默认时区,默认Locale,模式) 返回同一个实例,建议 <code>datePatterns</code> 使用 {@link DatePattern} 等常量.
+     * </p>
+     *
+     * @param datePatterns
+     *            模式,时间字符串的模式{@link DatePattern}
+     * @return 如果 <code>datePatterns</code> 是 null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePatterns</code> 是 empty,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>datePatterns</code> 有元素是 null,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static CompiledDateParser getInstance(String...datePatterns){
+        Validate.notEmpty(datePatterns, "datePatterns can't be null!");
+        Validate.noNullElements(datePatterns, "datePatterns can't has null datePattern");
+
+        //---------------------------------------------------------------
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+
+        List<Object> key = new ArrayList<>(datePatterns.length + 2);
+        key.add(timeZone);
+        key.add(locale);
+        Collections.addAll(key, datePatterns);
+
+        CompiledDateParser compiledDateParser = CACHE.get(key);
+        if (null != compiledDateParser){
+            return compiledDateParser;
+        }
+
+        compiledDateParser = new CompiledDateParser(timeZone, locale, datePatterns);
+        CompiledDateParser existed = CACHE.putIfAbsent(key, compiledDateParser);
+        return null == existed ? compiledDateParser : existed;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将时间字符串 <code>dateString</code> 按照模式的顺序解析成date类型.
+     *
+     * @param dateString
+     *            时间字符串
+     * @return 如果 <code>dateString</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>dateString</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果没有任何的模式能解析整个字符串,抛出 {@link IllegalArgumentException}<br>
+     */
+    public Date parse(String dateString){
+        Validate.notBlank(dateString, "dateString can't be blank!");
+
+        //---------------------------------------------------------------
+        String shape = null;
+        Calendar calendar = null;
+        ParsePosition parsePosition = null;
+        for (CompiledPattern compiledPattern : compiledPatterns){
+            if (null != compiledPattern.shape){
+                if (null == shape){
+                    shape = toInputShape(dateString);
+                }
+                if (!compiledPattern.shape.equals(shape)){
+                    continue;
+                }
+            }
+
+            //---------------------------------------------------------------
+            Date fixedDate = compiledPattern.parseFixed(dateString);
+            if (null != fixedDate){
+                return fixedDate;
+            }
+            if (null == calendar){
+                calendar = Calendar.getInstance(timeZone, locale);
+                calendar.setLenient(true);
+                parsePosition = new ParsePosition(0);
+            }
+            Date date = compiledPattern.parse(dateString, parsePosition, calendar);
+            if (null != date){
+                return date;
+            }
+        }
+
+        //---------------------------------------------------------------
+        String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
+        throw new IllegalArgumentException(Slf4jUtil.format(pattern, dateString, datePatterns, "Unable to parse the date: " + dateString));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得模式.
+     *
+     * @return 不可修改的模式list
+     */
+    public List<String> getDatePatterns(){
+        return datePatterns;
+    }
+
+    /**
+     * 获得时区.
+     *
+     * @return the time zone
+     */
+    public TimeZone getTimeZone(){
+        return (TimeZone) timeZone.clone();
+    }
+
+    /**
+     * 获得 locale.
+     *
+     * @return the locale
+     */
+    public Locale getLocale(){
+        return locale;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 时间字符串的形状:去掉空白,连续的数字替换成 <code>#</code>.
+     *
+     * @param dateString
+     *            the date string
+     * @return the string
+     */
+    private static String toInputShape(String dateString){
+        StringBuilder sb = new StringBuilder(16);
+        boolean lastDigit = false;
+        for (int i = 0, length = dateString.length(); i < length; ++i){
+            char c = dateString.charAt(i);
+            if (Character.isWhitespace(c)){
+                continue;
+            }
+            if (Character.isDigit(c)){
+                if (!lastDigit){
+                    sb.append('#');
+                    lastDigit = true;
+                }
+                continue;
+            }
+            sb.append(c);
+            lastDigit = false;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 模式的形状,和 {@link #toInputShape(String)} 对应:每个数字字段看成 <code>#</code>,相邻的数字字段合并,字面量去掉空白.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return 如果模式中含有文本字段,或者字面量中含有数字,无法确定形状,返回null
+     */
+    private static String toPatternShape(String datePattern){
+        StringBuilder sb = new StringBuilder(16);
+        boolean lastDigit = false;
+
+        int length = datePattern.length();
+        for (int i = 0; i < length; ++i){
+            char c = datePattern.charAt(i);
+
+            //字段
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')){
+                int count = 1;
+                while (i + 1 < length && datePattern.charAt(i + 1) == c){
+                    ++count;
+                    ++i;
+                }
+                if (!isNumberField(c, count)){
+                    return null;
+                }
+                if (!lastDigit){
+                    sb.append('#');
+                    lastDigit = true;
+                }
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            //字面量
+            if (c == '\''){
+                //'' 表示单引号
+                if (i + 1 < length && datePattern.charAt(i + 1) == '\''){
+                    sb.append('\'');
+                    lastDigit = false;
+                    ++i;
+                    continue;
+                }
+                for (++i; i < length; ++i){
+                    char quoted = datePattern.charAt(i);
+                    if (quoted == '\''){
+                        if (i + 1 < length && datePattern.charAt(i + 1) == '\''){
+                            ++i;
+                        }else{
+                            break;
+                        }
+                    }
+                    if (!appendLiteral(sb, quoted)){
+                        return null;
+                    }
+                    lastDigit &= Character.isWhitespace(quoted);
+                }
+                continue;
+            }
+
+            if (!appendLiteral(sb, c)){
+                return null;
+            }
+            lastDigit &= Character.isWhitespace(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 追加字面量字符.
+     *
+     * @param sb
+     *            the sb
+     * @param c
+     *            the c
+     * @return 如果是数字,返回false
+     */
+    private static boolean appendLiteral(StringBuilder sb,char c){
+        if (Character.isDigit(c)){
+            return false;
+        }
+        if (!Character.isWhitespace(c)){
+            sb.append(c);
+        }
+        return true;
+    }
+
+    /**
+     * 是否是只由数字组成的字段.
+     *
+     * @param c
+     *            模式字母
+     * @param count
+     *            连续的个数
+     * @return 如果是,返回true
+     */
+    private static boolean isNumberField(char c,int count){
+        switch (c){
+            case 'y':
+            case 'd':
+            case 'H':
+            case 'h':
+            case 'K':
+            case 'k':
+            case 'm':
+            case 's':
+            case 'S':
+            case 'D':
+            case 'F':
+            case 'w':
+            case 'W':
+            case 'u':
+                return true;
+            case 'M':
+                return count <= 2;
+            default:
+                return false;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 编译好的单个模式.
+     */
+    private static final class CompiledPattern{
+
+        /** 模式的形状,如果无法确定是null. */
+        private final String          shape;
+
+        /** The fast date format. */
+        private final FastDateFormat  fastDateFormat;
+
+        /** 定长纯数字常量的专用解析器,其他模式是null. */
+        private final FixedDateFormat fixedDateFormat;
+
+        /** The time zone. */
+        private final TimeZone        timeZone;
+
+        /**
+         * Instantiates a new compiled pattern.
+         *
+         * @param datePattern
+         *            the date pattern
+         * @param timeZone
+         *            the time zone
+         * @param locale
+         *            the locale
+         */
+        private CompiledPattern(String datePattern, TimeZone timeZone, Locale locale){
+            this.shape = toPatternShape(datePattern);
+            this.fastDateFormat = FastDateFormat.getInstance(datePattern, timeZone, locale);
+            this.fixedDateFormat = EpochCalendar.isGregorian(locale) ? FixedDateFormat.getInstance(datePattern) : null;
+            this.timeZone = timeZone;
+        }
+
+        /**
+         * 使用定长纯数字常量的专用解析器解析,不需要 {@link Calendar}.
+         *
+         * @param dateString
+         *            the date string
+         * @return 如果不能处理,返回null
+         */
+        private Date parseFixed(String dateString){
+            if (null == fixedDateFormat){
+                return null;
+            }
+            long millis = fixedDateFormat.parse(dateString, timeZone);
+            return FixedDateFormat.NOT_PARSED == millis ? null : new Date(millis);
+        }
+
+        /**
+         * 解析.
+         *
+         * @param dateString
+         *            the date string
+         * @param parsePosition
+         *            the parse position
+         * @param calendar
+         *            the calendar
+         * @return 如果不能解析整个字符串,返回null
+         */
+        private Date parse(String dateString,ParsePosition parsePosition,Calendar calendar){
+            calendar.clear();
+            parsePosition.setIndex(0);
+            parsePosition.setErrorIndex(-1);
+            try{
+                if (fastDateFormat.parse(dateString, parsePosition, calendar) && parsePosition.getIndex() == dateString.length()){
+                    return calendar.getTime();
+                }
+            }catch (IllegalArgumentException e){
+                //和 DateUtils.parseDate 一致,数值非法时尝试下一个模式
+            }
+            return null;
+        }
+    }
+}
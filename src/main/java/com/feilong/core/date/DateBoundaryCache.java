@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.date.DateUtil.getFirstDateOfThisDay;
+import static com.feilong.core.date.DateUtil.getFirstDateOfThisMonth;
+import static com.feilong.core.date.DateUtil.getFirstDateOfThisYear;
+import static com.feilong.core.date.DateUtil.getLastDateOfThisDay;
+import static com.feilong.core.date.DateUtil.getLastDateOfThisMonth;
+import static com.feilong.core.date.DateUtil.getLastDateOfThisYear;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * 当前日/月/年的开始结束时间缓存,按照时区缓存.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个时区缓存一个不可变的 {@link Boundaries},包含今天,当月,当年的开始时间 <code>00:00:00.000</code> 和结束时间 <code>23:59:59.999</code></li>
+ * <li>当前时间超出了缓存的"今天",或者默认 Locale 变化了,会重新计算(跨天的时候当月/当年也一起重新计算)</li>
+ * <li>大部分调用只是读取不可变的值,不需要创建 {@link java.util.Calendar}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DateExtensionUtil#getTodayStartAndEndPair()
+ * @see DateExtensionUtil#getMonthStartAndEndPair()
+ * @see DateExtensionUtil#getYearStartAndEndPair()
+ * @see DateUtil#isToday(Date)
+ * @since 1.13.1
+ */
+final class DateBoundaryCache{
+
+    /** key 是时区. */
+    private static final ConcurrentMap<TimeZone, Boundaries> CACHE = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private DateBoundaryCache(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得默认时区当前时间的日/月/年边界.
+     *
+     * @return the boundaries
+     */
+    static Boundaries current(){
+        long now = System.currentTimeMillis();
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+
+        Boundaries boundaries = CACHE.get(timeZone);
+        if (null != boundaries && boundaries.isValid(now, locale)){
+            return boundaries;
+        }
+
+        boundaries = new Boundaries(now, locale);
+        CACHE.put(timeZone, boundaries);
+        return boundaries;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 某一天所在日/月/年的开始结束时间,不可变.
+     */
+    static final class Boundaries{
+
+        /** 计算时使用的 locale. */
+        private final Locale locale;
+
+        /** The day start. */
+        private final long   dayStart;
+
+        /** The day end. */
+        private final long   dayEnd;
+
+        /** The month start. */
+        private final long   monthStart;
+
+        /** The month end. */
+        private final long   monthEnd;
+
+        /** The year start. */
+        private final long   yearStart;
+
+        /** The year end. */
+        private final long   yearEnd;
+
+        /**
+         * Instantiates a new boundaries.
+         *
+         * @param millis
+         *            the millis
+         * @param locale
+         *            the locale
+         */
+        private Boundaries(long millis, Locale locale){
+            Date date = new Date(millis);
+            this.locale = locale;
+            this.dayStart = getFirstDateOfThisDay(date).getTime();
+            this.dayEnd = getLastDateOfThisDay(date).getTime();
+            this.monthStart = getFirstDateOfThisMonth(date).getTime();
+            this.monthEnd = getLastDateOfThisMonth(date).getTime();
+            this.yearStart = getFirstDateOfThisYear(date).getTime();
+            this.yearEnd = getLastDateOfThisYear(date).getTime();
+        }
+
+        /**
+         * 缓存是否还可以使用.
+         *
+         * @param now
+         *            the now
+         * @param currentLocale
+         *            the current locale
+         * @return 如果 <code>now</code> 还在今天,并且 locale 没有变化,返回true
+         */
+        private boolean isValid(long now,Locale currentLocale){
+            return isToday(now) && locale.equals(currentLocale);
+        }
+
+        /**
+         * <code>millis</code> 是否在今天.
+         *
+         * @param millis
+         *            the millis
+         * @return 如果在今天的开始结束时间之间,返回true
+         */
+        boolean isToday(long millis){
+            return millis >= dayStart && millis <= dayEnd;
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 今天的开始结束时间,每次返回新的 {@link Date}.
+         *
+         * @return the pair
+         */
+        Pair<Date, Date> toDayPair(){
+            return Pair.of(new Date(dayStart), new Date(dayEnd));
+        }
+
+        /**
+         * 当月的开始结束时间,每次返回新的 {@link Date}.
+         *
+         * @return the pair
+         */
+        Pair<Date, Date> toMonthPair(){
+            return Pair.of(new Date(monthStart), new Date(monthEnd));
+        }
+
+        /**
+         * 当年的开始结束时间,每次返回新的 {@link Date}.
+         *
+         * @return the pair
+         */
+        Pair<Date, Date> toYearPair(){
+            return Pair.of(new Date(yearStart), new Date(yearEnd));
+        }
+    }
+}
@@ -140,10 +140,10 @@ public final class DateExtensionUtil{
      * @see "java.time.LocalDate#atStartOfDay()"
      * @see "java.time.LocalDate#atStartOfDay()"
      * @since 1.10.6
+     * @since 1.13.1 使用按照时区缓存的边界,跨天时才重新计算
      */
     public static Pair<Date, Date> getTodayStartAndEndPair(){
-        Date date = new Date();
-        return getDayStartAndEndPair(date);
+        return DateBoundaryCache.current().toDayPair();
     }
 
     /**
@@ -230,9 +230,10 @@ public final class DateExtensionUtil{
      * @return 左边,当前月的第一天 <code>00:00:00.000</code> <br>
      *         右边,当前月最后一天 <code>23:59:59.999</code> <br>
      * @since 1.10.6
+     * @since 1.13.1 使用按照时区缓存的边界,跨天时才重新计算
      */
     public static Pair<Date, Date> getMonthStartAndEndPair(){
-        return getMonthStartAndEndPair(new Date());
+        return DateBoundaryCache.current().toMonthPair();
     }
 
     /**
@@ -288,9 +289,10 @@ public final class DateExtensionUtil{
      * @return 左边,当前年的第一天 <code>00:00:00.000</code> <br>
      *         右边,当前年最后一天 <code>23:59:59.999</code> <br>
      * @since 1.10.6
+     * @since 1.13.1 使用按照时区缓存的边界,跨天时才重新计算
      */
     public static Pair<Date, Date> getYearStartAndEndPair(){
-        return getYearStartAndEndPair(new Date());
+        return DateBoundaryCache.current().toYearPair();
     }
 
     /**
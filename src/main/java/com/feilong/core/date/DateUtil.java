@@ -33,6 +33,7 @@ import static java.util.Calendar.SUNDAY;
 import static java.util.Calendar.WEEK_OF_YEAR;
 import static java.util.Calendar.YEAR;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
@@ -41,10 +42,11 @@ import java.util.GregorianCalendar;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 import com.feilong.core.DatePattern;
 import com.feilong.core.TimeInterval;
-import com.feilong.tools.slf4j.Slf4jUtil;
+import com.feilong.core.UncheckedIOException;
 
 /**
  * {@link java.util.Date}操作工具类(feilong-core核心类之一).
@@ -70,6 +72,7 @@ import com.feilong.tools.slf4j.Slf4jUtil;
  * <td>
  * <ul>
  * <li>{@link DateUtil#toString(Date, String)}</li>
+ * <li>{@link DateUtil#format(Date, String, Appendable)}</li>
  * </ul>
  * </td>
  * </tr>
@@ -236,6 +239,12 @@ public final class DateUtil{
      * @since 1.5.0
      */
     public static Date getFirstDateOfThisDay(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getFirstMillis(date.getTime(), DAY_OF_MONTH);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetDayBegin(calendar));
     }
@@ -259,6 +268,12 @@ public final class DateUtil{
      * @since 1.5.0
      */
     public static Date getLastDateOfThisDay(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getLastMillis(date.getTime(), DAY_OF_MONTH);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetDayEnd(calendar));
     }
@@ -361,6 +376,12 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getFirstDateOfThisMonth(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getFirstMillis(date.getTime(), MONTH);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         calendar.set(DAY_OF_MONTH, 1);
         return CalendarUtil.toDate(resetDayBegin(calendar));
@@ -395,6 +416,12 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getLastDateOfThisMonth(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getLastMillis(date.getTime(), MONTH);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         calendar.set(DAY_OF_MONTH, calendar.getActualMaximum(DAY_OF_MONTH));
         return CalendarUtil.toDate(resetDayEnd(calendar));
@@ -422,6 +449,12 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getFirstDateOfThisYear(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getFirstMillis(date.getTime(), YEAR);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         calendar.set(MONTH, JANUARY);
         calendar.set(DAY_OF_MONTH, 1);
@@ -450,6 +483,12 @@ public final class DateUtil{
      * @see Calendar#getTime()
      */
     public static Date getLastDateOfThisYear(Date date){
+        Validate.notNull(date, "date can't be null!");
+        long millis = EpochCalendar.getLastMillis(date.getTime(), YEAR);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
         Calendar calendar = toCalendar(date);
         return CalendarUtil.toDate(resetYearEnd(calendar));
     }
@@ -567,6 +606,12 @@ public final class DateUtil{
      * @see org.apache.commons.lang3.time.DateUtils#addDays(Date, int)
      */
     public static Date addDay(Date date,int day){
+        if (null != date){
+            long millis = EpochCalendar.addDays(date.getTime(), day);
+            if (EpochCalendar.NOT_SUPPORTED != millis){
+                return new Date(millis);
+            }
+        }
         // Calendar.DAY_OF_MONTH 它与 Calendar.DATE 是同义词.一个月中第一天的值为 1.
         return DateUtils.addDays(date, day);
     }
@@ -604,6 +649,12 @@ public final class DateUtil{
      * @see org.apache.commons.lang3.time.DateUtils#addWeeks(Date, int)
      */
     public static Date addWeek(Date date,int week){
+        if (null != date){
+            long millis = EpochCalendar.addDays(date.getTime(), week * 7L);
+            if (EpochCalendar.NOT_SUPPORTED != millis){
+                return new Date(millis);
+            }
+        }
         return DateUtils.addWeeks(date, week);
     }
 
@@ -1139,14 +1190,83 @@ public final class DateUtil{
      * @see <a href="http://stackoverflow.com/questions/5683728/convert-java-util-date-to-string">convert-java-util-date-to-string</a>
      * @see <a href="http://stackoverflow.com/questions/4772425/change-date-format-in-a-java-string">change-date-format-in-a-java-string</a>
      * @since 1.6.0
+     * @since 1.13.1 {@link DatePattern#COMMON_DATE_AND_TIME},{@link DatePattern#TIMESTAMP} 等定长纯数字常量直接计算,不经过 FastDateFormat
      */
     public static String toString(Date date,String datePattern){
         Validate.notNull(date, "date can't be null!");
         Validate.notBlank(datePattern, "datePattern can't be blank!");
 
+        //---------------------------------------------------------------
+        FixedDateFormat fixedDateFormat = FixedDateFormat.getInstance(datePattern);
+        if (null != fixedDateFormat){
+            String result = fixedDateFormat.format(date.getTime());
+            if (null != result){
+                return result;
+            }
+        }
         return DateFormatUtils.format(date, datePattern);
     }
 
+    /**
+     * 将指定日期 <code>date</code>按照格式 <code>datePattern</code> 追加到 <code>appendable</code>,不产生中间字符串.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #toString(Date, String)} 一致</li>
+     * <li>{@link DatePattern#COMMON_DATE_AND_TIME},{@link DatePattern#TIMESTAMP},{@link DatePattern#BASIC_ISO_DATE} 等定长纯数字常量,会直接把数字逐个写入
+     * <code>appendable</code>;其他模式使用 {@link org.apache.commons.lang3.time.FastDateFormat#format(Date, Appendable)}</li>
+     * <li>适合日志,导出文件等大量输出时间的场景,可以直接传入 {@link StringBuilder} 或者 {@link java.io.Writer}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * StringBuilder sb = new StringBuilder("time:");
+     * DateUtil.format(toDate("2012-10-16 23:49:21", COMMON_DATE_AND_TIME), TIMESTAMP, sb);
+     * 
+     * sb.toString() = "time:20121016234921"
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <A>
+     *            the generic type
+     * @param date
+     *            任意时间
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @param appendable
+     *            the appendable
+     * @return <code>appendable</code><br>
+     *         如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 是 null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 是 blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果追加的时候有 {@link IOException},转成 {@link UncheckedIOException} 抛出<br>
+     * @see #toString(Date, String)
+     * @see org.apache.commons.lang3.time.FastDateFormat#format(Date, Appendable)
+     * @since 1.13.1
+     */
+    public static <A extends Appendable> A format(Date date,String datePattern,A appendable){
+        Validate.notNull(date, "date can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+        Validate.notNull(appendable, "appendable can't be null!");
+
+        //---------------------------------------------------------------
+        FixedDateFormat fixedDateFormat = FixedDateFormat.getInstance(datePattern);
+        try{
+            if (null != fixedDateFormat && fixedDateFormat.format(date.getTime(), appendable)){
+                return appendable;
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return FastDateFormat.getInstance(datePattern).format(date, appendable);
+    }
+
     /**
      * 将时间字符串 <code>dateString</code> 使用<b>一个或者多个</b>不同的 <code>datePattern</code> 模式按照顺序转换成date类型.
      * 
@@ -1213,11 +1333,13 @@ public final class DateUtil{
      *         如果 <code>datePatterns</code> 是 empty,抛出 {@link IllegalArgumentException}<br>
      *         如果 <code>datePatterns</code> 有元素是 null,抛出 {@link IllegalArgumentException}<br>
      * @see org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)
+     * @see CompiledDateParser
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/">java-string-to-date-conversion</a>
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/22180505#22180505">java-string-to-date-
      *      conversion/22180505#22180505</a>
      * @see <a href="http://stackoverflow.com/questions/2735023/convert-string-to-java-util-date">convert-string-to-java-util-date</a>
      * @since 1.7.3 change param to datePatterns array
+     * @since 1.13.1 use cached {@link CompiledDateParser}
      */
     public static Date toDate(String dateString,String...datePatterns){
         Validate.notBlank(dateString, "dateString can't be blank!");
@@ -1226,13 +1348,7 @@ public final class DateUtil{
         Validate.noNullElements(datePatterns, "datePatterns can't has null datePattern");
 
         //---------------------------------------------------------------
-
-        try{
-            return DateUtils.parseDate(dateString, datePatterns);
-        }catch (ParseException e){
-            String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
-            throw new IllegalArgumentException(Slf4jUtil.format(pattern, dateString, datePatterns, e.getMessage()), e);
-        }
+        return CompiledDateParser.getInstance(datePatterns).parse(dateString);
     }
 
     // [end]
@@ -1404,10 +1520,11 @@ public final class DateUtil{
      *         如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
      * @see DateUtils#isSameDay(Date, Date)
      * @since 1.10.6
+     * @since 1.13.1 使用按照时区缓存的今天开始结束时间比较
      */
     public static boolean isToday(Date date){
         Validate.notNull(date, "date can't be null!");
-        return DateUtils.isSameDay(date, new Date());
+        return DateBoundaryCache.current().isToday(date.getTime());
     }
 
     // [end]
@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.DAY_OF_YEAR;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MILLISECOND;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.YEAR;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 不创建 {@link Calendar},直接使用 epoch 毫秒和时区偏移计算日历字段和日/月/年边界.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>使用默认时区和默认 Locale,结果和 {@link Calendar#getInstance()} 一致</li>
+ * <li>本地时间使用 <code>millis + timeZone.getOffset(millis)</code> 计算,年月日使用公历的 epoch day 算法计算</li>
+ * <li>以下情况不处理(返回 {@link #NOT_SUPPORTED} 或者 {@link #NOT_SUPPORTED_FIELD}),由调用方使用 {@link Calendar} 处理:
+ * <ul>
+ * <li>默认 Locale 对应的日历不是 {@link GregorianCalendar}(比如 th_TH 的佛历)</li>
+ * <li>年份不在 1583-9999 之间(1582 年之前 {@link GregorianCalendar} 使用儒略历)</li>
+ * <li>本地时间转成 utc 时间的时候,附近一天内有夏令时等时区偏移的切换</li>
+ * </ul>
+ * </li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class EpochCalendar{
+
+    /** 不能处理时返回的毫秒数. */
+    static final long                                   NOT_SUPPORTED       = Long.MIN_VALUE;
+
+    /** 不能处理时返回的字段值. */
+    static final int                                    NOT_SUPPORTED_FIELD = Integer.MIN_VALUE;
+
+    /** 一天的毫秒数. */
+    static final long                                   MILLIS_PER_DAY      = 24L * 60 * 60 * 1000;
+
+    //---------------------------------------------------------------
+
+    /** 1583-01-01 相对于 1970-01-01 的天数,在这之前 {@link GregorianCalendar} 使用儒略历. */
+    private static final long                           MIN_EPOCH_DAY       = toEpochDay(1583, 1, 1);
+
+    /** 10000-01-01 相对于 1970-01-01 的天数. */
+    private static final long                           MAX_EPOCH_DAY       = toEpochDay(10000, 1, 1);
+
+    /** Locale 对应的日历是否是 {@link GregorianCalendar}. */
+    private static final ConcurrentMap<Locale, Boolean> GREGORIAN_LOCALES   = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private EpochCalendar(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>millis</code> 在默认时区的日历字段值.
+     *
+     * @param millis
+     *            the millis
+     * @param field
+     *            {@link Calendar#YEAR},{@link Calendar#MONTH}(从0开始),{@link Calendar#DAY_OF_MONTH},{@link Calendar#DAY_OF_YEAR},
+     *            {@link Calendar#DAY_OF_WEEK},{@link Calendar#HOUR_OF_DAY},{@link Calendar#MINUTE},{@link Calendar#SECOND},
+     *            {@link Calendar#MILLISECOND}
+     * @return 如果不能处理,返回 {@link #NOT_SUPPORTED_FIELD}
+     */
+    static int getFieldValue(long millis,int field){
+        long localMillis = toLocalMillis(millis, TimeZone.getDefault());
+        if (NOT_SUPPORTED == localMillis){
+            return NOT_SUPPORTED_FIELD;
+        }
+
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - epochDay * MILLIS_PER_DAY);
+        switch (field){
+            case YEAR:
+                return toYearMonthDay(epochDay) / 10000;
+            case MONTH:
+                return toYearMonthDay(epochDay) / 100 % 100 - 1;
+            case DAY_OF_MONTH:
+                return toYearMonthDay(epochDay) % 100;
+            case DAY_OF_YEAR:
+                return (int) (epochDay - toEpochDay(toYearMonthDay(epochDay) / 10000, 1, 1)) + 1;
+            case DAY_OF_WEEK:
+                //1970-01-01 是星期四
+                return (int) floorMod(epochDay + 4, 7) + Calendar.SUNDAY;
+            case HOUR_OF_DAY:
+                return millisOfDay / 3600000;
+            case MINUTE:
+                return millisOfDay / 60000 % 60;
+            case SECOND:
+                return millisOfDay / 1000 % 60;
+            case MILLISECOND:
+                return millisOfDay % 1000;
+            default:
+                return NOT_SUPPORTED_FIELD;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>millis</code> 所在天/月/年第一天的 <code>00:00:00.000</code>.
+     *
+     * @param millis
+     *            the millis
+     * @param field
+     *            {@link Calendar#DAY_OF_MONTH} 表示当天,{@link Calendar#MONTH} 表示当月第一天,{@link Calendar#YEAR} 表示当年第一天
+     * @return 如果不能处理,返回 {@link #NOT_SUPPORTED}
+     */
+    static long getFirstMillis(long millis,int field){
+        TimeZone timeZone = TimeZone.getDefault();
+        long localMillis = toLocalMillis(millis, timeZone);
+        if (NOT_SUPPORTED == localMillis){
+            return NOT_SUPPORTED;
+        }
+
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int yearMonthDay = toYearMonthDay(epochDay);
+        int year = yearMonthDay / 10000;
+        int month = yearMonthDay / 100 % 100;
+        switch (field){
+            case DAY_OF_MONTH:
+                break;
+            case MONTH:
+                epochDay = toEpochDay(year, month, 1);
+                break;
+            case YEAR:
+                epochDay = toEpochDay(year, 1, 1);
+                break;
+            default:
+                return NOT_SUPPORTED;
+        }
+        return toMillis(epochDay * MILLIS_PER_DAY, timeZone);
+    }
+
+    /**
+     * 获得 <code>millis</code> 所在天/月/年最后一天的 <code>23:59:59.999</code>.
+     *
+     * @param millis
+     *            the millis
+     * @param field
+     *            {@link Calendar#DAY_OF_MONTH} 表示当天,{@link Calendar#MONTH} 表示当月最后一天,{@link Calendar#YEAR} 表示当年最后一天
+     * @return 如果不能处理,返回 {@link #NOT_SUPPORTED}
+     */
+    static long getLastMillis(long millis,int field){
+        TimeZone timeZone = TimeZone.getDefault();
+        long localMillis = toLocalMillis(millis, timeZone);
+        if (NOT_SUPPORTED == localMillis){
+            return NOT_SUPPORTED;
+        }
+
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int yearMonthDay = toYearMonthDay(epochDay);
+        int year = yearMonthDay / 10000;
+        int month = yearMonthDay / 100 % 100;
+        switch (field){
+            case DAY_OF_MONTH:
+                break;
+            case MONTH:
+                //下个月第一天的前一天
+                epochDay = (12 == month ? toEpochDay(year + 1, 1, 1) : toEpochDay(year, month + 1, 1)) - 1;
+                break;
+            case YEAR:
+                epochDay = toEpochDay(year, 12, 31);
+                break;
+            default:
+                return NOT_SUPPORTED;
+        }
+        return toMillis((epochDay + 1) * MILLIS_PER_DAY - 1, timeZone);
+    }
+
+    /**
+     * <code>millis</code> 加减 <code>days</code> 天,本地时间(时分秒毫秒)保持不变,和 {@link Calendar#add(int, int) Calendar.add(DAY_OF_MONTH,days)}
+     * 一致.
+     *
+     * @param millis
+     *            the millis
+     * @param days
+     *            the days
+     * @return 如果不能处理,返回 {@link #NOT_SUPPORTED}
+     */
+    static long addDays(long millis,long days){
+        TimeZone timeZone = TimeZone.getDefault();
+        long localMillis = toLocalMillis(millis, timeZone);
+        if (NOT_SUPPORTED == localMillis){
+            return NOT_SUPPORTED;
+        }
+        return toMillis(localMillis + days * MILLIS_PER_DAY, timeZone);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * utc 毫秒转成 <code>timeZone</code> 的本地毫秒.
+     *
+     * @param millis
+     *            the millis
+     * @param timeZone
+     *            the time zone
+     * @return 如果默认 Locale 的日历不是 {@link GregorianCalendar},或者年份不在 1583-9999 之间,返回 {@link #NOT_SUPPORTED}
+     */
+    static long toLocalMillis(long millis,TimeZone timeZone){
+        if (!isGregorian(Locale.getDefault())){
+            return NOT_SUPPORTED;
+        }
+        long localMillis = millis + timeZone.getOffset(millis);
+        return isInRange(localMillis) ? localMillis : NOT_SUPPORTED;
+    }
+
+    /**
+     * <code>timeZone</code> 的本地毫秒转成 utc 毫秒.
+     * 
+     * <p>
+     * 附近一天内有时区偏移切换的时候(夏令时的空隙/重叠),{@link Calendar} 有自己的处理规则,这里不处理.
+     * </p>
+     *
+     * @param localMillis
+     *            the local millis
+     * @param timeZone
+     *            the time zone
+     * @return 如果不能处理,返回 {@link #NOT_SUPPORTED}
+     */
+    static long toMillis(long localMillis,TimeZone timeZone){
+        if (!isInRange(localMillis)){
+            return NOT_SUPPORTED;
+        }
+        int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        long millis = localMillis - offset;
+        if (timeZone.getOffset(millis) != offset || timeZone.getOffset(millis - MILLIS_PER_DAY) != offset
+                        || timeZone.getOffset(millis + MILLIS_PER_DAY) != offset){
+            return NOT_SUPPORTED;
+        }
+        return millis;
+    }
+
+    /**
+     * <code>locale</code> 对应的日历是否是 {@link GregorianCalendar}.
+     *
+     * @param locale
+     *            the locale
+     * @return 如果是,返回true
+     */
+    static boolean isGregorian(Locale locale){
+        Boolean gregorian = GREGORIAN_LOCALES.get(locale);
+        if (null == gregorian){
+            gregorian = GregorianCalendar.class == Calendar.getInstance(locale).getClass();
+            GREGORIAN_LOCALES.putIfAbsent(locale, gregorian);
+        }
+        return gregorian;
+    }
+
+    /**
+     * 本地毫秒是否在 1583-01-01 和 10000-01-01 之间.
+     *
+     * @param localMillis
+     *            the local millis
+     * @return 如果是,返回true
+     */
+    private static boolean isInRange(long localMillis){
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        return epochDay >= MIN_EPOCH_DAY && epochDay < MAX_EPOCH_DAY;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 公历 <code>year-month-day</code> 相对于 1970-01-01 的天数.
+     *
+     * @param year
+     *            the year
+     * @param month
+     *            1-12
+     * @param day
+     *            1-31
+     * @return the long
+     * @see <a href="http://howardhinnant.github.io/date_algorithms.html#days_from_civil">days_from_civil</a>
+     */
+    static long toEpochDay(long year,int month,int day){
+        long y = month <= 2 ? year - 1 : year;
+        long era = floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 相对于 1970-01-01 的天数 <code>epochDay</code> 转成公历年月日.
+     *
+     * @param epochDay
+     *            the epoch day,需要在 1583-9999 年之间
+     * @return <code>year * 10000 + month * 100 + day</code>,比如 20161231
+     * @see <a href="http://howardhinnant.github.io/date_algorithms.html#civil_from_days">civil_from_days</a>
+     */
+    static int toYearMonthDay(long epochDay){
+        long z = epochDay + 719468;
+        long era = floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return year * 10000 + month * 100 + day;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 向下取整的除法(jdk1.7 没有 Math.floorDiv).
+     *
+     * @param x
+     *            the x
+     * @param y
+     *            the y
+     * @return the long
+     */
+    static long floorDiv(long x,long y){
+        long r = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? r - 1 : r;
+    }
+
+    /**
+     * 向下取整的取模(jdk1.7 没有 Math.floorMod).
+     *
+     * @param x
+     *            the x
+     * @param y
+     *            the y
+     * @return the long
+     */
+    static long floorMod(long x,long y){
+        return x - floorDiv(x, y) * y;
+    }
+}
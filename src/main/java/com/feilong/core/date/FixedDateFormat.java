@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.BASIC_ISO_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.COMMON_TIME;
+import static com.feilong.core.DatePattern.COMMON_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.DOTS_DATE;
+import static com.feilong.core.DatePattern.DOTS_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.DOTS_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.DOTS_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.INDONESIA_DATE;
+import static com.feilong.core.DatePattern.INDONESIA_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.TIMESTAMP;
+import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.YEAR_AND_MONTH;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.feilong.core.DatePattern;
+
+/**
+ * 定长纯数字 {@link DatePattern} 常量(比如 {@link DatePattern#COMMON_DATE_AND_TIME},{@link DatePattern#TIMESTAMP},
+ * {@link DatePattern#BASIC_ISO_DATE})专用的格式化/解析器.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>只支持 <code>yyyy,MM,dd,HH,mm,ss,SSS</code> 字段和非字母数字的分隔符组成的常量,其他模式 {@link #getInstance(String)} 返回null</li>
+ * <li>使用 {@link EpochCalendar} 计算年月日时分秒,把数字逐位写进 <code>char[]</code> 或者 {@link Appendable},不需要 {@link java.util.Calendar},也不创建中间数组</li>
+ * <li>结果和 {@link org.apache.commons.lang3.time.FastDateFormat} 一致;{@link EpochCalendar} 不能处理的时间,以及解析的时候字符串和模式的长度/分隔符不完全一致,
+ * 格式化返回null,解析返回 {@link #NOT_PARSED},由调用方使用通用的方式处理</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class FixedDateFormat{
+
+    /** 解析失败时的返回值. */
+    static final long                                 NOT_PARSED    = Long.MIN_VALUE;
+
+    /** 不能处理时 {@link #toPackedFields(long)} 的返回值. */
+    private static final long                         NOT_PACKED    = Long.MIN_VALUE;
+
+    //---------------------------------------------------------------
+
+    /** 年. */
+    private static final int                          YEAR          = 0;
+
+    /** 月. */
+    private static final int                          MONTH         = 1;
+
+    /** 日. */
+    private static final int                          DAY           = 2;
+
+    /** 时. */
+    private static final int                          HOUR          = 3;
+
+    /** 分. */
+    private static final int                          MINUTE        = 4;
+
+    /** 秒. */
+    private static final int                          SECOND        = 5;
+
+    /** 毫秒. */
+    private static final int                          MILLISECOND   = 6;
+
+    /** 每个字段对应的模式字母. */
+    private static final String                       FIELD_LETTERS = "yMdHmsS";
+
+    /** 每个字段的宽度. */
+    private static final int[]                        FIELD_WIDTHS  = { 4, 2, 2, 2, 2, 2, 3 };
+
+    /** 10 的 n 次方. */
+    private static final int[]                        POWERS_OF_TEN = { 1, 10, 100, 1000 };
+
+    //---------------------------------------------------------------
+
+    /** 支持的模式. */
+    private static final Map<String, FixedDateFormat> INSTANCES;
+
+    static{
+        String[] datePatterns = {
+                                  COMMON_DATE,
+                                  COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                                  COMMON_DATE_AND_TIME,
+                                  COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                  DOTS_DATE,
+                                  DOTS_DATE_AND_TIME_WITHOUT_SECOND,
+                                  DOTS_DATE_AND_TIME,
+                                  DOTS_DATE_AND_TIME_WITH_MILLISECOND,
+                                  COMMON_TIME_WITHOUT_SECOND,
+                                  COMMON_TIME,
+                                  TIMESTAMP,
+                                  TIMESTAMP_WITH_MILLISECOND,
+                                  YEAR_AND_MONTH,
+                                  INDONESIA_DATE,
+                                  INDONESIA_DATE_AND_TIME,
+                                  BASIC_ISO_DATE };
+
+        Map<String, FixedDateFormat> map = new HashMap<>();
+        for (String datePattern : datePatterns){
+            map.put(datePattern, new FixedDateFormat(datePattern));
+        }
+        INSTANCES = Collections.unmodifiableMap(map);
+    }
+
+    //---------------------------------------------------------------
+
+    /** 模板,分隔符已经填好,数字位置是 '0'. */
+    private final char[]                              template;
+
+    /** 每个位置对应的字段,分隔符是 -1. */
+    private final int[]                               fieldAt;
+
+    /** 每个字段的起始位置,不存在是 -1. */
+    private final int[]                               fieldStarts;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new fixed date format.
+     *
+     * @param datePattern
+     *            the date pattern
+     */
+    private FixedDateFormat(String datePattern){
+        int length = datePattern.length();
+        this.template = new char[length];
+        this.fieldAt = new int[length];
+        this.fieldStarts = new int[FIELD_WIDTHS.length];
+        Arrays.fill(fieldStarts, -1);
+
+        for (int i = 0; i < length;){
+            char c = datePattern.charAt(i);
+            int field = FIELD_LETTERS.indexOf(c);
+            if (field < 0){
+                template[i] = c;
+                fieldAt[i] = -1;
+                ++i;
+                continue;
+            }
+            fieldStarts[field] = i;
+            for (int end = i + FIELD_WIDTHS[field]; i < end; ++i){
+                template[i] = '0';
+                fieldAt[i] = field;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>datePattern</code> 对应的专用格式化/解析器.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return 如果 <code>datePattern</code> 不是支持的定长纯数字常量,返回null
+     */
+    static FixedDateFormat getInstance(String datePattern){
+        return INSTANCES.get(datePattern);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认时区和默认 Locale 格式化.
+     *
+     * @param millis
+     *            the millis
+     * @return 如果不能处理,返回null
+     */
+    String format(long millis){
+        long packedFields = toPackedFields(millis);
+        if (NOT_PACKED == packedFields){
+            return null;
+        }
+        char[] chars = new char[template.length];
+        for (int i = 0; i < chars.length; ++i){
+            chars[i] = charAt(i, packedFields);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 使用默认时区和默认 Locale 格式化,追加到 <code>appendable</code>,不创建任何对象.
+     *
+     * @param millis
+     *            the millis
+     * @param appendable
+     *            the appendable
+     * @return 如果不能处理,返回false,此时 <code>appendable</code> 没有被修改
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    boolean format(long millis,Appendable appendable) throws IOException{
+        long packedFields = toPackedFields(millis);
+        if (NOT_PACKED == packedFields){
+            return false;
+        }
+        for (int i = 0; i < template.length; ++i){
+            appendable.append(charAt(i, packedFields));
+        }
+        return true;
+    }
+
+    /**
+     * 第 <code>index</code> 位的字符.
+     *
+     * @param index
+     *            the index
+     * @param packedFields
+     *            {@link #toPackedFields(long)} 的结果
+     * @return 分隔符或者数字
+     */
+    private char charAt(int index,long packedFields){
+        int field = fieldAt[index];
+        if (field < 0){
+            return template[index];
+        }
+        //字段的第几位,从高位开始
+        int divisor = POWERS_OF_TEN[FIELD_WIDTHS[field] - 1 - (index - fieldStarts[field])];
+        return (char) ('0' + getFieldValue(field, packedFields) / divisor % 10);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>timeZone</code> 解析,语义和宽松模式的 {@link org.apache.commons.lang3.time.FastDateFormat} 一致(比如 2016-02-33 会转换成 2016-03-04).
+     *
+     * @param dateString
+     *            the date string
+     * @param timeZone
+     *            the time zone
+     * @return 如果不能处理,返回 {@link #NOT_PARSED}
+     */
+    long parse(String dateString,TimeZone timeZone){
+        if (dateString.length() != template.length){
+            return NOT_PARSED;
+        }
+
+        //默认 1970-01-01 00:00:00.000
+        int[] fields = { 1970, 1, 1, 0, 0, 0, 0 };
+        for (int field = 0; field < FIELD_WIDTHS.length; ++field){
+            int start = fieldStarts[field];
+            if (start >= 0){
+                int value = readDigits(dateString, start, FIELD_WIDTHS[field]);
+                if (value < 0){
+                    return NOT_PARSED;
+                }
+                fields[field] = value;
+            }
+        }
+        for (int i = 0; i < template.length; ++i){
+            if (fieldAt[i] < 0 && dateString.charAt(i) != template[i]){
+                return NOT_PARSED;
+            }
+        }
+
+        //---------------------------------------------------------------
+        //宽松模式,月份可以超过 12
+        int month = fields[MONTH] - 1;
+        long epochDay = EpochCalendar.toEpochDay(fields[YEAR] + month / 12, month % 12 + 1, 1) + fields[DAY] - 1;
+        long localMillis = epochDay * EpochCalendar.MILLIS_PER_DAY //
+                        + fields[HOUR] * 3600000L
+                        + fields[MINUTE] * 60000L
+                        + fields[SECOND] * 1000L
+                        + fields[MILLISECOND];
+
+        //本地时间转成 utc;附近有时区偏移切换的时候(夏令时的空隙/重叠),交给 Calendar 处理
+        long millis = EpochCalendar.toMillis(localMillis, timeZone);
+        return EpochCalendar.NOT_SUPPORTED == millis ? NOT_PARSED : millis;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认时区计算 <code>millis</code> 的年月日以及当天的毫秒数,打包成一个 long,避免创建数组.
+     *
+     * @param millis
+     *            the millis
+     * @return 高 32 位是 yyyyMMdd,低 32 位是当天的毫秒数;如果不能处理,返回 {@link #NOT_PACKED}
+     */
+    private static long toPackedFields(long millis){
+        long localMillis = EpochCalendar.toLocalMillis(millis, TimeZone.getDefault());
+        if (EpochCalendar.NOT_SUPPORTED == localMillis){
+            return NOT_PACKED;
+        }
+        long epochDay = EpochCalendar.floorDiv(localMillis, EpochCalendar.MILLIS_PER_DAY);
+        int yearMonthDay = EpochCalendar.toYearMonthDay(epochDay);
+        int millisOfDay = (int) (localMillis - epochDay * EpochCalendar.MILLIS_PER_DAY);
+        return (long) yearMonthDay << 32 | millisOfDay;
+    }
+
+    /**
+     * 从 {@link #toPackedFields(long)} 的结果中取出字段的值.
+     *
+     * @param field
+     *            the field
+     * @param packedFields
+     *            the packed fields
+     * @return the field value
+     */
+    private static int getFieldValue(int field,long packedFields){
+        int yearMonthDay = (int) (packedFields >>> 32);
+        int millisOfDay = (int) packedFields;
+        switch (field){
+            case YEAR:
+                return yearMonthDay / 10000;
+            case MONTH:
+                return yearMonthDay / 100 % 100;
+            case DAY:
+                return yearMonthDay % 100;
+            case HOUR:
+                return millisOfDay / 3600000;
+            case MINUTE:
+                return millisOfDay / 60000 % 60;
+            case SECOND:
+                return millisOfDay / 1000 % 60;
+            default:
+                return millisOfDay % 1000;
+        }
+    }
+
+    /**
+     * 读取 <code>width</code> 位 ascii 数字.
+     *
+     * @param dateString
+     *            the date string
+     * @param start
+     *            the start
+     * @param width
+     *            the width
+     * @return 如果有非数字,返回 -1
+     */
+    private static int readDigits(String dateString,int start,int width){
+        int value = 0;
+        for (int i = start, end = start + width; i < end; ++i){
+            char c = dateString.charAt(i);
+            if (c < '0' || c > '9'){
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static java.util.Calendar.JANUARY;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 时间桶(小时/天/星期/月),用于把时间按照所在的时间段分组.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>每个时间段使用一个 <code>long</code> 的序号(epoch bucket index)表示,是从 1970-01-01 开始(本地时间)的第几个小时/天/星期/月,可以为负数</li>
+ * <li>序号直接使用 epoch 毫秒和时区偏移计算,不需要创建 {@link Calendar},也不需要把时间格式化成字符串</li>
+ * <li>相邻时间段的序号是连续的,可以直接用来补齐没有数据的时间段</li>
+ * <li>{@link #getStartDate(long)} 返回时间段的开始时间,和 {@link DateUtil#getFirstDateOfThisDay(Date)} 等方法一致</li>
+ * <li>年月日使用公历(proleptic Gregorian)计算,适用于 1583 年之后的时间</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * long index = TimeBucket.DAY.getIndex(toDate("2016-06-28 01:21:12", COMMON_DATE_AND_TIME));
+ * 
+ * TimeBucket.DAY.getStartDate(index)      = 2016-06-28 00:00:00.000
+ * TimeBucket.DAY.getStartDate(index + 1)  = 2016-06-29 00:00:00.000
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see com.feilong.core.util.TimeBucketUtil
+ * @since 1.13.1
+ */
+public enum TimeBucket{
+
+    /** 小时. */
+    HOUR,
+
+    /** 天. */
+    DAY,
+
+    /**
+     * 星期,<span style="color:red">固定以周日为一个星期第一天</span>.
+     * 
+     * <p>
+     * 不受默认 Locale 的 firstDayOfWeek 影响;而 {@link DateUtil#getFirstDateOfThisWeek(Date)} 使用 {@link Calendar},
+     * 在 firstDayOfWeek 是周一的 Locale(比如 fr_FR)下结果不同.
+     * </p>
+     */
+    WEEK,
+
+    /** 月. */
+    MONTH;
+
+    //---------------------------------------------------------------
+
+    /** 一小时的毫秒数. */
+    private static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
+    /** 1970-01-01 是星期四,往前4天是星期日. */
+    private static final int  SUNDAY_OFFSET   = 4;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>date</code> 在默认时区所在时间段的序号.
+     *
+     * @param date
+     *            任意时间
+     * @return 如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public long getIndex(Date date){
+        Validate.notNull(date, "date can't be null!");
+        return getIndex(date.getTime(), TimeZone.getDefault());
+    }
+
+    /**
+     * 获得 <code>millis</code> 在 <code>timeZone</code> 所在时间段的序号.
+     * 
+     * <p>
+     * 大量计算的时候,可以先获得一次时区,避免每次调用 {@link TimeZone#getDefault()}.
+     * </p>
+     *
+     * @param millis
+     *            the millis
+     * @param timeZone
+     *            the time zone
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public long getIndex(long millis,TimeZone timeZone){
+        Validate.notNull(timeZone, "timeZone can't be null!");
+
+        long localMillis = millis + timeZone.getOffset(millis);
+        switch (this){
+            case HOUR:
+                return EpochCalendar.floorDiv(localMillis, MILLIS_PER_HOUR);
+            case DAY:
+                return EpochCalendar.floorDiv(localMillis, EpochCalendar.MILLIS_PER_DAY);
+            case WEEK:
+                return EpochCalendar.floorDiv(EpochCalendar.floorDiv(localMillis, EpochCalendar.MILLIS_PER_DAY) + SUNDAY_OFFSET, 7);
+            default:
+                long epochDay = EpochCalendar.floorDiv(localMillis, EpochCalendar.MILLIS_PER_DAY);
+                return toMonthIndex(epochDay);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得序号 <code>index</code> 的时间段在默认时区的开始时间.
+     *
+     * @param index
+     *            the index
+     * @return the start date
+     */
+    public Date getStartDate(long index){
+        return getStartDate(index, TimeZone.getDefault());
+    }
+
+    /**
+     * 获得序号 <code>index</code> 的时间段在 <code>timeZone</code> 的开始时间.
+     *
+     * @param index
+     *            the index
+     * @param timeZone
+     *            the time zone
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public Date getStartDate(long index,TimeZone timeZone){
+        Validate.notNull(timeZone, "timeZone can't be null!");
+
+        long localMillis = getStartLocalMillis(index);
+        long millis = EpochCalendar.toMillis(localMillis, timeZone);
+        if (EpochCalendar.NOT_SUPPORTED != millis){
+            return new Date(millis);
+        }
+
+        //---------------------------------------------------------------
+        //附近有夏令时切换等情况,交给 Calendar 处理
+        long epochDay = EpochCalendar.floorDiv(localMillis, EpochCalendar.MILLIS_PER_DAY);
+        int hourOfDay = (int) ((localMillis - epochDay * EpochCalendar.MILLIS_PER_DAY) / MILLIS_PER_HOUR);
+
+        Calendar calendar = new GregorianCalendar(timeZone);
+        calendar.clear();
+        //宽松模式,日可以超过当月的天数
+        calendar.set(1970, JANUARY, (int) (epochDay + 1), hourOfDay, 0, 0);
+        return calendar.getTime();
+    }
+
+    /**
+     * 获得序号 <code>index</code> 的时间段在默认时区的结束时间(下一个时间段开始时间的前一毫秒).
+     *
+     * @param index
+     *            the index
+     * @return the end date
+     */
+    public Date getEndDate(long index){
+        return getEndDate(index, TimeZone.getDefault());
+    }
+
+    /**
+     * 获得序号 <code>index</code> 的时间段在 <code>timeZone</code> 的结束时间(下一个时间段开始时间的前一毫秒).
+     *
+     * @param index
+     *            the index
+     * @param timeZone
+     *            the time zone
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public Date getEndDate(long index,TimeZone timeZone){
+        return new Date(getStartDate(index + 1, timeZone).getTime() - 1);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 时间段开始时间的本地毫秒.
+     *
+     * @param index
+     *            the index
+     * @return the start local millis
+     */
+    private long getStartLocalMillis(long index){
+        switch (this){
+            case HOUR:
+                return index * MILLIS_PER_HOUR;
+            case DAY:
+                return index * EpochCalendar.MILLIS_PER_DAY;
+            case WEEK:
+                return (index * 7 - SUNDAY_OFFSET) * EpochCalendar.MILLIS_PER_DAY;
+            default:
+                long year = 1970 + EpochCalendar.floorDiv(index, 12);
+                int month = (int) EpochCalendar.floorMod(index, 12) + 1;
+                return EpochCalendar.toEpochDay(year, month, 1) * EpochCalendar.MILLIS_PER_DAY;
+        }
+    }
+
+    /**
+     * 天数 <code>epochDay</code> 所在月的序号.
+     *
+     * @param epochDay
+     *            the epoch day
+     * @return the long
+     */
+    private static long toMonthIndex(long epochDay){
+        int yearMonthDay = EpochCalendar.toYearMonthDay(epochDay);
+        long year = yearMonthDay / 10000;
+        int month = yearMonthDay / 100 % 100;
+        return (year - 1970) * 12 + month - 1;
+    }
+}
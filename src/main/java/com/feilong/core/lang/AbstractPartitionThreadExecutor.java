@@ -22,11 +22,15 @@ import static org.apache.commons.lang3.ClassUtils.getSimpleName;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.feilong.tools.slf4j.Slf4jUtil;
+
 /**
  * 抽象实现.
  * 
@@ -40,7 +44,20 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractPartitionThreadExecutor implements PartitionThreadExecutor{
 
     /** The Constant log. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractPartitionThreadExecutor.class);
+    private static final Logger              LOGGER = LoggerFactory.getLogger(AbstractPartitionThreadExecutor.class);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 分区执行的监听器,可以为null.
+     * 
+     * <p>
+     * 属于当前 executor 实例,对这个实例的所有调用(包括其他线程的调用)都生效.
+     * </p>
+     * 
+     * @since 1.13.1
+     */
+    private volatile PartitionThreadListener partitionThreadListener;
 
     //---------------------------------------------------------------
     /*
@@ -121,6 +138,71 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
 
     //---------------------------------------------------------------
 
+    /**
+     * 将 <code>runnable</code> 包装成会回调 {@link #getPartitionThreadListener()} 的 {@link Callable}.
+     *
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param runnable
+     *            the runnable,可能是null
+     * @return the callable
+     * @since 1.13.1
+     */
+    protected Callable<Object> decorate(PartitionThreadEntity partitionThreadEntity,Runnable runnable){
+        return decorate(partitionThreadEntity, null == runnable ? null : Executors.callable(runnable));
+    }
+
+    /**
+     * 将 <code>callable</code> 包装成会回调 {@link #getPartitionThreadListener()} 的 {@link Callable}.
+     * 
+     * <p>
+     * 执行期间会将当前线程临时改名为 {@link PartitionThreadEntity#getName()},执行完毕后恢复.
+     * </p>
+     *
+     * @param <V>
+     *            the value type
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param callable
+     *            the callable,可能是null
+     * @return the callable
+     * @since 1.13.1
+     */
+    protected <V> Callable<V> decorate(PartitionThreadEntity partitionThreadEntity,Callable<V> callable){
+        return new PartitionCallable<>(partitionThreadEntity, callable, partitionThreadListener);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 分区执行的监听器.
+     *
+     * @return the partitionThreadListener,可能是null
+     * @since 1.13.1
+     */
+    public PartitionThreadListener getPartitionThreadListener(){
+        return partitionThreadListener;
+    }
+
+    /**
+     * 设置 分区执行的监听器,可以用来统计每个分区的耗时、排队时间、处理数量以及异常,比如 {@link PartitionThreadStatistics}.
+     * 
+     * <p>
+     * 注意: 监听器是 executor 实例级别的全局设置,不是某一次调用的参数;如果设置在 <code>INSTANCE</code> 这类共享实例上,
+     * 所有使用该实例的调用都会回调这个监听器.<br>
+     * 如果只想统计自己的分区,请使用单独 new 出来的 executor 实例.
+     * </p>
+     *
+     * @param partitionThreadListener
+     *            the partitionThreadListener to set,可以为null
+     * @since 1.13.1
+     */
+    public void setPartitionThreadListener(PartitionThreadListener partitionThreadListener){
+        this.partitionThreadListener = partitionThreadListener;
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Gets the name.
      *
@@ -131,6 +213,87 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
      * @return the name
      */
     protected static <T> String getName(PartitionRunnableBuilder<T> partitionRunnableBuilder){
-        return defaultIfNullOrEmpty(getSimpleName(partitionRunnableBuilder.getClass()), partitionRunnableBuilder.getClass().getName());
+        return getPartitionBuilderName(partitionRunnableBuilder);
+    }
+
+    /**
+     * 获得分区 builder({@link PartitionRunnableBuilder} 或者 {@link PartitionCallableBuilder})的名字,runnable 和 callable 共用.
+     *
+     * @param partitionBuilder
+     *            the partition builder
+     * @return 实现类的 simple name,如果是匿名类,返回实现类的 name
+     * @since 1.13.1
+     */
+    protected static String getPartitionBuilderName(Object partitionBuilder){
+        Class<?> klass = partitionBuilder.getClass();
+        return defaultIfNullOrEmpty(getSimpleName(klass), klass.getName());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构建线程名称.
+     * 
+     * <h3>格式:</h3>
+     * 
+     * <blockquote>
+     * "Thread-partitionRunnableBuilder/partitionCallableBuilder 实现类名称-{@link com.feilong.core.lang.PartitionThreadEntity#getBatchNumber() batchNumber}"
+     * </blockquote>
+     * 
+     * <h3>作用:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <ul>
+     * <li>一来便于管理, 可以使用相关代码来获得线程;</li>
+     * <li>二来常用于日志显示, 比如, 如果是 log4j 的配置文件,如果 ConversionPattern
+     * 
+     * <pre>
+     * {@code 
+     * <param name="ConversionPattern" value="%d}{HH:mm:ss} {@code %t %-5p (%F:%L) %m%n" />
+     * }
+     * </pre>
+     * 
+     * 其中 %t 表示 线程名称
+     * 
+     * 正常情况的日志,会显示(示例)
+     * 
+     * <pre>
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-13</span> INFO (NovelpartitionRunnableBuilder.java:91) 第914章 好手段 3406 [6/20] 14 30%
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-5</span> INFO (NovelpartitionRunnableBuilder.java:91) 第761章 不得其时 3573 [7/20] 6 35%
+     * 13:54:43 <span style=
+     * "color:red">Thread-NovelpartitionRunnableBuilder-3</span> INFO (NovelpartitionRunnableBuilder.java:91) 第718章 各打各的算盘 3411 [4/20] 4 20%
+     * </pre>
+     * 
+     * 如果代码有异常, 会显示
+     * 
+     * <pre>
+     * 13:54:52 <span style="color:red">Thread-NovelpartitionRunnableBuilder-16</span> ERROR (DefaultChapterBuilder.java:83) Exception:
+     * com.feilong.tools.jsoup.JsoupUtilException: urlString:[http://www.37zw.com/0/181/1662249.html],userAgent:[Mozilla/5.0 (X11; Linux
+     * x86_64) AppleWebKit/535.21 (KHTML, like Gecko) Chrome/19.0.1042.0 Safari/535.21]
+     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:87)
+     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:65)
+     * at com.feilong.project.novel.build.DefaultChapterBuilder.getContentElement(DefaultChapterBuilder.java:124)
+     * at com.feilong.project.novel.build.DefaultChapterBuilder.build(DefaultChapterBuilder.java:68)
+     * at com.feilong.project.novel.build.NovelpartitionRunnableBuilder$1.run(NovelpartitionRunnableBuilder.java:86)
+     * at java.lang.Thread.run(Thread.java:745)
+     * </pre>
+     * 
+     * </li>
+     * </ul>
+     * 
+     * </blockquote>
+     *
+     * @param batchNumber
+     *            the batch number
+     * @param partitionBuilder
+     *            {@link PartitionRunnableBuilder} 或者 {@link PartitionCallableBuilder}
+     * @return 如果 <code>partitionBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    protected static String buildThreadName(int batchNumber,Object partitionBuilder){
+        Validate.notNull(partitionBuilder, "partitionBuilder can't be null!");
+        return Slf4jUtil.format("Thread-{}-{}", getPartitionBuilderName(partitionBuilder), batchNumber);
     }
 }
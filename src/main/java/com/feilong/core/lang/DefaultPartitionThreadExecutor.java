@@ -17,12 +17,14 @@ package com.feilong.core.lang;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.feilong.core.DefaultRuntimeException;
 import com.feilong.tools.slf4j.Slf4jUtil;
 
 /**
@@ -68,7 +70,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
      * Builds the thread array.
      * 
      * <p>
-     * 调用 {@link ListUtils#partition(List, int)} 对list 分成N份,对应的创建N份线程,每个线程的 名字 参见 {@link #buildThreadName(int, PartitionRunnableBuilder)}
+     * 调用 {@link ListUtils#partition(List, int)} 对list 分成N份,对应的创建N份线程,每个线程的 名字 参见 {@link #buildThreadName(int, Object)}
      * </p>
      * 
      * <p>
@@ -88,7 +90,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
      *            the group runnable builder
      * @return the thread[]
      */
-    private static <T> Thread[] buildThreadArray(
+    private <T> Thread[] buildThreadArray(
                     List<T> list,
                     int eachSize,
                     Map<String, ?> paramsMap,
@@ -114,7 +116,7 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
                             perBatchList.size());
 
             Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
-            threads[i] = new Thread(threadGroup, runnable, threadName);
+            threads[i] = new Thread(threadGroup, toRunnable(partitionThreadEntity, runnable), threadName);
             i++;
         }
 
@@ -124,6 +126,37 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
         return threads;
     }
 
+    /**
+     * 如果没有设置 {@link #getPartitionThreadListener()},直接返回 <code>runnable</code>;否则包装成会回调监听器的 {@link Runnable}.
+     *
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param runnable
+     *            the runnable,可能是null
+     * @return the runnable
+     */
+    private Runnable toRunnable(PartitionThreadEntity partitionThreadEntity,Runnable runnable){
+        if (null == getPartitionThreadListener()){
+            return runnable;
+        }
+
+        final Callable<Object> callable = decorate(partitionThreadEntity, runnable);
+        return new Runnable(){
+
+            @Override
+            public void run(){
+                try{
+                    callable.call();
+                }catch (RuntimeException e){
+                    throw e;
+                }catch (Exception e){
+                    //runnable 不会抛出 checked exception
+                    throw new DefaultRuntimeException(e);
+                }
+            }
+        };
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -147,73 +180,4 @@ public class DefaultPartitionThreadExecutor extends AbstractPartitionThreadExecu
         Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
         return Slf4jUtil.format("ThreadGroup-{}-{}", getName(partitionRunnableBuilder), list.size());
     }
-
-    /**
-     * 构建线程名称.
-     * 
-     * <h3>格式:</h3>
-     * 
-     * <blockquote>
-     * "Thread-partitionRunnableBuilder 实现类名称-{@link com.feilong.core.lang.PartitionThreadEntity#getBatchNumber() batchNumber}"
-     * </blockquote>
-     * 
-     * <h3>作用:</h3>
-     * 
-     * <blockquote>
-     * 
-     * <ul>
-     * <li>一来便于管理, 可以使用相关代码来获得线程;</li>
-     * <li>二来常用于日志显示, 比如, 如果是 log4j 的配置文件,如果 ConversionPattern
-     * 
-     * <pre>
-     * {@code 
-     * <param name="ConversionPattern" value="%d}{HH:mm:ss} {@code %t %-5p (%F:%L) %m%n" />
-     * }
-     * </pre>
-     * 
-     * 其中 %t 表示 线程名称
-     * 
-     * 正常情况的日志,会显示(示例)
-     * 
-     * <pre>
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-13</span> INFO (NovelpartitionRunnableBuilder.java:91) 第914章 好手段 3406 [6/20] 14 30%
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-5</span> INFO (NovelpartitionRunnableBuilder.java:91) 第761章 不得其时 3573 [7/20] 6 35%
-     * 13:54:43 <span style=
-     * "color:red">Thread-NovelpartitionRunnableBuilder-3</span> INFO (NovelpartitionRunnableBuilder.java:91) 第718章 各打各的算盘 3411 [4/20] 4 20%
-     * </pre>
-     * 
-     * 如果代码有异常, 会显示
-     * 
-     * <pre>
-     * 13:54:52 <span style="color:red">Thread-NovelpartitionRunnableBuilder-16</span> ERROR (DefaultChapterBuilder.java:83) Exception:
-     * com.feilong.tools.jsoup.JsoupUtilException: urlString:[http://www.37zw.com/0/181/1662249.html],userAgent:[Mozilla/5.0 (X11; Linux
-     * x86_64) AppleWebKit/535.21 (KHTML, like Gecko) Chrome/19.0.1042.0 Safari/535.21]
-     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:87)
-     * at com.feilong.tools.jsoup.JsoupUtil.getDocument(JsoupUtil.java:65)
-     * at com.feilong.project.novel.build.DefaultChapterBuilder.getContentElement(DefaultChapterBuilder.java:124)
-     * at com.feilong.project.novel.build.DefaultChapterBuilder.build(DefaultChapterBuilder.java:68)
-     * at com.feilong.project.novel.build.NovelpartitionRunnableBuilder$1.run(NovelpartitionRunnableBuilder.java:86)
-     * at java.lang.Thread.run(Thread.java:745)
-     * </pre>
-     * 
-     * </li>
-     * </ul>
-     * 
-     * </blockquote>
-     *
-     * @param <T>
-     *            the generic type
-     * @param batchNumber
-     *            the batch number
-     * @param partitionRunnableBuilder
-     *            the group runnable builder
-     * @return 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
-     */
-    private static <T> String buildThreadName(int batchNumber,PartitionRunnableBuilder<T> partitionRunnableBuilder){
-        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
-        return Slf4jUtil.format("Thread-{}-{}", getName(partitionRunnableBuilder), batchNumber);
-    }
-
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 执行单个分区的 {@link Callable}.
+ * 
+ * <ol>
+ * <li>执行期间将当前线程临时改名为分区的线程名字 {@link PartitionThreadEntity#getName()},执行完毕后恢复</li>
+ * <li>如果有 {@link PartitionThreadListener},回调分区的开始以及结束</li>
+ * </ol>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <V>
+ *            the value type
+ * @since 1.13.1
+ */
+final class PartitionCallable<V> implements Callable<V>{
+
+    /** The Constant LOGGER. */
+    private static final Logger           LOGGER = LoggerFactory.getLogger(PartitionCallable.class);
+
+    //---------------------------------------------------------------
+
+    /** 分区信息. */
+    private final PartitionThreadEntity   partitionThreadEntity;
+
+    /** The callable,可能是null. */
+    private final Callable<V>             callable;
+
+    /** The partition thread listener,可能是null. */
+    private final PartitionThreadListener partitionThreadListener;
+
+    /** 分区提交(创建)的时间. */
+    private final long                    submitNanos;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition callable.
+     *
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param callable
+     *            the callable,可能是null
+     * @param partitionThreadListener
+     *            the partition thread listener,可能是null
+     */
+    PartitionCallable(PartitionThreadEntity partitionThreadEntity, Callable<V> callable, PartitionThreadListener partitionThreadListener){
+        this.partitionThreadEntity = partitionThreadEntity;
+        this.callable = callable;
+        this.partitionThreadListener = partitionThreadListener;
+        this.submitNanos = System.nanoTime();
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public V call() throws Exception{
+        Thread currentThread = Thread.currentThread();
+        String originalName = currentThread.getName();
+        currentThread.setName(partitionThreadEntity.getName());
+
+        long startNanos = System.nanoTime();
+        fireStart(startNanos);
+
+        Throwable throwable = null;
+        try{
+            return null == callable ? null : callable.call();
+        }catch (Exception | Error e){
+            throwable = e;
+            throw e;
+        }finally{
+            fireEnd(startNanos, System.nanoTime(), throwable);
+            currentThread.setName(originalName);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Fire start.
+     *
+     * @param startNanos
+     *            the start nanos
+     */
+    private void fireStart(long startNanos){
+        if (null == partitionThreadListener){
+            return;
+        }
+        try{
+            partitionThreadListener.onStart(partitionThreadEntity, submitNanos, startNanos);
+        }catch (Exception e){
+            LOGGER.error("", e);
+        }
+    }
+
+    /**
+     * Fire end.
+     *
+     * @param startNanos
+     *            the start nanos
+     * @param endNanos
+     *            the end nanos
+     * @param throwable
+     *            the throwable
+     */
+    private void fireEnd(long startNanos,long endNanos,Throwable throwable){
+        if (null == partitionThreadListener){
+            return;
+        }
+        try{
+            partitionThreadListener.onEnd(partitionThreadEntity, submitNanos, startNanos, endNanos, throwable);
+        }catch (Exception e){
+            LOGGER.error("", e);
+        }
+    }
+}
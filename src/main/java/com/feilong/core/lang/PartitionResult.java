@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.util.concurrent.CancellationException;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * 单个分区的执行结果.
+ * 
+ * <p>
+ * 如果分区执行成功,{@link #getResult()} 是 {@link java.util.concurrent.Callable#call()} 的返回值,{@link #getThrowable()} 是null;<br>
+ * 如果分区执行失败,{@link #getThrowable()} 是分区中抛出的异常;<br>
+ * 如果分区由于 fail-fast 被取消或者没来得及执行,{@link #getThrowable()} 是 {@link CancellationException}.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <R>
+ *            分区返回的结果类型
+ * @since 1.13.1
+ */
+public class PartitionResult<R> {
+
+    /** 分区信息. */
+    private final PartitionThreadEntity partitionThreadEntity;
+
+    /** 分区返回的结果. */
+    private final R                     result;
+
+    /** 分区抛出的异常,成功的话是null. */
+    private final Throwable             throwable;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new partition result.
+     *
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param result
+     *            分区返回的结果
+     * @param throwable
+     *            分区抛出的异常,成功的话是null
+     */
+    public PartitionResult(PartitionThreadEntity partitionThreadEntity, R result, Throwable throwable){
+        super();
+        this.partitionThreadEntity = partitionThreadEntity;
+        this.result = result;
+        this.throwable = throwable;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 分区是否执行成功.
+     *
+     * @return 如果 {@link #getThrowable()} 是null,返回true
+     */
+    public boolean isSuccess(){
+        return null == throwable;
+    }
+
+    /**
+     * 分区是否被取消.
+     *
+     * @return 如果 {@link #getThrowable()} 是 {@link CancellationException},返回true
+     */
+    public boolean isCancelled(){
+        return throwable instanceof CancellationException;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 分区信息.
+     *
+     * @return the partitionThreadEntity
+     */
+    public PartitionThreadEntity getPartitionThreadEntity(){
+        return partitionThreadEntity;
+    }
+
+    /**
+     * 获得 分区返回的结果.
+     *
+     * @return the result
+     */
+    public R getResult(){
+        return result;
+    }
+
+    /**
+     * 获得 分区抛出的异常,成功的话是null.
+     *
+     * @return the throwable
+     */
+    public Throwable getThrowable(){
+        return throwable;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+    }
+}
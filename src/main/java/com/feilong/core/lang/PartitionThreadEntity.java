@@ -48,6 +48,13 @@ public class PartitionThreadEntity implements Serializable{
     /** 当前线程执行数量,=perBatchList size. */
     private final int         currentListSize;
 
+    /**
+     * 当前线程执行的第一个元素在总list 中的索引,从0开始.
+     * 
+     * @since 1.13.1
+     */
+    private final int         startIndex;
+
     //---------------------------------------------------
 
     /**
@@ -65,12 +72,39 @@ public class PartitionThreadEntity implements Serializable{
      *            当前线程执行数量,=perBatchList size
      */
     public PartitionThreadEntity(String name, int totalListCount, int eachSize, int batchNumber, int currentListSize){
+        this(name, totalListCount, eachSize, batchNumber, currentListSize, batchNumber * eachSize);
+    }
+
+    /**
+     * Instantiates a new group thread entity.
+     * 
+     * <p>
+     * 如果各批次的大小不一样(比如自适应分区时,第一个批次是用来预热采样的),那么不能使用 {@code batchNumber * eachSize} 推算索引,需要显式的传入
+     * <code>startIndex</code>.
+     * </p>
+     *
+     * @param name
+     *            线程的名字
+     * @param totalListCount
+     *            总数,list 的总size
+     * @param eachSize
+     *            分配大小
+     * @param batchNumber
+     *            批次,当前线程序号,从0开始
+     * @param currentListSize
+     *            当前线程执行数量,=perBatchList size
+     * @param startIndex
+     *            当前线程执行的第一个元素在总list 中的索引,从0开始
+     * @since 1.13.1
+     */
+    public PartitionThreadEntity(String name, int totalListCount, int eachSize, int batchNumber, int currentListSize, int startIndex){
         super();
         this.name = name;
         this.totalListCount = totalListCount;
         this.eachSize = eachSize;
         this.batchNumber = batchNumber;
         this.currentListSize = currentListSize;
+        this.startIndex = startIndex;
     }
 
     //---------------------------------------------------------------
@@ -120,6 +154,20 @@ public class PartitionThreadEntity implements Serializable{
         return eachSize;
     }
 
+    /**
+     * 获得 当前线程执行的第一个元素在总list 中的索引,从0开始.
+     * 
+     * <p>
+     * perBatchList 中第i 个元素在总list 中的索引是 {@code getStartIndex() + i}.
+     * </p>
+     *
+     * @return the startIndex
+     * @since 1.13.1
+     */
+    public int getStartIndex(){
+        return startIndex;
+    }
+
     //---------------------------------------------------------------
 
     /*
@@ -41,6 +41,8 @@ import java.util.Map;
  * <p>
  * 目前已知快速调用有 {@link com.feilong.core.lang.ThreadUtil#execute(List, int, Map, PartitionRunnableBuilder) }, 或者调用
  * {@link com.feilong.core.lang.DefaultPartitionThreadExecutor}, 或者调用
+ * {@link com.feilong.core.lang.ThreadPoolPartitionThreadExecutor}(有界线程池), 或者调用
+ * {@link com.feilong.core.lang.VirtualThreadPartitionThreadExecutor}(I/O 密集型,虚拟线程), 或者调用
  * {@link "com.feilong.spring.scheduling.concurrent.AsyncTaskExecutorPartitionThreadExecutor"}
  * </p>
  * 
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+/**
+ * 分区执行的监听器,可以用来统计每个分区的耗时、排队时间、处理数量以及异常.
+ * 
+ * <h3>说明:</h3>
+ * 
+ * <blockquote>
+ * <ol>
+ * <li>通过 {@link AbstractPartitionThreadExecutor#setPartitionThreadListener(PartitionThreadListener)} 设置</li>
+ * <li>回调方法在执行分区的线程中调用,实现类需要保证线程安全</li>
+ * <li>回调方法中抛出的异常会被记录日志并且忽略,不会影响分区的执行</li>
+ * <li>时间均是 {@link System#nanoTime()} 的值,只能用来计算时间差</li>
+ * <li>分区的名字、批次号、处理数量等信息,可以通过 {@link PartitionThreadEntity} 获得</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see PartitionThreadStatistics
+ * @since 1.13.1
+ */
+public interface PartitionThreadListener{
+
+    /**
+     * 分区开始执行.
+     *
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param submitNanos
+     *            分区提交(创建)的时间
+     * @param startNanos
+     *            分区开始执行的时间, {@code startNanos - submitNanos} 即排队等待的时间
+     */
+    void onStart(PartitionThreadEntity partitionThreadEntity,long submitNanos,long startNanos);
+
+    /**
+     * 分区执行结束(不管成功还是失败).
+     *
+     * @param partitionThreadEntity
+     *            分区信息
+     * @param submitNanos
+     *            分区提交(创建)的时间
+     * @param startNanos
+     *            分区开始执行的时间
+     * @param endNanos
+     *            分区执行结束的时间
+     * @param throwable
+     *            分区中抛出的异常,成功的话是null
+     */
+    void onEnd(PartitionThreadEntity partitionThreadEntity,long submitNanos,long startNanos,long endNanos,Throwable throwable);
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.util.sketch.QuantileSketch;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * 统计分区执行情况的 {@link PartitionThreadListener}.
+ * 
+ * <h3>可以得到:</h3>
+ * 
+ * <blockquote>
+ * <ul>
+ * <li>分区数量,失败的分区数量,处理的元素总数</li>
+ * <li>分区执行耗时的 p50/p99/最大值/平均值,以及倾斜度 {@link #getSkew()}(最大耗时/平均耗时,越接近1 说明分区越均匀)</li>
+ * <li>分区的平均/最大排队等待时间</li>
+ * <li>吞吐量,每秒处理的元素数量</li>
+ * </ul>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * 
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * PartitionThreadStatistics partitionThreadStatistics = new PartitionThreadStatistics();
+ * 
+ * ThreadPoolPartitionThreadExecutor executor = new ThreadPoolPartitionThreadExecutor(8);
+ * executor.setPartitionThreadListener(partitionThreadStatistics);
+ * executor.excute(list, 100, null, partitionRunnableBuilder);
+ * 
+ * LOGGER.info(partitionThreadStatistics.toString());
+ * </pre>
+ * 
+ * 可以根据 p99 和 skew 调整 eachSize.
+ * </blockquote>
+ * 
+ * <p>
+ * 线程安全,统计的数据会一直累加,可以调用 {@link #reset()} 清空.
+ * </p>
+ * 
+ * <p>
+ * 分区耗时使用 {@link QuantileSketch} 统计,内存固定,可以长期挂在生产环境的 executor 上;p50/p99 是相对误差不超过
+ * {@link QuantileSketch#DEFAULT_RELATIVE_ACCURACY} 的估计值,最大值和平均值是精确的.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class PartitionThreadStatistics implements PartitionThreadListener{
+
+    /** 每个分区的执行耗时的分布. */
+    private QuantileSketch durationSketch = new QuantileSketch();
+
+    /** 执行耗时总和. */
+    private long           totalDurationNanos;
+
+    /** 最大执行耗时. */
+    private long           maxDurationNanos;
+
+    /** 分区数量. */
+    private int            partitionCount;
+
+    /** 失败的分区数量. */
+    private int            failureCount;
+
+    /** 处理的元素总数. */
+    private long           itemCount;
+
+    /** 排队等待时间总和. */
+    private long           totalQueueWaitNanos;
+
+    /** 最大排队等待时间. */
+    private long           maxQueueWaitNanos;
+
+    /** 第一个分区开始执行的时间. */
+    private long           firstStartNanos;
+
+    /** 最后一个分区执行结束的时间. */
+    private long           lastEndNanos;
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.core.lang.PartitionThreadListener#onStart(com.feilong.core.lang.PartitionThreadEntity, long, long)
+     */
+    @Override
+    public void onStart(PartitionThreadEntity partitionThreadEntity,long submitNanos,long startNanos){
+        //统计在 onEnd 中完成
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.feilong.core.lang.PartitionThreadListener#onEnd(com.feilong.core.lang.PartitionThreadEntity, long, long, long,
+     * java.lang.Throwable)
+     */
+    @Override
+    public synchronized void onEnd(PartitionThreadEntity partitionThreadEntity,long submitNanos,long startNanos,long endNanos,Throwable throwable){
+        long durationNanos = endNanos - startNanos;
+        durationSketch.offer(durationNanos);
+        totalDurationNanos += durationNanos;
+        maxDurationNanos = Math.max(maxDurationNanos, durationNanos);
+
+        if (0 == partitionCount || startNanos - firstStartNanos < 0){
+            firstStartNanos = startNanos;
+        }
+        if (0 == partitionCount || endNanos - lastEndNanos > 0){
+            lastEndNanos = endNanos;
+        }
+
+        partitionCount++;
+        itemCount += partitionThreadEntity.getCurrentListSize();
+
+        long queueWaitNanos = startNanos - submitNanos;
+        totalQueueWaitNanos += queueWaitNanos;
+        maxQueueWaitNanos = Math.max(maxQueueWaitNanos, queueWaitNanos);
+
+        if (null != throwable){
+            failureCount++;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 清空统计的数据.
+     */
+    public synchronized void reset(){
+        durationSketch = new QuantileSketch();
+        totalDurationNanos = 0;
+        maxDurationNanos = 0;
+        partitionCount = 0;
+        failureCount = 0;
+        itemCount = 0;
+        totalQueueWaitNanos = 0;
+        maxQueueWaitNanos = 0;
+        firstStartNanos = 0;
+        lastEndNanos = 0;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得分区执行耗时的百分位数.
+     * 
+     * <p>
+     * 比如 <code>percentile</code> 是 99,返回 99% 的分区都不超过的耗时;是相对误差不超过
+     * {@link QuantileSketch#DEFAULT_RELATIVE_ACCURACY} 的估计值.
+     * </p>
+     *
+     * @param percentile
+     *            百分位,{@code 0< percentile <=100}
+     * @return 如果还没有分区执行结束,返回0
+     * @throws IllegalArgumentException
+     *             如果 <code>percentile</code> 不在 (0,100] 范围内
+     */
+    public synchronized long getPercentileNanos(double percentile){
+        Validate.isTrue(percentile > 0 && percentile <= 100, "percentile must in (0,100]");
+        if (0 == partitionCount){
+            return 0;
+        }
+        return 100 == percentile ? maxDurationNanos : Math.round(durationSketch.getQuantile(percentile / 100));
+    }
+
+    /**
+     * 获得分区执行耗时的中位数.
+     *
+     * @return the p50 nanos
+     */
+    public long getP50Nanos(){
+        return getPercentileNanos(50);
+    }
+
+    /**
+     * 获得分区执行耗时的 99 百分位数.
+     *
+     * @return the p99 nanos
+     */
+    public long getP99Nanos(){
+        return getPercentileNanos(99);
+    }
+
+    /**
+     * 获得分区执行耗时的最大值.
+     *
+     * @return 如果还没有分区执行结束,返回0
+     */
+    public synchronized long getMaxNanos(){
+        return maxDurationNanos;
+    }
+
+    /**
+     * 获得分区执行耗时的平均值.
+     *
+     * @return 如果还没有分区执行结束,返回0
+     */
+    public synchronized long getAverageNanos(){
+        return 0 == partitionCount ? 0 : totalDurationNanos / partitionCount;
+    }
+
+    /**
+     * 获得分区的倾斜度,即最大耗时/平均耗时.
+     * 
+     * <p>
+     * 越接近1 说明各个分区耗时越均匀;值很大说明少数分区拖慢了整体,可以考虑调小 eachSize 或者使用自适应分区.
+     * </p>
+     *
+     * @return 如果还没有分区执行结束,返回0
+     */
+    public synchronized double getSkew(){
+        //在同一把锁内读取,避免最大耗时和平均耗时来自不同的时刻
+        if (0 == partitionCount || 0 == totalDurationNanos){
+            return 0;
+        }
+        return maxDurationNanos / ((double) totalDurationNanos / partitionCount);
+    }
+
+    /**
+     * 获得平均排队等待时间.
+     *
+     * @return 如果还没有分区执行结束,返回0
+     */
+    public synchronized long getAverageQueueWaitNanos(){
+        return 0 == partitionCount ? 0 : totalQueueWaitNanos / partitionCount;
+    }
+
+    /**
+     * 获得最大排队等待时间.
+     *
+     * @return the max queue wait nanos
+     */
+    public synchronized long getMaxQueueWaitNanos(){
+        return maxQueueWaitNanos;
+    }
+
+    /**
+     * 获得吞吐量,即从第一个分区开始执行到最后一个分区执行结束期间,平均每秒处理的元素数量.
+     *
+     * @return 如果还没有分区执行结束,返回0
+     */
+    public synchronized double getItemsPerSecond(){
+        long elapsedNanos = lastEndNanos - firstStartNanos;
+        return elapsedNanos <= 0 ? 0 : (double) itemCount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 分区数量.
+     *
+     * @return the partitionCount
+     */
+    public synchronized int getPartitionCount(){
+        return partitionCount;
+    }
+
+    /**
+     * 获得 失败的分区数量.
+     *
+     * @return the failureCount
+     */
+    public synchronized int getFailureCount(){
+        return failureCount;
+    }
+
+    /**
+     * 获得 处理的元素总数.
+     *
+     * @return the itemCount
+     */
+    public synchronized long getItemCount(){
+        return itemCount;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public synchronized String toString(){
+        return Slf4jUtil.format(
+                        "partitions:[{}],failures:[{}],items:[{}],p50:[{}]ms,p99:[{}]ms,max:[{}]ms,skew:[{}],avgQueueWait:[{}]ms,items/s:[{}]",
+                        partitionCount,
+                        failureCount,
+                        itemCount,
+                        TimeUnit.NANOSECONDS.toMillis(getP50Nanos()),
+                        TimeUnit.NANOSECONDS.toMillis(getP99Nanos()),
+                        TimeUnit.NANOSECONDS.toMillis(getMaxNanos()),
+                        String.format("%.2f", getSkew()),
+                        TimeUnit.NANOSECONDS.toMillis(getAverageQueueWaitNanos()),
+                        String.format("%.0f", getItemsPerSecond()));
+    }
+}
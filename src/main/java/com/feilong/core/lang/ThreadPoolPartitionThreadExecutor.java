@@ -0,0 +1,909 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import static com.feilong.core.date.DateExtensionUtil.formatDuration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于有界线程池 {@link ExecutorService} 的执行实现.
+ *
+ * <h3>和 {@link DefaultPartitionThreadExecutor} 的区别:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link DefaultPartitionThreadExecutor} 每个分区都会 <code>new Thread</code>,如果 list size 是 100W,eachSize 是100,那么会启动 1W 个线程;<br>
+ * 而本类会把所有分区 {@link Runnable} 提交到<b>同一个</b>固定大小的线程池中,最多只有 <code>poolSize</code> 个线程在跑,并且线程在多次调用之间会被复用.
+ * </p>
+ *
+ * <p>
+ * {@link PartitionRunnableBuilder} 以及 {@link PartitionThreadEntity} 的使用方式保持不变,已有的 builder 无需修改;<br>
+ * 分区执行期间,线程池中的线程会临时改名为 {@link #buildThreadName(int, Object)},执行完毕后恢复,日志中的 %t 和原先保持一致.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>需要每个分区的返回值或者异常:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 可以使用 {@link #call(List, int, Map, PartitionCallableBuilder, boolean)},按照分区顺序返回每个分区的 {@link PartitionResult},
+ * 不再需要在 builder 里面共享一个 ConcurrentHashMap 来收集结果;并且可以开启 fail-fast,某个分区失败的时候取消剩下的分区.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>注意:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>线程池中的线程是守护线程,不会阻止 jvm 退出;如果你自己 new 了实例,不用的时候可以调用 {@link #shutdown()}</li>
+ * <li>不要在分区的 {@link Runnable} 中再次调用<b>同一个</b>实例的 excute 方法,有界线程池下外层分区会占满线程等待内层分区,造成死锁</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see java.util.concurrent.Executors#newFixedThreadPool(int, ThreadFactory)
+ * @since 1.13.1
+ */
+public class ThreadPoolPartitionThreadExecutor extends AbstractPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                           LOGGER                     = LoggerFactory
+                    .getLogger(ThreadPoolPartitionThreadExecutor.class);
+
+    /** 默认的线程池大小,等于 {@link Runtime#availableProcessors()}. */
+    public static final int                               DEFAULT_POOL_SIZE          = Runtime.getRuntime().availableProcessors();
+
+    /** 自适应分区时,预热采样批次最多的元素数量. */
+    public static final int                               DEFAULT_SAMPLE_SIZE        = 32;
+
+    /** 自适应分区时,每个线程平均分到的分区数量,分区多于线程数,执行快的线程可以多取几个分区,避免分区执行时间不均时 CPU 空闲. */
+    private static final int                              PARTITIONS_PER_WORKER      = 4;
+
+    /** 自适应分区时,单个分区期望的最小执行时间(1毫秒),避免分区过小时线程池调度的开销盖过执行本身. */
+    private static final long                             MIN_PARTITION_NANOS        = 1000000L;
+
+    /** maximumPoolSize 大于等于这个值,认为线程池是无界的(比如 {@link Executors#newCachedThreadPool()}). */
+    private static final int                              UNBOUNDED_POOL_SIZE        = 10000;
+
+    /** 从 {@link Iterator} 读取分区时,事先不知道总数, {@link PartitionThreadEntity#getTotalListCount()} 使用这个值. */
+    public static final int                               UNKNOWN_TOTAL_LIST_COUNT   = -1;
+
+    /** 从 {@link Iterator} 读取分区时,分区 list 的最大初始容量,避免 eachSize 很大时预先分配过多内存. */
+    private static final int                              MAX_INITIAL_BATCH_CAPACITY = 1024;
+
+    //---------------------------------------------------------------
+
+    /** Static instance, 使用 {@link #DEFAULT_POOL_SIZE} 大小的共享线程池. */
+    public static final ThreadPoolPartitionThreadExecutor INSTANCE                   = new ThreadPoolPartitionThreadExecutor();
+
+    //---------------------------------------------------------------
+
+    /** 执行分区的线程池. */
+    private final ExecutorService                         executorService;
+
+    /** 线程池最多同时执行的分区数量,自适应分区时用来计算分区大小. */
+    private final int                                     parallelism;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 {@link #DEFAULT_POOL_SIZE} 大小的线程池.
+     */
+    public ThreadPoolPartitionThreadExecutor(){
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * 使用指定 <code>poolSize</code> 大小的线程池.
+     *
+     * @param poolSize
+     *            最多同时执行分区的线程数量,必须{@code >}0
+     * @throws IllegalArgumentException
+     *             如果 {@code poolSize <=0}
+     */
+    public ThreadPoolPartitionThreadExecutor(int poolSize){
+        this(newFixedThreadPool(poolSize), poolSize);
+    }
+
+    /**
+     * 使用外部传入的 <code>executorService</code>.
+     *
+     * <p>
+     * 线程池的大小以及生命周期由调用方自行管理.
+     * </p>
+     *
+     * @param executorService
+     *            the executor service
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 是null
+     */
+    public ThreadPoolPartitionThreadExecutor(ExecutorService executorService){
+        this(executorService, resolveParallelism(executorService));
+    }
+
+    /**
+     * 使用外部传入的 <code>executorService</code>,并且指定它最多同时执行的分区数量.
+     *
+     * @param executorService
+     *            the executor service
+     * @param parallelism
+     *            最多同时执行的分区数量,自适应分区时用来计算分区大小,必须{@code >}0
+     * @throws NullPointerException
+     *             如果 <code>executorService</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 {@code parallelism <=0}
+     */
+    public ThreadPoolPartitionThreadExecutor(ExecutorService executorService, int parallelism){
+        Validate.notNull(executorService, "executorService can't be null!");
+        Validate.isTrue(parallelism > 0, "parallelism must > 0");
+        this.executorService = executorService;
+        this.parallelism = parallelism;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see com.feilong.core.lang.AbstractPartitionThreadExecutor#actualExcute(java.util.List, int, java.util.Map,
+     * com.feilong.core.lang.PartitionRunnableBuilder)
+     */
+    @Override
+    protected <T> void actualExcute(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        //1. 将 list 分成 N 份,每份构造成 callable
+        List<Callable<Object>> callableList = buildCallableList(list, list.size(), eachSize, 0, 0, paramsMap, partitionRunnableBuilder);
+
+        //2. 提交到线程池,并且等待全部完成
+        invokeAll(callableList);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 调用 {@link ListUtils#partition(List, int)} 对list 分成N份,对应的构造N个 {@link Callable}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            需要分区的list,可能是总list 的一部分
+     * @param totalListCount
+     *            总list 的size
+     * @param eachSize
+     *            the each size
+     * @param startBatchNumber
+     *            第一个分区的批次号
+     * @param startIndex
+     *            <code>list</code> 第一个元素在总list 中的索引
+     * @param paramsMap
+     *            the params map
+     * @param partitionRunnableBuilder
+     *            the partition runnable builder
+     * @return the list
+     */
+    private <T> List<Callable<Object>> buildCallableList(
+                    List<T> list,
+                    int totalListCount,
+                    int eachSize,
+                    int startBatchNumber,
+                    int startIndex,
+                    Map<String, ?> paramsMap,
+                    PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        List<List<T>> groupList = ListUtils.partition(list, eachSize);
+
+        //---------------------------------------------------------------
+        int i = startBatchNumber;
+        int index = startIndex;
+        List<Callable<Object>> callableList = new ArrayList<>(groupList.size());
+        for (List<T> perBatchList : groupList){
+            String threadName = buildThreadName(i, partitionRunnableBuilder);
+
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            totalListCount,
+                            eachSize,
+                            i,
+                            perBatchList.size(),
+                            index);
+
+            Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+            callableList.add(decorate(partitionThreadEntity, runnable));
+            i++;
+            index += perBatchList.size();
+        }
+
+        //---------------------------------------------------------------
+
+        LOGGER.info("total list size:[{}],submit [{}] partitions,perSize:[{}]", totalListCount, callableList.size(), eachSize);
+        return callableList;
+    }
+
+    /**
+     * 提交到线程池,并且等待全部完成.
+     *
+     * <p>
+     * 分区中抛出的异常,会记录 error 日志,不会影响其他分区的执行.
+     * </p>
+     *
+     * @param callableList
+     *            the callable list
+     */
+    private void invokeAll(List<Callable<Object>> callableList){
+        try{
+            List<Future<Object>> futureList = executorService.invokeAll(callableList);
+            for (Future<Object> future : futureList){
+                try{
+                    future.get();
+                }catch (ExecutionException e){
+                    LOGGER.error("", e.getCause());
+                }
+            }
+        }catch (InterruptedException e){
+            LOGGER.error("", e);
+            // clean up state...
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 给定一个待解析的 <code>list</code>,<span style="color:green">自动计算</span>每个分区执行多少条,使用自定义的 <code>partitionRunnableBuilder</code>,
+     * 提交到线程池执行.
+     * 
+     * <h3>分区大小是怎么计算的:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>先取 <code>list</code> 开头的一小段(最多 {@link #DEFAULT_SAMPLE_SIZE} 个)作为批次0 执行,统计每个元素的平均耗时</li>
+     * <li>剩下的元素按照 {@code 线程数 * 4} 个分区均分,这样某些分区执行得慢的时候,空闲的线程会从队列里面取走后面的分区,不会出现 CPU 空闲等待的情况</li>
+     * <li>如果按照上一步算出来的分区太小(单个分区执行不到 1 毫秒),会放大分区,避免线程池调度的开销盖过执行本身</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>注意:</h3>
+     * <blockquote>
+     * <p>
+     * 由于批次0 的大小和后面的批次不一样,在 builder 中计算元素在总list 中的索引时,请使用 {@link PartitionThreadEntity#getStartIndex()},而不是
+     * {@code batchNumber * eachSize}.
+     * </p>
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     * @see com.feilong.core.lang.ThreadUtil#execute(List, Map, PartitionRunnableBuilder)
+     */
+    public <T> void excute(List<T> list,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notEmpty(list, "list can't be null/empty!");
+        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
+
+        //---------------------------------------------------------------
+        Date beginDate = new Date();
+
+        int size = list.size();
+        int sampleSize = Math.min(DEFAULT_SAMPLE_SIZE, Math.max(1, size / (parallelism * PARTITIONS_PER_WORKER)));
+
+        //1. 批次0 预热采样
+        List<Callable<Object>> sampleCallableList = buildCallableList(
+                        list.subList(0, sampleSize),
+                        size,
+                        sampleSize,
+                        0,
+                        0,
+                        paramsMap,
+                        partitionRunnableBuilder);
+
+        //只统计分区真正执行的时间,不包含在线程池队列中排队等待的时间
+        AtomicLong sampleExecuteNanos = new AtomicLong();
+        invokeAll(timed(sampleCallableList, sampleExecuteNanos));
+        long perItemNanos = sampleExecuteNanos.get() / sampleSize;
+
+        //2. 剩下的元素按照计算出来的大小分区执行
+        int remainSize = size - sampleSize;
+        if (remainSize > 0 && !Thread.currentThread().isInterrupted()){
+            int eachSize = calculateEachSize(remainSize, perItemNanos);
+            invokeAll(buildCallableList(list.subList(sampleSize, size), size, eachSize, 1, sampleSize, paramsMap, partitionRunnableBuilder));
+        }
+
+        //---------------------------------------------------------------
+        if (LOGGER.isInfoEnabled()){
+            LOGGER.info(
+                            "end [{}],list size:[{}],sampleSize:[{}],perItemNanos:[{}],use time:[{}]",
+                            getName(partitionRunnableBuilder),
+                            size,
+                            sampleSize,
+                            perItemNanos,
+                            formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * 将 <code>callableList</code> 中的每个 {@link Callable} 包装一层,执行的耗时(不含排队等待的时间)累加到 <code>executeNanos</code>.
+     *
+     * @param callableList
+     *            the callable list
+     * @param executeNanos
+     *            累加执行耗时的计数器
+     * @return 包装之后的 callable list
+     */
+    private static List<Callable<Object>> timed(List<Callable<Object>> callableList,final AtomicLong executeNanos){
+        List<Callable<Object>> timedCallableList = new ArrayList<>(callableList.size());
+        for (final Callable<Object> callable : callableList){
+            timedCallableList.add(new Callable<Object>(){
+
+                @Override
+                public Object call() throws Exception{
+                    long startNanos = System.nanoTime();
+                    try{
+                        return callable.call();
+                    }finally{
+                        executeNanos.addAndGet(System.nanoTime() - startNanos);
+                    }
+                }
+            });
+        }
+        return timedCallableList;
+    }
+
+    /**
+     * 根据剩余数量以及采样得到的单个元素耗时,计算分区大小.
+     *
+     * @param remainSize
+     *            剩余需要执行的元素数量
+     * @param perItemNanos
+     *            采样得到的单个元素平均耗时
+     * @return 分区大小,{@code 1<= eachSize <= remainSize}
+     */
+    private int calculateEachSize(int remainSize,long perItemNanos){
+        int partitionCount = parallelism * PARTITIONS_PER_WORKER;
+        int balancedEachSize = (remainSize + partitionCount - 1) / partitionCount;
+
+        long minEachSize = perItemNanos <= 0 ? remainSize : (MIN_PARTITION_NANOS + perItemNanos - 1) / perItemNanos;
+
+        long eachSize = Math.max(balancedEachSize, minEachSize);
+        return (int) Math.max(1, Math.min(eachSize, remainSize));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>iterable</code> 中<span style="color:green">按需</span>每次读取 <code>eachSize</code> 个元素作为一个分区,提交到线程池执行.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterable
+     *            数据源,不能为null
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     * @see #excute(Iterator, int, Map, PartitionRunnableBuilder)
+     */
+    public <T> void excute(Iterable<T> iterable,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notNull(iterable, "iterable can't be null!");
+        excute(iterable.iterator(), eachSize, paramsMap, partitionRunnableBuilder);
+    }
+
+    /**
+     * 从 <code>iterator</code> 中<span style="color:green">按需</span>每次读取 <code>eachSize</code> 个元素作为一个分区,提交到线程池执行.
+     * 
+     * <h3>适用场景:</h3>
+     * <blockquote>
+     * <p>
+     * 数据量很大(比如导出 5000W 行数据),不能一次性全部加载成 {@link List} 放到内存的时候,可以传入游标/分页查询包装成的 {@link Iterator}.
+     * </p>
+     * </blockquote>
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>同时提交到线程池(正在执行以及排队中)的分区最多是 {@code 2 * parallelism} 个,达到上限之后,读取 <code>iterator</code> 的当前线程会阻塞,
+     * 直到有分区执行完成(背压),所以内存中只会有几个分区的数据,而不是整个数据集</li>
+     * <li>由于事先不知道总数,{@link PartitionThreadEntity#getTotalListCount()} 是 -1;{@link PartitionThreadEntity#getStartIndex()}
+     * 是当前分区第一个元素是 <code>iterator</code> 中的第几个元素</li>
+     * <li>分区中抛出的异常,会记录 error 日志,不会影响其他分区的执行</li>
+     * <li>如果 <code>iterator</code> 没有元素,直接返回</li>
+     * <li>方法会等待所有分区执行完成之后再返回;如果等待过程中当前线程被中断,不再读取 <code>iterator</code>,直接返回,并且保留当前线程的中断状态</li>
+     * <li>如果读取 <code>iterator</code> 或者 <code>partitionRunnableBuilder</code> 构造分区时抛出异常,会等已经提交的分区执行完成之后,再将异常抛出</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>iterator</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            数据源,不能为null
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     */
+    public <T> void excute(Iterator<T> iterator,int eachSize,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        Validate.notNull(iterator, "iterator can't be null!");
+        Validate.notNull(partitionRunnableBuilder, "partitionRunnableBuilder can't be null!");
+
+        Validate.isTrue(eachSize > 0, "eachSize must > 0");
+
+        //---------------------------------------------------------------
+        Date beginDate = new Date();
+
+        int maxInFlight = parallelism * 2;
+        Semaphore semaphore = new Semaphore(maxInFlight);
+
+        int batchNumber = 0;
+        int index = 0;
+        boolean finished = false;
+        boolean interrupted = false;
+        try{
+            while (iterator.hasNext()){
+                List<T> perBatchList = nextBatch(iterator, eachSize);
+
+                String threadName = buildThreadName(batchNumber, partitionRunnableBuilder);
+                PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                                threadName,
+                                UNKNOWN_TOTAL_LIST_COUNT,
+                                eachSize,
+                                batchNumber,
+                                perBatchList.size(),
+                                index);
+                Runnable runnable = partitionRunnableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+
+                //没有空闲的位置时阻塞,直到有分区执行完成
+                semaphore.acquire();
+                submitReleasing(semaphore, partitionThreadEntity, runnable);
+
+                batchNumber++;
+                index += perBatchList.size();
+            }
+
+            //拿到所有的许可,说明所有分区都执行完成了
+            semaphore.acquire(maxInFlight);
+            finished = true;
+        }catch (InterruptedException e){
+            interrupted = true;
+            LOGGER.error("", e);
+            // clean up state...
+            Thread.currentThread().interrupt();
+        }finally{
+            //iterator.next() 或者 build 抛出了异常,等已经提交的分区执行完成之后再抛出,不让分区在方法返回之后继续执行
+            if (!finished && !interrupted){
+                semaphore.acquireUninterruptibly(maxInFlight);
+            }
+        }
+
+        //---------------------------------------------------------------
+        if (interrupted){
+            LOGGER.warn(
+                            "interrupted [{}],stop reading iterator,read count:[{}],submitted partitions:[{}],eachSize:[{}],use time:[{}]",
+                            getName(partitionRunnableBuilder),
+                            index,
+                            batchNumber,
+                            eachSize,
+                            formatDuration(beginDate));
+            return;
+        }
+        if (LOGGER.isInfoEnabled()){
+            LOGGER.info(
+                            "end [{}],total count:[{}],partitions:[{}],eachSize:[{}],use time:[{}]",
+                            getName(partitionRunnableBuilder),
+                            index,
+                            batchNumber,
+                            eachSize,
+                            formatDuration(beginDate));
+        }
+    }
+
+    /**
+     * 从 <code>iterator</code> 中读取最多 <code>eachSize</code> 个元素.
+     *
+     * @param <T>
+     *            the generic type
+     * @param iterator
+     *            the iterator
+     * @param eachSize
+     *            the each size
+     * @return the list
+     */
+    private static <T> List<T> nextBatch(Iterator<T> iterator,int eachSize){
+        List<T> perBatchList = new ArrayList<>(Math.min(eachSize, MAX_INITIAL_BATCH_CAPACITY));
+        while (perBatchList.size() < eachSize && iterator.hasNext()){
+            perBatchList.add(iterator.next());
+        }
+        return perBatchList;
+    }
+
+    /**
+     * 提交分区,分区执行完成(不管成功还是失败)之后释放 <code>semaphore</code> 的一个许可.
+     *
+     * @param semaphore
+     *            the semaphore
+     * @param partitionThreadEntity
+     *            the partition thread entity
+     * @param runnable
+     *            the runnable,可能是null
+     */
+    private void submitReleasing(final Semaphore semaphore,PartitionThreadEntity partitionThreadEntity,Runnable runnable){
+        final Callable<Object> callable = decorate(partitionThreadEntity, runnable);
+        try{
+            executorService.execute(new Runnable(){
+
+                @Override
+                public void run(){
+                    try{
+                        callable.call();
+                    }catch (Exception e){
+                        LOGGER.error("", e);
+                    }finally{
+                        semaphore.release();
+                    }
+                }
+            });
+        }catch (RuntimeException e){
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,使用自定义的 <code>partitionCallableBuilder</code>,
+     * 自动构造分区并提交到线程池执行,<span style="color:green">按照分区顺序</span>返回每个分区的执行结果.
+     * 
+     * <p>
+     * 等同于 {@code call(list, eachSize, paramsMap, partitionCallableBuilder, false)},某个分区失败不会影响其他分区的执行.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区返回的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionCallableBuilder
+     *            每个分区做的事情,不能为null
+     * @return 按照 {@link PartitionThreadEntity#getBatchNumber()} 顺序排列的分区结果
+     * @see #call(List, int, Map, PartitionCallableBuilder, boolean)
+     */
+    public <T, R> List<PartitionResult<R>> call(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableBuilder<T, R> partitionCallableBuilder){
+        return call(list, eachSize, paramsMap, partitionCallableBuilder, false);
+    }
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,使用自定义的 <code>partitionCallableBuilder</code>,
+     * 自动构造分区并提交到线程池执行,<span style="color:green">按照分区顺序</span>返回每个分区的执行结果.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>返回的list 和分区一一对应,第i个元素就是 batchNumber 为i 的分区结果,成功的分区可以通过 {@link PartitionResult#getResult()} 拿到返回值,失败的分区可以通过
+     * {@link PartitionResult#getThrowable()} 拿到异常</li>
+     * <li>如果 <code>failFast</code> 是true,那么任意一个分区失败之后,会立即取消(中断)剩下还没有完成的分区,这些分区的
+     * {@link PartitionResult#isCancelled()} 是true</li>
+     * <li>如果等待过程中当前线程被中断,会取消剩下还没有完成的分区,并且保留当前线程的中断状态</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionCallableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区返回的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionCallableBuilder
+     *            每个分区做的事情,不能为null
+     * @param failFast
+     *            某个分区失败的时候,是否取消剩下的分区
+     * @return 按照 {@link PartitionThreadEntity#getBatchNumber()} 顺序排列的分区结果
+     */
+    public <T, R> List<PartitionResult<R>> call(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableBuilder<T, R> partitionCallableBuilder,
+                    boolean failFast){
+        Validate.notEmpty(list, "list can't be null/empty!");
+        Validate.notNull(partitionCallableBuilder, "partitionCallableBuilder can't be null!");
+
+        Validate.isTrue(eachSize > 0, "eachSize must > 0");
+
+        //---------------------------------------------------------------
+        Date beginDate = new Date();
+
+        List<List<T>> groupList = ListUtils.partition(list, eachSize);
+        String partitionCallableBuilderName = getPartitionBuilderName(partitionCallableBuilder);
+
+        int size = groupList.size();
+        List<PartitionThreadEntity> partitionThreadEntityList = new ArrayList<>(size);
+        List<Future<R>> futureList = new ArrayList<>(size);
+
+        CompletionService<R> completionService = new ExecutorCompletionService<>(executorService);
+        int i = 0;
+        for (List<T> perBatchList : groupList){
+            String threadName = buildThreadName(i, partitionCallableBuilder);
+            PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity(
+                            threadName,
+                            list.size(),
+                            eachSize,
+                            i,
+                            perBatchList.size());
+
+            Callable<R> callable = partitionCallableBuilder.build(perBatchList, partitionThreadEntity, paramsMap);
+
+            partitionThreadEntityList.add(partitionThreadEntity);
+            futureList.add(completionService.submit(decorate(partitionThreadEntity, callable)));
+            i++;
+        }
+
+        //---------------------------------------------------------------
+        awaitAll(completionService, futureList, failFast);
+
+        List<PartitionResult<R>> partitionResultList = toPartitionResultList(partitionThreadEntityList, futureList);
+
+        if (LOGGER.isInfoEnabled()){
+            LOGGER.info(
+                            "end [{}],list size:[{}],partitions:[{}],failFast:[{}],use time:[{}]",
+                            partitionCallableBuilderName,
+                            list.size(),
+                            size,
+                            failFast,
+                            formatDuration(beginDate));
+        }
+        return partitionResultList;
+    }
+
+    /**
+     * 按照完成的顺序等待所有分区完成;如果 <code>failFast</code> 并且某个分区失败,或者当前线程被中断,取消剩下的分区.
+     *
+     * @param <R>
+     *            the generic type
+     * @param completionService
+     *            the completion service
+     * @param futureList
+     *            the future list
+     * @param failFast
+     *            the fail fast
+     */
+    private static <R> void awaitAll(CompletionService<R> completionService,List<Future<R>> futureList,boolean failFast){
+        try{
+            for (int j = 0, z = futureList.size(); j < z; ++j){
+                Future<R> future = completionService.take();
+                if (failFast && isFailed(future)){
+                    cancelAll(futureList);
+                    return;
+                }
+            }
+        }catch (InterruptedException e){
+            LOGGER.error("", e);
+            cancelAll(futureList);
+            // clean up state...
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已经完成的 <code>future</code> 是否失败.
+     *
+     * @param <R>
+     *            the generic type
+     * @param future
+     *            已经完成的future
+     * @return 如果执行抛出异常或者被取消,返回true
+     */
+    private static <R> boolean isFailed(Future<R> future){
+        try{
+            future.get();
+            return false;
+        }catch (ExecutionException | CancellationException e){
+            return true;
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * 取消所有还没有完成的分区.
+     *
+     * @param <R>
+     *            the generic type
+     * @param futureList
+     *            the future list
+     */
+    private static <R> void cancelAll(List<Future<R>> futureList){
+        for (Future<R> future : futureList){
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 将 <code>futureList</code> 按照分区顺序转成 {@link PartitionResult} list.
+     *
+     * @param <R>
+     *            the generic type
+     * @param partitionThreadEntityList
+     *            the partition thread entity list
+     * @param futureList
+     *            the future list,所有的 future 都已经完成或者被取消
+     * @return the list
+     */
+    private static <R> List<PartitionResult<R>> toPartitionResultList(
+                    List<PartitionThreadEntity> partitionThreadEntityList,
+                    List<Future<R>> futureList){
+        List<PartitionResult<R>> partitionResultList = new ArrayList<>(futureList.size());
+        for (int j = 0, z = futureList.size(); j < z; ++j){
+            PartitionThreadEntity partitionThreadEntity = partitionThreadEntityList.get(j);
+            Future<R> future = futureList.get(j);
+
+            R result = null;
+            Throwable throwable = null;
+            if (future.isCancelled() || !future.isDone()){
+                throwable = new CancellationException(partitionThreadEntity.getName() + " cancelled");
+            }else{
+                try{
+                    result = future.get();
+                }catch (ExecutionException e){
+                    throwable = e.getCause();
+                    LOGGER.error(partitionThreadEntity.getName(), throwable);
+                }catch (InterruptedException e){
+                    throwable = e;
+                    Thread.currentThread().interrupt();
+                }
+            }
+            partitionResultList.add(new PartitionResult<>(partitionThreadEntity, result, throwable));
+        }
+        return partitionResultList;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 关闭线程池,已经提交的分区会继续执行完毕,之后的调用将会被拒绝.
+     *
+     * @see java.util.concurrent.ExecutorService#shutdown()
+     */
+    public void shutdown(){
+        executorService.shutdown();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 推算 <code>executorService</code> 最多同时执行的任务数量.
+     *
+     * @param executorService
+     *            the executor service
+     * @return 如果是有界的 {@link ThreadPoolExecutor},返回它的 maximumPoolSize; 否则返回 {@link #DEFAULT_POOL_SIZE}
+     */
+    private static int resolveParallelism(ExecutorService executorService){
+        if (executorService instanceof ThreadPoolExecutor){
+            int maximumPoolSize = ((ThreadPoolExecutor) executorService).getMaximumPoolSize();
+            return maximumPoolSize < UNBOUNDED_POOL_SIZE ? maximumPoolSize : DEFAULT_POOL_SIZE;
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * 创建指定 <code>poolSize</code> 大小,使用守护线程的固定线程池.
+     *
+     * @param poolSize
+     *            the pool size
+     * @return the executor service
+     * @throws IllegalArgumentException
+     *             如果 {@code poolSize <=0}
+     */
+    static ExecutorService newFixedThreadPool(int poolSize){
+        Validate.isTrue(poolSize > 0, "poolSize must > 0");
+        return Executors.newFixedThreadPool(poolSize, new PartitionThreadFactory());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建守护线程的 {@link ThreadFactory},线程名字格式 "PartitionThreadPool-序号".
+     */
+    private static final class PartitionThreadFactory implements ThreadFactory{
+
+        /** The thread number. */
+        private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+         */
+        @Override
+        public Thread newThread(Runnable runnable){
+            Thread thread = new Thread(runnable, "PartitionThreadPool-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
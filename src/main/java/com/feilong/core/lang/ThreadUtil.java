@@ -319,7 +319,7 @@ public final class ThreadUtil{
      * <blockquote>
      * 线程是稀缺资源,如果无限制的创建,不仅会消耗系统资源,还会降低系统的稳定性;<br>
      * 需要注意合理的评估<code>list</code> 的大小和<code>eachSize</code> 比率;<br>
-     * 不建议<code>list</code> size很大,比如 20W,而<code>eachSize</code>值很小,比如2 ,那么会开启20W/2=10W个线程;此时建议考虑 线程池的实现方案
+     * 不建议<code>list</code> size很大,比如 20W,而<code>eachSize</code>值很小,比如2 ,那么会开启20W/2=10W个线程;此时建议考虑 线程池的实现方案,比如 {@link ThreadPoolPartitionThreadExecutor}
      * </blockquote>
      * 
      * <h3>异常:</h3>
@@ -465,7 +465,7 @@ public final class ThreadUtil{
      * <blockquote>
      * 线程是稀缺资源,如果无限制的创建,不仅会消耗系统资源,还会降低系统的稳定性;<br>
      * 需要注意合理的评估<code>list</code> 的大小和<code>eachSize</code> 比率;<br>
-     * 不建议<code>list</code> size很大,比如 20W,而<code>eachSize</code>值很小,比如2 ,那么会开启20W/2=10W个线程;此时建议考虑 线程池的实现方案
+     * 不建议<code>list</code> size很大,比如 20W,而<code>eachSize</code>值很小,比如2 ,那么会开启20W/2=10W个线程;此时建议考虑 线程池的实现方案,比如 {@link ThreadPoolPartitionThreadExecutor}
      * </blockquote>
      * 
      * <h3>对于参数 paramsMap 的使用:</h3>
@@ -603,6 +603,120 @@ public final class ThreadUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 给定一个待解析的 <code>list</code>,<span style="color:green">不需要指定 eachSize</span>,根据 cpu 核数、<code>list</code> size 以及预热采样得到的单个元素耗时自动计算分区大小,
+     * 在 {@link ThreadPoolPartitionThreadExecutor#INSTANCE} 共享线程池中执行.
+     * 
+     * <h3>适用场景:</h3>
+     * <blockquote>
+     * <p>
+     * 不知道 eachSize 该设置成多少的时候: eachSize 设置得太小,会创建大量的分区(原先是大量的线程); 设置得太大,分区数少于 cpu 核数,会有 cpu 空闲.
+     * </p>
+     * </blockquote>
+     * 
+     * <p>
+     * 在 builder 中计算元素在总list 中的索引时,请使用 {@link PartitionThreadEntity#getStartIndex()},详细参见
+     * {@link ThreadPoolPartitionThreadExecutor#excute(List, Map, PartitionRunnableBuilder)}
+     * </p>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionRunnableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionRunnableBuilder
+     *            每个分区做的事情,不能为null
+     * @see ThreadPoolPartitionThreadExecutor#excute(List, Map, PartitionRunnableBuilder)
+     * @since 1.13.1
+     */
+    public static <T> void execute(List<T> list,Map<String, ?> paramsMap,PartitionRunnableBuilder<T> partitionRunnableBuilder){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(list, paramsMap, partitionRunnableBuilder);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 给定一个待解析的 <code>list</code>,设定每个线程执行多少条 <code>eachSize</code>,使用自定义的 <code>partitionCallableBuilder</code>,
+     * 在 {@link ThreadPoolPartitionThreadExecutor#INSTANCE} 共享线程池中执行,并且<span style="color:green">按照分区顺序</span>返回每个分区的执行结果以及异常.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <PartitionResult<Integer>>} partitionResultList = ThreadUtil.call(list, 100, null, new PartitionCallableBuilder{@code <Integer, Integer>}(){
+     * 
+     *     &#64;Override
+     *     public Callable{@code <Integer>} build(final List{@code <Integer>} perBatchList,PartitionThreadEntity partitionThreadEntity,Map{@code <String, ?>} paramsMap){
+     *         return new Callable{@code <Integer>}(){
+     * 
+     *             &#64;Override
+     *             public Integer call() throws Exception{
+     *                 <span style="color:green">//模拟 do something,返回本分区处理成功的数量</span>
+     *                 return perBatchList.size();
+     *             }
+     *         };
+     *     }
+     * }, true);
+     * 
+     * for (PartitionResult{@code <Integer>} partitionResult : partitionResultList){
+     *     if (!partitionResult.isSuccess()){
+     *         <span style="color:green">//失败或者被取消的分区</span>
+     *     }
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>异常:</h3>
+     * <blockquote>
+     * <p>
+     * 如果 <code>list</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>list</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * 如果 {@code eachSize <=0} ,抛出 {@link IllegalArgumentException}<br>
+     * 如果 <code>partitionCallableBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     * </p>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <R>
+     *            每个分区返回的结果类型
+     * @param list
+     *            执行解析的list,不能为null或者empty
+     * @param eachSize
+     *            每个分区执行多少个对象,必须{@code >}0
+     * @param paramsMap
+     *            自定义的相关参数,可以为null
+     * @param partitionCallableBuilder
+     *            每个分区做的事情,不能为null
+     * @param failFast
+     *            某个分区失败的时候,是否取消剩下的分区
+     * @return 按照 {@link PartitionThreadEntity#getBatchNumber()} 顺序排列的分区结果
+     * @see ThreadPoolPartitionThreadExecutor#call(List, int, Map, PartitionCallableBuilder, boolean)
+     * @since 1.13.1
+     */
+    public static <T, R> List<PartitionResult<R>> call(
+                    List<T> list,
+                    int eachSize,
+                    Map<String, ?> paramsMap,
+                    PartitionCallableBuilder<T, R> partitionCallableBuilder,
+                    boolean failFast){
+        return ThreadPoolPartitionThreadExecutor.INSTANCE.call(list, eachSize, paramsMap, partitionCallableBuilder, failFast);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * 循环 <code>threads</code> 调用 {@link java.lang.Thread#start()} 再循环 <code>threads</code> 调用 {@link java.lang.Thread#join()}.
      *
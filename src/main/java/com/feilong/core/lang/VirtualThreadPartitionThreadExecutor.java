@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 每个分区使用一个虚拟线程(virtual thread)执行的实现,适合分区内大部分时间阻塞在 JDBC/HTTP 等 I/O 上的场景.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>如果运行时支持虚拟线程(jdk21+),会使用 <code>java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor()</code>,每个分区一个虚拟线程,
+ * 几万个分区同时执行也没有平台线程的栈开销</li>
+ * <li>如果运行时不支持,会退化成 {@link ThreadPoolPartitionThreadExecutor#DEFAULT_POOL_SIZE} 大小的有界线程池,行为和
+ * {@link ThreadPoolPartitionThreadExecutor} 一致</li>
+ * <li>由于本项目需要兼容 jdk1.7, 虚拟线程是通过反射获取的,可以调用 {@link #isVirtualThreadSupported()} 查看当前是否支持</li>
+ * <li>使用虚拟线程时,同时执行的分区数量(parallelism)默认是 {@link #DEFAULT_VIRTUAL_THREAD_PARALLELISM},可以通过
+ * {@link #VirtualThreadPartitionThreadExecutor(int)} 指定;它决定了流式执行时同时提交的分区上限,以及自适应分区时的分区数量</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>注意:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 虚拟线程适合 I/O 密集型的分区; 如果分区是 CPU 密集型的,使用虚拟线程并不会更快,建议使用 {@link ThreadPoolPartitionThreadExecutor}.
+ * </p>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see <a href="https://openjdk.org/jeps/444">JEP 444: Virtual Threads</a>
+ * @since 1.13.1
+ */
+public class VirtualThreadPartitionThreadExecutor extends ThreadPoolPartitionThreadExecutor{
+
+    /** The Constant LOGGER. */
+    private static final Logger                              LOGGER                                   = LoggerFactory
+                    .getLogger(VirtualThreadPartitionThreadExecutor.class);
+
+    /** <code>Executors#newVirtualThreadPerTaskExecutor()</code> 方法,如果运行时不支持虚拟线程,那么是null. */
+    private static final Method                              NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR_METHOD = MethodUtils
+                    .getAccessibleMethod(java.util.concurrent.Executors.class, "newVirtualThreadPerTaskExecutor");
+
+    /** 使用虚拟线程时,默认最多同时执行的分区数量. */
+    public static final int                                  DEFAULT_VIRTUAL_THREAD_PARALLELISM          = 10000;
+
+    //---------------------------------------------------------------
+
+    /** Static instance. */
+    public static final VirtualThreadPartitionThreadExecutor INSTANCE                                 = new VirtualThreadPartitionThreadExecutor();
+
+    //---------------------------------------------------------------
+
+    /**
+     * 如果运行时支持虚拟线程,每个分区使用一个虚拟线程,最多同时执行 {@link #DEFAULT_VIRTUAL_THREAD_PARALLELISM} 个分区;
+     * 否则使用 {@link ThreadPoolPartitionThreadExecutor#DEFAULT_POOL_SIZE} 大小的线程池.
+     */
+    public VirtualThreadPartitionThreadExecutor(){
+        this(DEFAULT_VIRTUAL_THREAD_PARALLELISM);
+    }
+
+    /**
+     * 如果运行时支持虚拟线程,每个分区使用一个虚拟线程,最多同时执行 <code>parallelism</code> 个分区;
+     * 否则使用 {@link ThreadPoolPartitionThreadExecutor#DEFAULT_POOL_SIZE} 大小的线程池(此时 <code>parallelism</code> 不生效).
+     *
+     * @param parallelism
+     *            使用虚拟线程时最多同时执行的分区数量,必须{@code >}0
+     * @throws IllegalArgumentException
+     *             如果 {@code parallelism <=0}
+     */
+    public VirtualThreadPartitionThreadExecutor(int parallelism){
+        this(buildExecutorService(parallelism), parallelism);
+    }
+
+    /**
+     * 如果 <code>executorService</code> 是退化的线程池,使用线程池的大小作为 parallelism.
+     *
+     * @param executorService
+     *            the executor service
+     * @param parallelism
+     *            使用虚拟线程时最多同时执行的分区数量
+     */
+    private VirtualThreadPartitionThreadExecutor(ExecutorService executorService, int parallelism){
+        super(executorService, executorService instanceof ThreadPoolExecutor ? DEFAULT_POOL_SIZE : parallelism);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前运行时是否支持虚拟线程.
+     *
+     * @return 如果支持,返回true
+     */
+    public static boolean isVirtualThreadSupported(){
+        return null != NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR_METHOD;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 构造 executor service.
+     *
+     * @param parallelism
+     *            使用虚拟线程时最多同时执行的分区数量
+     * @return 如果支持虚拟线程,返回 virtual thread per task executor; 否则返回 {@link ThreadPoolPartitionThreadExecutor#DEFAULT_POOL_SIZE}
+     *         大小的线程池
+     */
+    private static ExecutorService buildExecutorService(int parallelism){
+        Validate.isTrue(parallelism > 0, "parallelism must > 0");
+
+        if (isVirtualThreadSupported()){
+            try{
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR_METHOD.invoke(null);
+            }catch (Exception e){
+                LOGGER.warn("can't create virtual thread executor,will use thread pool,cause:[{}]", e.getMessage());
+            }
+        }
+        return newFixedThreadPool(DEFAULT_POOL_SIZE);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.feilong.core.util;
 
+import static com.feilong.core.Validator.isNotNullOrEmpty;
 import static com.feilong.core.Validator.isNullOrEmpty;
 import static com.feilong.core.bean.ConvertUtil.toArray;
 import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
@@ -24,8 +25,10 @@ import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.collections4.IterableUtils;
@@ -35,6 +38,9 @@ import org.apache.commons.lang3.Validate;
 
 import com.feilong.core.bean.PropertyUtil;
 import com.feilong.core.lang.NumberUtil;
+import com.feilong.core.util.sketch.HyperLogLog;
+import com.feilong.core.util.sketch.QuantileSketch;
+import com.feilong.core.util.sketch.TopKSketch;
 
 /**
  * 专门用来统计数据的工具类.
@@ -464,6 +470,465 @@ public final class AggregateUtil{
         return sumMap;
     }
 
+    //--------------------------summarize-------------------------------------
+
+    /**
+     * 一次循环,统计 <code>beanIterable</code> 指定属性 <code>propertyName</code> 值的 count,sum,min,max,avg.
+     *
+     * <h3>示例:</h3>
+     * <blockquote>
+     *
+     * <pre class="code">
+     * List{@code <User>} list = toList(new User(2L), new User(5L), new User(5L));
+     * NumberSummaryStatistics statistics = AggregateUtil.summarize(list, "id");
+     * </pre>
+     *
+     * <b>返回:</b> count=3,sum=12,min=2,max=5,getAvg(2)=4.00
+     *
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者 empty,返回 null<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
+     * @see NumberSummaryStatistics
+     * @see #summarize(Iterable, String[], Predicate)
+     * @since 1.13.1
+     */
+    public static <O> NumberSummaryStatistics summarize(Iterable<O> beanIterable,String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+        return isNullOrEmpty(beanIterable) ? null : summarize(beanIterable, toArray(propertyName), null).get(propertyName);
+    }
+
+    /**
+     * 一次循环,统计 <code>beanIterable</code> 多个属性 <code>propertyNames</code> 值的 count,sum,min,max,avg.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}
+     * @throws NullPointerException
+     *             如果<code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             果<code>propertyNames</code> 有元素 是null <br>
+     * @see #summarize(Iterable, String[], Predicate)
+     * @since 1.13.1
+     */
+    public static <O> Map<String, NumberSummaryStatistics> summarize(Iterable<O> beanIterable,String...propertyNames){
+        return summarize(beanIterable, propertyNames, null);
+    }
+
+    /**
+     * 迭代<code>beanIterable</code>,一次循环统计符合 <code>includePredicate</code>的元素的多个属性 <code>propertyNames</code> 值的
+     * count,sum,min,max,avg.
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #sum(Iterable, String[], Predicate)} 每个元素每个属性都创建新的 {@link BigDecimal} 不同,整数类型使用 <code>long</code> 累加,
+     * 浮点类型使用 <code>double</code> 累加,只有溢出或者是其他类型才会使用 {@link BigDecimal},参见 {@link NumberSummaryStatistics}</li>
+     * <li>和 sql 的统计函数一样,null值会被忽略,不参与统计</li>
+     * <li>返回的 {@link LinkedHashMap},key是 <code>propertyNames</code>的元素,顺序依照 <code>propertyNames</code>元素的顺序;
+     * 即使没有符合 <code>includePredicate</code>的元素,每个属性也会有一个 count 是0 的统计信息</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyNames
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param includePredicate
+     *            the include predicate,如果是null,那么迭代所有的元素
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}
+     * @throws NullPointerException
+     *             如果<code>propertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             果<code>propertyNames</code> 有元素 是null <br>
+     * @see NumberSummaryStatistics
+     * @since 1.13.1
+     */
+    public static <O> Map<String, NumberSummaryStatistics> summarize(
+                    Iterable<O> beanIterable,
+                    String[] propertyNames,
+                    Predicate<O> includePredicate){
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+        Validate.noNullElements(propertyNames, "propertyNames can't be null/empty!");
+
+        //使用数组,避免每个元素每个属性都去 map get/put
+        NumberSummaryStatistics[] statisticsArray = newStatisticsArray(propertyNames.length);
+        for (O obj : beanIterable){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+            accept(statisticsArray, obj, propertyNames);
+        }
+        return toStatisticsMap(propertyNames, statisticsArray);
+    }
+
+    //--------------------------groupSummarize-------------------------------------
+
+    /**
+     * 一次循环,以 <code>keyPropertyNames</code> 的值组合成的key分组,统计每组 <code>valuePropertyNames</code> 值的 count,sum,min,max,avg.
+     *
+     * <h3>示例:</h3>
+     * <blockquote>
+     *
+     * <p>
+     * <b>场景:</b> 统计每个店铺每天的订单金额
+     * </p>
+     *
+     * <pre class="code">
+     * Map{@code <List<Object>, Map<String, NumberSummaryStatistics>>} map = AggregateUtil
+     *                 .groupSummarize(orderList, toArray("storeId", "day"), "totalAmount", "quantity");
+     *
+     * NumberSummaryStatistics statistics = map.get(toList(storeId, day)).get("totalAmount");
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyNames
+     *            分组的属性名称,返回的map key是这些属性的值依次组成的 list
+     * @param valuePropertyNames
+     *            需要统计的属性名称
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}
+     * @throws NullPointerException
+     *             如果<code>keyPropertyNames</code> 或者 <code>valuePropertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果<code>keyPropertyNames</code> 或者 <code>valuePropertyNames</code> 是empty或者有元素 是null
+     * @see #groupSummarize(Iterable, Transformer, String[], Predicate)
+     * @since 1.13.1
+     */
+    public static <O> Map<List<Object>, Map<String, NumberSummaryStatistics>> groupSummarize(
+                    Iterable<O> beanIterable,
+                    String[] keyPropertyNames,
+                    String...valuePropertyNames){
+        return groupSummarize(beanIterable, keyPropertyNames, valuePropertyNames, null);
+    }
+
+    /**
+     * 迭代<code>beanIterable</code>,一次循环,将符合 <code>includePredicate</code>的元素以 <code>keyPropertyNames</code> 的值组合成的key分组,
+     * 统计每组 <code>valuePropertyNames</code> 值的 count,sum,min,max,avg.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyPropertyNames
+     *            分组的属性名称,返回的map key是这些属性的值依次组成的 list
+     * @param valuePropertyNames
+     *            需要统计的属性名称
+     * @param includePredicate
+     *            the include predicate,如果是null,那么迭代所有的元素
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}
+     * @throws NullPointerException
+     *             如果<code>keyPropertyNames</code> 或者 <code>valuePropertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果<code>keyPropertyNames</code> 或者 <code>valuePropertyNames</code> 是empty或者有元素 是null
+     * @see #groupSummarize(Iterable, Transformer, String[], Predicate)
+     * @since 1.13.1
+     */
+    public static <O> Map<List<Object>, Map<String, NumberSummaryStatistics>> groupSummarize(
+                    Iterable<O> beanIterable,
+                    final String[] keyPropertyNames,
+                    String[] valuePropertyNames,
+                    Predicate<O> includePredicate){
+        Validate.notEmpty(keyPropertyNames, "keyPropertyNames can't be null/empty!");
+        Validate.noNullElements(keyPropertyNames, "keyPropertyNames can't has null element!");
+
+        return groupSummarize(beanIterable, new Transformer<O, List<Object>>(){
+
+            @Override
+            public List<Object> transform(O bean){
+                Object[] values = new Object[keyPropertyNames.length];
+                for (int i = 0; i < keyPropertyNames.length; ++i){
+                    values[i] = PropertyUtil.getProperty(bean, keyPropertyNames[i]);
+                }
+                return Arrays.asList(values);
+            }
+        }, valuePropertyNames, includePredicate);
+    }
+
+    /**
+     * 迭代<code>beanIterable</code>,一次循环,将符合 <code>includePredicate</code>的元素以 <code>keyTransformer</code> 的返回值分组,
+     * 统计每组 <code>valuePropertyNames</code> 值的 count,sum,min,max,avg.
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和先 {@link CollectionsUtil#group(Iterable, Transformer)} 再对每组调用 {@link #sum(Iterable, String...)} 相比,只循环一次,
+     * 每组每个属性使用一个可变的 {@link NumberSummaryStatistics} 累加,参见 {@link #summarize(Iterable, String[], Predicate)}</li>
+     * <li>返回的 {@link LinkedHashMap},key的顺序是分组key在 <code>beanIterable</code> 中第一次出现的顺序;
+     * value 也是 {@link LinkedHashMap},key的顺序依照 <code>valuePropertyNames</code>元素的顺序</li>
+     * <li>和 sql 的统计函数一样,null值会被忽略,不参与统计</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            分组key的类型
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param keyTransformer
+     *            分组key的转换器
+     * @param valuePropertyNames
+     *            需要统计的属性名称
+     * @param includePredicate
+     *            the include predicate,如果是null,那么迭代所有的元素
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 {@link Collections#emptyMap()}
+     * @throws NullPointerException
+     *             如果<code>keyTransformer</code> 或者 <code>valuePropertyNames</code> 是null
+     * @throws IllegalArgumentException
+     *             如果<code>valuePropertyNames</code> 是empty或者有元素 是null
+     * @since 1.13.1
+     */
+    public static <O, T> Map<T, Map<String, NumberSummaryStatistics>> groupSummarize(
+                    Iterable<O> beanIterable,
+                    Transformer<O, T> keyTransformer,
+                    String[] valuePropertyNames,
+                    Predicate<O> includePredicate){
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+        Validate.notEmpty(valuePropertyNames, "valuePropertyNames can't be null/empty!");
+        Validate.noNullElements(valuePropertyNames, "valuePropertyNames can't has null element!");
+
+        if (isNullOrEmpty(beanIterable)){
+            return emptyMap();
+        }
+
+        //---------------------------------------------------------------
+        Map<T, NumberSummaryStatistics[]> groupMap = newLinkedHashMap();
+        for (O obj : beanIterable){
+            if (null != includePredicate && !includePredicate.evaluate(obj)){
+                continue;
+            }
+
+            T key = keyTransformer.transform(obj);
+            NumberSummaryStatistics[] statisticsArray = groupMap.get(key);
+            if (null == statisticsArray){
+                statisticsArray = newStatisticsArray(valuePropertyNames.length);
+                groupMap.put(key, statisticsArray);
+            }
+            accept(statisticsArray, obj, valuePropertyNames);
+        }
+
+        //---------------------------------------------------------------
+        Map<T, Map<String, NumberSummaryStatistics>> map = newLinkedHashMap(groupMap.size());
+        for (Map.Entry<T, NumberSummaryStatistics[]> entry : groupMap.entrySet()){
+            map.put(entry.getKey(), toStatisticsMap(valuePropertyNames, entry.getValue()));
+        }
+        return map;
+    }
+
+    //--------------------------sketch-------------------------------------
+
+    /**
+     * 循环 <code>beanIterable</code>,使用固定内存统计 <code>propertyName</code> 出现次数最多的值.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #groupCount(Iterable, String)} 保存所有不同的值不同,最多只保存 <code>capacity</code> 个计数器,次数是估计值,参见 {@link TopKSketch}</li>
+     * <li>返回的 sketch 可以和其他分区的结果 {@link TopKSketch#merge(TopKSketch)}</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, Long>} top20 = AggregateUtil.{@code <User, String>} topKSketch(userList, "name", 200).getTopK(20);
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param capacity
+     *            最多保存的计数器个数,建议是需要的K的数倍
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回没有任何值的 sketch
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank,或者 <code>capacity</code> &lt;= 0
+     * @see TopKSketch
+     * @since 1.13.1
+     */
+    public static <O, T> TopKSketch<T> topKSketch(Iterable<O> beanIterable,String propertyName,int capacity){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+
+        TopKSketch<T> sketch = new TopKSketch<>(capacity);
+        if (isNotNullOrEmpty(beanIterable)){
+            for (O obj : beanIterable){
+                sketch.offer(PropertyUtil.<T> getProperty(obj, propertyName));
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * 循环 <code>beanIterable</code>,使用固定内存估计 <code>propertyName</code> 不同值的个数.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * long distinctCount = AggregateUtil.hyperLogLog(orderList, "memberId").getCardinality();
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回没有任何值的 sketch
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     * @see HyperLogLog
+     * @since 1.13.1
+     */
+    public static <O> HyperLogLog hyperLogLog(Iterable<O> beanIterable,String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        if (isNotNullOrEmpty(beanIterable)){
+            for (O obj : beanIterable){
+                hyperLogLog.offer(PropertyUtil.getProperty(obj, propertyName));
+            }
+        }
+        return hyperLogLog;
+    }
+
+    /**
+     * 循环 <code>beanIterable</code>,使用固定内存统计数字属性 <code>propertyName</code> 的分位数.
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * QuantileSketch sketch = AggregateUtil.quantileSketch(orderList, "totalAmount");
+     * double median = sketch.getQuantile(0.5);
+     * double p99 = sketch.getQuantile(0.99);
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回没有任何值的 sketch;null值会被忽略
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     * @see QuantileSketch
+     * @since 1.13.1
+     */
+    public static <O> QuantileSketch quantileSketch(Iterable<O> beanIterable,String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+
+        QuantileSketch sketch = new QuantileSketch();
+        if (isNotNullOrEmpty(beanIterable)){
+            for (O obj : beanIterable){
+                Number value = PropertyUtil.getProperty(obj, propertyName);
+                if (null != value){
+                    sketch.offer(value.doubleValue());
+                }
+            }
+        }
+        return sketch;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建 <code>length</code> 个 {@link NumberSummaryStatistics}.
+     *
+     * @param length
+     *            the length
+     * @return the number summary statistics[]
+     * @since 1.13.1
+     */
+    static NumberSummaryStatistics[] newStatisticsArray(int length){
+        NumberSummaryStatistics[] statisticsArray = new NumberSummaryStatistics[length];
+        for (int i = 0; i < length; ++i){
+            statisticsArray[i] = new NumberSummaryStatistics();
+        }
+        return statisticsArray;
+    }
+
+    /**
+     * 将 <code>bean</code> 的 <code>propertyNames</code> 属性值依次累加到 <code>statisticsArray</code> 对应的位置.
+     *
+     * @param <O>
+     *            the generic type
+     * @param statisticsArray
+     *            the statistics array
+     * @param bean
+     *            the bean
+     * @param propertyNames
+     *            the property names
+     * @since 1.13.1
+     */
+    static <O> void accept(NumberSummaryStatistics[] statisticsArray,O bean,String[] propertyNames){
+        for (int i = 0; i < propertyNames.length; ++i){
+            statisticsArray[i].accept(PropertyUtil.<Number> getProperty(bean, propertyNames[i]));
+        }
+    }
+
+    /**
+     * 转成 key是 <code>propertyNames</code> 元素的 {@link LinkedHashMap}.
+     *
+     * @param propertyNames
+     *            the property names
+     * @param statisticsArray
+     *            the statistics array
+     * @return the map
+     * @since 1.13.1
+     */
+    static Map<String, NumberSummaryStatistics> toStatisticsMap(String[] propertyNames,NumberSummaryStatistics[] statisticsArray){
+        Map<String, NumberSummaryStatistics> map = newLinkedHashMap(propertyNames.length);
+        for (int i = 0; i < propertyNames.length; ++i){
+            map.put(propertyNames[i], statisticsArray[i]);
+        }
+        return map;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -598,14 +1063,14 @@ public final class AggregateUtil{
         }
         Validate.notBlank(propertyName, "propertyName can't be null/empty!");
 
-        Map<T, Integer> map = newLinkedHashMap();
+        CountingMap<T> countingMap = new CountingMap<>();
         for (O obj : beanIterable){
             if (null != includePredicate && !includePredicate.evaluate(obj)){
                 continue;
             }
-            MapUtil.putSumValue(map, PropertyUtil.<T> getProperty(obj, propertyName), 1);
+            countingMap.increment(PropertyUtil.<T> getProperty(obj, propertyName));
         }
-        return map;
+        return countingMap.toIntegerMap();
     }
 
     //---------------------------------------------------------------
@@ -976,18 +1441,46 @@ public final class AggregateUtil{
 
         //---------------------------------------------------------------
 
-        Map<String, Map<Object, Integer>> resultMap = newLinkedHashMap(propertyNames.length);
+        //每个属性一个计数 map,避免每个元素每个属性都去 map get/put
+        CountingMap<Object>[] countingMaps = newCountingMaps(propertyNames.length);
+        boolean hasMatch = false;
         for (O bean : beanIterable){
             if (null != includePredicate && !includePredicate.evaluate(bean)){
                 continue;
             }
-            handlerForeachPropertyNames(propertyNames, propertyValueAndTransformerMap, resultMap, bean);
+            hasMatch = true;
+            handlerForeachPropertyNames(propertyNames, propertyValueAndTransformerMap, countingMaps, bean);
+        }
+
+        //---------------------------------------------------------------
+        Map<String, Map<Object, Integer>> resultMap = newLinkedHashMap(propertyNames.length);
+        if (hasMatch){
+            for (int i = 0; i < propertyNames.length; ++i){
+                resultMap.put(propertyNames[i], countingMaps[i].toIntegerMap());
+            }
         }
         return resultMap;
     }
 
     //---------------------------------------------------------------
 
+    /**
+     * 创建 <code>length</code> 个 {@link CountingMap}.
+     *
+     * @param length
+     *            the length
+     * @return the counting map[]
+     * @since 1.13.1
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static CountingMap<Object>[] newCountingMaps(int length){
+        CountingMap<Object>[] countingMaps = new CountingMap[length];
+        for (int i = 0; i < length; ++i){
+            countingMaps[i] = new CountingMap<>();
+        }
+        return countingMaps;
+    }
+
     /**
      * Handler foreach property names.
      *
@@ -997,8 +1490,8 @@ public final class AggregateUtil{
      *            the property names
      * @param propertyNameValueConverterMap
      *            the property name value converter map
-     * @param resultMap
-     *            the result map
+     * @param countingMaps
+     *            和 <code>propertyNames</code> 一一对应的计数 map
      * @param bean
      *            the bean
      * @since 1.10.7
@@ -1006,21 +1499,10 @@ public final class AggregateUtil{
     private static <O> void handlerForeachPropertyNames(
                     String[] propertyNames,
                     Map<String, Transformer<Object, Object>> propertyNameValueConverterMap,
-                    Map<String, Map<Object, Integer>> resultMap,
+                    CountingMap<Object>[] countingMaps,
                     O bean){
-        for (String propertyName : propertyNames){
-
-            //取map,如果没有构造一个
-            Map<Object, Integer> propertyNameGroupCountMap = defaultIfNull(
-                            resultMap.get(propertyName),
-                            new LinkedHashMap<Object, Integer>());
-
-            Object value = convertValue(bean, propertyName, propertyNameValueConverterMap);
-            MapUtil.putSumValue(propertyNameGroupCountMap, value, 1);
-
-            //---------------------------------------------------------------
-
-            resultMap.put(propertyName, propertyNameGroupCountMap);
+        for (int i = 0; i < propertyNames.length; ++i){
+            countingMaps[i].increment(convertValue(bean, propertyNames[i], propertyNameValueConverterMap));
         }
     }
 
@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 基于 bean 属性值的多个索引,只循环一次 <code>beanIterable</code> 同时构造.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>相当于一次调用多个 {@link CollectionsUtil#group(Iterable, String)} 和 {@link CollectionsUtil#groupOne(Iterable, String)},但是 <code>beanIterable</code>
+ * 只会循环一次</li>
+ * <li>group 索引(多值):key 是属性值,value 是该属性值对应的所有元素,顺序和 <code>beanIterable</code> 一致</li>
+ * <li>unique 索引(单值):key 是属性值,value 是<b>第一个</b>匹配的元素,后面出现相同的属性值将会忽略,和 {@link CollectionsUtil#groupOne(Iterable, String)}一致</li>
+ * <li>构造完成之后,返回的 map 和 list 都是只读的,查询直接是 hash 命中,不需要再循环</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * BeanIndex{@code <Order>} beanIndex = BeanIndex.{@code <Order>} builder()//
+ *                 .group("memberId")
+ *                 .group("storeId")
+ *                 .unique("code")
+ *                 .build(orderList);
+ * 
+ * List{@code <Order>} memberOrderList = beanIndex.get("memberId", 5L);
+ * Order order = beanIndex.getOne("code", "20181010");
+ * Map{@code <Long, List<Order>>} storeIdAndOrderListMap = beanIndex.getGroup("storeId");
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            the generic type
+ * @see CollectionsUtil#group(Iterable, String)
+ * @see CollectionsUtil#groupOne(Iterable, String)
+ * @since 1.13.1
+ */
+public final class BeanIndex<O>{
+
+    /** propertyName 和对应的 group 索引. */
+    private final Map<String, Map<Object, List<O>>> propertyNameAndGroupMap;
+
+    /** propertyName 和对应的 unique 索引. */
+    private final Map<String, Map<Object, O>>       propertyNameAndUniqueMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bean index.
+     *
+     * @param propertyNameAndGroupMap
+     *            the property name and group map
+     * @param propertyNameAndUniqueMap
+     *            the property name and unique map
+     */
+    private BeanIndex(Map<String, Map<Object, List<O>>> propertyNameAndGroupMap, Map<String, Map<Object, O>> propertyNameAndUniqueMap){
+        this.propertyNameAndGroupMap = propertyNameAndGroupMap;
+        this.propertyNameAndUniqueMap = propertyNameAndUniqueMap;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建 {@link Builder}.
+     *
+     * @param <O>
+     *            the generic type
+     * @return the builder
+     */
+    public static <O> Builder<O> builder(){
+        return new Builder<>();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>propertyName</code> 的 group 索引.
+     *
+     * @param <T>
+     *            属性值的类型
+     * @param propertyName
+     *            构造时通过 {@link Builder#group(String)} 指定的属性名称
+     * @return 只读的 map,如果构造时 <code>beanIterable</code> 是null或者empty,返回 empty map
+     * @throws IllegalArgumentException
+     *             如果构造时没有指定 <code>propertyName</code> 的 group 索引
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<T, List<O>> getGroup(String propertyName){
+        Map<Object, List<O>> map = propertyNameAndGroupMap.get(propertyName);
+        Validate.isTrue(null != map, "propertyName:[%s] is not a group index,pls use builder.group(\"%s\")", propertyName, propertyName);
+        return (Map<T, List<O>>) map;
+    }
+
+    /**
+     * 获得 <code>propertyName</code> 的 unique 索引.
+     *
+     * @param <T>
+     *            属性值的类型
+     * @param propertyName
+     *            构造时通过 {@link Builder#unique(String)} 指定的属性名称
+     * @return 只读的 map,如果构造时 <code>beanIterable</code> 是null或者empty,返回 empty map
+     * @throws IllegalArgumentException
+     *             如果构造时没有指定 <code>propertyName</code> 的 unique 索引
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<T, O> getUnique(String propertyName){
+        Map<Object, O> map = propertyNameAndUniqueMap.get(propertyName);
+        Validate.isTrue(null != map, "propertyName:[%s] is not a unique index,pls use builder.unique(\"%s\")", propertyName, propertyName);
+        return (Map<T, O>) map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>propertyName</code> 的 group 索引中,查找属性值是 <code>propertyValue</code> 的元素.
+     *
+     * @param propertyName
+     *            构造时通过 {@link Builder#group(String)} 指定的属性名称
+     * @param propertyValue
+     *            属性值
+     * @return 只读的 list,如果没有,返回 empty list
+     * @throws IllegalArgumentException
+     *             如果构造时没有指定 <code>propertyName</code> 的 group 索引
+     */
+    public List<O> get(String propertyName,Object propertyValue){
+        List<O> list = getGroup(propertyName).get(propertyValue);
+        return null == list ? Collections.<O> emptyList() : list;
+    }
+
+    /**
+     * 从 <code>propertyName</code> 的 unique 索引中,查找属性值是 <code>propertyValue</code> 的元素.
+     *
+     * @param propertyName
+     *            构造时通过 {@link Builder#unique(String)} 指定的属性名称
+     * @param propertyValue
+     *            属性值
+     * @return 如果没有,返回null
+     * @throws IllegalArgumentException
+     *             如果构造时没有指定 <code>propertyName</code> 的 unique 索引
+     */
+    public O getOne(String propertyName,Object propertyValue){
+        return getUnique(propertyName).get(propertyValue);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * {@link BeanIndex} 的构造器.
+     *
+     * @param <O>
+     *            the generic type
+     * @since 1.13.1
+     */
+    public static final class Builder<O>{
+
+        /** group 索引的属性名称. */
+        private final Set<String> groupPropertyNames  = new LinkedHashSet<>();
+
+        /** unique 索引的属性名称. */
+        private final Set<String> uniquePropertyNames = new LinkedHashSet<>();
+
+        //---------------------------------------------------------------
+
+        /**
+         * Instantiates a new builder.
+         */
+        private Builder(){
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 添加一个 group 索引(多值).
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank
+         */
+        public Builder<O> group(String propertyName){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+            groupPropertyNames.add(propertyName);
+            return this;
+        }
+
+        /**
+         * 添加一个 unique 索引(单值,第一个匹配的元素).
+         *
+         * @param propertyName
+         *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+         *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>propertyName</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>propertyName</code> 是blank
+         */
+        public Builder<O> unique(String propertyName){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+            uniquePropertyNames.add(propertyName);
+            return this;
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 循环一次 <code>beanIterable</code>,构造所有的索引.
+         *
+         * @param beanIterable
+         *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+         * @return 如果 <code>beanIterable</code> 是null或者empty,返回的所有索引都是 empty map<br>
+         * @throws IllegalArgumentException
+         *             如果没有指定任何索引
+         */
+        public BeanIndex<O> build(Iterable<O> beanIterable){
+            Validate.isTrue(!groupPropertyNames.isEmpty() || !uniquePropertyNames.isEmpty(), "pls add group or unique index first!");
+
+            String[] groupNames = groupPropertyNames.toArray(new String[groupPropertyNames.size()]);
+            String[] uniqueNames = uniquePropertyNames.toArray(new String[uniquePropertyNames.size()]);
+
+            //group 索引不预估 map 的大小,属性值的种类(比如性别,状态)可能远小于元素个数
+            Map<Object, List<O>>[] groupMaps = newMapArray(groupNames.length);
+            for (int i = 0; i < groupNames.length; ++i){
+                groupMaps[i] = newLinkedHashMap();
+            }
+
+            //unique 索引的 key 通常是 id/code 这类几乎每个元素都不同的属性,如果知道元素个数,按照元素个数预估,避免 rehash
+            int uniqueExpectedSize = beanIterable instanceof Collection ? ((Collection<O>) beanIterable).size() : -1;
+            Map<Object, O>[] uniqueMaps = newMapArray(uniqueNames.length);
+            for (int i = 0; i < uniqueNames.length; ++i){
+                uniqueMaps[i] = uniqueExpectedSize > 0 ? MapUtil.<Object, O> newLinkedHashMap(uniqueExpectedSize) : MapUtil.<Object, O> newLinkedHashMap();
+            }
+
+            //---------------------------------------------------------------
+            if (!isNullOrEmpty(beanIterable)){
+                for (O obj : beanIterable){
+                    for (int i = 0; i < groupNames.length; ++i){
+                        MapUtil.putMultiValue(groupMaps[i], PropertyUtil.getProperty(obj, groupNames[i]), obj);
+                    }
+                    for (int i = 0; i < uniqueNames.length; ++i){
+                        Object key = PropertyUtil.getProperty(obj, uniqueNames[i]);
+                        if (!uniqueMaps[i].containsKey(key)){
+                            uniqueMaps[i].put(key, obj);
+                        }
+                    }
+                }
+            }
+
+            //---------------------------------------------------------------
+            Map<String, Map<Object, List<O>>> propertyNameAndGroupMap = new LinkedHashMap<>();
+            for (int i = 0; i < groupNames.length; ++i){
+                propertyNameAndGroupMap.put(groupNames[i], toReadOnly(groupMaps[i]));
+            }
+            Map<String, Map<Object, O>> propertyNameAndUniqueMap = new LinkedHashMap<>();
+            for (int i = 0; i < uniqueNames.length; ++i){
+                Map<Object, O> map = uniqueMaps[i];
+                propertyNameAndUniqueMap.put(uniqueNames[i], map.isEmpty() ? Collections.<Object, O> emptyMap() : unmodifiableMap(map));
+            }
+            return new BeanIndex<>(propertyNameAndGroupMap, propertyNameAndUniqueMap);
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 创建 <code>length</code> 长度的 map 数组.
+         *
+         * @param <K>
+         *            the key type
+         * @param <V>
+         *            the value type
+         * @param length
+         *            the length
+         * @return the map[]
+         */
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        private static <K, V> Map<K, V>[] newMapArray(int length){
+            return new Map[length];
+        }
+
+        /**
+         * 将 group 索引的 map 和里面的 list 转成只读.
+         *
+         * @param <O>
+         *            the generic type
+         * @param map
+         *            the map
+         * @return the map
+         */
+        private static <O> Map<Object, List<O>> toReadOnly(Map<Object, List<O>> map){
+            if (map.isEmpty()){
+                return emptyMap();
+            }
+            for (Map.Entry<Object, List<O>> entry : map.entrySet()){
+                entry.setValue(unmodifiableList(entry.getValue()));
+            }
+            return unmodifiableMap(map);
+        }
+    }
+}
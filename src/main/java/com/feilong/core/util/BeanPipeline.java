@@ -0,0 +1,530 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.collections4.Closure;
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.PredicateUtils;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+
+/**
+ * 惰性的集合处理管道,多个 select/collect/removeDuplicate 步骤<b>只循环一次</b>,只有在调用终止方法(toList,group...)时才会真正执行.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>和依次调用 {@link CollectionsUtil#select(Iterable, Predicate)},{@link CollectionsUtil#collect(Iterable, Transformer)},
+ * {@link CollectionsUtil#removeDuplicate(java.util.Collection)},{@link CollectionsUtil#group(Iterable, String)} 的结果一致,
+ * 但是中间步骤不会创建临时的 list</li>
+ * <li>每个中间方法(select/selectRejected/collect/removeDuplicate)都返回一个<b>新的</b>管道,原来的管道不受影响,可以复用</li>
+ * <li>终止方法每调用一次,就会重新循环一次 <code>beanIterable</code></li>
+ * <li>如果 <code>beanIterable</code> 是null,所有终止方法都返回 empty 结果</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * Map{@code <String, List<Order>>} map = CollectionsUtil.pipeline(orderLineList)//
+ *                 .select("status", 1, 2)
+ *                 .{@code <Order>} collect("order")
+ *                 .removeDuplicate()
+ *                 .group("memberCode");
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            当前步骤元素的类型
+ * @see CollectionsUtil#pipeline(Iterable)
+ * @since 1.13.1
+ */
+public final class BeanPipeline<O>{
+
+    /** 原始数据. */
+    private final Iterable<?>     source;
+
+    /** 上一个步骤,如果是null,表示是第一个步骤. */
+    private final BeanPipeline<?> upstream;
+
+    /** 当前步骤,如果是null,表示原始数据. */
+    private final Stage           stage;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new bean pipeline.
+     *
+     * @param source
+     *            the source
+     * @param upstream
+     *            the upstream
+     * @param stage
+     *            the stage
+     */
+    private BeanPipeline(Iterable<?> source, BeanPipeline<?> upstream, Stage stage){
+        this.source = source;
+        this.upstream = upstream;
+        this.stage = stage;
+    }
+
+    /**
+     * 基于 <code>beanIterable</code> 创建管道.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            the bean iterable,可以是null
+     * @return the bean pipeline
+     * @see CollectionsUtil#pipeline(Iterable)
+     */
+    public static <O> BeanPipeline<O> from(Iterable<O> beanIterable){
+        return new BeanPipeline<>(beanIterable, null, null);
+    }
+
+    //---------------------------------------------------------------
+    // 中间方法
+
+    /**
+     * 只保留满足 <code>predicate</code> 的元素.
+     *
+     * @param predicate
+     *            the predicate
+     * @return 新的管道
+     * @throws NullPointerException
+     *             如果 <code>predicate</code> 是null
+     * @see CollectionsUtil#select(Iterable, Predicate)
+     */
+    public BeanPipeline<O> select(final Predicate<O> predicate){
+        Validate.notNull(predicate, "predicate can't be null!");
+        return then(new Stage(){
+
+            @Override
+            public Sink wrap(final Sink downstream){
+                return new Sink(){
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public void accept(Object obj){
+                        if (predicate.evaluate((O) obj)){
+                            downstream.accept(obj);
+                        }
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * 只保留 <code>propertyName</code> 的值在 <code>propertyValues</code> 中的元素.
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param propertyValues
+     *            the property values
+     * @return 新的管道
+     * @see CollectionsUtil#select(Iterable, String, Object...)
+     * @see BeanPredicateUtil#containsPredicate(String, Object...)
+     */
+    @SafeVarargs
+    public final <V> BeanPipeline<O> select(String propertyName,V...propertyValues){
+        return select(BeanPredicateUtil.<O, V> containsPredicate(propertyName, propertyValues));
+    }
+
+    /**
+     * 去掉满足 <code>predicate</code> 的元素.
+     *
+     * @param predicate
+     *            the predicate
+     * @return 新的管道
+     * @throws NullPointerException
+     *             如果 <code>predicate</code> 是null
+     * @see CollectionsUtil#selectRejected(Iterable, Predicate)
+     */
+    public BeanPipeline<O> selectRejected(Predicate<O> predicate){
+        Validate.notNull(predicate, "predicate can't be null!");
+        return select(PredicateUtils.notPredicate(predicate));
+    }
+
+    /**
+     * 去掉 <code>propertyName</code> 的值在 <code>propertyValues</code> 中的元素.
+     *
+     * @param <V>
+     *            the value type
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param propertyValues
+     *            the property values
+     * @return 新的管道
+     * @see CollectionsUtil#selectRejected(Iterable, String, Object...)
+     */
+    @SafeVarargs
+    public final <V> BeanPipeline<O> selectRejected(String propertyName,V...propertyValues){
+        return selectRejected(BeanPredicateUtil.<O, V> containsPredicate(propertyName, propertyValues));
+    }
+
+    /**
+     * 使用 <code>transformer</code> 转换每个元素.
+     *
+     * @param <T>
+     *            the generic type
+     * @param transformer
+     *            the transformer
+     * @return 新的管道
+     * @throws NullPointerException
+     *             如果 <code>transformer</code> 是null
+     * @see CollectionsUtil#collect(Iterable, Transformer)
+     */
+    public <T> BeanPipeline<T> collect(final Transformer<? super O, ? extends T> transformer){
+        Validate.notNull(transformer, "transformer can't be null!");
+        return then(new Stage(){
+
+            @Override
+            public Sink wrap(final Sink downstream){
+                return new Sink(){
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public void accept(Object obj){
+                        downstream.accept(transformer.transform((O) obj));
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * 提取每个元素 <code>propertyName</code> 的值.
+     *
+     * @param <T>
+     *            the generic type
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 新的管道
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     * @see CollectionsUtil#getPropertyValueList(Iterable, String)
+     */
+    public <T> BeanPipeline<T> collect(final String propertyName){
+        return collect(new PropertyValueTransformer<O, T>(propertyName));
+    }
+
+    /**
+     * 去掉重复的元素(使用 equals 判断,保留第一次出现的元素).
+     *
+     * @return 新的管道
+     * @see CollectionsUtil#removeDuplicate(java.util.Collection)
+     */
+    public BeanPipeline<O> removeDuplicate(){
+        return then(new Stage(){
+
+            @Override
+            public Sink wrap(final Sink downstream){
+                final Set<Object> seen = new HashSet<>();
+                return new Sink(){
+
+                    @Override
+                    public void accept(Object obj){
+                        if (seen.add(obj)){
+                            downstream.accept(obj);
+                        }
+                    }
+                };
+            }
+        });
+    }
+
+    //---------------------------------------------------------------
+    // 终止方法
+
+    /**
+     * 执行管道,返回 list.
+     *
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty list
+     */
+    public List<O> toList(){
+        final List<O> list = new ArrayList<>();
+        run(new Sink(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void accept(Object obj){
+                list.add((O) obj);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 执行管道,返回 {@link LinkedHashSet}.
+     *
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty set
+     */
+    public Set<O> toSet(){
+        final Set<O> set = new LinkedHashSet<>();
+        run(new Sink(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void accept(Object obj){
+                set.add((O) obj);
+            }
+        });
+        return set;
+    }
+
+    /**
+     * 执行管道,对每个元素执行 <code>closure</code>.
+     *
+     * @param closure
+     *            the closure
+     * @throws NullPointerException
+     *             如果 <code>closure</code> 是null
+     */
+    public void forEach(final Closure<O> closure){
+        Validate.notNull(closure, "closure can't be null!");
+        run(new Sink(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void accept(Object obj){
+                closure.execute((O) obj);
+            }
+        });
+    }
+
+    /**
+     * 执行管道,以 <code>propertyName</code> 的值分组.
+     *
+     * @param <T>
+     *            the generic type
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty map
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     * @see CollectionsUtil#group(Iterable, String)
+     */
+    public <T> Map<T, List<O>> group(String propertyName){
+        return group(new PropertyValueTransformer<O, T>(propertyName));
+    }
+
+    /**
+     * 执行管道,以 <code>keyTransformer</code> 的返回值分组.
+     *
+     * @param <T>
+     *            the generic type
+     * @param keyTransformer
+     *            the key transformer
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty map
+     * @throws NullPointerException
+     *             如果 <code>keyTransformer</code> 是null
+     * @see CollectionsUtil#group(Iterable, Transformer)
+     */
+    public <T> Map<T, List<O>> group(final Transformer<O, T> keyTransformer){
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+
+        final Map<T, List<O>> map = newLinkedHashMap();
+        run(new Sink(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void accept(Object obj){
+                MapUtil.putMultiValue(map, keyTransformer.transform((O) obj), (O) obj);
+            }
+        });
+        return map;
+    }
+
+    /**
+     * 执行管道,以 <code>propertyName</code> 的值为key,第一个匹配的元素为value.
+     *
+     * @param <T>
+     *            the generic type
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty map
+     * @throws NullPointerException
+     *             如果 <code>propertyName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 是blank
+     * @see CollectionsUtil#groupOne(Iterable, String)
+     */
+    public <T> Map<T, O> groupOne(String propertyName){
+        final Transformer<O, T> keyTransformer = new PropertyValueTransformer<>(propertyName);
+
+        final Map<T, O> map = newLinkedHashMap();
+        run(new Sink(){
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void accept(Object obj){
+                T key = keyTransformer.transform((O) obj);
+                if (!map.containsKey(key)){
+                    map.put(key, (O) obj);
+                }
+            }
+        });
+        return map;
+    }
+
+    /**
+     * 执行管道,返回元素个数.
+     *
+     * @return the int
+     */
+    public int count(){
+        final int[] count = { 0 };
+        run(new Sink(){
+
+            @Override
+            public void accept(Object obj){
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 追加一个步骤.
+     *
+     * @param <T>
+     *            the generic type
+     * @param nextStage
+     *            the next stage
+     * @return the bean pipeline
+     */
+    private <T> BeanPipeline<T> then(Stage nextStage){
+        return new BeanPipeline<>(source, this, nextStage);
+    }
+
+    /**
+     * 从最后一个步骤往前,把所有步骤串成一个 sink,然后循环一次 <code>source</code>.
+     *
+     * @param terminalSink
+     *            the terminal sink
+     */
+    private void run(Sink terminalSink){
+        if (isNullOrEmpty(source)){
+            return;
+        }
+
+        Sink sink = terminalSink;
+        for (BeanPipeline<?> pipeline = this; null != pipeline.stage; pipeline = pipeline.upstream){
+            sink = pipeline.stage.wrap(sink);
+        }
+
+        //---------------------------------------------------------------
+        for (Object obj : source){
+            sink.accept(obj);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 接收元素.
+     */
+    private interface Sink{
+
+        /**
+         * Accept.
+         *
+         * @param obj
+         *            the obj
+         */
+        void accept(Object obj);
+    }
+
+    /**
+     * 管道中的一个步骤,每次执行时包装下游的 sink(有状态的步骤,比如 removeDuplicate,每次执行都会创建新的状态).
+     */
+    private interface Stage{
+
+        /**
+         * Wrap.
+         *
+         * @param downstream
+         *            the downstream
+         * @return the sink
+         */
+        Sink wrap(Sink downstream);
+    }
+
+    /**
+     * 提取属性值的 transformer.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     */
+    private static final class PropertyValueTransformer<O, T> implements Transformer<O, T>{
+
+        /** The property name. */
+        private final String propertyName;
+
+        /**
+         * Instantiates a new property value transformer.
+         *
+         * @param propertyName
+         *            the property name
+         */
+        private PropertyValueTransformer(String propertyName){
+            Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+            this.propertyName = propertyName;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.apache.commons.collections4.Transformer#transform(java.lang.Object)
+         */
+        @Override
+        public T transform(O input){
+            return PropertyUtil.getProperty(input, propertyName);
+        }
+    }
+}
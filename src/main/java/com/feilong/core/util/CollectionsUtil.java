@@ -2023,6 +2023,7 @@ public final class CollectionsUtil{
      *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
      * @see #group(Iterable, String, Predicate)
+     * @see BeanIndex 如果需要对同一个集合按照多个属性 group/groupOne,可以使用 BeanIndex 只循环一次
      * @since 1.0.8
      */
     public static <T, O> Map<T, List<O>> group(Iterable<O> beanIterable,String propertyName){
@@ -2466,6 +2467,7 @@ public final class CollectionsUtil{
      *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}
      * @see #group(Iterable, String)
+     * @see BeanIndex
      * @since 1.0.8
      */
     public static <T, O> Map<T, O> groupOne(Iterable<O> beanIterable,String propertyName){
@@ -2488,6 +2490,40 @@ public final class CollectionsUtil{
         return map;
     }
 
+    //---------------------------------------------------------------
+
+    /**
+     * 基于 <code>beanIterable</code> 创建惰性的处理管道,多个 select/collect/removeDuplicate 步骤只循环一次,在调用 toList/group 等终止方法时才执行.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * List{@code <String>} names = CollectionsUtil.pipeline(userList)//
+     *                 .select("age", 18, 20)
+     *                 .{@code <String>} collect("name")
+     *                 .removeDuplicate()
+     *                 .toList();
+     * </pre>
+     *
+     * 等价于依次调用 {@link #select(Iterable, String, Object...)},{@link #getPropertyValueList(Iterable, String)},
+     * {@link #removeDuplicate(Collection)},但是不会创建中间的 list.
+     *
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等,可以是null
+     * @return the bean pipeline
+     * @see BeanPipeline
+     * @since 1.13.1
+     */
+    public static <O> BeanPipeline<O> pipeline(Iterable<O> beanIterable){
+        return BeanPipeline.from(beanIterable);
+    }
+
     //------------------list---------------------------------------------
 
     /**
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程安全的计数 map,多个线程(比如 {@link com.feilong.core.lang.PartitionThreadExecutor} 的多个分区)可以同时往同一个 map 里面计数.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>基于 {@link ConcurrentHashMap},每个 key 对应一个 {@link AtomicLong} 计数器;已经存在的 key 累加时只有一次无锁的 get 和一次 CAS,不会锁住整个 map</li>
+ * <li>key 可以是null</li>
+ * <li>由于本项目需要兼容 jdk1.7,计数器使用 {@link AtomicLong} 而不是 jdk1.8 的 <code>LongAdder</code>;同一个 key 被大量线程同时累加时,可以每个线程使用一个
+ * {@link CountingMap},最后再合并</li>
+ * <li>{@link #toIntegerMap()} 和 {@link #toLongMap()} 的顺序是不确定的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            the key type
+ * @see CountingMap
+ * @since 1.13.1
+ */
+public final class ConcurrentCountingMap<K>{
+
+    /** {@link ConcurrentHashMap} 不支持 null key,使用这个对象代替. */
+    private static final Object                   NULL_KEY   = new Object();
+
+    /** key 和计数器. */
+    private final ConcurrentMap<Object, AtomicLong> counterMap = new ConcurrentHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * <code>key</code> 的计数加1.
+     *
+     * @param key
+     *            the key,可以是null
+     * @return 累加之后的计数
+     */
+    public long increment(K key){
+        return add(key, 1);
+    }
+
+    /**
+     * <code>key</code> 的计数加 <code>delta</code>.
+     *
+     * @param key
+     *            the key,可以是null
+     * @param delta
+     *            the delta
+     * @return 累加之后的计数
+     */
+    public long add(K key,long delta){
+        Object mapKey = null == key ? NULL_KEY : key;
+
+        AtomicLong counter = counterMap.get(mapKey);
+        if (null == counter){
+            AtomicLong newCounter = new AtomicLong();
+            counter = counterMap.putIfAbsent(mapKey, newCounter);
+            if (null == counter){
+                counter = newCounter;
+            }
+        }
+        return counter.addAndGet(delta);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * <code>key</code> 的计数.
+     *
+     * @param key
+     *            the key
+     * @return 如果没有累加过,返回0
+     */
+    public long get(K key){
+        AtomicLong counter = counterMap.get(null == key ? NULL_KEY : key);
+        return null == counter ? 0 : counter.get();
+    }
+
+    /**
+     * 不同 key 的个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return counterMap.size();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 <code>Map{@code <K, Long>}</code>(快照).
+     *
+     * @return 新的 {@link java.util.LinkedHashMap}
+     */
+    public Map<K, Long> toLongMap(){
+        Map<K, Long> map = newLinkedHashMap(counterMap.size());
+        for (Map.Entry<Object, AtomicLong> entry : counterMap.entrySet()){
+            map.put(toKey(entry.getKey()), entry.getValue().get());
+        }
+        return map;
+    }
+
+    /**
+     * 转成 <code>Map{@code <K, Integer>}</code>(快照).
+     *
+     * @return 新的 {@link java.util.LinkedHashMap}
+     * @throws ArithmeticException
+     *             如果有计数超过了 {@link Integer#MAX_VALUE}
+     */
+    public Map<K, Integer> toIntegerMap(){
+        Map<K, Integer> map = newLinkedHashMap(counterMap.size());
+        for (Map.Entry<Object, AtomicLong> entry : counterMap.entrySet()){
+            map.put(toKey(entry.getKey()), CountingMap.toInt(entry.getValue().get()));
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 还原 key.
+     *
+     * @param mapKey
+     *            the map key
+     * @return the k
+     */
+    @SuppressWarnings("unchecked")
+    private K toKey(Object mapKey){
+        return NULL_KEY == mapKey ? null : (K) mapKey;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return toLongMap().toString();
+    }
+}
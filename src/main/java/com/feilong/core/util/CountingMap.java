@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.mutable.MutableLong;
+
+/**
+ * 计数专用的 map,每个 key 对应一个可变的 long 计数器.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>和 {@link MapUtil#putSumValue(Map, Object, Integer)} 每次累加都要 get 一次,拆箱,相加,装箱,再 put 一次相比,已经存在的 key 只需要 get 一次,然后在计数器上累加,不会创建新的对象</li>
+ * <li>key 的顺序是第一次累加的顺序,key 可以是null</li>
+ * <li>可以使用 {@link #toIntegerMap()} 转成和 {@link AggregateUtil#groupCount(Iterable, String)} 一样的 <code>Map{@code <K, Integer>}</code></li>
+ * <li>该类不是线程安全的,多线程共享同一个计数 map,请使用 {@link ConcurrentCountingMap}</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * CountingMap{@code <String>} countingMap = new CountingMap{@code <>}();
+ * for (Order order : orderList){
+ *     countingMap.increment(order.getProvince());
+ * }
+ * Map{@code <String, Integer>} map = countingMap.toIntegerMap();
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            the key type
+ * @see ConcurrentCountingMap
+ * @see MapUtil#putSumValue(Map, Object, Integer)
+ * @since 1.13.1
+ */
+public final class CountingMap<K>{
+
+    /** key 和计数器. */
+    private final Map<K, MutableLong> counterMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new counting map.
+     */
+    public CountingMap(){
+        this.counterMap = newLinkedHashMap();
+    }
+
+    /**
+     * Instantiates a new counting map.
+     *
+     * @param expectedSize
+     *            预计不同 key 的个数
+     */
+    public CountingMap(int expectedSize){
+        this.counterMap = newLinkedHashMap(expectedSize);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * <code>key</code> 的计数加1.
+     *
+     * @param key
+     *            the key,可以是null
+     * @return 累加之后的计数
+     */
+    public long increment(K key){
+        return add(key, 1);
+    }
+
+    /**
+     * <code>key</code> 的计数加 <code>delta</code>.
+     *
+     * @param key
+     *            the key,可以是null
+     * @param delta
+     *            the delta
+     * @return 累加之后的计数
+     */
+    public long add(K key,long delta){
+        MutableLong counter = counterMap.get(key);
+        if (null == counter){
+            counterMap.put(key, new MutableLong(delta));
+            return delta;
+        }
+        counter.add(delta);
+        return counter.longValue();
+    }
+
+    /**
+     * 合并 <code>other</code> 的计数.
+     *
+     * @param other
+     *            the other
+     * @throws NullPointerException
+     *             如果 <code>other</code> 是null
+     */
+    public void merge(CountingMap<K> other){
+        Validate.notNull(other, "other can't be null!");
+        for (Map.Entry<K, MutableLong> entry : other.counterMap.entrySet()){
+            add(entry.getKey(), entry.getValue().longValue());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * <code>key</code> 的计数.
+     *
+     * @param key
+     *            the key
+     * @return 如果没有累加过,返回0
+     */
+    public long get(K key){
+        MutableLong counter = counterMap.get(key);
+        return null == counter ? 0 : counter.longValue();
+    }
+
+    /**
+     * 不同 key 的个数.
+     *
+     * @return the int
+     */
+    public int size(){
+        return counterMap.size();
+    }
+
+    /**
+     * 是否没有任何 key.
+     *
+     * @return 如果没有任何 key,返回true
+     */
+    public boolean isEmpty(){
+        return counterMap.isEmpty();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 <code>Map{@code <K, Long>}</code>.
+     *
+     * @return 新的 {@link java.util.LinkedHashMap},顺序是 key 第一次累加的顺序
+     */
+    public Map<K, Long> toLongMap(){
+        Map<K, Long> map = newLinkedHashMap(counterMap.size());
+        for (Map.Entry<K, MutableLong> entry : counterMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().toLong());
+        }
+        return map;
+    }
+
+    /**
+     * 转成 <code>Map{@code <K, Integer>}</code>,兼容 {@link AggregateUtil#groupCount(Iterable, String)} 等方法的返回值.
+     *
+     * @return 新的 {@link java.util.LinkedHashMap},顺序是 key 第一次累加的顺序
+     * @throws ArithmeticException
+     *             如果有计数超过了 {@link Integer#MAX_VALUE}
+     */
+    public Map<K, Integer> toIntegerMap(){
+        Map<K, Integer> map = newLinkedHashMap(counterMap.size());
+        for (Map.Entry<K, MutableLong> entry : counterMap.entrySet()){
+            map.put(entry.getKey(), toInt(entry.getValue().longValue()));
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成int.
+     *
+     * @param value
+     *            the value
+     * @return the int
+     * @throws ArithmeticException
+     *             如果超过了int的范围
+     */
+    static int toInt(long value){
+        if ((int) value != value){
+            throw new ArithmeticException("count:[" + value + "] overflow int");
+        }
+        return (int) value;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return counterMap.toString();
+    }
+}
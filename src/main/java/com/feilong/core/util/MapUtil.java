@@ -20,7 +20,6 @@ import static com.feilong.core.Validator.isNullOrEmpty;
 import static com.feilong.core.bean.ConvertUtil.toArray;
 import static com.feilong.core.bean.ConvertUtil.toSet;
 import static java.util.Collections.emptyMap;
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -650,6 +649,8 @@ public final class MapUtil{
      *         如果 <code>value</code> 是null,抛出 {@link NullPointerException}<br>
      * @see org.apache.commons.collections4.bag.HashBag
      * @see org.apache.commons.lang3.mutable.MutableInt
+     * @see CountingMap
+     * @see ConcurrentCountingMap
      * @see "java.util.Map#getOrDefault(Object, Object)"
      * @see <a href="http://stackoverflow.com/questions/81346/most-efficient-way-to-increment-a-map-value-in-java">most-efficient-way-to-
      *      increment-a-map-value-in-java</a>
@@ -755,10 +756,13 @@ public final class MapUtil{
     public static <K, V> Map<K, List<V>> putMultiValue(Map<K, List<V>> map,K key,V value){
         Validate.notNull(map, "map can't be null!");
 
-        List<V> list = defaultIfNull(map.get(key), new ArrayList<V>());
+        //since 1.13.1 只有 key 不存在的时候才创建 list 并 put
+        List<V> list = map.get(key);
+        if (null == list){
+            list = new ArrayList<>();
+            map.put(key, list);
+        }
         list.add(value);
-
-        map.put(key, list);
         return map;
     }
 
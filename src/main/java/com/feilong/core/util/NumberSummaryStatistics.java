@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static java.math.BigDecimal.ZERO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import com.feilong.core.lang.NumberUtil;
+
+/**
+ * 数值的统计信息(count,sum,min,max,avg),由 {@link AggregateUtil#summarize(Iterable, String[], org.apache.commons.collections4.Predicate)} 一次循环计算得出.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>整数类型({@link Long},{@link Integer},{@link Short},{@link Byte},{@link AtomicInteger},{@link AtomicLong}) 使用 <code>long</code> 累加,
+ * 只有在溢出的时候才会转成 {@link BigDecimal} 累加,结果是精确的</li>
+ * <li>浮点类型({@link Double},{@link Float}) 使用 <code>double</code> 累加(Kahan 补偿求和),最终结果通过 {@link BigDecimal#valueOf(double)} 转换,
+ * 和 {@link AggregateUtil#sum(Iterable, String...)} 的 {@link BigDecimal} 精确累加相比,尾数可能有差异</li>
+ * <li>其他类型(比如 {@link BigDecimal},{@link java.math.BigInteger}) 使用 {@link BigDecimal} 累加</li>
+ * <li>和 sql 的统计函数一样,<b>null值会被忽略</b>,不参与 count/sum/min/max/avg 计算</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <p>
+ * 该类不是线程安全的.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see "java.util.LongSummaryStatistics"
+ * @see "java.util.DoubleSummaryStatistics"
+ * @since 1.13.1
+ */
+public final class NumberSummaryStatistics{
+
+    /** 非null值的个数. */
+    private long       count;
+
+    //---------------------------------------------------------------
+
+    /** 整数类型的个数. */
+    private long       longCount;
+
+    /** 整数类型的累加值(没有溢出的部分). */
+    private long       longSum;
+
+    /** 整数类型的最小值. */
+    private long       longMin    = Long.MAX_VALUE;
+
+    /** 整数类型的最大值. */
+    private long       longMax    = Long.MIN_VALUE;
+
+    //---------------------------------------------------------------
+
+    /** 浮点类型的个数. */
+    private long       doubleCount;
+
+    /** 浮点类型的累加值. */
+    private double     doubleSum;
+
+    /** Kahan 求和的补偿值. */
+    private double     doubleCompensation;
+
+    /** 浮点类型的最小值. */
+    private double     doubleMin  = Double.POSITIVE_INFINITY;
+
+    /** 浮点类型的最大值. */
+    private double     doubleMax  = Double.NEGATIVE_INFINITY;
+
+    //---------------------------------------------------------------
+
+    /** 整数溢出的部分以及其他类型的累加值. */
+    private BigDecimal bigSum     = ZERO;
+
+    /** 其他类型的最小值. */
+    private BigDecimal bigMin;
+
+    /** 其他类型的最大值. */
+    private BigDecimal bigMax;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new number summary statistics.
+     */
+    NumberSummaryStatistics(){
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 累加一个值.
+     *
+     * @param number
+     *            如果是null,忽略
+     */
+    void accept(Number number){
+        if (null == number){
+            return;
+        }
+        count++;
+
+        if (isIntegral(number)){
+            acceptLong(number.longValue());
+        }else if (number instanceof Double || number instanceof Float){
+            acceptDouble(number.doubleValue());
+        }else{
+            acceptBigDecimal(toBigDecimal(number));
+        }
+    }
+
+    /**
+     * Accept long.
+     *
+     * @param value
+     *            the value
+     */
+    private void acceptLong(long value){
+        longCount++;
+
+        long result = longSum + value;
+        //同号相加,结果的符号不同,表示溢出, see Math#addExact
+        if (((longSum ^ result) & (value ^ result)) < 0){
+            bigSum = bigSum.add(BigDecimal.valueOf(longSum)).add(BigDecimal.valueOf(value));
+            longSum = 0;
+        }else{
+            longSum = result;
+        }
+
+        longMin = Math.min(longMin, value);
+        longMax = Math.max(longMax, value);
+    }
+
+    /**
+     * Accept double.
+     *
+     * @param value
+     *            the value
+     */
+    private void acceptDouble(double value){
+        doubleCount++;
+
+        double y = value - doubleCompensation;
+        double t = doubleSum + y;
+        doubleCompensation = (t - doubleSum) - y;
+        doubleSum = t;
+
+        doubleMin = Math.min(doubleMin, value);
+        doubleMax = Math.max(doubleMax, value);
+    }
+
+    /**
+     * Accept big decimal.
+     *
+     * @param value
+     *            the value
+     */
+    private void acceptBigDecimal(BigDecimal value){
+        bigSum = bigSum.add(value);
+        bigMin = null == bigMin || value.compareTo(bigMin) < 0 ? value : bigMin;
+        bigMax = null == bigMax || value.compareTo(bigMax) > 0 ? value : bigMax;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 非null值的个数.
+     *
+     * @return the count
+     */
+    public long getCount(){
+        return count;
+    }
+
+    /**
+     * 总和.
+     *
+     * @return 如果没有非null值,返回 {@link BigDecimal#ZERO}
+     */
+    public BigDecimal getSum(){
+        BigDecimal sum = bigSum;
+        if (longCount > 0){
+            sum = sum.add(BigDecimal.valueOf(longSum));
+        }
+        if (doubleCount > 0){
+            sum = sum.add(BigDecimal.valueOf(doubleSum));
+        }
+        return sum;
+    }
+
+    /**
+     * 最小值.
+     *
+     * @return 如果没有非null值,返回 null
+     */
+    public BigDecimal getMin(){
+        BigDecimal min = bigMin;
+        if (longCount > 0){
+            min = min(min, BigDecimal.valueOf(longMin));
+        }
+        if (doubleCount > 0){
+            min = min(min, BigDecimal.valueOf(doubleMin));
+        }
+        return min;
+    }
+
+    /**
+     * 最大值.
+     *
+     * @return 如果没有非null值,返回 null
+     */
+    public BigDecimal getMax(){
+        BigDecimal max = bigMax;
+        if (longCount > 0){
+            max = max(max, BigDecimal.valueOf(longMax));
+        }
+        if (doubleCount > 0){
+            max = max(max, BigDecimal.valueOf(doubleMax));
+        }
+        return max;
+    }
+
+    /**
+     * 算术平均值(总和/非null值的个数),使用 {@link RoundingMode#HALF_UP}.
+     *
+     * @param scale
+     *            标度,小数的位数,四舍五入,用于 {@link java.math.BigDecimal#setScale(int, RoundingMode)}
+     * @return 如果没有非null值,返回 null
+     * @see NumberUtil#getDivideValue(Number, Number, int)
+     */
+    public BigDecimal getAvg(int scale){
+        return 0 == count ? null : NumberUtil.getDivideValue(getSum(), count, scale);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 是否是整数类型.
+     *
+     * @param number
+     *            the number
+     * @return true, if is integral
+     */
+    private static boolean isIntegral(Number number){
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte
+                        || number instanceof AtomicInteger || number instanceof AtomicLong;
+    }
+
+    /**
+     * Min.
+     *
+     * @param one
+     *            可以是null
+     * @param two
+     *            the two
+     * @return the big decimal
+     */
+    private static BigDecimal min(BigDecimal one,BigDecimal two){
+        return null == one || two.compareTo(one) < 0 ? two : one;
+    }
+
+    /**
+     * Max.
+     *
+     * @param one
+     *            可以是null
+     * @param two
+     *            the two
+     * @return the big decimal
+     */
+    private static BigDecimal max(BigDecimal one,BigDecimal two){
+        return null == one || two.compareTo(one) > 0 ? two : one;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)//
+                        .append("count", count)
+                        .append("sum", getSum())
+                        .append("min", getMin())
+                        .append("max", getMax())
+                        .toString();
+    }
+}
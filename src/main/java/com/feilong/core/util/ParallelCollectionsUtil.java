@@ -0,0 +1,645 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.PredicateUtils;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * {@link CollectionsUtil} 中 select/selectRejected/collect/group 的并行版本,适合几十万,几百万元素的 {@link List}.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>list 会被拆分成多段,提交到 {@link ForkJoinPool} 并行处理,每段的结果<b>按照原来的顺序</b>合并,所以返回结果和对应的顺序方法完全一致</li>
+ * <li>如果 list 的元素个数小于 <code>threshold</code>(默认 {@link #DEFAULT_THRESHOLD}),直接在当前线程顺序执行,避免小集合的拆分/线程切换开销</li>
+ * <li>如果 list 不是 {@link RandomAccess}(比如 LinkedList),会先复制成 {@link ArrayList} 再拆分</li>
+ * <li>使用的 predicate/transformer 必须是<b>无状态并且线程安全</b>的,比如 {@link com.feilong.core.util.predicate.BeanPredicate},
+ * {@link com.feilong.core.util.transformer.BeanTransformer}</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>关于线程池:</h3>
+ * <blockquote>
+ * <p>
+ * 由于需要兼容 jdk1.7(没有 <code>ForkJoinPool.commonPool()</code>),所有方法共用一个 {@link Runtime#availableProcessors()} 大小的 {@link ForkJoinPool},
+ * 其 worker 线程是守护线程,不会阻止 jvm 退出.
+ * </p>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see CollectionsUtil
+ * @since 1.13.1
+ */
+public final class ParallelCollectionsUtil{
+
+    /** 默认的阈值,元素个数小于这个值的时候顺序执行 <code>{@value}</code>. */
+    public static final int           DEFAULT_THRESHOLD     = 10000;
+
+    /** 每个 worker 大约分到的段数,用来平衡负载 <code>{@value}</code>. */
+    private static final int          PARTITIONS_PER_WORKER = 4;
+
+    /** 共用的 fork/join pool,{@link ParallelMergeSorter} 也使用这个 pool. */
+    static final ForkJoinPool         FORK_JOIN_POOL        = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private ParallelCollectionsUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#select(Iterable, Predicate)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param predicate
+     *            无状态并且线程安全的 predicate
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list<br>
+     *         否则返回满足 <code>predicate</code> 的元素,顺序和 <code>list</code> 一致
+     * @see CollectionsUtil#select(Iterable, Predicate)
+     */
+    public static <O> List<O> select(List<O> list,Predicate<O> predicate){
+        return select(list, predicate, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#select(Iterable, Predicate)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param predicate
+     *            无状态并且线程安全的 predicate
+     * @param threshold
+     *            元素个数小于这个值的时候顺序执行,同时也是拆分后每段的最小元素个数
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list<br>
+     *         否则返回满足 <code>predicate</code> 的元素,顺序和 <code>list</code> 一致
+     * @throws IllegalArgumentException
+     *             如果 <code>threshold</code> {@code <} 1
+     * @see CollectionsUtil#select(Iterable, Predicate)
+     */
+    public static <O> List<O> select(List<O> list,Predicate<O> predicate,int threshold){
+        Validate.isTrue(threshold > 0, "threshold:[%s] must > 0", threshold);
+        if (isNullOrEmpty(list)){
+            return emptyList();
+        }
+        if (null == predicate){
+            return new ArrayList<>();
+        }
+        return invoke(new SelectTask<>(toRandomAccessList(list), predicate, 0, list.size(), leafSize(list.size(), threshold)));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#selectRejected(Iterable, Predicate)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param predicate
+     *            无状态并且线程安全的 predicate
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list<br>
+     *         否则返回<b>不</b>满足 <code>predicate</code> 的元素,顺序和 <code>list</code> 一致
+     * @see CollectionsUtil#selectRejected(Iterable, Predicate)
+     */
+    public static <O> List<O> selectRejected(List<O> list,Predicate<O> predicate){
+        return selectRejected(list, predicate, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#selectRejected(Iterable, Predicate)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param predicate
+     *            无状态并且线程安全的 predicate
+     * @param threshold
+     *            元素个数小于这个值的时候顺序执行,同时也是拆分后每段的最小元素个数
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyList()}<br>
+     *         如果 <code>predicate</code> 是null,返回 empty list<br>
+     *         否则返回<b>不</b>满足 <code>predicate</code> 的元素,顺序和 <code>list</code> 一致
+     * @throws IllegalArgumentException
+     *             如果 <code>threshold</code> {@code <} 1
+     * @see CollectionsUtil#selectRejected(Iterable, Predicate)
+     */
+    public static <O> List<O> selectRejected(List<O> list,Predicate<O> predicate,int threshold){
+        return select(list, null == predicate ? null : PredicateUtils.notPredicate(predicate), threshold);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#collect(Iterable, Transformer)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param transformer
+     *            无状态并且线程安全的 transformer
+     * @return 如果 <code>list</code> 是null,返回null<br>
+     *         如果 <code>transformer</code> 是null,返回 empty list<br>
+     *         否则返回转换之后的元素,顺序和 <code>list</code> 一致
+     * @see CollectionsUtil#collect(Iterable, Transformer)
+     */
+    public static <O, T> List<T> collect(List<O> list,Transformer<? super O, ? extends T> transformer){
+        return collect(list, transformer, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#collect(Iterable, Transformer)}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param transformer
+     *            无状态并且线程安全的 transformer
+     * @param threshold
+     *            元素个数小于这个值的时候顺序执行,同时也是拆分后每段的最小元素个数
+     * @return 如果 <code>list</code> 是null,返回null<br>
+     *         如果 <code>transformer</code> 是null,返回 empty list<br>
+     *         否则返回转换之后的元素,顺序和 <code>list</code> 一致
+     * @throws IllegalArgumentException
+     *             如果 <code>threshold</code> {@code <} 1
+     * @see CollectionsUtil#collect(Iterable, Transformer)
+     */
+    public static <O, T> List<T> collect(List<O> list,Transformer<? super O, ? extends T> transformer,int threshold){
+        Validate.isTrue(threshold > 0, "threshold:[%s] must > 0", threshold);
+        if (null == list){
+            return null;
+        }
+        if (null == transformer || list.isEmpty()){
+            return new ArrayList<>();
+        }
+        return invoke(new CollectTask<O, T>(toRandomAccessList(list), transformer, 0, list.size(), leafSize(list.size(), threshold)));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#group(Iterable, String)}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyName
+     *            泛型O对象指定的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyMap()}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         否则返回 {@link java.util.LinkedHashMap},key 和 value 的顺序都和 <code>list</code> 一致
+     * @see CollectionsUtil#group(Iterable, String)
+     */
+    public static <T, O> Map<T, List<O>> group(List<O> list,final String propertyName){
+        if (isNullOrEmpty(list)){
+            return emptyMap();
+        }
+        Validate.notBlank(propertyName, "propertyName can't be null/empty!");
+
+        return group(list, new Transformer<O, T>(){
+
+            @Override
+            public T transform(O input){
+                return PropertyUtil.getProperty(input, propertyName);
+            }
+        });
+    }
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#group(Iterable, Transformer)}.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param keyTransformer
+     *            无状态并且线程安全的 key transformer
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyMap()}<br>
+     *         如果 <code>keyTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回 {@link java.util.LinkedHashMap},key 和 value 的顺序都和 <code>list</code> 一致
+     * @see CollectionsUtil#group(Iterable, Transformer)
+     */
+    public static <T, O> Map<T, List<O>> group(List<O> list,Transformer<O, T> keyTransformer){
+        return group(list, keyTransformer, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 并行版本的 {@link CollectionsUtil#group(Iterable, Transformer)}.
+     * 
+     * <p>
+     * 每一段单独 group,然后按照段的顺序合并,所以 key 的顺序是 key 第一次出现的顺序,每个 key 对应的 list 的顺序和 <code>list</code> 一致.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param keyTransformer
+     *            无状态并且线程安全的 key transformer
+     * @param threshold
+     *            元素个数小于这个值的时候顺序执行,同时也是拆分后每段的最小元素个数
+     * @return 如果 <code>list</code> 是null或者empty,返回 {@link java.util.Collections#emptyMap()}<br>
+     *         如果 <code>keyTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回 {@link java.util.LinkedHashMap},key 和 value 的顺序都和 <code>list</code> 一致
+     * @throws IllegalArgumentException
+     *             如果 <code>threshold</code> {@code <} 1
+     * @see CollectionsUtil#group(Iterable, Transformer)
+     */
+    public static <T, O> Map<T, List<O>> group(List<O> list,Transformer<O, T> keyTransformer,int threshold){
+        Validate.isTrue(threshold > 0, "threshold:[%s] must > 0", threshold);
+        if (isNullOrEmpty(list)){
+            return emptyMap();
+        }
+        Validate.notNull(keyTransformer, "keyTransformer can't be null!");
+
+        return invoke(new GroupTask<>(toRandomAccessList(list), keyTransformer, 0, list.size(), leafSize(list.size(), threshold)));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 每段的元素个数.
+     *
+     * @param size
+     *            the size
+     * @param threshold
+     *            the threshold
+     * @return 至少是 <code>threshold</code>,并且让每个 worker 大约分到 {@link #PARTITIONS_PER_WORKER} 段
+     */
+    private static int leafSize(int size,int threshold){
+        int partitionCount = FORK_JOIN_POOL.getParallelism() * PARTITIONS_PER_WORKER;
+        return Math.max(threshold, (size + partitionCount - 1) / partitionCount);
+    }
+
+    /**
+     * 如果 <code>list</code> 不是 {@link RandomAccess},复制成 {@link ArrayList}.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @return the list
+     */
+    private static <O> List<O> toRandomAccessList(List<O> list){
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    /**
+     * 执行 task,如果只有一段,直接在当前线程执行.
+     *
+     * @param <R>
+     *            the generic type
+     * @param task
+     *            the task
+     * @return the r
+     */
+    private static <R> R invoke(AbstractRangeTask<R> task){
+        return task.isLeaf() ? task.compute() : FORK_JOIN_POOL.invoke(task);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 处理 list <code>[fromIndex,toIndex)</code> 区间的 task,超过 <code>leafSize</code> 一分为二,结果按顺序合并.
+     *
+     * @param <R>
+     *            结果类型
+     */
+    private abstract static class AbstractRangeTask<R> extends RecursiveTask<R>{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /** The from index. */
+        protected final int       fromIndex;
+
+        /** The to index. */
+        protected final int       toIndex;
+
+        /** The leaf size. */
+        protected final int       leafSize;
+
+        /**
+         * Instantiates a new abstract range task.
+         *
+         * @param fromIndex
+         *            the from index
+         * @param toIndex
+         *            the to index
+         * @param leafSize
+         *            the leaf size
+         */
+        protected AbstractRangeTask(int fromIndex, int toIndex, int leafSize){
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.leafSize = leafSize;
+        }
+
+        /**
+         * Checks if is leaf.
+         *
+         * @return true, if is leaf
+         */
+        boolean isLeaf(){
+            return toIndex - fromIndex <= leafSize;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.concurrent.RecursiveTask#compute()
+         */
+        @Override
+        protected R compute(){
+            if (isLeaf()){
+                return computeLeaf();
+            }
+            int middle = (fromIndex + toIndex) >>> 1;
+            AbstractRangeTask<R> left = newTask(fromIndex, middle);
+            AbstractRangeTask<R> right = newTask(middle, toIndex);
+
+            right.fork();
+            R leftResult = left.compute();
+            return merge(leftResult, right.join());
+        }
+
+        /**
+         * 顺序处理当前区间.
+         *
+         * @return the r
+         */
+        protected abstract R computeLeaf();
+
+        /**
+         * 构造子区间的 task.
+         *
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @return the abstract range task
+         */
+        protected abstract AbstractRangeTask<R> newTask(int from,int to);
+
+        /**
+         * 按顺序合并左右两段的结果.
+         *
+         * @param left
+         *            the left
+         * @param right
+         *            the right
+         * @return the r
+         */
+        protected abstract R merge(R left,R right);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * select task.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class SelectTask<O> extends AbstractRangeTask<List<O>>{
+
+        /** The Constant serialVersionUID. */
+        private static final long  serialVersionUID = 1L;
+
+        /** The list. */
+        private final List<O>      list;
+
+        /** The predicate. */
+        private final Predicate<O> predicate;
+
+        /**
+         * Instantiates a new select task.
+         *
+         * @param list
+         *            the list
+         * @param predicate
+         *            the predicate
+         * @param fromIndex
+         *            the from index
+         * @param toIndex
+         *            the to index
+         * @param leafSize
+         *            the leaf size
+         */
+        private SelectTask(List<O> list, Predicate<O> predicate, int fromIndex, int toIndex, int leafSize){
+            super(fromIndex, toIndex, leafSize);
+            this.list = list;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected List<O> computeLeaf(){
+            List<O> result = new ArrayList<>();
+            for (int i = fromIndex; i < toIndex; ++i){
+                O obj = list.get(i);
+                if (predicate.evaluate(obj)){
+                    result.add(obj);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        protected AbstractRangeTask<List<O>> newTask(int from,int to){
+            return new SelectTask<>(list, predicate, from, to, leafSize);
+        }
+
+        @Override
+        protected List<O> merge(List<O> left,List<O> right){
+            left.addAll(right);
+            return left;
+        }
+    }
+
+    /**
+     * collect task.
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     */
+    private static final class CollectTask<O, T> extends AbstractRangeTask<List<T>>{
+
+        /** The Constant serialVersionUID. */
+        private static final long                         serialVersionUID = 1L;
+
+        /** The list. */
+        private final List<O>                             list;
+
+        /** The transformer. */
+        private final Transformer<? super O, ? extends T> transformer;
+
+        /**
+         * Instantiates a new collect task.
+         *
+         * @param list
+         *            the list
+         * @param transformer
+         *            the transformer
+         * @param fromIndex
+         *            the from index
+         * @param toIndex
+         *            the to index
+         * @param leafSize
+         *            the leaf size
+         */
+        private CollectTask(List<O> list, Transformer<? super O, ? extends T> transformer, int fromIndex, int toIndex, int leafSize){
+            super(fromIndex, toIndex, leafSize);
+            this.list = list;
+            this.transformer = transformer;
+        }
+
+        @Override
+        protected List<T> computeLeaf(){
+            List<T> result = new ArrayList<>(toIndex - fromIndex);
+            for (int i = fromIndex; i < toIndex; ++i){
+                result.add(transformer.transform(list.get(i)));
+            }
+            return result;
+        }
+
+        @Override
+        protected AbstractRangeTask<List<T>> newTask(int from,int to){
+            return new CollectTask<O, T>(list, transformer, from, to, leafSize);
+        }
+
+        @Override
+        protected List<T> merge(List<T> left,List<T> right){
+            left.addAll(right);
+            return left;
+        }
+    }
+
+    /**
+     * group task.
+     *
+     * @param <T>
+     *            the generic type
+     * @param <O>
+     *            the generic type
+     */
+    private static final class GroupTask<T, O> extends AbstractRangeTask<Map<T, List<O>>>{
+
+        /** The Constant serialVersionUID. */
+        private static final long       serialVersionUID = 1L;
+
+        /** The list. */
+        private final List<O>           list;
+
+        /** The key transformer. */
+        private final Transformer<O, T> keyTransformer;
+
+        /**
+         * Instantiates a new group task.
+         *
+         * @param list
+         *            the list
+         * @param keyTransformer
+         *            the key transformer
+         * @param fromIndex
+         *            the from index
+         * @param toIndex
+         *            the to index
+         * @param leafSize
+         *            the leaf size
+         */
+        private GroupTask(List<O> list, Transformer<O, T> keyTransformer, int fromIndex, int toIndex, int leafSize){
+            super(fromIndex, toIndex, leafSize);
+            this.list = list;
+            this.keyTransformer = keyTransformer;
+        }
+
+        @Override
+        protected Map<T, List<O>> computeLeaf(){
+            //不预估 map 的大小,分组 key 的种类通常远小于分区内的元素个数
+            Map<T, List<O>> map = newLinkedHashMap();
+            for (int i = fromIndex; i < toIndex; ++i){
+                O obj = list.get(i);
+                MapUtil.putMultiValue(map, keyTransformer.transform(obj), obj);
+            }
+            return map;
+        }
+
+        @Override
+        protected AbstractRangeTask<Map<T, List<O>>> newTask(int from,int to){
+            return new GroupTask<>(list, keyTransformer, from, to, leafSize);
+        }
+
+        @Override
+        protected Map<T, List<O>> merge(Map<T, List<O>> left,Map<T, List<O>> right){
+            for (Map.Entry<T, List<O>> entry : right.entrySet()){
+                List<O> leftList = left.get(entry.getKey());
+                if (null == leftList){
+                    left.put(entry.getKey(), entry.getValue());
+                }else{
+                    leftList.addAll(entry.getValue());
+                }
+            }
+            return left;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于 fork/join 的并行<b>稳定</b>归并排序.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>数组拆成若干段,每段使用 {@link Arrays#sort(Object[], int, int, Comparator)}(TimSort,稳定) 并行排序</li>
+ * <li>相邻两段使用二分查找拆分后并行归并;拆分时相同的元素始终保持左段在前,因此整体是稳定的,和 {@link Arrays#sort(Object[], Comparator)} 的结果一致</li>
+ * <li>需要一个和原数组一样大的临时数组</li>
+ * <li>使用 {@link ParallelCollectionsUtil#FORK_JOIN_POOL}</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class ParallelMergeSorter{
+
+    /** 元素个数小于这个值时,直接使用 {@link Arrays#sort(Object[], Comparator)} <code>{@value}</code>. */
+    static final int         DEFAULT_THRESHOLD     = 8192;
+
+    /** 每个 worker 大约分到的段数,用来平衡负载 <code>{@value}</code>. */
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    /** 归并时,元素个数小于这个值直接顺序归并 <code>{@value}</code>. */
+    private static final int MERGE_THRESHOLD       = 4096;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private ParallelMergeSorter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行稳定排序.
+     *
+     * @param <T>
+     *            the generic type
+     * @param array
+     *            the array
+     * @param comparator
+     *            the comparator,需要是线程安全的
+     */
+    static <T> void sort(T[] array,Comparator<? super T> comparator){
+        int length = array.length;
+        int parallelism = ParallelCollectionsUtil.FORK_JOIN_POOL.getParallelism();
+        if (length < DEFAULT_THRESHOLD || parallelism <= 1){
+            Arrays.sort(array, comparator);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        int partitionCount = parallelism * PARTITIONS_PER_WORKER;
+        int leafSize = Math.max(DEFAULT_THRESHOLD / PARTITIONS_PER_WORKER, (length + partitionCount - 1) / partitionCount);
+
+        T[] buffer = Arrays.copyOf(array, length);
+        ParallelCollectionsUtil.FORK_JOIN_POOL.invoke(new SortTask<>(array, buffer, 0, length, leafSize, comparator));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 排序 <code>array[from,to)</code>,<code>buffer</code> 的相同区间作为临时空间.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class SortTask<T> extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long           serialVersionUID = 1L;
+
+        /** The array. */
+        private final T[]                   array;
+
+        /** The buffer. */
+        private final T[]                   buffer;
+
+        /** The from. */
+        private final int                   from;
+
+        /** The to. */
+        private final int                   to;
+
+        /** The leaf size. */
+        private final int                   leafSize;
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Instantiates a new sort task.
+         *
+         * @param array
+         *            the array
+         * @param buffer
+         *            the buffer
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param leafSize
+         *            the leaf size
+         * @param comparator
+         *            the comparator
+         */
+        private SortTask(T[] array, T[] buffer, int from, int to, int leafSize, Comparator<? super T> comparator){
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.comparator = comparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (to - from <= leafSize){
+                Arrays.sort(array, from, to, comparator);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                            new SortTask<>(array, buffer, from, middle, leafSize, comparator),
+                            new SortTask<>(array, buffer, middle, to, leafSize, comparator));
+
+            //已经有序
+            if (comparator.compare(array[middle - 1], array[middle]) <= 0){
+                return;
+            }
+
+            new MergeTask<>(array, from, middle, middle, to, buffer, from, comparator).invoke();
+            System.arraycopy(buffer, from, array, from, to - from);
+        }
+    }
+
+    /**
+     * 将 <code>source[leftFrom,leftTo)</code> 和 <code>source[rightFrom,rightTo)</code> 两个有序段归并到 <code>target</code> 从
+     * <code>targetFrom</code> 开始的位置,相同的元素左段在前.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class MergeTask<T> extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long           serialVersionUID = 1L;
+
+        /** The source. */
+        private final T[]                   source;
+
+        /** The left from. */
+        private final int                   leftFrom;
+
+        /** The left to. */
+        private final int                   leftTo;
+
+        /** The right from. */
+        private final int                   rightFrom;
+
+        /** The right to. */
+        private final int                   rightTo;
+
+        /** The target. */
+        private final T[]                   target;
+
+        /** The target from. */
+        private final int                   targetFrom;
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Instantiates a new merge task.
+         *
+         * @param source
+         *            the source
+         * @param leftFrom
+         *            the left from
+         * @param leftTo
+         *            the left to
+         * @param rightFrom
+         *            the right from
+         * @param rightTo
+         *            the right to
+         * @param target
+         *            the target
+         * @param targetFrom
+         *            the target from
+         * @param comparator
+         *            the comparator
+         */
+        private MergeTask(T[] source, int leftFrom, int leftTo, int rightFrom, int rightTo, T[] target, int targetFrom,
+                        Comparator<? super T> comparator){
+            this.source = source;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.target = target;
+            this.targetFrom = targetFrom;
+            this.comparator = comparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            int leftLength = leftTo - leftFrom;
+            int rightLength = rightTo - rightFrom;
+            if (leftLength + rightLength <= MERGE_THRESHOLD){
+                merge();
+                return;
+            }
+
+            //---------------------------------------------------------------
+            //拆分较长的一段,在另外一段中二分查找拆分点
+            int leftSplit;
+            int rightSplit;
+            if (leftLength >= rightLength){
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                //右段中小于 pivot 的元素排在 pivot 前面,等于的排在后面
+                rightSplit = lowerBound(source, rightFrom, rightTo, source[leftSplit], comparator);
+            }else{
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                //左段中小于等于 pivot 的元素排在 pivot 前面
+                leftSplit = upperBound(source, leftFrom, leftTo, source[rightSplit], comparator);
+            }
+
+            int targetSplit = targetFrom + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+            invokeAll(
+                            new MergeTask<>(source, leftFrom, leftSplit, rightFrom, rightSplit, target, targetFrom, comparator),
+                            new MergeTask<>(source, leftSplit, leftTo, rightSplit, rightTo, target, targetSplit, comparator));
+        }
+
+        /**
+         * 顺序归并.
+         */
+        private void merge(){
+            int i = leftFrom;
+            int j = rightFrom;
+            int k = targetFrom;
+            while (i < leftTo && j < rightTo){
+                //相同的元素,左段在前
+                target[k++] = comparator.compare(source[j], source[i]) < 0 ? source[j++] : source[i++];
+            }
+            while (i < leftTo){
+                target[k++] = source[i++];
+            }
+            while (j < rightTo){
+                target[k++] = source[j++];
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * <code>array[from,to)</code> 中第一个 &gt;= <code>key</code> 的位置.
+     *
+     * @param <T>
+     *            the generic type
+     * @param array
+     *            the array
+     * @param from
+     *            the from
+     * @param to
+     *            the to
+     * @param key
+     *            the key
+     * @param comparator
+     *            the comparator
+     * @return the int
+     */
+    private static <T> int lowerBound(T[] array,int from,int to,T key,Comparator<? super T> comparator){
+        int low = from;
+        int high = to;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(array[middle], key) < 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * <code>array[from,to)</code> 中第一个 &gt; <code>key</code> 的位置.
+     *
+     * @param <T>
+     *            the generic type
+     * @param array
+     *            the array
+     * @param from
+     *            the from
+     * @param to
+     *            the to
+     * @param key
+     *            the key
+     * @param comparator
+     *            the comparator
+     * @return the int
+     */
+    private static <T> int upperBound(T[] array,int from,int to,T key,Comparator<? super T> comparator){
+        int low = from;
+        int high = to;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(array[middle], key) <= 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
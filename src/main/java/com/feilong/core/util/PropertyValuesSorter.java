@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.util.comparator.SortHelper.isAsc;
+import static com.feilong.core.util.comparator.SortHelper.parsePropertyNameAndOrder;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.apache.commons.collections4.ComparatorUtils;
+import org.apache.commons.collections4.comparators.ComparableComparator;
+import org.apache.commons.lang3.ObjectUtils;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.util.comparator.SortHelper;
+
+/**
+ * 按照属性值排序(decorate-sort-undecorate, 又叫 Schwartzian transform).
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>先循环一次,每个元素的每个排序属性只反射读取<b>一次</b>,和元素一起放到数组中;然后对数组排序,最后按照排序后的顺序写回 list</li>
+ * <li>使用 {@link com.feilong.core.util.comparator.PropertyComparator} 或者
+ * {@link com.feilong.core.util.comparator.BeanComparatorUtil#chainedComparator(String...)} 直接排序时,每次比较都要读取两次属性,n个元素大约要读取
+ * 2nlog(n) 次</li>
+ * <li>排序结果和使用上述 comparator 完全一致(null元素,null属性值,升序/降序,相同值的处理)</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class PropertyValuesSorter{
+
+    /** Don't let anyone instantiate this class. */
+    private PropertyValuesSorter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 <code>propertyNameAndOrders</code> 排序,结果和 {@link com.feilong.core.util.comparator.BeanComparatorUtil#chainedComparator(String...)}
+     * 一致.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNameAndOrders
+     *            属性名称和排序因子,比如 "name desc"
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    static <O> void sort(List<O> list,String...propertyNameAndOrders){
+        //单值和 BeanComparatorUtil.propertyComparator(String) 一样
+        if (1 == propertyNameAndOrders.length){
+            String[] propertyNameAndOrderArray = parsePropertyNameAndOrder(propertyNameAndOrders[0]);
+            Comparator<Decorated<O>> comparator = new SinglePropertyValueComparator<>(null);
+            sort(list, toArray(propertyNameAndOrderArray[0]), isAsc(propertyNameAndOrderArray) ? comparator : reversed(comparator));
+            return;
+        }
+
+        //---------------------------------------------------------------
+        //多值和 BeanComparatorUtil.chainedComparator(String...) 一样, null值排在最后面
+        String[] propertyNames = new String[propertyNameAndOrders.length];
+        Comparator[] valueComparators = new Comparator[propertyNameAndOrders.length];
+        for (int i = 0; i < propertyNameAndOrders.length; ++i){
+            String[] propertyNameAndOrderArray = parsePropertyNameAndOrder(propertyNameAndOrders[i]);
+            propertyNames[i] = propertyNameAndOrderArray[0];
+
+            Comparator instance = ComparatorUtils.nullHighComparator(ComparableComparator.comparableComparator());
+            valueComparators[i] = isAsc(propertyNameAndOrderArray) ? instance : ComparatorUtils.reversedComparator(instance);
+        }
+        sort(list, propertyNames, new ChainedPropertyValuesComparator<O>(valueComparators));
+    }
+
+    /**
+     * 按照 <code>propertyName</code> 的值使用 <code>valueComparator</code> 排序,结果和
+     * <code>new PropertyComparator(propertyName, valueComparator)</code> 一致.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyName
+     *            the property name
+     * @param valueComparator
+     *            属性值的比较器
+     */
+    static <O> void sort(List<O> list,String propertyName,Comparator<?> valueComparator){
+        sort(list, toArray(propertyName), new SinglePropertyValueComparator<O>(valueComparator));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 提取属性值,排序,写回.
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param propertyNames
+     *            the property names
+     * @param comparator
+     *            the comparator
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static <O> void sort(List<O> list,String[] propertyNames,Comparator<Decorated<O>> comparator){
+        int size = list.size();
+        if (size < 2){
+            return;
+        }
+
+        //decorate
+        Decorated<O>[] decorateds = new Decorated[size];
+        int index = 0;
+        for (O obj : list){
+            decorateds[index++] = new Decorated<>(obj, extract(obj, propertyNames));
+        }
+
+        //sort, 稳定排序
+        Arrays.sort(decorateds, comparator);
+
+        //undecorate
+        ListIterator<O> listIterator = list.listIterator();
+        for (Decorated<O> decorated : decorateds){
+            listIterator.next();
+            listIterator.set(decorated.bean);
+        }
+    }
+
+    /**
+     * 读取 <code>bean</code> 的属性值.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyNames
+     *            the property names
+     * @return 如果 <code>bean</code> 是null,返回null
+     */
+    private static Object[] extract(Object bean,String[] propertyNames){
+        if (null == bean){
+            return null;
+        }
+        Object[] values = new Object[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; ++i){
+            values[i] = PropertyUtil.getProperty(bean, propertyNames[i]);
+        }
+        return values;
+    }
+
+    /**
+     * To array.
+     *
+     * @param propertyName
+     *            the property name
+     * @return the string[]
+     */
+    private static String[] toArray(String propertyName){
+        return new String[] { propertyName };
+    }
+
+    /**
+     * Reversed.
+     *
+     * @param <O>
+     *            the generic type
+     * @param comparator
+     *            the comparator
+     * @return the comparator
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> Comparator<Decorated<O>> reversed(Comparator<Decorated<O>> comparator){
+        return ComparatorUtils.reversedComparator(comparator);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素以及排序属性的值.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class Decorated<O>{
+
+        /** The bean. */
+        private final O        bean;
+
+        /** 排序属性的值,如果 bean是null,那么是null. */
+        private final Object[] values;
+
+        /**
+         * Instantiates a new decorated.
+         *
+         * @param bean
+         *            the bean
+         * @param values
+         *            the values
+         */
+        private Decorated(O bean, Object[] values){
+            this.bean = bean;
+            this.values = values;
+        }
+    }
+
+    /**
+     * 单个属性值的比较,规则和 {@link com.feilong.core.util.comparator.PropertyComparator} 一致.
+     * 
+     * <ul>
+     * <li>null元素排在后面</li>
+     * <li>如果没有 valueComparator,null值排在前面;值相同时调用 {@link SortHelper#compareWithSameValue(Object, Object)}</li>
+     * </ul>
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class SinglePropertyValueComparator<O> implements Comparator<Decorated<O>>{
+
+        /** 属性值的比较器,可以是null. */
+        @SuppressWarnings("rawtypes")
+        private final Comparator valueComparator;
+
+        /**
+         * Instantiates a new single property value comparator.
+         *
+         * @param valueComparator
+         *            the value comparator
+         */
+        private SinglePropertyValueComparator(Comparator<?> valueComparator){
+            this.valueComparator = valueComparator;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        @Override
+        public int compare(Decorated<O> d1,Decorated<O> d2){
+            if (d1.bean == d2.bean){
+                return 0;
+            }else if (null == d1.bean){//null 排在后面
+                return 1;
+            }else if (null == d2.bean){
+                return -1;
+            }
+
+            //---------------------------------------------------------------
+            if (null != valueComparator){
+                return valueComparator.compare(d1.values[0], d2.values[0]);
+            }
+
+            int compareTo = ObjectUtils.compare((Comparable) d1.values[0], (Comparable) d2.values[0], false);
+            return 0 != compareTo ? compareTo : SortHelper.compareWithSameValue(d1.bean, d2.bean);
+        }
+    }
+
+    /**
+     * 多个属性值依次比较,规则和 {@link com.feilong.core.util.comparator.BeanComparatorUtil#chainedComparator(String...)} 一致.
+     *
+     * @param <O>
+     *            the generic type
+     */
+    private static final class ChainedPropertyValuesComparator<O> implements Comparator<Decorated<O>>{
+
+        /** 每个属性值的比较器. */
+        @SuppressWarnings("rawtypes")
+        private final Comparator[] valueComparators;
+
+        /**
+         * Instantiates a new chained property values comparator.
+         *
+         * @param valueComparators
+         *            the value comparators
+         */
+        @SuppressWarnings("rawtypes")
+        private ChainedPropertyValuesComparator(Comparator[] valueComparators){
+            this.valueComparators = valueComparators;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        public int compare(Decorated<O> d1,Decorated<O> d2){
+            for (int i = 0; i < valueComparators.length; ++i){
+                int compareTo = valueComparators[i].compare(d1.values[i], d2.values[i]);
+                if (0 != compareTo){
+                    return compareTo;
+                }
+            }
+            return 0;
+        }
+    }
+}
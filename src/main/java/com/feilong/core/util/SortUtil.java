@@ -26,9 +26,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import org.apache.commons.collections4.ComparatorUtils;
+import org.apache.commons.collections4.comparators.FixedOrderComparator;
+import org.apache.commons.collections4.comparators.FixedOrderComparator.UnknownObjectBehavior;
 import org.apache.commons.collections4.comparators.ReverseComparator;
 import org.apache.commons.lang3.Validate;
 
@@ -362,6 +365,116 @@ public final class SortUtil{
         return 1 == comparators.length ? comparators[0] : ComparatorUtils.chainedComparator(comparators);
     }
 
+
+    /**
+     * 对 数组 <code>arrays</code> 按照自然顺序进行<b>并行</b>排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortArray(Object[])} 一致(稳定排序)</li>
+     * <li>元素个数较少时,直接使用 {@link java.util.Arrays#sort(Object[])};元素个数较多时,使用 fork/join 并行归并排序</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param arrays
+     *            the arrays
+     * @return 如果 <code>array</code> 是null,返回 empty array<br>
+     * @see #sortArray(Object[])
+     * @since 1.13.1
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T[] parallelSortArray(T[] arrays){
+        if (null == arrays){
+            return toArray();
+        }
+        ParallelMergeSorter.sort(arrays, ComparatorUtils.NATURAL_COMPARATOR);
+        return arrays;
+    }
+
+    /**
+     * 对 数组 <code>arrays</code>使用 <code>comparators</code> 进行<b>并行</b>排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortArray(Object[], Comparator...)} 一致(稳定排序,相同的元素保持原来的顺序)</li>
+     * <li>元素个数较少时,直接使用 {@link java.util.Arrays#sort(Object[], Comparator)};元素个数较多时,使用 fork/join 并行归并排序</li>
+     * <li>比较器会被多个线程同时调用,需要是线程安全的;{@link PropertyComparator},{@link BeanComparatorUtil} 构造的比较器以及
+     * {@link FixedOrderComparator} 都可以直接使用</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param arrays
+     *            the arrays
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>array</code> 是null,返回 empty array<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>arrays</code><br>
+     * @see #sortArray(Object[], Comparator...)
+     * @since 1.13.1
+     */
+    @SafeVarargs
+    public static <T> T[] parallelSortArray(T[] arrays,Comparator<T>...comparators){
+        if (null == arrays){
+            return toArray();
+        }
+        if (isNullOrEmpty(comparators)){
+            return arrays;
+        }
+        ParallelMergeSorter.sort(arrays, toComparator(comparators));
+        return arrays;
+    }
+
+    /**
+     * 对集合 <code>list</code>,使用指定的 <code>comparators</code> 进行<b>并行</b>排序.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>结果和 {@link #sortList(List, Comparator...)} 一致(稳定排序,相同的元素保持原来的顺序)</li>
+     * <li>先转成数组,使用 {@link #parallelSortArray(Object[], Comparator...)} 排序之后再写回 <code>list</code></li>
+     * <li>比较器会被多个线程同时调用,需要是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param comparators
+     *            the comparators
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>comparators</code> 是null或者empty,直接返回 <code>list</code><br>
+     * @see #sortList(List, Comparator...)
+     * @since 1.13.1
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <O> List<O> parallelSortList(List<O> list,Comparator<O>...comparators){
+        if (null == list){
+            return emptyList();
+        }
+        if (isNullOrEmpty(comparators)){
+            return list;
+        }
+
+        //---------------------------------------------------------------
+        Object[] array = list.toArray();
+        ParallelMergeSorter.sort(array, (Comparator<Object>) toComparator(comparators));
+
+        ListIterator<O> listIterator = list.listIterator();
+        for (Object element : array){
+            listIterator.next();
+            listIterator.set((O) element);
+        }
+        return list;
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -471,8 +584,9 @@ public final class SortUtil{
         Validate.notEmpty(propertyNameAndOrders, "propertyNameAndOrders can't be null/empty!");
         Validate.noNullElements(propertyNameAndOrders, "propertyNameAndOrders:[%s] has empty value", propertyNameAndOrders);
 
-        Comparator<O> comparator = BeanComparatorUtil.chainedComparator(propertyNameAndOrders);
-        return sortList(list, comparator);
+        //每个元素的每个属性只读取一次, 结果和使用 BeanComparatorUtil.chainedComparator(propertyNameAndOrders) 排序一致
+        PropertyValuesSorter.sort(list, propertyNameAndOrders);
+        return list;
     }
 
     //---------------------------------------------------------------
@@ -541,8 +655,8 @@ public final class SortUtil{
             return emptyList();
         }
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        Comparator<O> propertyComparator = BeanComparatorUtil.propertyComparator(propertyName, propertyValues);
-        return sortList(list, propertyComparator);
+        Validate.notNull(propertyValues, "propertyValues can't be null!");
+        return sortListByFixedOrderPropertyValueList(list, propertyName, toList(propertyValues));
     }
 
     /**
@@ -600,9 +714,13 @@ public final class SortUtil{
             return emptyList();
         }
         Validate.notBlank(propertyName, "propertyName can't be blank!");
+        Validate.notNull(propertyValues, "propertyValues can't be null!");
 
-        Comparator<O> propertyComparator = BeanComparatorUtil.propertyComparator(propertyName, propertyValues);
-        return sortList(list, propertyComparator);
+        //每个元素只读取一次属性, 结果和使用 BeanComparatorUtil.propertyComparator(propertyName, propertyValues) 排序一致
+        FixedOrderComparator<V> fixedOrderComparator = new FixedOrderComparator<>(propertyValues);
+        fixedOrderComparator.setUnknownObjectBehavior(UnknownObjectBehavior.AFTER);
+        PropertyValuesSorter.sort(list, propertyName, fixedOrderComparator);
+        return list;
     }
 
     //---------------------------------------------------------------
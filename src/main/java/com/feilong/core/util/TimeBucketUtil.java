@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.util.AggregateUtil.accept;
+import static com.feilong.core.util.AggregateUtil.newStatisticsArray;
+import static com.feilong.core.util.AggregateUtil.toStatisticsMap;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import org.apache.commons.collections4.Factory;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.mutable.MutableInt;
+
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.date.TimeBucket;
+
+/**
+ * 按照时间段(小时/天/星期/月)对 bean 分组统计的工具类,常用于生成时间序列(报表的折线图等).
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>只循环一次 <code>beanIterable</code>,每个元素的时间段使用 {@link TimeBucket#getIndex(long, TimeZone)} 计算,不需要格式化成 "yyyy-MM-dd" 等字符串再分组</li>
+ * <li>返回的 {@link TreeMap},key 是时间段的序号,按照时间升序;可以使用 {@link TimeBucket#getStartDate(long)} 获得时间段的开始时间</li>
+ * <li>时间属性值是null的元素会被忽略</li>
+ * <li>如果 <code>fillEmptyBuckets</code> 是true,第一个和最后一个时间段之间没有元素的时间段也会返回(空list/0/没有值的统计),方便直接画图;
+ * 最多补齐到 {@link #MAX_FILLED_BUCKET_COUNT} 个时间段,避免一个错误的时间(比如 9999 年)按小时补齐出几千万个时间段</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <p>
+ * <b>场景:</b> 统计最近每天的订单金额
+ * </p>
+ * 
+ * <pre class="code">
+ * SortedMap{@code <Long, Map<String, NumberSummaryStatistics>>} map = TimeBucketUtil
+ *                 .groupSummarize(orderList, "createTime", TimeBucket.DAY, toArray("totalAmount"), true);
+ * 
+ * for (Map.Entry{@code <Long, Map<String, NumberSummaryStatistics>>} entry : map.entrySet()){
+ *     Date day = TimeBucket.DAY.getStartDate(entry.getKey());
+ *     BigDecimal totalAmount = entry.getValue().get("totalAmount").getSum();
+ * }
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see TimeBucket
+ * @see AggregateUtil#groupSummarize(Iterable, org.apache.commons.collections4.Transformer, String[], org.apache.commons.collections4.Predicate)
+ * @since 1.13.1
+ */
+public final class TimeBucketUtil{
+
+    /** <code>fillEmptyBuckets</code> 是true时,第一个和最后一个时间段之间最多的时间段个数. */
+    public static final int MAX_FILLED_BUCKET_COUNT = 100000;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private TimeBucketUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 循环 <code>beanIterable</code>,按照 <code>datePropertyName</code> 属性值所在的时间段分组.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param datePropertyName
+     *            泛型O对象 {@link Date} 类型的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param timeBucket
+     *            时间段
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty {@link TreeMap}<br>
+     *         如果 <code>datePropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>timeBucket</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see #group(Iterable, String, TimeBucket, boolean)
+     */
+    public static <O> SortedMap<Long, List<O>> group(Iterable<O> beanIterable,String datePropertyName,TimeBucket timeBucket){
+        return group(beanIterable, datePropertyName, timeBucket, false);
+    }
+
+    /**
+     * 循环 <code>beanIterable</code>,按照 <code>datePropertyName</code> 属性值所在的时间段分组.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param datePropertyName
+     *            泛型O对象 {@link Date} 类型的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param timeBucket
+     *            时间段
+     * @param fillEmptyBuckets
+     *            是否补齐第一个和最后一个时间段之间没有元素的时间段,如果是true,这些时间段的value是 empty list
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty {@link TreeMap}<br>
+     *         如果 <code>datePropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>timeBucket</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>fillEmptyBuckets</code> 是true,并且需要补齐的时间段超过 {@link #MAX_FILLED_BUCKET_COUNT},抛出 {@link IllegalArgumentException}<br>
+     */
+    public static <O> SortedMap<Long, List<O>> group(
+                    Iterable<O> beanIterable,
+                    String datePropertyName,
+                    TimeBucket timeBucket,
+                    boolean fillEmptyBuckets){
+        validate(datePropertyName, timeBucket);
+
+        TreeMap<Long, List<O>> map = new TreeMap<>();
+        if (isNullOrEmpty(beanIterable)){
+            return map;
+        }
+
+        //---------------------------------------------------------------
+        TimeZone timeZone = TimeZone.getDefault();
+        for (O obj : beanIterable){
+            Date date = PropertyUtil.getProperty(obj, datePropertyName);
+            if (null == date){
+                continue;
+            }
+
+            Long index = timeBucket.getIndex(date.getTime(), timeZone);
+            List<O> list = map.get(index);
+            if (null == list){
+                list = new ArrayList<>();
+                map.put(index, list);
+            }
+            list.add(obj);
+        }
+
+        //---------------------------------------------------------------
+        if (fillEmptyBuckets){
+            fillEmptyBuckets(map, new Factory<List<O>>(){
+
+                @Override
+                public List<O> create(){
+                    return new ArrayList<>();
+                }
+            });
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 循环 <code>beanIterable</code>,统计 <code>datePropertyName</code> 属性值所在的每个时间段的元素个数.
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param datePropertyName
+     *            泛型O对象 {@link Date} 类型的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param timeBucket
+     *            时间段
+     * @param fillEmptyBuckets
+     *            是否补齐第一个和最后一个时间段之间没有元素的时间段,如果是true,这些时间段的value是 0
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty {@link TreeMap}<br>
+     *         如果 <code>datePropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>timeBucket</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>fillEmptyBuckets</code> 是true,并且需要补齐的时间段超过 {@link #MAX_FILLED_BUCKET_COUNT},抛出 {@link IllegalArgumentException}<br>
+     */
+    public static <O> SortedMap<Long, Integer> groupCount(
+                    Iterable<O> beanIterable,
+                    String datePropertyName,
+                    TimeBucket timeBucket,
+                    boolean fillEmptyBuckets){
+        validate(datePropertyName, timeBucket);
+
+        //每个时间段一个可变的计数器,累加时不需要拆箱/装箱
+        TreeMap<Long, MutableInt> countMap = new TreeMap<>();
+        if (!isNullOrEmpty(beanIterable)){
+            TimeZone timeZone = TimeZone.getDefault();
+            for (O obj : beanIterable){
+                Date date = PropertyUtil.getProperty(obj, datePropertyName);
+                if (null == date){
+                    continue;
+                }
+
+                Long index = timeBucket.getIndex(date.getTime(), timeZone);
+                MutableInt count = countMap.get(index);
+                if (null == count){
+                    count = new MutableInt();
+                    countMap.put(index, count);
+                }
+                count.increment();
+            }
+        }
+
+        //---------------------------------------------------------------
+        if (fillEmptyBuckets){
+            fillEmptyBuckets(countMap, new Factory<MutableInt>(){
+
+                @Override
+                public MutableInt create(){
+                    return new MutableInt();
+                }
+            });
+        }
+
+        SortedMap<Long, Integer> map = new TreeMap<>();
+        for (Map.Entry<Long, MutableInt> entry : countMap.entrySet()){
+            map.put(entry.getKey(), entry.getValue().toInteger());
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 循环 <code>beanIterable</code>,一次循环,按照 <code>datePropertyName</code> 属性值所在的时间段分组,
+     * 统计每个时间段 <code>valuePropertyNames</code> 值的 count,sum,min,max,avg.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>每个时间段每个属性使用一个可变的 {@link NumberSummaryStatistics} 累加,和
+     * {@link AggregateUtil#groupSummarize(Iterable, org.apache.commons.collections4.Transformer, String[], org.apache.commons.collections4.Predicate)}
+     * 一样,null值会被忽略,不参与统计</li>
+     * <li>value 是 {@link java.util.LinkedHashMap},key的顺序依照 <code>valuePropertyNames</code>元素的顺序</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <User>},Set{@code <User>}等
+     * @param datePropertyName
+     *            泛型O对象 {@link Date} 类型的属性名称,Possibly indexed and/or nested name of the property to be modified,参见
+     *            <a href="../bean/BeanUtil.html#propertyName">propertyName</a>
+     * @param timeBucket
+     *            时间段
+     * @param valuePropertyNames
+     *            需要统计的属性名称
+     * @param fillEmptyBuckets
+     *            是否补齐第一个和最后一个时间段之间没有元素的时间段,如果是true,这些时间段的 {@link NumberSummaryStatistics} count 是0
+     * @return 如果 <code>beanIterable</code> 是null或者empty,返回 empty {@link TreeMap}<br>
+     *         如果 <code>datePropertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePropertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>timeBucket</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>valuePropertyNames</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>valuePropertyNames</code> 是empty或者有元素 是null,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>fillEmptyBuckets</code> 是true,并且需要补齐的时间段超过 {@link #MAX_FILLED_BUCKET_COUNT},抛出 {@link IllegalArgumentException}<br>
+     */
+    public static <O> SortedMap<Long, Map<String, NumberSummaryStatistics>> groupSummarize(
+                    Iterable<O> beanIterable,
+                    String datePropertyName,
+                    TimeBucket timeBucket,
+                    final String[] valuePropertyNames,
+                    boolean fillEmptyBuckets){
+        validate(datePropertyName, timeBucket);
+        Validate.notEmpty(valuePropertyNames, "valuePropertyNames can't be null/empty!");
+        Validate.noNullElements(valuePropertyNames, "valuePropertyNames can't has null element!");
+
+        TreeMap<Long, NumberSummaryStatistics[]> groupMap = new TreeMap<>();
+        if (!isNullOrEmpty(beanIterable)){
+            TimeZone timeZone = TimeZone.getDefault();
+            for (O obj : beanIterable){
+                Date date = PropertyUtil.getProperty(obj, datePropertyName);
+                if (null == date){
+                    continue;
+                }
+
+                Long index = timeBucket.getIndex(date.getTime(), timeZone);
+                NumberSummaryStatistics[] statisticsArray = groupMap.get(index);
+                if (null == statisticsArray){
+                    statisticsArray = newStatisticsArray(valuePropertyNames.length);
+                    groupMap.put(index, statisticsArray);
+                }
+                accept(statisticsArray, obj, valuePropertyNames);
+            }
+        }
+
+        //---------------------------------------------------------------
+        if (fillEmptyBuckets){
+            fillEmptyBuckets(groupMap, new Factory<NumberSummaryStatistics[]>(){
+
+                @Override
+                public NumberSummaryStatistics[] create(){
+                    return newStatisticsArray(valuePropertyNames.length);
+                }
+            });
+        }
+
+        SortedMap<Long, Map<String, NumberSummaryStatistics>> map = new TreeMap<>();
+        for (Map.Entry<Long, NumberSummaryStatistics[]> entry : groupMap.entrySet()){
+            map.put(entry.getKey(), toStatisticsMap(valuePropertyNames, entry.getValue()));
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 校验参数.
+     *
+     * @param datePropertyName
+     *            the date property name
+     * @param timeBucket
+     *            the time bucket
+     */
+    private static void validate(String datePropertyName,TimeBucket timeBucket){
+        Validate.notBlank(datePropertyName, "datePropertyName can't be blank!");
+        Validate.notNull(timeBucket, "timeBucket can't be null!");
+    }
+
+    /**
+     * 补齐 <code>map</code> 第一个和最后一个key之间缺少的key,value 使用 <code>factory</code> 创建.
+     *
+     * @param <V>
+     *            the value type
+     * @param map
+     *            the map
+     * @param factory
+     *            the factory
+     * @throws IllegalArgumentException
+     *             如果第一个和最后一个key之间的时间段个数超过 {@link #MAX_FILLED_BUCKET_COUNT}
+     */
+    private static <V> void fillEmptyBuckets(TreeMap<Long, V> map,Factory<V> factory){
+        if (map.size() < 2){
+            return;
+        }
+        long lastIndex = map.lastKey();
+        long bucketCount = lastIndex - map.firstKey() + 1;
+        Validate.isTrue(
+                        bucketCount <= MAX_FILLED_BUCKET_COUNT,
+                        "can't fill [%s] buckets between index [%s] and [%s],max is [%s],pls check the dates",
+                        bucketCount,
+                        map.firstKey(),
+                        lastIndex,
+                        MAX_FILLED_BUCKET_COUNT);
+
+        for (long index = map.firstKey() + 1; index < lastIndex; ++index){
+            if (!map.containsKey(index)){
+                map.put(index, factory.create());
+            }
+        }
+    }
+}
@@ -15,8 +15,6 @@
  */
 package com.feilong.core.util.comparator;
 
-import static com.feilong.core.lang.ClassUtil.isInstance;
-
 import java.io.Serializable;
 import java.util.Comparator;
 import java.util.TreeMap;
@@ -472,42 +470,6 @@ public class PropertyComparator<T> implements Comparator<T>,Serializable{
             return compareTo;
         }
         //比较值相等的情况
-        return compareWithSameValue(t1, t2);
-    }
-
-    //---------------------------------------------------------------
-
-    /**
-     * 处理值相等的情况.
-     * 
-     * <p>
-     * 如果用于 {@link TreeSet}/{@link TreeMap},那么建议 bean 对象需要实现 {@link Comparable} 接口<br>
-     * 
-     * 避免过滤掉同sort字段但是对象不相同的情况
-     * </p>
-     * 
-     * <h3>说明:</h3>
-     * <blockquote>
-     * <ol>
-     * <li>如果对象实现了 {@link Comparable} 接口, 那么直接比较</li>
-     * <li>如果对象没有实现 {@link Comparable} 接口, 那么比较两个对象的hashCode</li>
-     * </ol>
-     * </blockquote>
-     *
-     * @param t1
-     *            the t 1
-     * @param t2
-     *            the t 2
-     * @return 如果对象实现了 {@link Comparable} 接口, 那么直接强转比较<br>
-     *         如果对象没有实现 {@link Comparable} 接口, 那么比较两个对象的hashCode
-     * @see <a href="https://github.com/venusdrogon/feilong-core/issues/631">PropertyComparator hash判断两个对象是否相等是否太草率？</a>
-     * @see <a href="https://github.com/venusdrogon/feilong-core/issues/643">SortUtil.sortMapByValueDesc(Map<String, Integer>) 会报异常</a>
-     * @since 1.10.3
-     */
-    @SuppressWarnings({ "rawtypes", "unchecked" })
-    private int compareWithSameValue(T t1,T t2){
-        //如果对象实现了 Comparable 接口, 那么直接强转比较
-        return isInstance(t1, Comparable.class) ? ObjectUtils.compare((Comparable) t1, (Comparable) t2)
-                        : ObjectUtils.compare(t1.hashCode(), t2.hashCode());
+        return SortHelper.compareWithSameValue(t1, t2);
     }
 }
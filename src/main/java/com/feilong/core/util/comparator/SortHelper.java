@@ -16,9 +16,11 @@
 package com.feilong.core.util.comparator;
 
 import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.lang.ClassUtil.isInstance;
 import static com.feilong.tools.slf4j.Slf4jUtil.format;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
@@ -195,4 +197,43 @@ public final class SortHelper{
 
         return null == order || ASC.equalsIgnoreCase(order);
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 处理两个对象的属性值相等的情况.
+     * 
+     * <p>
+     * 如果用于 {@link java.util.TreeSet}/{@link java.util.TreeMap},那么建议 bean 对象需要实现 {@link Comparable} 接口<br>
+     * 
+     * 避免过滤掉同sort字段但是对象不相同的情况
+     * </p>
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果对象实现了 {@link Comparable} 接口, 那么直接比较</li>
+     * <li>如果对象没有实现 {@link Comparable} 接口, 那么比较两个对象的hashCode</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param t1
+     *            the t 1
+     * @param t2
+     *            the t 2
+     * @return 如果对象实现了 {@link Comparable} 接口, 那么直接强转比较<br>
+     *         如果对象没有实现 {@link Comparable} 接口, 那么比较两个对象的hashCode
+     * @see <a href="https://github.com/venusdrogon/feilong-core/issues/631">PropertyComparator hash判断两个对象是否相等是否太草率？</a>
+     * @see <a href="https://github.com/venusdrogon/feilong-core/issues/643">SortUtil.sortMapByValueDesc(Map<String, Integer>) 会报异常</a>
+     * @since 1.10.3
+     * @since 1.13.1 move from PropertyComparator
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static <T> int compareWithSameValue(T t1,T t2){
+        //如果对象实现了 Comparable 接口, 那么直接强转比较
+        return isInstance(t1, Comparable.class) ? ObjectUtils.compare((Comparable) t1, (Comparable) t2)
+                        : ObjectUtils.compare(t1.hashCode(), t2.hashCode());
+    }
 }
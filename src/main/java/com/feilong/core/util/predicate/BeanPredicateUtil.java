@@ -15,9 +15,8 @@
  */
 package com.feilong.core.util.predicate;
 
-import static com.feilong.core.Validator.isNullOrEmpty;
-
 import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
@@ -352,8 +351,12 @@ public final class BeanPredicateUtil{
     //---------------------------------------------------------------
 
     /**
-     * 调用 {@link PropertyUtil#getProperty(Object, String)} 获得 <code>propertyName</code>的值,使用
-     * {@link org.apache.commons.lang3.ArrayUtils#contains(Object[], Object) ArrayUtils.contains} 判断是否在 <code>values</code>数组中.
+     * 调用 {@link PropertyUtil#getProperty(Object, String)} 获得 <code>propertyName</code>的值,判断是否在 <code>values</code>数组中.
+     * 
+     * <p>
+     * 和 {@link org.apache.commons.lang3.ArrayUtils#contains(Object[], Object) ArrayUtils.contains} 一样使用 equals 判断(支持null),
+     * 但是数组只会在创建 predicate 的时候转成 hash set 一次,所以 select 等方法的耗时和 <code>values</code> 的数量无关.
+     * </p>
      * 
      * <h3>说明:</h3>
      * <blockquote>
@@ -380,22 +383,33 @@ public final class BeanPredicateUtil{
      * @return 如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
      * @see org.apache.commons.lang3.ArrayUtils#contains(Object[], Object)
+     * @see ContainsPredicate
      */
     @SafeVarargs
     public static <T, V> Predicate<T> containsPredicate(final String propertyName,final V...propertyValues){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        return new BeanPredicate<>(propertyName, new Predicate<V>(){
 
-            @Override
-            public boolean evaluate(V propertyValue){
-                return org.apache.commons.lang3.ArrayUtils.contains(propertyValues, propertyValue);
-            }
-        });
+        //since 1.13.1 只构造一次 hash set,每个 bean 的判断是 O(1)
+        return new BeanPredicate<>(propertyName, new ContainsPredicate<>(null == propertyValues ? null : Arrays.asList(propertyValues)));
     }
 
     /**
-     * 调用 {@link PropertyUtil#getProperty(Object, String)} 获得 <code>propertyName</code>的值,使用{@link java.util.Collection#contains(Object)
-     * Collection.contains} 判断是否在<code>values</code>集合中.
+     * 调用 {@link PropertyUtil#getProperty(Object, String)} 获得 <code>propertyName</code>的值,判断是否在<code>values</code>集合中.
+     * 
+     * <p>
+     * 如果 <code>propertyValueList</code> 是 {@link java.util.Set},直接使用 {@link java.util.Set#contains(Object) Set.contains};否则在创建 predicate
+     * 的时候复制成 hash set 一次,所以 select 等方法的耗时和 <code>propertyValueList</code> 的数量无关.
+     * </p>
+     * 
+     * <h3>注意:</h3>
+     * <blockquote>
+     * <p>
+     * 由于 {@link java.util.Set} 是直接使用的(为了保留比如 {@code new TreeSet<>(String.CASE_INSENSITIVE_ORDER)} 自身的 contains 语义),创建 predicate
+     * 之后再修改这个 set,<span style="color:red">会影响</span>后续的判断结果;<br>
+     * 其他类型的集合(比如 {@link java.util.List})是创建时的快照,之后再修改不会影响判断结果.<br>
+     * 如果不希望 set 的修改影响判断,请传入 set 的副本.
+     * </p>
+     * </blockquote>
      * 
      * <h3>说明:</h3>
      * <blockquote>
@@ -422,16 +436,11 @@ public final class BeanPredicateUtil{
      * @return 如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
      * @see java.util.Collection#contains(Object)
+     * @see ContainsPredicate
      */
     public static <T, V> Predicate<T> containsPredicate(final String propertyName,final Collection<V> propertyValueList){
         Validate.notBlank(propertyName, "propertyName can't be blank!");
-        return new BeanPredicate<>(propertyName, new Predicate<V>(){
-
-            @Override
-            public boolean evaluate(V propertyValue){
-                return isNullOrEmpty(propertyValueList) ? false : propertyValueList.contains(propertyValue);
-            }
-        });
+        return new BeanPredicate<>(propertyName, new ContainsPredicate<>(propertyValueList));
     }
 
     //---------------------------------------------------------------
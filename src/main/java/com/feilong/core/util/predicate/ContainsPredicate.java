@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.predicate;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.collections4.Predicate;
+
+/**
+ * 判断值是否在指定的集合中.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>创建的时候会把 <code>values</code> 复制成 hash set,后续每次判断的耗时和 <code>values</code> 的数量无关,之后再修改 <code>values</code> 不影响判断结果</li>
+ * <li>如果 <code>values</code> 本身就是 {@link Set},不复制,直接使用该 set(保留它自身的 contains 语义),所以之后对该 set 的修改<span style="color:red">会影响</span>判断结果</li>
+ * <li>使用 equals/hashCode 判断,支持 null 值;基本类型会被自动装箱,所以 <code>1</code> 和 <code>Integer.valueOf(1)</code> 是相等的,但是和 <code>1L</code> 不相等(和
+ * {@link org.apache.commons.lang3.ArrayUtils#contains(Object[], Object)} 一致)</li>
+ * <li>如果 <code>values</code> 是null或者empty,任何值都返回false</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            the generic type
+ * @see BeanPredicateUtil#containsPredicate(String, Object...)
+ * @see BeanPredicateUtil#containsPredicate(String, Collection)
+ * @since 1.13.1
+ */
+public class ContainsPredicate<T> implements Predicate<T>{
+
+    /** The value set. */
+    private final Set<T> valueSet;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new contains predicate.
+     *
+     * @param values
+     *            the values
+     */
+    public ContainsPredicate(Collection<T> values){
+        this.valueSet = toSet(values);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 set.
+     *
+     * @param <T>
+     *            the generic type
+     * @param values
+     *            the values
+     * @return 如果 <code>values</code> 是 {@link Set},直接返回(保留该 set 自身的 contains 语义)<br>
+     *         如果 <code>values</code> 是null或者empty,返回 {@link Collections#emptySet()}<br>
+     *         否则复制成 {@link HashSet}
+     */
+    private static <T> Set<T> toSet(Collection<T> values){
+        if (values instanceof Set){
+            return (Set<T>) values;
+        }
+        return isNullOrEmpty(values) ? Collections.<T> emptySet() : new HashSet<>(values);
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.apache.commons.collections4.Predicate#evaluate(java.lang.Object)
+     */
+    @Override
+    public boolean evaluate(T value){
+        return valueSet.contains(value);
+    }
+}
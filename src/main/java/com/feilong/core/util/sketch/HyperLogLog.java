@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 基于 HyperLogLog 算法的不同值个数(distinct count)估计,内存固定为 <code>2^precision</code> 个字节.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>标准误差约为 <code>1.04/sqrt(2^precision)</code>,默认的 {@link #DEFAULT_PRECISION} 使用 16KB 内存,误差约 0.81%</li>
+ * <li>使用 Ertl 的 improved estimator,从很小的基数(结果接近精确值)到很大的基数都不需要分段修正,误差都在上述范围内</li>
+ * <li>{@link String} 使用64位 hash;其他对象使用 {@link Object#hashCode()} 再做64位扰动,因此 hashCode 相同的不同对象会被当作同一个值</li>
+ * <li>null 也当作一个值</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see <a href="http://algo.inria.fr/flajolet/Publications/FlFuGaMe07.pdf">HyperLogLog: the analysis of a near-optimal cardinality estimation
+ *      algorithm</a>
+ * @since 1.13.1
+ */
+public final class HyperLogLog{
+
+    /** 默认的精度 <code>{@value}</code>. */
+    public static final int     DEFAULT_PRECISION = 14;
+
+    /** 最小的精度 <code>{@value}</code>. */
+    public static final int     MIN_PRECISION     = 4;
+
+    /** 最大的精度 <code>{@value}</code>. */
+    public static final int     MAX_PRECISION     = 18;
+
+    /** register 个数趋于无穷时的修正常数 <code>1/(2ln2)</code>. */
+    private static final double ALPHA_INFINITY    = 1 / (2 * Math.log(2));
+
+    //---------------------------------------------------------------
+
+    /** 精度,register 的个数是 <code>2^precision</code>. */
+    private final int       precision;
+
+    /** 每个 register 记录的最大 rank. */
+    private final byte[]    registers;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 {@link #DEFAULT_PRECISION}.
+     */
+    public HyperLogLog(){
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Instantiates a new hyper log log.
+     *
+     * @param precision
+     *            精度,取值范围 [{@link #MIN_PRECISION},{@link #MAX_PRECISION}]
+     * @throws IllegalArgumentException
+     *             如果 <code>precision</code> 不在取值范围
+     */
+    public HyperLogLog(int precision){
+        Validate.inclusiveBetween(MIN_PRECISION, MAX_PRECISION, precision, "precision must between [4,18],but is:[%s]", precision);
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录一个值.
+     *
+     * @param value
+     *            值,可以是null
+     */
+    public void offer(Object value){
+        long hash = hash(value);
+
+        int index = (int) (hash >>> (64 - precision));
+        //末尾补一个1,保证 rank 不超过 64 - precision + 1
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]){
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * 合并 <code>other</code> 的统计结果(取每个 register 的最大值).
+     *
+     * @param other
+     *            the other
+     * @throws NullPointerException
+     *             如果 <code>other</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>other</code> 的精度和当前的不一致
+     */
+    public void merge(HyperLogLog other){
+        Validate.notNull(other, "other can't be null!");
+        Validate.isTrue(precision == other.precision, "precision:[%s] not equals other precision:[%s]", precision, other.precision);
+
+        for (int i = 0; i < registers.length; ++i){
+            if (other.registers[i] > registers[i]){
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * 估计的不同值的个数.
+     * 
+     * <p>
+     * 使用 Otmar Ertl 提出的 improved estimator:根据 register 值的分布(直方图)估计,在整个基数范围内都近似无偏,
+     * 不需要像原始算法那样在 <code>2.5m</code> 附近切换到 linear counting,也不需要 HyperLogLog++ 的经验偏差修正表.
+     * </p>
+     *
+     * @return the long
+     * @see <a href="https://arxiv.org/abs/1702.01284">New cardinality estimation algorithms for HyperLogLog sketches</a>
+     */
+    public long getCardinality(){
+        int m = registers.length;
+        int q = 64 - precision;
+
+        //register 的值在 [0,q+1] 之间
+        int[] histogram = new int[q + 2];
+        for (byte register : registers){
+            histogram[register]++;
+        }
+        if (histogram[0] == m){
+            return 0;
+        }
+
+        double z = m * tau(1 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; --k){
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+        return Math.round(ALPHA_INFINITY * m * m / z);
+    }
+
+    /**
+     * 精度.
+     *
+     * @return the precision
+     */
+    public int getPrecision(){
+        return precision;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 清空.
+     */
+    public void clear(){
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Ertl 论文中的 sigma 函数,用来修正值为 0 的 register(小基数部分).
+     *
+     * @param x
+     *            值为 0 的 register 的占比,取值范围 [0,1)
+     * @return the double
+     */
+    private static double sigma(double x){
+        double xPower = x;
+        double y = 1;
+        double z = x;
+        double zPrevious;
+        do{
+            xPower *= xPower;
+            zPrevious = z;
+            z += xPower * y;
+            y += y;
+        }while (zPrevious != z);
+        return z;
+    }
+
+    /**
+     * Ertl 论文中的 tau 函数,用来修正值为最大值 <code>q+1</code> 的 register(超大基数部分).
+     *
+     * @param x
+     *            值不是 <code>q+1</code> 的 register 的占比,取值范围 [0,1]
+     * @return the double
+     */
+    private static double tau(double x){
+        if (0 == x || 1 == x){
+            return 0;
+        }
+        double xRoot = x;
+        double y = 1;
+        double z = 1 - x;
+        double zPrevious;
+        do{
+            xRoot = Math.sqrt(xRoot);
+            zPrevious = z;
+            y *= 0.5;
+            z -= (1 - xRoot) * (1 - xRoot) * y;
+        }while (zPrevious != z);
+        return z / 3;
+    }
+
+    /**
+     * 64位 hash.
+     *
+     * @param value
+     *            the value
+     * @return the long
+     */
+    private static long hash(Object value){
+        if (null == value){
+            return mix(0);
+        }
+        if (value instanceof String){
+            //FNV-1a 64
+            String string = (String) value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0, length = string.length(); i < length; ++i){
+                hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+        return mix(value.hashCode() * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * MurmurHash3 fmix64.
+     *
+     * @param hash
+     *            the hash
+     * @return the long
+     */
+    private static long mix(long hash){
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 可合并的分位数(quantile)估计,基于 DDSketch 算法,估计值和真实值的<b>相对误差</b>不超过 <code>relativeAccuracy</code>.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>值按照 <code>log(value)/log(gamma)</code> 放到对数分布的桶中,<code>gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy)</code></li>
+ * <li>桶的个数最多是 <code>maxBuckets</code>;超过时合并绝对值最小的桶,只会影响绝对值最小的那部分值的精度,内存固定</li>
+ * <li>两个 <code>relativeAccuracy</code> 相同的 sketch 可以 {@link #merge(QuantileSketch)},结果和统计所有值一样</li>
+ * <li>min,max,count 是精确的</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * QuantileSketch sketch = new QuantileSketch();
+ * for (Order order : orderList){
+ *     sketch.offer(order.getTotalAmount().doubleValue());
+ * }
+ * double median = sketch.getQuantile(0.5);
+ * double p99 = sketch.getQuantile(0.99);
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see <a href="https://arxiv.org/abs/1908.10693">DDSketch: A Fast and Fully-Mergeable Quantile Sketch with Relative-Error Guarantees</a>
+ * @since 1.13.1
+ */
+public final class QuantileSketch{
+
+    /** 默认的相对误差 <code>{@value}</code>. */
+    public static final double                  DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /** 默认的最大桶个数 <code>{@value}</code>. */
+    public static final int                     DEFAULT_MAX_BUCKETS       = 2048;
+
+    //---------------------------------------------------------------
+
+    /** 相对误差. */
+    private final double                        relativeAccuracy;
+
+    /** 最大桶个数(正数和负数分别计算). */
+    private final int                           maxBuckets;
+
+    /** The gamma. */
+    private final double                        gamma;
+
+    /** log(gamma). */
+    private final double                        logGamma;
+
+    /** 正数的桶,key是桶的下标,value是个数. */
+    private final NavigableMap<Integer, long[]> positiveBuckets           = new TreeMap<>();
+
+    /** 负数(绝对值)的桶,key是桶的下标,value是个数. */
+    private final NavigableMap<Integer, long[]> negativeBuckets           = new TreeMap<>();
+
+    /** 0(以及绝对值小于 {@link Double#MIN_NORMAL} 的值)的个数. */
+    private long                                zeroCount;
+
+    /** 总个数. */
+    private long                                count;
+
+    /** 最小值. */
+    private double                              min                       = Double.POSITIVE_INFINITY;
+
+    /** 最大值. */
+    private double                              max                       = Double.NEGATIVE_INFINITY;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 {@link #DEFAULT_RELATIVE_ACCURACY} 以及 {@link #DEFAULT_MAX_BUCKETS}.
+     */
+    public QuantileSketch(){
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * Instantiates a new quantile sketch.
+     *
+     * @param relativeAccuracy
+     *            相对误差,取值范围 (0,1)
+     * @param maxBuckets
+     *            最大桶个数,必须 &gt; 0
+     * @throws IllegalArgumentException
+     *             如果 <code>relativeAccuracy</code> 不在 (0,1) 范围,或者 <code>maxBuckets</code> &lt;= 0
+     */
+    public QuantileSketch(double relativeAccuracy, int maxBuckets){
+        Validate.isTrue(relativeAccuracy > 0 && relativeAccuracy < 1, "relativeAccuracy:[%s] must between (0,1)", relativeAccuracy);
+        Validate.isTrue(maxBuckets > 0, "maxBuckets:[%s] must > 0", maxBuckets);
+
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxBuckets = maxBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 记录一个值.
+     *
+     * @param value
+     *            the value
+     * @throws IllegalArgumentException
+     *             如果 <code>value</code> 是 NaN
+     */
+    public void offer(double value){
+        Validate.isTrue(!Double.isNaN(value), "value can't be NaN!");
+
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        if (value >= Double.MIN_NORMAL){
+            add(positiveBuckets, index(value), 1);
+        }else if (value <= -Double.MIN_NORMAL){
+            add(negativeBuckets, index(-value), 1);
+        }else{
+            zeroCount++;
+        }
+    }
+
+    /**
+     * 合并 <code>other</code> 的统计结果.
+     *
+     * @param other
+     *            the other
+     * @throws NullPointerException
+     *             如果 <code>other</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>other</code> 的 relativeAccuracy 和当前的不一致
+     */
+    public void merge(QuantileSketch other){
+        Validate.notNull(other, "other can't be null!");
+        Validate.isTrue(
+                        relativeAccuracy == other.relativeAccuracy,
+                        "relativeAccuracy:[%s] not equals other relativeAccuracy:[%s]",
+                        relativeAccuracy,
+                        other.relativeAccuracy);
+
+        for (Map.Entry<Integer, long[]> entry : other.positiveBuckets.entrySet()){
+            add(positiveBuckets, entry.getKey(), entry.getValue()[0]);
+        }
+        for (Map.Entry<Integer, long[]> entry : other.negativeBuckets.entrySet()){
+            add(negativeBuckets, entry.getKey(), entry.getValue()[0]);
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 估计的分位数.
+     *
+     * @param quantile
+     *            分位,取值范围 [0,1],比如 0.5 是中位数, 0.99 是 p99
+     * @return 如果没有记录任何值,返回 {@link Double#NaN}<br>
+     *         如果 <code>quantile</code> 是0,返回 {@link #getMin()};如果 <code>quantile</code> 是1,返回 {@link #getMax()}
+     * @throws IllegalArgumentException
+     *             如果 <code>quantile</code> 不在 [0,1] 范围
+     */
+    public double getQuantile(double quantile){
+        Validate.isTrue(quantile >= 0 && quantile <= 1, "quantile:[%s] must between [0,1]", quantile);
+        if (0 == count){
+            return Double.NaN;
+        }
+        if (0 == quantile){
+            return min;
+        }
+        if (1 == quantile){
+            return max;
+        }
+
+        //---------------------------------------------------------------
+        double rank = quantile * (count - 1);
+
+        long cumulative = 0;
+        //负数,绝对值从大到小
+        for (Map.Entry<Integer, long[]> entry : negativeBuckets.descendingMap().entrySet()){
+            cumulative += entry.getValue()[0];
+            if (cumulative > rank){
+                return clamp(-value(entry.getKey()));
+            }
+        }
+
+        cumulative += zeroCount;
+        if (cumulative > rank){
+            return 0;
+        }
+
+        for (Map.Entry<Integer, long[]> entry : positiveBuckets.entrySet()){
+            cumulative += entry.getValue()[0];
+            if (cumulative > rank){
+                return clamp(value(entry.getKey()));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 总个数.
+     *
+     * @return the count
+     */
+    public long getCount(){
+        return count;
+    }
+
+    /**
+     * 最小值.
+     *
+     * @return 如果没有记录任何值,返回 {@link Double#NaN}
+     */
+    public double getMin(){
+        return 0 == count ? Double.NaN : min;
+    }
+
+    /**
+     * 最大值.
+     *
+     * @return 如果没有记录任何值,返回 {@link Double#NaN}
+     */
+    public double getMax(){
+        return 0 == count ? Double.NaN : max;
+    }
+
+    /**
+     * 相对误差.
+     *
+     * @return the relative accuracy
+     */
+    public double getRelativeAccuracy(){
+        return relativeAccuracy;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 桶的下标,桶 i 包含 (gamma^(i-1), gamma^i] 范围的值.
+     *
+     * @param value
+     *            正数
+     * @return the int
+     */
+    private int index(double value){
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * 桶 <code>index</code> 的代表值,和桶内任意值的相对误差不超过 <code>relativeAccuracy</code>.
+     *
+     * @param index
+     *            the index
+     * @return the double
+     */
+    private double value(int index){
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * 限制在 [min,max] 范围内.
+     *
+     * @param value
+     *            the value
+     * @return the double
+     */
+    private double clamp(double value){
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * 累加桶的个数,如果桶的个数超过 {@link #maxBuckets},合并绝对值最小的桶.
+     *
+     * @param buckets
+     *            the buckets
+     * @param index
+     *            the index
+     * @param increment
+     *            the increment
+     */
+    private void add(NavigableMap<Integer, long[]> buckets,int index,long increment){
+        long[] bucketCount = buckets.get(index);
+        if (null != bucketCount){
+            bucketCount[0] += increment;
+            return;
+        }
+
+        buckets.put(index, new long[] { increment });
+        while (buckets.size() > maxBuckets){
+            long lowestCount = buckets.pollFirstEntry().getValue()[0];
+            buckets.firstEntry().getValue()[0] += lowestCount;
+        }
+    }
+}
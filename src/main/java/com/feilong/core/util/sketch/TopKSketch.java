@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 出现次数最多的前K个值(heavy hitters),基于 Space-Saving 算法,最多只保存 <code>capacity</code> 个计数器.
+ * 
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>计数器满了之后,新的值会替换掉当前计数最小的计数器,并在其计数的基础上累加,因此估计的次数 &gt;= 真实次数,误差不超过 <code>total/capacity</code></li>
+ * <li>真实次数大于 <code>total/capacity</code> 的值一定会被保留</li>
+ * <li>为了让前K个值更准确,<code>capacity</code> 建议设置为 K 的数倍</li>
+ * <li>计数器使用最小堆维护,每次 {@link #offer(Object)} 的时间复杂度是 O(log capacity)</li>
+ * </ol>
+ * </blockquote>
+ * 
+ * <h3>示例:</h3>
+ * <blockquote>
+ * 
+ * <pre class="code">
+ * TopKSketch{@code <String>} sketch = new TopKSketch{@code <>}(200);
+ * for (Order order : orderList){
+ *     sketch.offer(order.getProvince());
+ * }
+ * Map{@code <String, Long>} top20 = sketch.getTopK(20);
+ * </pre>
+ * 
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <T>
+ *            值的类型
+ * @see <a href="https://www.cs.ucsb.edu/sites/default/files/documents/2005-23.pdf">Efficient Computation of Frequent and Top-k Elements in
+ *      Data Streams</a>
+ * @since 1.13.1
+ */
+public final class TopKSketch<T>{
+
+    /** 最多保存的计数器个数. */
+    private final int                 capacity;
+
+    /** 值和计数器. */
+    private final Map<T, Counter<T>> counterMap;
+
+    /** 以计数排序的最小堆. */
+    private final Counter<T>[]        heap;
+
+    /** 堆的大小. */
+    private int                       size;
+
+    /** 总次数. */
+    private long                      total;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new top K sketch.
+     *
+     * @param capacity
+     *            最多保存的计数器个数,必须 &gt; 0
+     * @throws IllegalArgumentException
+     *             如果 <code>capacity</code> &lt;= 0
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public TopKSketch(int capacity){
+        Validate.isTrue(capacity > 0, "capacity:[%s] must > 0", capacity);
+        this.capacity = capacity;
+        this.counterMap = newHashMap(capacity);
+        this.heap = new Counter[capacity];
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 累加一次 <code>item</code>.
+     *
+     * @param item
+     *            值,可以是null
+     */
+    public void offer(T item){
+        offer(item, 1);
+    }
+
+    /**
+     * 累加 <code>increment</code> 次 <code>item</code>.
+     *
+     * @param item
+     *            值,可以是null
+     * @param increment
+     *            次数,必须 &gt; 0
+     * @throws IllegalArgumentException
+     *             如果 <code>increment</code> &lt;= 0
+     */
+    public void offer(T item,long increment){
+        Validate.isTrue(increment > 0, "increment:[%s] must > 0", increment);
+        total += increment;
+
+        Counter<T> counter = counterMap.get(item);
+        if (null != counter){
+            counter.count += increment;
+            siftDown(counter.index);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        if (size < capacity){
+            counter = new Counter<>(item, increment);
+            counterMap.put(item, counter);
+            heap[size] = counter;
+            counter.index = size++;
+            siftUp(counter.index);
+            return;
+        }
+
+        //---------------------------------------------------------------
+        //满了,替换计数最小的
+        Counter<T> min = heap[0];
+        counterMap.remove(min.item);
+        min.item = item;
+        min.count += increment;
+        counterMap.put(item, min);
+        siftDown(0);
+    }
+
+    /**
+     * 合并 <code>other</code> 的统计结果.
+     * 
+     * <p>
+     * 对于只在一边出现的值,另外一边如果计数器已满,使用该边的最小计数作为估计(保持"估计次数 &gt;= 真实次数"的特性),然后保留计数最大的 <code>capacity</code> 个值.
+     * </p>
+     *
+     * @param other
+     *            the other
+     * @throws NullPointerException
+     *             如果 <code>other</code> 是null
+     */
+    public void merge(TopKSketch<T> other){
+        Validate.notNull(other, "other can't be null!");
+
+        long thisMin = size == capacity ? heap[0].count : 0;
+        long otherMin = other.size == other.capacity ? other.heap[0].count : 0;
+
+        Map<T, Long> mergedMap = newHashMap(size + other.size);
+        for (int i = 0; i < size; ++i){
+            Counter<T> otherCounter = other.counterMap.get(heap[i].item);
+            mergedMap.put(heap[i].item, heap[i].count + (null == otherCounter ? otherMin : otherCounter.count));
+        }
+        for (int i = 0; i < other.size; ++i){
+            if (!counterMap.containsKey(other.heap[i].item)){
+                mergedMap.put(other.heap[i].item, other.heap[i].count + thisMin);
+            }
+        }
+
+        //---------------------------------------------------------------
+        List<Counter<T>> counterList = new ArrayList<>(mergedMap.size());
+        for (Map.Entry<T, Long> entry : mergedMap.entrySet()){
+            counterList.add(new Counter<>(entry.getKey(), entry.getValue()));
+        }
+        Collections.sort(counterList, CountDescComparator.INSTANCE);
+
+        counterMap.clear();
+        Arrays.fill(heap, null);
+        size = 0;
+        for (Counter<T> counter : counterList.subList(0, Math.min(capacity, counterList.size()))){
+            counterMap.put(counter.item, counter);
+            heap[size] = counter;
+            counter.index = size++;
+            siftUp(counter.index);
+        }
+        total += other.total;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 出现次数最多的前 <code>k</code> 个值,以及估计的次数.
+     *
+     * @param k
+     *            the k
+     * @return 按照次数倒序排序的 {@link java.util.LinkedHashMap}
+     * @throws IllegalArgumentException
+     *             如果 <code>k</code> &lt;= 0
+     */
+    public Map<T, Long> getTopK(int k){
+        Validate.isTrue(k > 0, "k:[%s] must > 0", k);
+
+        List<Counter<T>> counterList = new ArrayList<>(Arrays.asList(heap).subList(0, size));
+        Collections.sort(counterList, CountDescComparator.INSTANCE);
+
+        int resultSize = Math.min(k, size);
+        Map<T, Long> map = newLinkedHashMap(resultSize);
+        for (Counter<T> counter : counterList.subList(0, resultSize)){
+            map.put(counter.item, counter.count);
+        }
+        return map;
+    }
+
+    /**
+     * <code>item</code> 估计的次数.
+     *
+     * @param item
+     *            the item
+     * @return 如果 <code>item</code> 没有被保留,返回0
+     */
+    public long getCount(T item){
+        Counter<T> counter = counterMap.get(item);
+        return null == counter ? 0 : counter.count;
+    }
+
+    /**
+     * 累加的总次数.
+     *
+     * @return the total
+     */
+    public long getTotal(){
+        return total;
+    }
+
+    /**
+     * 最多保存的计数器个数.
+     *
+     * @return the capacity
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Sift up.
+     *
+     * @param index
+     *            the index
+     */
+    private void siftUp(int index){
+        Counter<T> counter = heap[index];
+        int i = index;
+        while (i > 0){
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= counter.count){
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(counter, i);
+    }
+
+    /**
+     * Sift down.
+     *
+     * @param index
+     *            the index
+     */
+    private void siftDown(int index){
+        Counter<T> counter = heap[index];
+        int i = index;
+        int half = size >>> 1;
+        while (i < half){
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count){
+                child = right;
+            }
+            if (counter.count <= heap[child].count){
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(counter, i);
+    }
+
+    /**
+     * Place.
+     *
+     * @param counter
+     *            the counter
+     * @param index
+     *            the index
+     */
+    private void place(Counter<T> counter,int index){
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 计数器.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    private static final class Counter<T>{
+
+        /** The item. */
+        private T    item;
+
+        /** The count. */
+        private long count;
+
+        /** 在堆中的位置. */
+        private int  index;
+
+        /**
+         * Instantiates a new counter.
+         *
+         * @param item
+         *            the item
+         * @param count
+         *            the count
+         */
+        private Counter(T item, long count){
+            this.item = item;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 按照次数倒序.
+     */
+    private enum CountDescComparator implements Comparator<Counter<?>>{
+
+        /** The instance. */
+        INSTANCE;
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public int compare(Counter<?> one,Counter<?> two){
+            return one.count < two.count ? 1 : (one.count == two.count ? 0 : -1);
+        }
+    }
+}
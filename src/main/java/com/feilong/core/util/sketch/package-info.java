@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * 固定内存,可合并的流式统计(sketch),适合对大数据量做近似统计.
+ * 
+ * <ul>
+ * <li>{@link com.feilong.core.util.sketch.TopKSketch} 出现次数最多的前K个值(heavy hitters)</li>
+ * <li>{@link com.feilong.core.util.sketch.HyperLogLog} 不同值的个数(distinct count)</li>
+ * <li>{@link com.feilong.core.util.sketch.QuantileSketch} 分位数(中位数,p99...)</li>
+ * </ul>
+ * 
+ * <p>
+ * 所有的 sketch 都不是线程安全的;并发使用时(比如 {@link com.feilong.core.lang.PartitionThreadExecutor}),每个分区各自统计,最后调用 <code>merge</code> 合并.
+ * </p>
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see com.feilong.core.util.AggregateUtil
+ * @since 1.13.1
+ */
+package com.feilong.core.util.sketch;
@@ -36,6 +36,8 @@ import com.feilong.core.bean.propertyutiltest.FeiLongPropertyUtilSuiteTests;
                 FeiLongConvertUtilSuiteTests.class,
                 FeiLongPropertyUtilSuiteTests.class,
                 FeiLongPropertyValueObtainerSuiteTests.class,
+
+                PropertyDescriptorUtilTest.class,
         //
 })
 public class FeiLongBeanSuiteTests{
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The Class PropertyDescriptorUtilTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class PropertyDescriptorUtilTest{
+
+    /**
+     * 第一次解析之后放到缓存,再次读取直接命中缓存.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testGetSpringPropertyDescriptorCacheHit() throws Exception{
+        PropertyDescriptor propertyDescriptor = PropertyDescriptorUtil.getSpringPropertyDescriptor(Person.class, "name");
+        assertThat(propertyDescriptor, is(notNullValue()));
+        assertThat(propertyDescriptor.getName(), is("name"));
+
+        Object cached = getPropertyDescriptorMap(Person.class).get("name");
+        assertThat(cached, is(sameInstance((Object) propertyDescriptor)));
+
+        assertThat(PropertyDescriptorUtil.getSpringPropertyDescriptor(Person.class, "name"), is(sameInstance(propertyDescriptor)));
+    }
+
+    /**
+     * spring 解析不了的属性,缓存的是占位对象,返回null.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testGetSpringPropertyDescriptorMiss() throws Exception{
+        assertThat(PropertyDescriptorUtil.getSpringPropertyDescriptor(Person.class, "notExistProperty"), is(nullValue()));
+
+        Object cached = getPropertyDescriptorMap(Person.class).get("notExistProperty");
+        assertThat(cached, is(notNullValue()));
+        assertThat(cached, is(not(instanceOf(PropertyDescriptor.class))));
+
+        assertThat(PropertyDescriptorUtil.getSpringPropertyDescriptor(Person.class, "notExistProperty"), is(nullValue()));
+        assertThat(getPropertyDescriptorMap(Person.class).get("notExistProperty"), is(sameInstance(cached)));
+    }
+
+    /**
+     * 环境中没有 spring 的时候,返回null.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testGetSpringPropertyDescriptorWithoutSpring() throws Exception{
+        URL location = PropertyDescriptorUtil.class.getProtectionDomain().getCodeSource().getLocation();
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        try (URLClassLoader classLoader = new NoSpringClassLoader(location)){
+            //ClassUtil.getClass 使用的是 context classloader
+            currentThread.setContextClassLoader(classLoader);
+
+            Class<?> helperClass = classLoader.loadClass(SpringBeanUtilsHelper.class.getName());
+            Method getMethod = helperClass.getDeclaredMethod("getSpringGetPropertyDescriptorMethod");
+            getMethod.setAccessible(true);
+            assertThat(getMethod.invoke(null), is(nullValue()));
+
+            Class<?> utilClass = classLoader.loadClass(PropertyDescriptorUtil.class.getName());
+            Method method = utilClass.getDeclaredMethod("getSpringPropertyDescriptor", Class.class, String.class);
+            method.setAccessible(true);
+            assertThat(method.invoke(null, Person.class, "name"), is(nullValue()));
+        }finally{
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>klass</code> 对应的缓存.
+     *
+     * @param klass
+     *            the klass
+     * @return the property descriptor map
+     * @throws Exception
+     *             the exception
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getPropertyDescriptorMap(Class<?> klass) throws Exception{
+        Field field = PropertyDescriptorUtil.class.getDeclaredField("CLASS_AND_PROPERTY_DESCRIPTOR_MAP");
+        field.setAccessible(true);
+        return ((ClassValue<Map<String, Object>>) field.get(null)).get(klass);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 自己加载 com.feilong.core 的类,并且找不到 spring 的 classloader.
+     */
+    private static final class NoSpringClassLoader extends URLClassLoader{
+
+        /**
+         * Instantiates a new no spring class loader.
+         *
+         * @param location
+         *            feilong-core 类所在的位置
+         */
+        private NoSpringClassLoader(URL location){
+            super(new URL[] { location }, NoSpringClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name,boolean resolve) throws ClassNotFoundException{
+            if (name.startsWith("org.springframework.")){
+                throw new ClassNotFoundException(name);
+            }
+            if (name.startsWith("com.feilong.core.")){
+                synchronized (getClassLoadingLock(name)){
+                    Class<?> klass = findLoadedClass(name);
+                    return null == klass ? findClass(name) : klass;
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * The Class Person.
+     */
+    public static class Person{
+
+        /** The name. */
+        private String name;
+
+        /**
+         * Gets the name.
+         *
+         * @return the name
+         */
+        public String getName(){
+            return name;
+        }
+
+        /**
+         * Sets the name.
+         *
+         * @param name
+         *            the name to set
+         */
+        public void setName(String name){
+            this.name = name;
+        }
+    }
+}
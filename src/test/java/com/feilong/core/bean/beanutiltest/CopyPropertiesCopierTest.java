@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.beanutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class CopyPropertiesCopierTest{
+
+    @Test
+    public void testCopyPropertiesAll(){
+        String[] nickNames = toArray("feilong", "飞天奔月");
+        BigDecimal money = new BigDecimal("1.25");
+
+        From from = new From();
+        from.setName("jim");
+        from.setAge(18);
+        from.setMoney(money);
+        from.setNickNames(nickNames);
+        from.setCount("5");
+
+        To to = new To();
+        BeanUtil.copyProperties(to, from);
+
+        assertThat(to.getName(), is("jim"));
+        //Integer--->int
+        assertThat(to.getAge(), is(18));
+        //BigDecimal--->Number,直接赋值,不会转换
+        assertThat(to.getMoney(), sameInstance((Number) money));
+        assertThat(to.getNickNames(), sameInstance(nickNames));
+        //String--->Integer,类型不一致,转换
+        assertThat(to.getCount(), is(5));
+    }
+
+    @Test
+    public void testCopyPropertiesAllTwice(){
+        From from = new From();
+        from.setName("jim");
+        from.setAge(18);
+
+        To to = new To();
+        BeanUtil.copyProperties(to, from);
+        assertThat(to.getName(), is("jim"));
+
+        from.setName("feilong");
+        BeanUtil.copyProperties(to, from);
+        assertThat(to.getName(), is("feilong"));
+    }
+
+    @Test
+    public void testCopyPropertiesAllNullValue(){
+        To to = new To();
+        to.setName("jim");
+        to.setMoney(BigDecimal.ONE);
+
+        From from = new From();
+        from.setAge(18);
+
+        BeanUtil.copyProperties(to, from);
+        assertThat(to.getName(), is(nullValue()));
+        assertThat(to.getMoney(), is(nullValue()));
+    }
+
+    /**
+     * null 不能设置到基本类型属性,和 BeanUtils.copyProperties 一样抛出异常.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testCopyPropertiesAllNullToPrimitive(){
+        BeanUtil.copyProperties(new To(), new From());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testCopyPropertiesInclude(){
+        From from = new From();
+        from.setName("jim");
+        from.setAge(18);
+        from.setCount("5");
+
+        To to = new To();
+        BeanUtil.copyProperties(to, from, "name", "count");
+
+        assertThat(to.getName(), is("jim"));
+        assertThat(to.getCount(), is(5));
+        assertThat(to.getAge(), is(0));
+    }
+
+    /**
+     * toObj 没有这个属性,跳过.
+     */
+    @Test
+    public void testCopyPropertiesIncludeToNotExist(){
+        From from = new From();
+        from.setName("jim");
+        from.setOnlyFrom("from");
+
+        To to = new To();
+        BeanUtil.copyProperties(to, from, "name", "onlyFrom");
+        assertThat(to.getName(), is("jim"));
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testCopyPropertiesIncludeFromNotExist(){
+        BeanUtil.copyProperties(new To(), new From(), "name", "notExist");
+    }
+
+    @Test
+    public void testCopyPropertiesIncludeArray(){
+        String[] nickNames = toArray("feilong", "飞天奔月");
+
+        From from = new From();
+        from.setNickNames(nickNames);
+
+        To to = new To();
+        BeanUtil.copyProperties(to, from, "nickNames");
+        assertThat(to.getNickNames(), is(nickNames));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * fromClass 和 toClass 由不同的 classloader 加载.
+     */
+    @Test
+    public void testCopyPropertiesDifferentClassLoader() throws Exception{
+        URL location = From.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { location }, null)){
+            From from = new From();
+            from.setName("jim");
+            from.setAge(18);
+
+            Object childTo = classLoader.loadClass(To.class.getName()).newInstance();
+            BeanUtil.copyProperties(childTo, from, "name", "age");
+            assertThat(PropertyUtil.<String> getProperty(childTo, "name"), is("jim"));
+            assertThat(PropertyUtil.<Integer> getProperty(childTo, "age"), is(18));
+
+            //反方向
+            Object childFrom = classLoader.loadClass(From.class.getName()).newInstance();
+            PropertyUtil.setProperty(childFrom, "name", "feilong");
+
+            To to = new To();
+            BeanUtil.copyProperties(to, childFrom, "name");
+            assertThat(to.getName(), is("feilong"));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    public static class From{
+
+        private String     name;
+
+        private Integer    age;
+
+        private BigDecimal money;
+
+        private String[]   nickNames;
+
+        private String     count;
+
+        private String     onlyFrom;
+
+        public String getName(){
+            return name;
+        }
+
+        public void setName(String name){
+            this.name = name;
+        }
+
+        public Integer getAge(){
+            return age;
+        }
+
+        public void setAge(Integer age){
+            this.age = age;
+        }
+
+        public BigDecimal getMoney(){
+            return money;
+        }
+
+        public void setMoney(BigDecimal money){
+            this.money = money;
+        }
+
+        public String[] getNickNames(){
+            return nickNames;
+        }
+
+        public void setNickNames(String[] nickNames){
+            this.nickNames = nickNames;
+        }
+
+        public String getCount(){
+            return count;
+        }
+
+        public void setCount(String count){
+            this.count = count;
+        }
+
+        public String getOnlyFrom(){
+            return onlyFrom;
+        }
+
+        public void setOnlyFrom(String onlyFrom){
+            this.onlyFrom = onlyFrom;
+        }
+    }
+
+    public static class To{
+
+        private String   name;
+
+        private int      age;
+
+        private Number   money;
+
+        private String[] nickNames;
+
+        private Integer  count;
+
+        public String getName(){
+            return name;
+        }
+
+        public void setName(String name){
+            this.name = name;
+        }
+
+        public int getAge(){
+            return age;
+        }
+
+        public void setAge(int age){
+            this.age = age;
+        }
+
+        public Number getMoney(){
+            return money;
+        }
+
+        public void setMoney(Number money){
+            this.money = money;
+        }
+
+        public String[] getNickNames(){
+            return nickNames;
+        }
+
+        public void setNickNames(String[] nickNames){
+            this.nickNames = nickNames;
+        }
+
+        public Integer getCount(){
+            return count;
+        }
+
+        public void setCount(Integer count){
+            this.count = count;
+        }
+    }
+}
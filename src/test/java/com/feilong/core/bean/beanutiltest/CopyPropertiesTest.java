@@ -106,11 +106,12 @@ public class CopyPropertiesTest{
         User user2 = new User();
         BeanUtil.copyProperties(user2, user, "nickNames");
 
+        //since 1.13.1 类型一样,直接复制,不再 Object--->String--->Object 转换
         assertThat(
                         user2,
                         allOf(//
-                                        not(hasProperty("nickNames", is(nickNames))),
-                                        hasProperty("nickNames", is(toArray("feilong")))));
+                                        hasProperty("nickNames", is(nickNames)),
+                                        not(hasProperty("nickNames", is(toArray("feilong"))))));
     }
 
     /**
@@ -30,6 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 CloneBeanTest.class,
                 CopyPropertiesTest.class,
                 CopyPropertiesExceptionTest.class,
+                CopyPropertiesCopierTest.class,
 
                 //GetPropertyExceptionTest.class,
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.propertyValueobtainer;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.bean.PropertyValueObtainer;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class GetPropertyValueCollectionTest{
+
+    @Test
+    public void testGetPropertyValueCollection(){
+        List<Node> list = toList(new Node("a", 1), new Node("b", 2), new Node("c", 3));
+
+        List<String> nameList = PropertyValueObtainer.getPropertyValueCollection(list, "name", new ArrayList<String>());
+        assertThat(nameList, contains("a", "b", "c"));
+
+        List<Integer> ageList = PropertyValueObtainer.getPropertyValueCollection(list, "age", new ArrayList<Integer>());
+        assertThat(ageList, contains(1, 2, 3));
+    }
+
+    @Test
+    public void testGetPropertyValueCollectionNested(){
+        Node a = new Node("a", 1);
+        a.setParent(new Node("pa", 10));
+
+        Node b = new Node("b", 2);
+        b.setParent(new Node("pb", 20));
+
+        List<String> list = PropertyValueObtainer.getPropertyValueCollection(toList(a, b), "parent.name", new ArrayList<String>());
+        assertThat(list, contains("pa", "pb"));
+    }
+
+    /**
+     * 不同类型的元素,每种类型使用自己的 getter.
+     */
+    @Test
+    public void testGetPropertyValueCollectionDifferentClass(){
+        List<Node> list = toList(new Node("a", 1), new SubNode("b", 2), new Node("c", 3));
+
+        List<String> nameList = PropertyValueObtainer.getPropertyValueCollection(list, "name", new ArrayList<String>());
+        assertThat(nameList, contains("a", "sub-b", "c"));
+    }
+
+    @Test
+    public void testGetPropertyValueCollectionMap(){
+        Map<String, Object> map1 = newHashMap();
+        map1.put("name", "jim");
+
+        Map<String, Object> map2 = newHashMap();
+        map2.put("name", "feilong");
+
+        List<Map<String, Object>> list = toList(map1, map2);
+        assertThat(PropertyValueObtainer.getPropertyValueCollection(list, "name", new ArrayList<String>()), contains("jim", "feilong"));
+    }
+
+    @Test
+    public void testGetPropertyValueCollectionMapNested(){
+        Map<String, Object> map1 = newHashMap();
+        map1.put("node", new Node("a", 1));
+
+        Map<String, Object> map2 = newHashMap();
+        map2.put("node", new Node("b", 2));
+
+        List<Map<String, Object>> list = toList(map1, map2);
+        assertThat(PropertyValueObtainer.getPropertyValueCollection(list, "node.name", new ArrayList<String>()), contains("a", "b"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetPropertyIndexedAndNested(){
+        Node a = new Node("a", 1);
+        a.setChildren(toList(new Node("a1", 2), new Node("a2", 3)));
+
+        assertThat(PropertyUtil.<String> getProperty(a, "children[1].name"), is("a2"));
+        assertThat(PropertyUtil.<Integer> getProperty(a, "children[0].age"), is(2));
+        assertThat(PropertyUtil.<String> getProperty(a.getChildren().get(0), "name"), is("a1"));
+    }
+
+    @Test
+    public void testGetPropertyNullValue(){
+        assertThat(PropertyUtil.<String> getProperty(new Node(null, 1), "name"), is(nullValue()));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyNestedNull(){
+        PropertyUtil.getProperty(new Node("a", 1), "parent.name");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyNotExist(){
+        PropertyUtil.getProperty(new Node("a", 1), "notExist");
+    }
+
+    @Test(expected = BeanOperationException.class)
+    public void testGetPropertyGetterThrowException(){
+        PropertyUtil.getProperty(new Node("a", 1), "error");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetPropertyValueCollectionNullElement(){
+        PropertyValueObtainer.getPropertyValueCollection(toList(new Node("a", 1), null), "name", new ArrayList<String>());
+    }
+
+    //---------------------------------------------------------------
+
+    public static class Node{
+
+        private String     name;
+
+        private Integer    age;
+
+        private Node       parent;
+
+        private List<Node> children;
+
+        public Node(String name, Integer age){
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public Integer getAge(){
+            return age;
+        }
+
+        public Node getParent(){
+            return parent;
+        }
+
+        public void setParent(Node parent){
+            this.parent = parent;
+        }
+
+        public List<Node> getChildren(){
+            return children;
+        }
+
+        public void setChildren(List<Node> children){
+            this.children = children;
+        }
+
+        public String getError(){
+            throw new IllegalStateException("error");
+        }
+    }
+
+    public static class SubNode extends Node{
+
+        public SubNode(String name, Integer age){
+            super(name, age);
+        }
+
+        @Override
+        public String getName(){
+            return "sub-" + super.getName();
+        }
+    }
+}
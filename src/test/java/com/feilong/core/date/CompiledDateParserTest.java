@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.CHINESE_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.COMMON_TIME;
+import static com.feilong.core.DatePattern.DOTS_DATE;
+import static com.feilong.core.DatePattern.INDONESIA_DATE;
+import static com.feilong.core.DatePattern.TIMESTAMP;
+import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.TO_STRING_STYLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.text.ParseException;
+import java.util.Date;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Test;
+
+/**
+ * The Class CompiledDateParserTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class CompiledDateParserTest{
+
+    /** The Constant PATTERNS. */
+    private static final String[] PATTERNS = {
+                                               COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                               COMMON_DATE_AND_TIME,
+                                               COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                                               COMMON_DATE,
+                                               DOTS_DATE,
+                                               INDONESIA_DATE,
+                                               TIMESTAMP_WITH_MILLISECOND,
+                                               TIMESTAMP,
+                                               COMMON_TIME,
+                                               CHINESE_DATE_AND_TIME,
+                                               "yyyy-MM-dd'T'HH:mm:ssZ",
+                                               TO_STRING_STYLE };
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSameAsDateUtils(){
+        String[] dateStrings = {
+                                 "2016-06-28 01:21:12.345",
+                                 "2016-06-28 01:21:12",
+                                 "2016-06-28 01:21",
+                                 "2016-06-28",
+                                 "2016-2-33",
+                                 "2016-02-33",
+                                 "2016-06-28  01:21",
+                                 "2016.06.28",
+                                 "28/06/2016",
+                                 "20130102140806000",
+                                 "20130102140806",
+                                 "13:14:15",
+                                 "2016年06月28日 01:21:12",
+                                 "2016-06-28T01:21:12+0800",
+                                 "2016-06-28T01:21:12-0800",
+                                 "Tue Jun 28 01:21:12 CST 2016" };
+
+        CompiledDateParser compiledDateParser = CompiledDateParser.getInstance(PATTERNS);
+        for (String dateString : dateStrings){
+            assertEquals(dateString, parseByDateUtils(dateString), parse(compiledDateParser, dateString));
+        }
+    }
+
+    @Test
+    public void testNotMatchSameAsDateUtils(){
+        String[] dateStrings = { "2016-06-28t01:21:12-0800", "2016/06/28", "2016-06-28 01:21:12 ", "13:14", "abc" };
+
+        CompiledDateParser compiledDateParser = CompiledDateParser.getInstance(PATTERNS);
+        for (String dateString : dateStrings){
+            assertEquals(dateString, parseByDateUtils(dateString), parse(compiledDateParser, dateString));
+        }
+    }
+
+    @Test
+    public void testPatternOrder() throws ParseException{
+        CompiledDateParser compiledDateParser = CompiledDateParser.getInstance(TIMESTAMP, TIMESTAMP_WITH_MILLISECOND);
+
+        String dateString = "20130102140806000";
+        assertEquals(DateUtils.parseDate(dateString, TIMESTAMP, TIMESTAMP_WITH_MILLISECOND), compiledDateParser.parse(dateString));
+    }
+
+    @Test
+    public void testCache(){
+        assertSame(CompiledDateParser.getInstance(COMMON_DATE, COMMON_TIME), CompiledDateParser.getInstance(COMMON_DATE, COMMON_TIME));
+    }
+
+    @Test
+    public void testGetDatePatterns(){
+        CompiledDateParser compiledDateParser = CompiledDateParser.getInstance(COMMON_DATE, COMMON_TIME);
+        assertEquals(2, compiledDateParser.getDatePatterns().size());
+        assertEquals(COMMON_DATE, compiledDateParser.getDatePatterns().get(0));
+    }
+
+    @Test
+    public void testToDate(){
+        Date date = DateUtil.toDate("2016-06-28 01:21:12", COMMON_DATE, COMMON_DATE_AND_TIME);
+        assertEquals("2016-06-28 01:21:12", DateUtil.toString(date, COMMON_DATE_AND_TIME));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNotMatch(){
+        CompiledDateParser.getInstance(COMMON_DATE).parse("2016/06/28");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNotWholeString(){
+        CompiledDateParser.getInstance(COMMON_DATE_AND_TIME_WITHOUT_SECOND).parse("2016-06-30 15:36 ");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testParseNull(){
+        CompiledDateParser.getInstance(COMMON_DATE).parse(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseBlank(){
+        CompiledDateParser.getInstance(COMMON_DATE).parse(" ");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetInstanceNull(){
+        CompiledDateParser.getInstance((String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInstanceEmpty(){
+        CompiledDateParser.getInstance();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInstanceNullElement(){
+        CompiledDateParser.getInstance(COMMON_DATE, null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static Date parseByDateUtils(String dateString){
+        try{
+            return DateUtils.parseDate(dateString, PATTERNS);
+        }catch (ParseException e){
+            return null;
+        }
+    }
+
+    private static Date parse(CompiledDateParser compiledDateParser,String dateString){
+        try{
+            return compiledDateParser.parse(dateString);
+        }catch (IllegalArgumentException e){
+            return null;
+        }
+    }
+}
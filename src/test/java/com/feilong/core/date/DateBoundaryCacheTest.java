@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.date.DateUtil.addDay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class DateBoundaryCacheTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class DateBoundaryCacheTest{
+
+    /** The time zone. */
+    private TimeZone timeZone;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before(){
+        timeZone = TimeZone.getDefault();
+    }
+
+    @After
+    public void after(){
+        TimeZone.setDefault(timeZone);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testPairs(){
+        Date now = new Date();
+        assertEquals(DateExtensionUtil.getDayStartAndEndPair(now), DateExtensionUtil.getTodayStartAndEndPair());
+        assertEquals(DateExtensionUtil.getMonthStartAndEndPair(now), DateExtensionUtil.getMonthStartAndEndPair());
+        assertEquals(DateExtensionUtil.getYearStartAndEndPair(now), DateExtensionUtil.getYearStartAndEndPair());
+    }
+
+    @Test
+    public void testCached(){
+        assertSame(DateBoundaryCache.current(), DateBoundaryCache.current());
+    }
+
+    @Test
+    public void testNewDateEveryCall(){
+        Pair<Date, Date> pair = DateExtensionUtil.getTodayStartAndEndPair();
+        pair.getLeft().setTime(0);
+
+        assertEquals(DateUtil.getFirstDateOfThisDay(new Date()), DateExtensionUtil.getTodayStartAndEndPair().getLeft());
+    }
+
+    @Test
+    public void testTimeZone(){
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+        DateBoundaryCache.Boundaries shanghai = DateBoundaryCache.current();
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        DateBoundaryCache.Boundaries newYork = DateBoundaryCache.current();
+        assertNotSame(shanghai, newYork);
+        assertEquals(DateExtensionUtil.getDayStartAndEndPair(new Date()), newYork.toDayPair());
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+        assertSame(shanghai, DateBoundaryCache.current());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testIsToday(){
+        Date now = new Date();
+        assertTrue(DateUtil.isToday(now));
+        assertTrue(DateUtil.isToday(DateUtil.getFirstDateOfThisDay(now)));
+        assertTrue(DateUtil.isToday(DateUtil.getLastDateOfThisDay(now)));
+
+        assertFalse(DateUtil.isToday(addDay(now, 1)));
+        assertFalse(DateUtil.isToday(addDay(now, -1)));
+        assertFalse(DateUtil.isToday(DateUtils.addMilliseconds(DateUtil.getFirstDateOfThisDay(now), -1)));
+    }
+}
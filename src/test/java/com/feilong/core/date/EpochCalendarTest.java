@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.DAY_OF_YEAR;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MILLISECOND;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.WEEK_OF_YEAR;
+import static java.util.Calendar.YEAR;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class EpochCalendarTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class EpochCalendarTest{
+
+    /** The Constant FIELDS. */
+    private static final int[]    FIELDS     = { YEAR, MONTH, DAY_OF_MONTH, DAY_OF_YEAR, DAY_OF_WEEK, HOUR_OF_DAY, MINUTE, SECOND, MILLISECOND };
+
+    /** The Constant TIME_ZONES. */
+    private static final String[] TIME_ZONES = { "Asia/Shanghai", "America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe", "UTC" };
+
+    /** The time zone. */
+    private TimeZone              timeZone;
+
+    /** The locale. */
+    private Locale                locale;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before(){
+        timeZone = TimeZone.getDefault();
+        locale = Locale.getDefault();
+    }
+
+    @After
+    public void after(){
+        TimeZone.setDefault(timeZone);
+        Locale.setDefault(locale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetFieldValueSameAsCalendar(){
+        Random random = new Random(20200101L);
+        for (String id : TIME_ZONES){
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+            for (int i = 0; i < 20000; ++i){
+                Date date = new Date(randomMillis(random));
+                Calendar calendar = DateUtils.toCalendar(date);
+                for (int field : FIELDS){
+                    assertEquals(id + " " + date, calendar.get(field), CalendarUtil.getFieldValue(date, field));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBoundarySameAsCalendar(){
+        Random random = new Random(20200101L);
+        for (String id : TIME_ZONES){
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+            for (int i = 0; i < 20000; ++i){
+                Date date = new Date(randomMillis(random));
+                String message = id + " " + date;
+
+                assertEquals(message, calendarTime(date, DAY_OF_MONTH, false), DateUtil.getFirstDateOfThisDay(date));
+                assertEquals(message, calendarTime(date, DAY_OF_MONTH, true), DateUtil.getLastDateOfThisDay(date));
+                assertEquals(message, calendarTime(date, MONTH, false), DateUtil.getFirstDateOfThisMonth(date));
+                assertEquals(message, calendarTime(date, MONTH, true), DateUtil.getLastDateOfThisMonth(date));
+                assertEquals(message, calendarTime(date, YEAR, false), DateUtil.getFirstDateOfThisYear(date));
+                assertEquals(message, calendarTime(date, YEAR, true), DateUtil.getLastDateOfThisYear(date));
+
+                int day = random.nextInt(2000) - 1000;
+                assertEquals(message, DateUtils.addDays(date, day), DateUtil.addDay(date, day));
+                assertEquals(message, DateUtils.addWeeks(date, day), DateUtil.addWeek(date, day));
+            }
+        }
+    }
+
+    @Test
+    public void testDaylightSavingTime(){
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+        //2016-10-16 00:00 不存在
+        Date date = DateUtil.toDate("2016-10-16 12:00:00", "yyyy-MM-dd HH:mm:ss");
+        assertEquals(calendarTime(date, DAY_OF_MONTH, false), DateUtil.getFirstDateOfThisDay(date));
+        assertEquals(DateUtils.addDays(date, -1), DateUtil.addDay(date, -1));
+    }
+
+    @Test
+    public void testNotGregorian(){
+        Locale.setDefault(new Locale("th", "TH"));
+        Date date = new Date();
+        assertEquals(EpochCalendar.NOT_SUPPORTED_FIELD, EpochCalendar.getFieldValue(date.getTime(), YEAR));
+        assertEquals(DateUtils.toCalendar(date).get(YEAR), DateUtil.getYear(date));
+    }
+
+    @Test
+    public void testNotSupportedField(){
+        assertEquals(EpochCalendar.NOT_SUPPORTED_FIELD, EpochCalendar.getFieldValue(System.currentTimeMillis(), WEEK_OF_YEAR));
+    }
+
+    @Test
+    public void testToYearMonthDay(){
+        assertEquals(19700101, EpochCalendar.toYearMonthDay(0));
+        assertEquals(20160229, EpochCalendar.toYearMonthDay(EpochCalendar.toEpochDay(2016, 2, 29)));
+        assertEquals(20000301, EpochCalendar.toYearMonthDay(EpochCalendar.toEpochDay(2000, 2, 30)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetFieldValueNull(){
+        CalendarUtil.getFieldValue((Date) null, YEAR);
+    }
+
+    //---------------------------------------------------------------
+
+    private static long randomMillis(Random random){
+        //1583 - 9999
+        return -12000000000000L + (long) (random.nextDouble() * 250000000000000L);
+    }
+
+    private static Date calendarTime(Date date,int field,boolean last){
+        Calendar calendar = DateUtils.toCalendar(date);
+        if (MONTH == field){
+            calendar.set(DAY_OF_MONTH, last ? calendar.getActualMaximum(DAY_OF_MONTH) : 1);
+        }else if (YEAR == field){
+            calendar.set(MONTH, last ? Calendar.DECEMBER : Calendar.JANUARY);
+            calendar.set(DAY_OF_MONTH, last ? 31 : 1);
+        }
+        return last ? CalendarUtil.resetDayEnd(calendar).getTime() : CalendarUtil.resetDayBegin(calendar).getTime();
+    }
+}
@@ -31,6 +31,11 @@ import com.feilong.core.date.dateutiltest.FeiLongDateUtilSuiteTests;
 @RunWith(Suite.class)
 @SuiteClasses({
                 CalendarUtilTest.class, //
+                CompiledDateParserTest.class,
+                DateBoundaryCacheTest.class,
+                EpochCalendarTest.class,
+                FixedDateFormatTest.class,
+                TimeBucketTest.class,
 
                 FeiLongDateExtensionUtilSuiteTests.class,
                 FeiLongDateUtilSuiteTests.class,
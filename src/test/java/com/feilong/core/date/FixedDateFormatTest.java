@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.BASIC_ISO_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.COMMON_TIME;
+import static com.feilong.core.DatePattern.INDONESIA_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.TIMESTAMP;
+import static com.feilong.core.DatePattern.TIMESTAMP_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.TO_STRING_STYLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class FixedDateFormatTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class FixedDateFormatTest{
+
+    /** The Constant PATTERNS. */
+    private static final String[] PATTERNS  = {
+                                                COMMON_DATE,
+                                                COMMON_DATE_AND_TIME,
+                                                COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                                                COMMON_TIME,
+                                                TIMESTAMP,
+                                                TIMESTAMP_WITH_MILLISECOND,
+                                                BASIC_ISO_DATE,
+                                                INDONESIA_DATE_AND_TIME };
+
+    /** The Constant TIME_ZONES. */
+    private static final String[] TIME_ZONES = { "Asia/Shanghai", "America/New_York", "Australia/Lord_Howe", "UTC" };
+
+    /** The time zone. */
+    private TimeZone              timeZone;
+
+    /** The locale. */
+    private Locale                locale;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before(){
+        timeZone = TimeZone.getDefault();
+        locale = Locale.getDefault();
+
+        //FixedDateFormat 在非公历的 Locale(比如 th_TH,ja_JP_JP) 下不处理,固定成公历的 Locale
+        Locale.setDefault(Locale.CHINA);
+    }
+
+    @After
+    public void after(){
+        TimeZone.setDefault(timeZone);
+        Locale.setDefault(locale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testFormatSameAsFastDateFormat() throws IOException{
+        Random random = new Random(20200101L);
+        for (String id : TIME_ZONES){
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+            for (int i = 0; i < 20000; ++i){
+                //1583 - 9999
+                long millis = -12000000000000L + (long) (random.nextDouble() * 250000000000000L);
+                for (String pattern : PATTERNS){
+                    String expected = FastDateFormat.getInstance(pattern).format(millis);
+                    assertEquals(expected, FixedDateFormat.getInstance(pattern).format(millis));
+
+                    StringBuilder sb = new StringBuilder();
+                    FixedDateFormat.getInstance(pattern).format(millis, sb);
+                    assertEquals(expected, sb.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseSameAsDateUtils() throws ParseException{
+        Random random = new Random(20200101L);
+        for (String id : TIME_ZONES){
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+            for (int i = 0; i < 20000; ++i){
+                String dateString = String.format(
+                                "%04d-%02d-%02d %02d:%02d:%02d",
+                                1600 + random.nextInt(500),
+                                random.nextInt(14),
+                                random.nextInt(33),
+                                random.nextInt(26),
+                                random.nextInt(62),
+                                random.nextInt(62));
+                assertEquals(dateString, DateUtils.parseDate(dateString, COMMON_DATE_AND_TIME), DateUtil.toDate(dateString, COMMON_DATE_AND_TIME));
+            }
+        }
+    }
+
+    @Test
+    public void testParseDaylightSavingTime() throws ParseException{
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        for (String dateString : new String[] { "2016-03-13 02:30:00", "2016-11-06 01:30:00", "2016-03-12 23:59:59" }){
+            assertEquals(dateString, DateUtils.parseDate(dateString, COMMON_DATE_AND_TIME), DateUtil.toDate(dateString, COMMON_DATE_AND_TIME));
+        }
+    }
+
+    @Test
+    public void testParseNotFixed(){
+        FixedDateFormat fixedDateFormat = FixedDateFormat.getInstance(COMMON_DATE_AND_TIME);
+        TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");
+        assertEquals(FixedDateFormat.NOT_PARSED, fixedDateFormat.parse("2016-6-28 01:21:12", timeZone));
+        assertEquals(FixedDateFormat.NOT_PARSED, fixedDateFormat.parse("2016/06/28 01:21:12", timeZone));
+        assertEquals(FixedDateFormat.NOT_PARSED, fixedDateFormat.parse("2016-06-28 01:2a:12", timeZone));
+        assertEquals(FixedDateFormat.NOT_PARSED, fixedDateFormat.parse("1582-06-28 01:21:12", timeZone));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testFormatNotGregorian(){
+        Locale.setDefault(new Locale("th", "TH"));
+        Date date = new Date();
+        assertNull(FixedDateFormat.getInstance(COMMON_DATE).format(date.getTime()));
+        assertEquals(FastDateFormat.getInstance(COMMON_DATE).format(date), DateUtil.toString(date, COMMON_DATE));
+    }
+
+    @Test
+    public void testFormatOutOfRange(){
+        assertNull(FixedDateFormat.getInstance(COMMON_DATE).format(-13000000000000L));
+    }
+
+    @Test
+    public void testGetInstance(){
+        assertNull(FixedDateFormat.getInstance(TO_STRING_STYLE));
+        assertNull(FixedDateFormat.getInstance("yyyy-M-d"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testDateUtilFormat(){
+        Date date = DateUtil.toDate("2012-10-16 23:49:21", COMMON_DATE_AND_TIME);
+
+        assertEquals("time:20121016234921", DateUtil.format(date, TIMESTAMP, new StringBuilder("time:")).toString());
+        assertEquals(
+                        FastDateFormat.getInstance(TO_STRING_STYLE).format(date),
+                        DateUtil.format(date, TO_STRING_STYLE, new StringBuilder()).toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testDateUtilFormatNullAppendable(){
+        DateUtil.format(new Date(), TIMESTAMP, (StringBuilder) null);
+    }
+}
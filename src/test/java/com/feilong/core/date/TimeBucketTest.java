@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.date.DateUtil.toDate;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class TimeBucketTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class TimeBucketTest{
+
+    /** The time zone. */
+    private TimeZone timeZone;
+
+    /** The locale. */
+    private Locale   locale;
+
+    //---------------------------------------------------------------
+
+    @Before
+    public void before(){
+        timeZone = TimeZone.getDefault();
+        locale = Locale.getDefault();
+
+        //DateUtil.getFirstDateOfThisWeek 依赖默认 Locale 的 firstDayOfWeek,固定成周日为第一天的 Locale
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void after(){
+        TimeZone.setDefault(timeZone);
+        Locale.setDefault(locale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testStartAndEndDate(){
+        Date date = toDate("2016-06-28 01:21:12", COMMON_DATE_AND_TIME);
+
+        assertBucket(TimeBucket.HOUR, date, "2016-06-28 01:00:00.000", "2016-06-28 01:59:59.999");
+        assertBucket(TimeBucket.DAY, date, "2016-06-28 00:00:00.000", "2016-06-28 23:59:59.999");
+        assertBucket(TimeBucket.WEEK, date, "2016-06-26 00:00:00.000", "2016-07-02 23:59:59.999");
+        assertBucket(TimeBucket.MONTH, date, "2016-06-01 00:00:00.000", "2016-06-30 23:59:59.999");
+    }
+
+    /**
+     * WEEK 固定以周日为第一天,不受默认 Locale 影响.
+     */
+    @Test
+    public void testWeekLocale(){
+        Locale.setDefault(Locale.FRANCE);
+
+        Date date = toDate("2014-01-01 05:00:00", COMMON_DATE_AND_TIME);
+        assertBucket(TimeBucket.WEEK, date, "2013-12-29 00:00:00.000", "2014-01-04 23:59:59.999");
+    }
+
+    @Test
+    public void testConsecutiveIndex(){
+        Date date = toDate("2016-12-31 23:59:59", COMMON_DATE_AND_TIME);
+        Date next = new Date(date.getTime() + 1000);
+
+        for (TimeBucket timeBucket : TimeBucket.values()){
+            assertEquals(timeBucket.getIndex(date) + 1, timeBucket.getIndex(next));
+        }
+    }
+
+    @Test
+    public void testEpoch(){
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+
+        assertEquals(0, TimeBucket.HOUR.getIndex(0, utc));
+        assertEquals(0, TimeBucket.DAY.getIndex(0, utc));
+        assertEquals(0, TimeBucket.MONTH.getIndex(0, utc));
+        assertEquals(-1, TimeBucket.DAY.getIndex(-1, utc));
+        assertEquals(-1, TimeBucket.MONTH.getIndex(-1, utc));
+    }
+
+    /**
+     * 和 {@link DateUtil} 的边界方法比较,包括有夏令时的时区.
+     */
+    @Test
+    public void testSameAsDateUtil(){
+        for (String id : new String[] { "Asia/Shanghai", "America/New_York", "Europe/London", "America/Sao_Paulo" }){
+            TimeZone.setDefault(TimeZone.getTimeZone(id));
+
+            Date date = toDate("2014-01-01 00:00:00", COMMON_DATE_AND_TIME);
+            for (int i = 0; i < 3 * 365 * 4; ++i){
+                Date current = new Date(date.getTime() + i * 6L * 60 * 60 * 1000 + 1);
+
+                assertEquals(id, DateUtil.getFirstDateOfThisDay(current), TimeBucket.DAY.getStartDate(TimeBucket.DAY.getIndex(current)));
+                assertEquals(id, DateUtil.getLastDateOfThisDay(current), TimeBucket.DAY.getEndDate(TimeBucket.DAY.getIndex(current)));
+                assertEquals(id, DateUtil.getFirstDateOfThisMonth(current), TimeBucket.MONTH.getStartDate(TimeBucket.MONTH.getIndex(current)));
+                assertEquals(id, DateUtil.getLastDateOfThisMonth(current), TimeBucket.MONTH.getEndDate(TimeBucket.MONTH.getIndex(current)));
+                assertEquals(id, DateUtil.getFirstDateOfThisWeek(current), TimeBucket.WEEK.getStartDate(TimeBucket.WEEK.getIndex(current)));
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testGetIndexNullDate(){
+        TimeBucket.DAY.getIndex(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetIndexNullTimeZone(){
+        TimeBucket.DAY.getIndex(0, null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertBucket(TimeBucket timeBucket,Date date,String start,String end){
+        long index = timeBucket.getIndex(date);
+        assertEquals(toDate(start, COMMON_DATE_AND_TIME_WITH_MILLISECOND), timeBucket.getStartDate(index));
+        assertEquals(toDate(end, COMMON_DATE_AND_TIME_WITH_MILLISECOND), timeBucket.getEndDate(index));
+    }
+}
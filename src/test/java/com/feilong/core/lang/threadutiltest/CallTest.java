@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.PartitionCallableBuilder;
+import com.feilong.core.lang.PartitionResult;
+import com.feilong.core.lang.PartitionThreadEntity;
+import com.feilong.core.lang.ThreadPoolPartitionThreadExecutor;
+import com.feilong.core.lang.ThreadUtil;
+
+/**
+ * The Class CallTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class CallTest extends AbstractExcuteTest{
+
+    /**
+     * 求和,如果遇到 <code>failValue</code> 抛出异常.
+     */
+    private static final class SumPartitionCallableBuilder implements PartitionCallableBuilder<Integer, Integer>{
+
+        /** The fail value. */
+        private final int failValue;
+
+        /**
+         * Instantiates a new sum partition callable builder.
+         *
+         * @param failValue
+         *            the fail value
+         */
+        private SumPartitionCallableBuilder(int failValue){
+            this.failValue = failValue;
+        }
+
+        @Override
+        public Callable<Integer> build(final List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+            return new Callable<Integer>(){
+
+                @Override
+                public Integer call() throws Exception{
+                    int sum = 0;
+                    for (Integer value : perBatchList){
+                        if (value == failValue){
+                            throw new IllegalStateException("fail:" + value);
+                        }
+                        sum += value;
+                    }
+                    return sum;
+                }
+            };
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test call.
+     */
+    @Test
+    public void testCall(){
+        List<PartitionResult<Integer>> partitionResultList = ThreadUtil.call(buildList(0, 10), 3, null, new SumPartitionCallableBuilder(-1), false);
+
+        assertEquals(4, partitionResultList.size());
+        assertEquals(3, partitionResultList.get(0).getResult().intValue());
+        assertEquals(12, partitionResultList.get(1).getResult().intValue());
+        assertEquals(21, partitionResultList.get(2).getResult().intValue());
+        assertEquals(9, partitionResultList.get(3).getResult().intValue());
+
+        for (int i = 0; i < partitionResultList.size(); ++i){
+            assertTrue(partitionResultList.get(i).isSuccess());
+            assertEquals(i, partitionResultList.get(i).getPartitionThreadEntity().getBatchNumber());
+        }
+    }
+
+    /**
+     * Test call failure.
+     */
+    @Test
+    public void testCallFailure(){
+        List<PartitionResult<Integer>> partitionResultList = ThreadPoolPartitionThreadExecutor.INSTANCE
+                        .call(buildList(0, 10), 3, null, new SumPartitionCallableBuilder(4));
+
+        assertEquals(4, partitionResultList.size());
+        assertTrue(partitionResultList.get(0).isSuccess());
+
+        PartitionResult<Integer> failResult = partitionResultList.get(1);
+        assertFalse(failResult.isSuccess());
+        assertFalse(failResult.isCancelled());
+        assertNull(failResult.getResult());
+        assertEquals(IllegalStateException.class, failResult.getThrowable().getClass());
+
+        assertTrue(partitionResultList.get(2).isSuccess());
+        assertTrue(partitionResultList.get(3).isSuccess());
+    }
+
+    /**
+     * Test call fail fast.
+     */
+    @Test
+    public void testCallFailFast(){
+        ThreadPoolPartitionThreadExecutor threadPoolPartitionThreadExecutor = new ThreadPoolPartitionThreadExecutor(1);
+
+        List<PartitionResult<Integer>> partitionResultList = threadPoolPartitionThreadExecutor
+                        .call(buildList(0, 1000), 1, null, new SumPartitionCallableBuilder(0), true);
+        threadPoolPartitionThreadExecutor.shutdown();
+
+        assertEquals(1000, partitionResultList.size());
+        assertFalse(partitionResultList.get(0).isSuccess());
+        assertTrue(partitionResultList.get(999).isCancelled());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test call empty list.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCallEmptyList(){
+        ThreadUtil.call(Collections.<Integer> emptyList(), 100, null, new SumPartitionCallableBuilder(-1), false);
+    }
+
+    /**
+     * Test call null builder.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testCallNullBuilder(){
+        ThreadUtil.call(buildList(0, 10), 100, null, (PartitionCallableBuilder<Integer, Integer>) null, false);
+    }
+}
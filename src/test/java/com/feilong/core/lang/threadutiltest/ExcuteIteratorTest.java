@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.PartitionRunnableBuilder;
+import com.feilong.core.lang.PartitionThreadEntity;
+import com.feilong.core.lang.ThreadPoolPartitionThreadExecutor;
+
+/**
+ * The Class ExcuteIteratorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ExcuteIteratorTest extends AbstractExcuteTest{
+
+    /**
+     * Test excute iterator.
+     */
+    @Test
+    public void testExcuteIterator(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(buildIterator(10000), 7, paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(49995000, atomicInteger.get());
+    }
+
+    /**
+     * Test excute iterable.
+     */
+    @Test
+    public void testExcuteIterable(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        Iterable<Integer> iterable = buildList(0, 100);
+        new ThreadPoolPartitionThreadExecutor(2).excute(iterable, 30, paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(4950, atomicInteger.get());
+    }
+
+    /**
+     * Test excute iterator entity.
+     */
+    @Test
+    public void testExcuteIteratorEntity(){
+        final AtomicInteger wrongCount = new AtomicInteger(0);
+        final AtomicInteger count = new AtomicInteger(0);
+
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(buildIterator(1000), 30, null, new PartitionRunnableBuilder<Integer>(){
+
+            @Override
+            public Runnable build(
+                            final List<Integer> perBatchList,
+                            final PartitionThreadEntity partitionThreadEntity,
+                            Map<String, ?> paramsMap){
+                return new Runnable(){
+
+                    @Override
+                    public void run(){
+                        if (partitionThreadEntity.getTotalListCount() != ThreadPoolPartitionThreadExecutor.UNKNOWN_TOTAL_LIST_COUNT
+                                        || partitionThreadEntity.getStartIndex() != partitionThreadEntity.getBatchNumber() * 30){
+                            wrongCount.incrementAndGet();
+                        }
+                        for (int i = 0; i < perBatchList.size(); ++i){
+                            if (perBatchList.get(i) != partitionThreadEntity.getStartIndex() + i){
+                                wrongCount.incrementAndGet();
+                            }
+                            count.incrementAndGet();
+                        }
+                    }
+                };
+            }
+        });
+
+        assertEquals(1000, count.get());
+        assertEquals(0, wrongCount.get());
+    }
+
+    /**
+     * Test excute empty iterator.
+     */
+    @Test
+    public void testExcuteEmptyIterator(){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(Collections.<Integer> emptyIterator(), 2, null, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    /**
+     * iterator 读取过程中抛出异常,已经提交的分区要执行完成之后才抛出.
+     */
+    @Test
+    public void testExcuteIteratorThrowWaitSubmitted(){
+        final AtomicInteger count = new AtomicInteger(0);
+        final Iterator<Integer> delegate = buildIterator(100);
+
+        Iterator<Integer> iterator = new Iterator<Integer>(){
+
+            @Override
+            public boolean hasNext(){
+                return true;
+            }
+
+            @Override
+            public Integer next(){
+                if (!delegate.hasNext()){
+                    throw new IllegalStateException("cursor closed");
+                }
+                return delegate.next();
+            }
+
+            @Override
+            public void remove(){
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        try{
+            new ThreadPoolPartitionThreadExecutor(2).excute(iterator, 10, null, new PartitionRunnableBuilder<Integer>(){
+
+                @Override
+                public Runnable build(final List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                    return new Runnable(){
+
+                        @Override
+                        public void run(){
+                            try{
+                                Thread.sleep(20);
+                            }catch (InterruptedException e){
+                                Thread.currentThread().interrupt();
+                            }
+                            count.addAndGet(perBatchList.size());
+                        }
+                    };
+                }
+            });
+            fail();
+        }catch (IllegalStateException e){
+            assertEquals(100, count.get());
+        }
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * Test excute null iterator.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testExcuteNullIterator(){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute((Iterator<Integer>) null, 2, null, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    /**
+     * Test excute invalid each size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testExcuteInvalidEachSize(){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(buildIterator(10), 0, null, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * 按需生成 0 到 <code>count</code>-1 的 iterator,不会一次性创建所有元素.
+     *
+     * @param count
+     *            the count
+     * @return the iterator
+     */
+    private static Iterator<Integer> buildIterator(final int count){
+        return new Iterator<Integer>(){
+
+            private int current = 0;
+
+            @Override
+            public boolean hasNext(){
+                return current < count;
+            }
+
+            @Override
+            public Integer next(){
+                return current++;
+            }
+
+            @Override
+            public void remove(){
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
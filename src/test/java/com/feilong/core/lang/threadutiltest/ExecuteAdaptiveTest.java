@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.PartitionRunnableBuilder;
+import com.feilong.core.lang.PartitionThreadEntity;
+import com.feilong.core.lang.ThreadPoolPartitionThreadExecutor;
+import com.feilong.core.lang.ThreadUtil;
+
+/**
+ * The Class ExecuteAdaptiveTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ExecuteAdaptiveTest extends AbstractExcuteTest{
+
+    /**
+     * Test execute.
+     */
+    @Test
+    public void testExecute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(buildList(0, 10000), paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(49995000, atomicInteger.get());
+    }
+
+    /**
+     * Test execute start index.
+     */
+    @Test
+    public void testExecuteStartIndex(){
+        final AtomicInteger wrongIndexCount = new AtomicInteger(0);
+        final AtomicInteger count = new AtomicInteger(0);
+
+        new ThreadPoolPartitionThreadExecutor(3).excute(buildList(0, 5000), null, new PartitionRunnableBuilder<Integer>(){
+
+            @Override
+            public Runnable build(
+                            final List<Integer> perBatchList,
+                            final PartitionThreadEntity partitionThreadEntity,
+                            Map<String, ?> paramsMap){
+                return new Runnable(){
+
+                    @Override
+                    public void run(){
+                        for (int i = 0; i < perBatchList.size(); ++i){
+                            if (perBatchList.get(i) != partitionThreadEntity.getStartIndex() + i){
+                                wrongIndexCount.incrementAndGet();
+                            }
+                            count.incrementAndGet();
+                        }
+                    }
+                };
+            }
+        });
+
+        assertEquals(5000, count.get());
+        assertEquals(0, wrongIndexCount.get());
+    }
+
+    /**
+     * Test execute one element.
+     */
+    @Test
+    public void testExecuteOneElement(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadUtil.execute(buildList(5, 6), paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(5, atomicInteger.get());
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * Test execute empty list.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteEmptyList(){
+        ThreadUtil.execute(Collections.<Integer> emptyList(), null, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    /**
+     * Test execute null builder.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testExecuteNullBuilder(){
+        ThreadUtil.execute(buildList(0, 10), null, (PartitionRunnableBuilder<Integer>) null);
+    }
+}
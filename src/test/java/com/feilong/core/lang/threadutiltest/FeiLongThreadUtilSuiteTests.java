@@ -30,6 +30,13 @@ import org.junit.runners.Suite.SuiteClasses;
                 ExecuteTest.class,
                 ExecuteWithParamMapTest.class,
                 ExecuteCountTest.class,
+
+                ThreadPoolPartitionThreadExecutorTest.class,
+                VirtualThreadPartitionThreadExecutorTest.class,
+                CallTest.class,
+                ExecuteAdaptiveTest.class,
+                ExcuteIteratorTest.class,
+                PartitionThreadStatisticsTest.class,
         //
 })
 public class FeiLongThreadUtilSuiteTests{
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.DefaultPartitionThreadExecutor;
+import com.feilong.core.lang.PartitionCallableBuilder;
+import com.feilong.core.lang.PartitionThreadEntity;
+import com.feilong.core.lang.PartitionThreadStatistics;
+import com.feilong.core.lang.ThreadPoolPartitionThreadExecutor;
+
+/**
+ * The Class PartitionThreadStatisticsTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class PartitionThreadStatisticsTest extends AbstractExcuteTest{
+
+    /**
+     * Test thread pool.
+     */
+    @Test
+    public void testThreadPool(){
+        PartitionThreadStatistics partitionThreadStatistics = new PartitionThreadStatistics();
+
+        ThreadPoolPartitionThreadExecutor threadPoolPartitionThreadExecutor = new ThreadPoolPartitionThreadExecutor(2);
+        threadPoolPartitionThreadExecutor.setPartitionThreadListener(partitionThreadStatistics);
+
+        threadPoolPartitionThreadExecutor.excute(buildList(0, 100), 10, buildParamsMap(), new CalculatePartitionRunnableBuilder());
+        threadPoolPartitionThreadExecutor.shutdown();
+
+        assertEquals(10, partitionThreadStatistics.getPartitionCount());
+        assertEquals(0, partitionThreadStatistics.getFailureCount());
+        assertEquals(100, partitionThreadStatistics.getItemCount());
+        assertTrue(partitionThreadStatistics.getP50Nanos() <= partitionThreadStatistics.getP99Nanos());
+        assertTrue(partitionThreadStatistics.getP99Nanos() <= partitionThreadStatistics.getMaxNanos());
+    }
+
+    /**
+     * Test default.
+     */
+    @Test
+    public void testDefault(){
+        PartitionThreadStatistics partitionThreadStatistics = new PartitionThreadStatistics();
+
+        DefaultPartitionThreadExecutor defaultPartitionThreadExecutor = new DefaultPartitionThreadExecutor();
+        defaultPartitionThreadExecutor.setPartitionThreadListener(partitionThreadStatistics);
+        defaultPartitionThreadExecutor.excute(buildList(0, 10), 3, buildParamsMap(), new CalculatePartitionRunnableBuilder());
+
+        assertEquals(4, partitionThreadStatistics.getPartitionCount());
+        assertEquals(10, partitionThreadStatistics.getItemCount());
+
+        partitionThreadStatistics.reset();
+        assertEquals(0, partitionThreadStatistics.getPartitionCount());
+        assertEquals(0, partitionThreadStatistics.getMaxNanos());
+    }
+
+    /**
+     * Test failure.
+     */
+    @Test
+    public void testFailure(){
+        PartitionThreadStatistics partitionThreadStatistics = new PartitionThreadStatistics();
+
+        ThreadPoolPartitionThreadExecutor threadPoolPartitionThreadExecutor = new ThreadPoolPartitionThreadExecutor(2);
+        threadPoolPartitionThreadExecutor.setPartitionThreadListener(partitionThreadStatistics);
+
+        threadPoolPartitionThreadExecutor.call(buildList(0, 10), 2, null, new PartitionCallableBuilder<Integer, Integer>(){
+
+            @Override
+            public Callable<Integer> build(final List<Integer> perBatchList,PartitionThreadEntity partitionThreadEntity,Map<String, ?> paramsMap){
+                return new Callable<Integer>(){
+
+                    @Override
+                    public Integer call(){
+                        if (perBatchList.contains(5)){
+                            throw new IllegalStateException();
+                        }
+                        return perBatchList.size();
+                    }
+                };
+            }
+        });
+        threadPoolPartitionThreadExecutor.shutdown();
+
+        assertEquals(5, partitionThreadStatistics.getPartitionCount());
+        assertEquals(1, partitionThreadStatistics.getFailureCount());
+    }
+
+    /**
+     * Test percentile.
+     */
+    @Test
+    public void testPercentile(){
+        PartitionThreadStatistics partitionThreadStatistics = new PartitionThreadStatistics();
+
+        PartitionThreadEntity partitionThreadEntity = new PartitionThreadEntity("test", 1000, 1, 0, 1);
+        for (int i = 1; i <= 100000; ++i){
+            partitionThreadStatistics.onEnd(partitionThreadEntity, 0, 0, i * 1000L, null);
+        }
+
+        assertEquals(100000, partitionThreadStatistics.getPartitionCount());
+        assertEquals(100000000L, partitionThreadStatistics.getMaxNanos());
+        assertEquals(50000500L, partitionThreadStatistics.getAverageNanos());
+        assertEquals(50000000L, partitionThreadStatistics.getP50Nanos(), 50000000L * 0.01);
+        assertEquals(99000000L, partitionThreadStatistics.getP99Nanos(), 99000000L * 0.01);
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * Test percentile invalid.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileInvalid(){
+        new PartitionThreadStatistics().getPercentileNanos(0);
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * Builds the params map.
+     *
+     * @return the map
+     */
+    private static Map<String, Object> buildParamsMap(){
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", new AtomicInteger(0));
+        return paramsMap;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.ThreadPoolPartitionThreadExecutor;
+
+/**
+ * The Class ThreadPoolPartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ThreadPoolPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    /**
+     * Test excute.
+     */
+    @Test
+    public void testExcute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(buildList(0, 1000), 3, paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(499500, atomicInteger.get());
+    }
+
+    /**
+     * Test excute reuse pool.
+     */
+    @Test
+    public void testExcuteReusePool(){
+        ThreadPoolPartitionThreadExecutor threadPoolPartitionThreadExecutor = new ThreadPoolPartitionThreadExecutor(2);
+
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        threadPoolPartitionThreadExecutor.excute(toList(2, 5, 6, 7), 1, paramsMap, new CalculatePartitionRunnableBuilder());
+        threadPoolPartitionThreadExecutor.excute(toList(2, 5, 6, 7), 3, paramsMap, new CalculatePartitionRunnableBuilder());
+        threadPoolPartitionThreadExecutor.shutdown();
+
+        assertEquals(40, atomicInteger.get());
+    }
+
+    /**
+     * Test excute null runnable.
+     */
+    @Test
+    public void testExcuteNullRunnable(){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(toList(2, 5, 6, 7), 2, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    //---------------------------------------------------------
+
+    /**
+     * Test excute empty list.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testExcuteEmptyList(){
+        ThreadPoolPartitionThreadExecutor.INSTANCE.excute(Collections.<Integer> emptyList(), 100, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    /**
+     * Test excute invalid pool size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testExcuteInvalidPoolSize(){
+        new ThreadPoolPartitionThreadExecutor(0);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.threadutiltest;
+
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.VirtualThreadPartitionThreadExecutor;
+
+/**
+ * The Class VirtualThreadPartitionThreadExecutorTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class VirtualThreadPartitionThreadExecutorTest extends AbstractExcuteTest{
+
+    /**
+     * Test excute.
+     */
+    @Test
+    public void testExcute(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        VirtualThreadPartitionThreadExecutor.INSTANCE.excute(buildList(0, 1000), 1, paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(499500, atomicInteger.get());
+    }
+
+    /**
+     * Test excute null runnable.
+     */
+    @Test
+    public void testExcuteNullRunnable(){
+        VirtualThreadPartitionThreadExecutor.INSTANCE.excute(buildList(0, 10), 2, EmptyPartitionRunnableBuilder.INSTANCE);
+    }
+
+    /**
+     * Test excute parallelism.
+     */
+    @Test
+    public void testExcuteParallelism(){
+        AtomicInteger atomicInteger = new AtomicInteger(0);
+
+        Map<String, Object> paramsMap = newHashMap(1);
+        paramsMap.put("result", atomicInteger);
+
+        new VirtualThreadPartitionThreadExecutor(100).excute(buildList(0, 1000), 1, paramsMap, new CalculatePartitionRunnableBuilder());
+        assertEquals(499500, atomicInteger.get());
+    }
+
+    /**
+     * Test parallelism zero.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelismZero(){
+        new VirtualThreadPartitionThreadExecutor(0);
+    }
+}
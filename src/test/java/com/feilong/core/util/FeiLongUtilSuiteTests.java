@@ -20,17 +20,24 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import com.feilong.core.util.aggregateutiltest.FeiLongAggregateUtilSuiteTests;
+import com.feilong.core.util.beanindextest.BeanIndexTest;
+import com.feilong.core.util.beanpipelinetest.BeanPipelineTest;
 import com.feilong.core.util.closure.FeiLongClosureSuiteTests;
 import com.feilong.core.util.collectionsutiltest.FeiLongCollectionsUtilSuiteTests;
 import com.feilong.core.util.comparator.FeiLongComparatorSuiteTests;
+import com.feilong.core.util.countingmaptest.ConcurrentCountingMapTest;
+import com.feilong.core.util.countingmaptest.CountingMapTest;
 import com.feilong.core.util.enumerationutiltest.EnumerationUtilParameterizedTest;
 import com.feilong.core.util.equator.IgnoreCaseEquatorTest;
 import com.feilong.core.util.maputiltest.FeiLongMapUtilSuiteTests;
+import com.feilong.core.util.parallelcollectionsutiltest.ParallelCollectionsUtilTest;
 import com.feilong.core.util.predicate.FeiLongBeanPredicateUtilSuiteTests;
 import com.feilong.core.util.randomutiltest.FeiLongRandomUtilSuiteTests;
 import com.feilong.core.util.regexutiltest.FeiLongRegexUtilSuiteTests;
 import com.feilong.core.util.resourcebundleutiltest.FeiLongResourceBundleUtilSuiteTests;
+import com.feilong.core.util.sketch.FeiLongSketchSuiteTests;
 import com.feilong.core.util.sortutiltest.FeiLongSortUtilSuiteTests;
+import com.feilong.core.util.timebucketutiltest.TimeBucketUtilTest;
 import com.feilong.core.util.transformer.FeiLongTransformerSuiteTests;
 
 /**
@@ -52,11 +59,18 @@ import com.feilong.core.util.transformer.FeiLongTransformerSuiteTests;
                 FeiLongMapUtilSuiteTests.class,
                 FeiLongCollectionsUtilSuiteTests.class,
                 FeiLongSortUtilSuiteTests.class,
+                BeanIndexTest.class,
+                ParallelCollectionsUtilTest.class,
+                BeanPipelineTest.class,
+                TimeBucketUtilTest.class,
+                CountingMapTest.class,
+                ConcurrentCountingMapTest.class,
 
                 FeiLongComparatorSuiteTests.class,
 
                 FeiLongTransformerSuiteTests.class,
                 FeiLongClosureSuiteTests.class,
+                FeiLongSketchSuiteTests.class,
         //
 })
 public class FeiLongUtilSuiteTests{
@@ -40,6 +40,10 @@ import org.junit.runners.Suite.SuiteClasses;
                 SumArrayTest.class,
                 SumPredicateTest.class,
                 SumTest.class,
+
+                SummarizeTest.class,
+                GroupSummarizeTest.class,
+                SketchTest.class,
         //
 })
 public class FeiLongAggregateUtilSuiteTests{
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.NumberSummaryStatistics;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class GroupSummarizeTest{
+
+    private final List<User> list = toList(//
+                    new User("张飞", 20),
+                    new User("刘备", 30),
+                    new User("张飞", 40),
+                    new User("关羽", 24),
+                    new User("刘备", 32));
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupSummarize(){
+        Map<List<Object>, Map<String, NumberSummaryStatistics>> map = AggregateUtil.groupSummarize(list, toArray("name"), "age");
+
+        assertThat(map.keySet(), contains(toList((Object) "张飞"), toList((Object) "刘备"), toList((Object) "关羽")));
+
+        NumberSummaryStatistics zhangfei = map.get(toList((Object) "张飞")).get("age");
+        assertEquals(2, zhangfei.getCount());
+        assertEquals(toBigDecimal(60), zhangfei.getSum());
+        assertEquals(toBigDecimal(20), zhangfei.getMin());
+        assertEquals(toBigDecimal(40), zhangfei.getMax());
+        assertEquals(toBigDecimal("30.00"), zhangfei.getAvg(2));
+    }
+
+    @Test
+    public void testGroupSummarizeCompositeKey(){
+        Map<List<Object>, Map<String, NumberSummaryStatistics>> map = AggregateUtil
+                        .groupSummarize(list, toArray("name", "age"), "age");
+
+        assertEquals(5, map.size());
+        assertEquals(toBigDecimal(32), map.get(toList((Object) "刘备", 32)).get("age").getSum());
+    }
+
+    @Test
+    public void testGroupSummarizeSameAsSum(){
+        Map<List<Object>, Map<String, NumberSummaryStatistics>> map = AggregateUtil.groupSummarize(list, toArray("name"), "age", "id");
+
+        assertThat(map.get(toList((Object) "刘备")).keySet(), contains("age", "id"));
+        assertEquals(
+                        AggregateUtil.sum(toList(new User("刘备", 30), new User("刘备", 32)), "age"),
+                        map.get(toList((Object) "刘备")).get("age").getSum());
+    }
+
+    @Test
+    public void testGroupSummarizeTransformerPredicate(){
+        Map<Boolean, Map<String, NumberSummaryStatistics>> map = AggregateUtil.groupSummarize(list, new Transformer<User, Boolean>(){
+
+            @Override
+            public Boolean transform(User user){
+                return user.getAge() >= 30;
+            }
+        }, toArray("age"), new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return !"关羽".equals(user.getName());
+            }
+        });
+
+        assertThat(map.keySet(), contains(false, true));
+        assertEquals(toBigDecimal(20), map.get(false).get("age").getSum());
+        assertEquals(3, map.get(true).get("age").getCount());
+        assertEquals(toBigDecimal(102), map.get(true).get("age").getSum());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupSummarizeNullIterable(){
+        assertEquals(emptyMap(), AggregateUtil.groupSummarize(null, toArray("name"), "age"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupSummarizeNullKeyPropertyNames(){
+        AggregateUtil.groupSummarize(list, (String[]) null, "age");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupSummarizeEmptyKeyPropertyNames(){
+        AggregateUtil.groupSummarize(list, new String[] {}, "age");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupSummarizeEmptyValuePropertyNames(){
+        AggregateUtil.groupSummarize(list, toArray("name"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupSummarizeNullKeyTransformer(){
+        AggregateUtil.groupSummarize(list, (Transformer<User, Object>) null, toArray("age"), null);
+    }
+}
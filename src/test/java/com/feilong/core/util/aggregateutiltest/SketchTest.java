@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.sketch.QuantileSketch;
+import com.feilong.core.util.sketch.TopKSketch;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class SketchTest{
+
+    private final List<User> list = toList(//
+                    new User("张飞", 20),
+                    new User("刘备", 30),
+                    new User("张飞", 40),
+                    new User("关羽", 24),
+                    new User("刘备", 32),
+                    new User("刘备", 50));
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testTopKSketch(){
+        TopKSketch<String> sketch = AggregateUtil.topKSketch(list, "name", 10);
+        assertThat(sketch.getTopK(2).keySet(), contains("刘备", "张飞"));
+        assertEquals(3, sketch.getCount("刘备"));
+    }
+
+    @Test
+    public void testHyperLogLog(){
+        assertEquals(3, AggregateUtil.hyperLogLog(list, "name").getCardinality());
+    }
+
+    @Test
+    public void testQuantileSketch(){
+        QuantileSketch sketch = AggregateUtil.quantileSketch(list, "age");
+        assertEquals(6, sketch.getCount());
+        assertEquals(30, sketch.getQuantile(0.5), 30 * 0.011);
+        assertEquals(50, sketch.getMax(), 0);
+    }
+
+    @Test
+    public void testNullIterable(){
+        assertEquals(0, AggregateUtil.<User, String> topKSketch(null, "name", 10).getTotal());
+        assertEquals(0, AggregateUtil.hyperLogLog(null, "name").getCardinality());
+        assertTrue(Double.isNaN(AggregateUtil.quantileSketch(null, "age").getQuantile(0.5)));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testTopKSketchNullPropertyName(){
+        AggregateUtil.topKSketch(list, null, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHyperLogLogBlankPropertyName(){
+        AggregateUtil.hyperLogLog(list, " ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileSketchBlankPropertyName(){
+        AggregateUtil.quantileSketch(list, "");
+    }
+}
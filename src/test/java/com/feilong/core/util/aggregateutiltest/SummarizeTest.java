@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.aggregateutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.MapUtil.newHashMap;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.junit.Test;
+
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.NumberSummaryStatistics;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class SummarizeTest{
+
+    @Test
+    public void testSummarize(){
+        NumberSummaryStatistics statistics = AggregateUtil.summarize(toList(new User(2L), new User(5L), new User(5L)), "id");
+
+        assertEquals(3, statistics.getCount());
+        assertEquals(toBigDecimal(12), statistics.getSum());
+        assertEquals(toBigDecimal(2), statistics.getMin());
+        assertEquals(toBigDecimal(5), statistics.getMax());
+        assertEquals(toBigDecimal("4.00"), statistics.getAvg(2));
+    }
+
+    @Test
+    public void testSummarizeSameAsSum(){
+        List<User> list = toList(new User(2L), new User(5L), new User(5L));
+        assertEquals(AggregateUtil.sum(list, "id"), AggregateUtil.summarize(list, "id").getSum());
+    }
+
+    @Test
+    public void testSummarizeArrayPredicate(){
+        User zhangfei = new User(2L);
+        zhangfei.setName("张飞");
+        zhangfei.setAge(100);
+
+        User liubei = new User(20L);
+        liubei.setAge(50);
+
+        User guanyu = new User(10L);
+        guanyu.setAge(30);
+
+        Map<String, NumberSummaryStatistics> map = AggregateUtil
+                        .summarize(toList(zhangfei, liubei, guanyu), toArray("id", "age"), new Predicate<User>(){
+
+                            @Override
+                            public boolean evaluate(User user){
+                                return !"张飞".equals(user.getName());
+                            }
+                        });
+
+        assertThat(map.keySet(), contains("id", "age"));
+        assertEquals(toBigDecimal(30), map.get("id").getSum());
+        assertEquals(toBigDecimal(80), map.get("age").getSum());
+        assertEquals(toBigDecimal(30), map.get("age").getMin());
+        assertEquals(toBigDecimal(50), map.get("age").getMax());
+    }
+
+    @Test
+    public void testSummarizeNoneMatch(){
+        Map<String, NumberSummaryStatistics> map = AggregateUtil.summarize(toList(new User(2L)), toArray("id"), new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return false;
+            }
+        });
+
+        NumberSummaryStatistics statistics = map.get("id");
+        assertEquals(0, statistics.getCount());
+        assertEquals(BigDecimal.ZERO, statistics.getSum());
+        assertNull(statistics.getMin());
+        assertNull(statistics.getMax());
+        assertNull(statistics.getAvg(2));
+    }
+
+    @Test
+    public void testSummarizeIgnoreNull(){
+        User user1 = new User(2L);
+        user1.setAge(20);
+        User user2 = new User(4L);
+
+        NumberSummaryStatistics statistics = AggregateUtil.summarize(toList(user1, user2), "age");
+        assertEquals(1, statistics.getCount());
+        assertEquals(toBigDecimal(20), statistics.getSum());
+        assertEquals(toBigDecimal("20.00"), statistics.getAvg(2));
+    }
+
+    @Test
+    public void testSummarizeLongOverflow(){
+        List<Map<String, Object>> list = toList(toMap(Long.MAX_VALUE), toMap(Long.MAX_VALUE), toMap(-1L));
+
+        NumberSummaryStatistics statistics = AggregateUtil.summarize(list, "value");
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE).multiply(toBigDecimal(2)).subtract(BigDecimal.ONE);
+        assertEquals(expected, statistics.getSum());
+        assertEquals(toBigDecimal(-1), statistics.getMin());
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE), statistics.getMax());
+    }
+
+    @Test
+    public void testSummarizeMixedType(){
+        List<Map<String, Object>> list = toList(toMap(1), toMap(2.5d), toMap(new BigDecimal("0.25")), toMap(null));
+
+        NumberSummaryStatistics statistics = AggregateUtil.summarize(list, "value");
+        assertEquals(3, statistics.getCount());
+        assertEquals(0, new BigDecimal("3.75").compareTo(statistics.getSum()));
+        assertEquals(0, new BigDecimal("0.25").compareTo(statistics.getMin()));
+        assertEquals(0, new BigDecimal("2.5").compareTo(statistics.getMax()));
+        assertEquals(toBigDecimal("1.25"), statistics.getAvg(2));
+    }
+
+    @Test
+    public void testSummarizeDouble(){
+        List<Map<String, Object>> list = toList(toMap(0.1d), toMap(0.2d), toMap(0.3d));
+        assertEquals(0, new BigDecimal("0.6").compareTo(AggregateUtil.summarize(list, "value").getSum()));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSummarizeNullIterable(){
+        assertNull(AggregateUtil.summarize(null, "id"));
+        assertEquals(emptyMap(), AggregateUtil.summarize(null, "id", "age"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSummarizeNullPropertyName(){
+        AggregateUtil.summarize(toList(new User(2L)), (String) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSummarizeBlankPropertyName(){
+        AggregateUtil.summarize(toList(new User(2L)), " ");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSummarizeNullPropertyNames(){
+        AggregateUtil.summarize(toList(new User(2L)), (String[]) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSummarizePropertyNamesHasNullElement(){
+        AggregateUtil.summarize(toList(new User(2L)), "id", null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static Map<String, Object> toMap(Object value){
+        Map<String, Object> map = newHashMap();
+        map.put("value", value);
+        return map;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.beanindextest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.util.BeanIndex;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class BeanIndexTest{
+
+    private final User            zhangfei  = new User("张飞", 23);
+
+    private final User            liubei25  = new User("刘备", 25);
+
+    private final User            liubei30  = new User("刘备", 30);
+
+    private final List<User>      list      = toList(zhangfei, liubei25, liubei30);
+
+    private final BeanIndex<User> beanIndex = BeanIndex.<User> builder().group("name").unique("name").group("age").build(list);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGetGroup(){
+        Map<String, List<User>> map = beanIndex.getGroup("name");
+        assertThat(map.keySet(), contains("张飞", "刘备"));
+        assertThat(map.get("刘备"), contains(liubei25, liubei30));
+    }
+
+    @Test
+    public void testGetUnique(){
+        Map<String, User> map = beanIndex.getUnique("name");
+        assertThat(map, allOf(hasEntry("张飞", zhangfei), hasEntry("刘备", liubei25)));
+    }
+
+    @Test
+    public void testGet(){
+        assertThat(beanIndex.get("age", 30), contains(liubei30));
+        assertEquals(0, beanIndex.get("age", 100).size());
+    }
+
+    @Test
+    public void testGetOne(){
+        assertThat(beanIndex.getOne("name", "刘备"), is(liubei25));
+        assertThat(beanIndex.getOne("name", "关羽"), is(nullValue()));
+    }
+
+    /**
+     * 属性值是null,也可以作为key.
+     */
+    @Test
+    public void testNullPropertyValue(){
+        User user = new User((String) null, 18);
+        BeanIndex<User> index = BeanIndex.<User> builder().group("name").build(toList(user, zhangfei));
+
+        assertThat(index.get("name", null), contains(user));
+        assertThat(index.getGroup("name"), hasKey((String) null));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testBuildNullIterable(){
+        BeanIndex<User> index = BeanIndex.<User> builder().group("name").unique("age").build(null);
+        assertEquals(emptyMap(), index.getGroup("name"));
+        assertEquals(emptyMap(), index.getUnique("age"));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGroupReadOnly(){
+        beanIndex.getGroup("name").clear();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGroupListReadOnly(){
+        beanIndex.get("name", "刘备").clear();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUniqueReadOnly(){
+        beanIndex.getUnique("name").clear();
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetGroupNotIndexed(){
+        beanIndex.getGroup("id");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUniqueNotIndexed(){
+        beanIndex.getUnique("age");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildWithoutIndex(){
+        BeanIndex.<User> builder().build(list);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupNullPropertyName(){
+        BeanIndex.<User> builder().group(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUniqueBlankPropertyName(){
+        BeanIndex.<User> builder().unique(" ");
+    }
+
+    @Test
+    public void testNotContainsKey(){
+        assertThat(beanIndex.getGroup("name"), not(hasKey("关羽")));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.beanpipelinetest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import com.feilong.core.util.BeanPipeline;
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class BeanPipelineTest{
+
+    private final User       zhangfei = new User("张飞", 23);
+
+    private final User       guanyu   = new User("关羽", 24);
+
+    private final User       liubei25 = new User("刘备", 25);
+
+    private final User       liubei30 = new User("刘备", 30);
+
+    private final List<User> list     = toList(zhangfei, guanyu, liubei25, liubei30);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSelectCollectRemoveDuplicate(){
+        List<String> names = CollectionsUtil.pipeline(list)//
+                        .select("age", 23, 25, 30)
+                        .<String> collect("name")
+                        .removeDuplicate()
+                        .toList();
+        assertThat(names, contains("张飞", "刘备"));
+    }
+
+    @Test
+    public void testSameAsCollectionsUtil(){
+        List<User> expected = CollectionsUtil.selectRejected(list, "name", "关羽");
+        assertEquals(expected, CollectionsUtil.pipeline(list).selectRejected("name", "关羽").toList());
+    }
+
+    @Test
+    public void testSelectPredicate(){
+        List<User> result = BeanPipeline.from(list).select(new Predicate<User>(){
+
+            @Override
+            public boolean evaluate(User user){
+                return user.getAge() > 24;
+            }
+        }).toList();
+        assertThat(result, contains(liubei25, liubei30));
+    }
+
+    @Test
+    public void testCollectTransformer(){
+        List<Integer> result = BeanPipeline.from(list).collect(new Transformer<User, Integer>(){
+
+            @Override
+            public Integer transform(User user){
+                return user.getAge() * 2;
+            }
+        }).toList();
+        assertThat(result, contains(46, 48, 50, 60));
+    }
+
+    @Test
+    public void testGroup(){
+        Map<String, List<User>> map = CollectionsUtil.pipeline(list).selectRejected("name", "关羽").group("name");
+        assertThat(map.keySet(), contains("张飞", "刘备"));
+        assertThat(map, hasEntry("刘备", toList(liubei25, liubei30)));
+    }
+
+    @Test
+    public void testGroupOne(){
+        Map<String, User> map = CollectionsUtil.pipeline(list).groupOne("name");
+        assertThat(map.keySet(), contains("张飞", "关羽", "刘备"));
+        assertThat(map, hasEntry("刘备", liubei25));
+    }
+
+    @Test
+    public void testToSet(){
+        assertThat(CollectionsUtil.pipeline(list).<String> collect("name").toSet(), contains("张飞", "关羽", "刘备"));
+    }
+
+    @Test
+    public void testCount(){
+        assertEquals(2, CollectionsUtil.pipeline(list).select("name", "刘备").count());
+    }
+
+    @Test
+    public void testReuse(){
+        BeanPipeline<String> pipeline = CollectionsUtil.pipeline(list).<String> collect("name").removeDuplicate();
+        assertEquals(3, pipeline.count());
+        assertEquals(3, pipeline.count());
+        assertThat(pipeline.toList(), contains("张飞", "关羽", "刘备"));
+    }
+
+    @Test
+    public void testNullIterable(){
+        assertTrue(CollectionsUtil.pipeline((List<User>) null).select("name", "刘备").toList().isEmpty());
+        assertThat(CollectionsUtil.pipeline((List<User>) null).group("name").isEmpty(), is(true));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void testSelectNullPredicate(){
+        CollectionsUtil.pipeline(list).select((Predicate<User>) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCollectNullPropertyName(){
+        CollectionsUtil.pipeline(list).collect((String) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCollectBlankPropertyName(){
+        CollectionsUtil.pipeline(list).collect(" ");
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.countingmaptest;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.feilong.core.util.ConcurrentCountingMap;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ConcurrentCountingMapTest{
+
+    @Test
+    public void testIncrement(){
+        ConcurrentCountingMap<String> countingMap = new ConcurrentCountingMap<>();
+        countingMap.increment("刘备");
+        countingMap.increment("刘备");
+        countingMap.add(null, 3);
+
+        assertEquals(2, countingMap.get("刘备"));
+        assertEquals(3, countingMap.get(null));
+        assertEquals(0, countingMap.get("关羽"));
+        assertThat(countingMap.toIntegerMap(), allOf(hasEntry("刘备", 2), hasEntry((String) null, 3)));
+    }
+
+    @Test
+    public void testConcurrentIncrement() throws InterruptedException{
+        final ConcurrentCountingMap<Integer> countingMap = new ConcurrentCountingMap<>();
+
+        int threads = 8;
+        final int times = 10000;
+        final CountDownLatch countDownLatch = new CountDownLatch(threads);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; ++i){
+            executorService.execute(new Runnable(){
+
+                @Override
+                public void run(){
+                    for (int j = 0; j < times; ++j){
+                        countingMap.increment(j % 10);
+                    }
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        countDownLatch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        assertEquals(10, countingMap.size());
+        for (int i = 0; i < 10; ++i){
+            assertEquals(threads * times / 10, countingMap.get(i));
+        }
+        assertThat(countingMap.toLongMap(), hasEntry(0, (long) threads * times / 10));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.countingmaptest;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.util.CountingMap;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class CountingMapTest{
+
+    @Test
+    public void testIncrement(){
+        CountingMap<String> countingMap = new CountingMap<>();
+        assertEquals(1, countingMap.increment("刘备"));
+        assertEquals(1, countingMap.increment("张飞"));
+        assertEquals(2, countingMap.increment("刘备"));
+        assertEquals(1, countingMap.increment(null));
+
+        assertEquals(2, countingMap.get("刘备"));
+        assertEquals(0, countingMap.get("关羽"));
+        assertEquals(3, countingMap.size());
+
+        Map<String, Integer> map = countingMap.toIntegerMap();
+        assertThat(map.keySet(), contains("刘备", "张飞", null));
+        assertThat(map, allOf(hasEntry("刘备", 2), hasEntry("张飞", 1), hasEntry((String) null, 1)));
+    }
+
+    @Test
+    public void testAdd(){
+        CountingMap<String> countingMap = new CountingMap<>(2);
+        countingMap.add("a", 5);
+        countingMap.add("a", -2);
+        assertEquals(3, countingMap.get("a"));
+        assertThat(countingMap.toLongMap(), hasEntry("a", 3L));
+    }
+
+    @Test
+    public void testMerge(){
+        CountingMap<String> one = new CountingMap<>();
+        one.add("a", 2);
+        CountingMap<String> two = new CountingMap<>();
+        two.add("a", 3);
+        two.add("b", 1);
+
+        one.merge(two);
+        assertThat(one.toIntegerMap(), allOf(hasEntry("a", 5), hasEntry("b", 1)));
+    }
+
+    @Test
+    public void testEmpty(){
+        CountingMap<String> countingMap = new CountingMap<>();
+        assertTrue(countingMap.isEmpty());
+        assertTrue(countingMap.toIntegerMap().isEmpty());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = ArithmeticException.class)
+    public void testToIntegerMapOverflow(){
+        CountingMap<String> countingMap = new CountingMap<>();
+        countingMap.add("a", Integer.MAX_VALUE + 1L);
+        countingMap.toIntegerMap();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMergeNull(){
+        new CountingMap<String>().merge(null);
+    }
+}
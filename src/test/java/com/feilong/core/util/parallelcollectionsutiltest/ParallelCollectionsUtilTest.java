@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.parallelcollectionsutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import com.feilong.core.util.CollectionsUtil;
+import com.feilong.core.util.ParallelCollectionsUtil;
+import com.feilong.core.util.predicate.BeanPredicateUtil;
+import com.feilong.store.member.User;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ParallelCollectionsUtilTest{
+
+    private static final Predicate<Integer>            EVEN_PREDICATE   = new Predicate<Integer>(){
+
+                                                                            @Override
+                                                                            public boolean evaluate(Integer object){
+                                                                                return object % 2 == 0;
+                                                                            }
+                                                                        };
+
+    private static final Transformer<Integer, Integer> MOD_TRANSFORMER  = new Transformer<Integer, Integer>(){
+
+                                                                            @Override
+                                                                            public Integer transform(Integer input){
+                                                                                return input % 7;
+                                                                            }
+                                                                        };
+
+    private static final List<Integer>                 LIST             = newList(100000);
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testSelect(){
+        assertEquals(CollectionsUtil.select(LIST, EVEN_PREDICATE), ParallelCollectionsUtil.select(LIST, EVEN_PREDICATE, 100));
+    }
+
+    @Test
+    public void testSelectRejected(){
+        assertEquals(
+                        CollectionsUtil.selectRejected(LIST, EVEN_PREDICATE),
+                        ParallelCollectionsUtil.selectRejected(LIST, EVEN_PREDICATE, 100));
+    }
+
+    @Test
+    public void testCollect(){
+        assertEquals(CollectionsUtil.collect(LIST, MOD_TRANSFORMER), ParallelCollectionsUtil.collect(LIST, MOD_TRANSFORMER, 100));
+    }
+
+    @Test
+    public void testGroup(){
+        Map<Integer, List<Integer>> expected = CollectionsUtil.group(LIST, MOD_TRANSFORMER);
+        Map<Integer, List<Integer>> actual = ParallelCollectionsUtil.group(LIST, MOD_TRANSFORMER, 100);
+
+        assertEquals(expected, actual);
+        //key 的顺序也一致
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+    }
+
+    /**
+     * 非 RandomAccess 的 list.
+     */
+    @Test
+    public void testSelectLinkedList(){
+        List<Integer> linkedList = new LinkedList<>(LIST);
+        assertEquals(CollectionsUtil.select(LIST, EVEN_PREDICATE), ParallelCollectionsUtil.select(linkedList, EVEN_PREDICATE, 100));
+    }
+
+    /**
+     * 小于阈值,顺序执行.
+     */
+    @Test
+    public void testSelectLessThanThreshold(){
+        assertThat(ParallelCollectionsUtil.select(toList(1, 2, 3, 4), EVEN_PREDICATE), contains(2, 4));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroupPropertyName(){
+        User zhangfei = new User("张飞", 23);
+        User liubei25 = new User("刘备", 25);
+        User liubei30 = new User("刘备", 30);
+
+        Map<String, List<User>> map = ParallelCollectionsUtil.group(toList(zhangfei, liubei25, liubei30), "name");
+        assertThat(map.keySet(), contains("张飞", "刘备"));
+        assertThat(map.get("刘备"), contains(liubei25, liubei30));
+    }
+
+    @Test
+    public void testSelectBeanPredicate(){
+        User zhangfei = new User("张飞", 23);
+        User liubei25 = new User("刘备", 25);
+        User guanyu = new User("关羽", 30);
+
+        List<User> list = ParallelCollectionsUtil
+                        .select(toList(zhangfei, liubei25, guanyu), BeanPredicateUtil.<User, String> containsPredicate("name", "刘备", "关羽"), 1);
+        assertThat(list, contains(liubei25, guanyu));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testNullOrEmpty(){
+        assertEquals(Collections.emptyList(), ParallelCollectionsUtil.select(null, EVEN_PREDICATE));
+        assertEquals(Collections.emptyList(), ParallelCollectionsUtil.selectRejected(new ArrayList<Integer>(), EVEN_PREDICATE));
+        assertThat(ParallelCollectionsUtil.collect(null, MOD_TRANSFORMER), is(nullValue()));
+        assertEquals(Collections.emptyMap(), ParallelCollectionsUtil.group(null, MOD_TRANSFORMER));
+    }
+
+    @Test
+    public void testNullPredicate(){
+        assertEquals(Collections.emptyList(), ParallelCollectionsUtil.select(LIST, null));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGroupNullTransformer(){
+        ParallelCollectionsUtil.group(LIST, (Transformer<Integer, Integer>) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectInvalidThreshold(){
+        ParallelCollectionsUtil.select(LIST, EVEN_PREDICATE, 0);
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<Integer> newList(int size){
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -18,7 +18,10 @@ package com.feilong.core.util.predicate.beanpredicateutil;
 import static com.feilong.core.bean.ConvertUtil.toList;
 import static org.junit.Assert.assertEquals;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.collections4.Predicate;
 import org.apache.commons.collections4.PredicateUtils;
@@ -62,6 +65,60 @@ public class ContainsPredicateListTest{
         assertEquals(false, containsPredicate.evaluate(user));
     }
 
+    @Test
+    public void testContainsPredicateNullValue(){
+        Predicate<User> containsPredicate = BeanPredicateUtil.containsPredicate("name", toList("关羽", null));
+        assertEquals(true, containsPredicate.evaluate(new User((String) null, 30)));
+        assertEquals(false, containsPredicate.evaluate(new User("刘备", 30)));
+    }
+
+    /**
+     * 不同的包装类型,和 equals 一致,不相等.
+     */
+    @Test
+    public void testContainsPredicateDifferentWrapperType(){
+        User user = new User(2L);
+        assertEquals(false, BeanPredicateUtil.containsPredicate("id", toList(2)).evaluate(user));
+    }
+
+    /**
+     * 如果是 set,使用 set 自身的 contains.
+     */
+    @Test
+    public void testContainsPredicateSet(){
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.add("FEILONG");
+
+        Predicate<User> containsPredicate = BeanPredicateUtil.containsPredicate("name", set);
+        assertEquals(true, containsPredicate.evaluate(new User("feilong", 30)));
+    }
+
+    /**
+     * 创建 predicate 之后再修改 list,不影响结果.
+     */
+    @Test
+    public void testContainsPredicateModifyListAfterCreate(){
+        List<String> list = toList("关羽");
+        Predicate<User> containsPredicate = BeanPredicateUtil.containsPredicate("name", list);
+
+        list.add("刘备");
+        assertEquals(true, containsPredicate.evaluate(new User("关羽", 30)));
+        assertEquals(false, containsPredicate.evaluate(new User("刘备", 30)));
+    }
+
+    /**
+     * set 是直接使用的,创建 predicate 之后再修改 set,会影响结果.
+     */
+    @Test
+    public void testContainsPredicateModifySetAfterCreate(){
+        Set<String> set = new HashSet<>(toList("关羽"));
+        Predicate<User> containsPredicate = BeanPredicateUtil.containsPredicate("name", set);
+
+        set.add("刘备");
+        assertEquals(true, containsPredicate.evaluate(new User("关羽", 30)));
+        assertEquals(true, containsPredicate.evaluate(new User("刘备", 30)));
+    }
+
     //---------------------------------------------------------------------------
 
     /**
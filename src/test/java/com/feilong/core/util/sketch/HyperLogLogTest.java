@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class HyperLogLogTest{
+
+    @Test
+    public void testEmpty(){
+        assertEquals(0, new HyperLogLog().getCardinality());
+    }
+
+    @Test
+    public void testSmallCardinality(){
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < 1000; ++i){
+            hyperLogLog.offer("user" + (i % 100));
+        }
+        assertEquals(100, hyperLogLog.getCardinality(), 2);
+    }
+
+    @Test
+    public void testLargeCardinality(){
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (long i = 0; i < 1000000; ++i){
+            hyperLogLog.offer(i);
+        }
+        assertError(1000000, hyperLogLog.getCardinality(), 0.03);
+    }
+
+    /**
+     * 2.5m 到 5m 之间(原始算法从 linear counting 切换回 raw estimate 的区间)也没有明显的偏差.
+     */
+    @Test
+    public void testMiddleRangeCardinality(){
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < 50000; ++i){
+            hyperLogLog.offer("code" + i);
+        }
+        assertError(50000, hyperLogLog.getCardinality(), 0.015);
+
+        //多组数据的平均误差,排除单次的随机误差
+        for (int cardinality : new int[] { 40000, 50000, 60000 }){
+            double errorSum = 0;
+            for (int round = 0; round < 20; ++round){
+                hyperLogLog.clear();
+                for (int i = 0; i < cardinality; ++i){
+                    hyperLogLog.offer(round + "-" + i);
+                }
+                errorSum += (double) (hyperLogLog.getCardinality() - cardinality) / cardinality;
+            }
+            assertTrue("cardinality:" + cardinality + ",bias:" + errorSum / 20, Math.abs(errorSum / 20) <= 0.004);
+        }
+    }
+
+    @Test
+    public void testMerge(){
+        HyperLogLog one = new HyperLogLog(12);
+        HyperLogLog two = new HyperLogLog(12);
+        for (int i = 0; i < 50000; ++i){
+            one.offer("code" + i);
+            two.offer("code" + (i + 25000));
+        }
+        one.merge(two);
+        assertError(75000, one.getCardinality(), 0.05);
+    }
+
+    @Test
+    public void testClear(){
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        hyperLogLog.offer("a");
+        hyperLogLog.offer(null);
+        assertEquals(2, hyperLogLog.getCardinality());
+
+        hyperLogLog.clear();
+        assertEquals(0, hyperLogLog.getCardinality());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrecisionTooSmall(){
+        new HyperLogLog(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentPrecision(){
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    //---------------------------------------------------------------
+
+    private static void assertError(long expected,long actual,double maxError){
+        assertTrue("actual:" + actual, Math.abs(actual - expected) <= expected * maxError);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class QuantileSketchTest{
+
+    @Test
+    public void testEmpty(){
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        assertTrue(Double.isNaN(sketch.getMin()));
+        assertEquals(0, sketch.getCount());
+    }
+
+    @Test
+    public void testRelativeAccuracy(){
+        double[] values = new double[100000];
+        Random random = new Random(11);
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; ++i){
+            values[i] = Math.exp(random.nextGaussian() * 2);
+            sketch.offer(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[] { 0.01, 0.25, 0.5, 0.9, 0.99 }){
+            double expected = values[(int) (quantile * (values.length - 1))];
+            assertEquals(expected, sketch.getQuantile(quantile), expected * 0.011);
+        }
+        assertEquals(values[0], sketch.getQuantile(0), 0);
+        assertEquals(values[values.length - 1], sketch.getQuantile(1), 0);
+    }
+
+    @Test
+    public void testNegativeAndZero(){
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = -50; i <= 50; ++i){
+            sketch.offer(i);
+        }
+        assertEquals(0, sketch.getQuantile(0.5), 0);
+        assertEquals(-25, sketch.getQuantile(0.25), 25 * 0.011);
+        assertEquals(25, sketch.getQuantile(0.75), 25 * 0.011);
+        assertEquals(-50, sketch.getMin(), 0);
+        assertEquals(50, sketch.getMax(), 0);
+    }
+
+    @Test
+    public void testMerge(){
+        QuantileSketch one = new QuantileSketch();
+        QuantileSketch two = new QuantileSketch();
+        for (int i = 1; i <= 1000; ++i){
+            (i % 2 == 0 ? one : two).offer(i);
+        }
+        one.merge(two);
+
+        assertEquals(1000, one.getCount());
+        assertEquals(500, one.getQuantile(0.5), 500 * 0.011);
+        assertEquals(1, one.getMin(), 0);
+        assertEquals(1000, one.getMax(), 0);
+    }
+
+    @Test
+    public void testMaxBucketsCollapseLowest(){
+        QuantileSketch sketch = new QuantileSketch(0.01, 10);
+        for (int i = 1; i <= 10000; ++i){
+            sketch.offer(i);
+        }
+        //最大的桶不受影响
+        assertEquals(9900, sketch.getQuantile(0.99), 9900 * 0.011);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaN(){
+        new QuantileSketch().offer(Double.NaN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileOutOfRange(){
+        new QuantileSketch().getQuantile(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentAccuracy(){
+        new QuantileSketch(0.01, 10).merge(new QuantileSketch(0.02, 10));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sketch;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class TopKSketchTest{
+
+    @Test
+    public void testExactWhenUnderCapacity(){
+        TopKSketch<String> sketch = new TopKSketch<>(10);
+        offer(sketch, "a", 5);
+        offer(sketch, "b", 3);
+        offer(sketch, "c", 8);
+        sketch.offer(null);
+
+        Map<String, Long> map = sketch.getTopK(3);
+        assertThat(map.keySet(), contains("c", "a", "b"));
+        assertEquals(8L, (long) map.get("c"));
+        assertEquals(1, sketch.getCount(null));
+        assertEquals(17, sketch.getTotal());
+    }
+
+    @Test
+    public void testHeavyHittersSurviveNoise(){
+        TopKSketch<Integer> sketch = new TopKSketch<>(50);
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; ++i){
+            //1,2,3 分别占约 20%,10%,5%,其余是大量不同的值
+            int r = random.nextInt(20);
+            sketch.offer(r < 4 ? 1 : r < 6 ? 2 : r < 7 ? 3 : 1000 + random.nextInt(1000000));
+        }
+
+        assertThat(sketch.getTopK(3).keySet(), contains(1, 2, 3));
+        //估计值 >= 真实值,误差不超过 total/capacity
+        long count = sketch.getCount(1);
+        assertTrue(count >= 19000 && count <= 21000 + 100000 / 50);
+    }
+
+    @Test
+    public void testMerge(){
+        TopKSketch<String> one = new TopKSketch<>(3);
+        offer(one, "a", 10);
+        offer(one, "b", 5);
+
+        TopKSketch<String> two = new TopKSketch<>(3);
+        offer(two, "b", 7);
+        offer(two, "c", 1);
+
+        one.merge(two);
+        Map<String, Long> map = one.getTopK(3);
+        assertThat(map.keySet(), contains("b", "a", "c"));
+        assertEquals(12L, (long) map.get("b"));
+        assertEquals(23, one.getTotal());
+    }
+
+    @Test
+    public void testMergeKeepsCapacity(){
+        TopKSketch<Integer> one = new TopKSketch<>(2);
+        TopKSketch<Integer> two = new TopKSketch<>(2);
+        for (int i = 0; i < 5; ++i){
+            offer(one, i, i + 1);
+            offer(two, i + 10, i + 1);
+        }
+        one.merge(two);
+        assertEquals(2, one.getTopK(10).size());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity(){
+        new TopKSketch<>(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroIncrement(){
+        new TopKSketch<>(2).offer("a", 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMergeNull(){
+        new TopKSketch<>(2).merge(null);
+    }
+
+    //---------------------------------------------------------------
+
+    private static <T> void offer(TopKSketch<T> sketch,T item,int times){
+        for (int i = 0; i < times; ++i){
+            sketch.offer(item);
+        }
+    }
+}
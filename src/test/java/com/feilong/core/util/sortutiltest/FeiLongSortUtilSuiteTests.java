@@ -32,8 +32,10 @@ import org.junit.runners.Suite.SuiteClasses;
                 SortListByFixedOrderArrayPropertyValuesTest.class,
                 SortListByFixedOrderListPropertyValuesTest.class,
                 SortListByPropertyNamesValueTest.class,
+                SortListByPropertyNamesValueReadOnceTest.class,
                 SortListComparatorsTest.class,
                 SortListTest.class,
+                ParallelSortTest.class,
 
                 SortMapByKeyAscTest.class,
                 SortMapByKeyDescTest.class,
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.parallelSortArray;
+import static com.feilong.core.util.SortUtil.parallelSortList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.collections4.comparators.FixedOrderComparator;
+import org.apache.commons.collections4.comparators.FixedOrderComparator.UnknownObjectBehavior;
+import org.junit.Test;
+
+import com.feilong.core.util.comparator.BeanComparatorUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class ParallelSortTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class ParallelSortTest{
+
+    /** 超过并行阈值. */
+    private static final int SIZE = 50000;
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testParallelSortArrayNatural(){
+        Integer[] arrays = randomIntegers(SIZE, Integer.MAX_VALUE);
+        Integer[] expected = arrays.clone();
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, parallelSortArray(arrays));
+    }
+
+    @Test
+    public void testParallelSortArrayStable(){
+        User[] arrays = buildUsers(SIZE).toArray(new User[0]);
+        User[] expected = arrays.clone();
+
+        Comparator<User> comparator = BeanComparatorUtil.propertyComparator("age");
+        Arrays.sort(expected, comparator);
+
+        assertArrayEquals(expected, parallelSortArray(arrays, comparator));
+    }
+
+    @Test
+    public void testParallelSortListChainedComparator(){
+        List<User> list = buildUsers(SIZE);
+        List<User> expected = new ArrayList<>(list);
+
+        Comparator<User> comparator = BeanComparatorUtil.chainedComparator("age desc", "name");
+        Collections.sort(expected, comparator);
+
+        assertEquals(expected, parallelSortList(list, comparator));
+    }
+
+    @Test
+    public void testParallelSortListFixedOrderComparator(){
+        List<User> list = new LinkedList<>(buildUsers(SIZE));
+        List<User> expected = new ArrayList<>(list);
+
+        FixedOrderComparator<Integer> fixedOrderComparator = new FixedOrderComparator<>(7, 3, 5);
+        fixedOrderComparator.setUnknownObjectBehavior(UnknownObjectBehavior.AFTER);
+        Comparator<User> comparator = BeanComparatorUtil.propertyComparator("age", fixedOrderComparator);
+        Collections.sort(expected, comparator);
+
+        List<User> result = parallelSortList(list, comparator);
+        assertSame(list, result);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testParallelSortSmallArray(){
+        assertArrayEquals(toArray(1, 2, 5, 8), parallelSortArray(toArray(5, 8, 2, 1)));
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testParallelSortArrayNull(){
+        assertArrayEquals(new Object[0], parallelSortArray((Object[]) null));
+        assertArrayEquals(new Object[0], parallelSortArray(null, BeanComparatorUtil.<Object> propertyComparator("age")));
+    }
+
+    @Test
+    public void testParallelSortArrayNullComparators(){
+        Integer[] arrays = toArray(5, 8, 2);
+        assertArrayEquals(toArray(5, 8, 2), parallelSortArray(arrays, (Comparator<Integer>[]) null));
+    }
+
+    @Test
+    public void testParallelSortListNull(){
+        assertEquals(emptyList(), parallelSortList(null, BeanComparatorUtil.<User> propertyComparator("age")));
+    }
+
+    @Test
+    public void testParallelSortListNullComparators(){
+        List<Integer> list = toList(5, 8, 2);
+        assertEquals(toList(5, 8, 2), parallelSortList(list, (Comparator<Integer>[]) null));
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<User> buildUsers(int size){
+        Random random = new Random(20200101L);
+        List<User> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            User user = new User((long) i, random.nextInt(10));
+            user.setName("feilong" + random.nextInt(5));
+            list.add(user);
+        }
+        return list;
+    }
+
+    private static Integer[] randomIntegers(int size,int bound){
+        Random random = new Random(20200101L);
+        Integer[] arrays = new Integer[size];
+        for (int i = 0; i < size; ++i){
+            arrays[i] = random.nextInt(bound);
+        }
+        return arrays;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.sortutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.util.SortUtil.sortListByFixedOrderPropertyValueArray;
+import static com.feilong.core.util.SortUtil.sortListByPropertyNamesValue;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.util.comparator.BeanComparatorUtil;
+
+/**
+ * 每个元素的排序属性只读取一次.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class SortListByPropertyNamesValueReadOnceTest{
+
+    @Test
+    public void testReadOncePerElementAndProperty(){
+        List<CountingBean> list = buildList(1000);
+        CountingBean.reset();
+
+        sortListByPropertyNamesValue(list, "price desc", "code");
+        assertEquals(1000, CountingBean.priceReadCount);
+        assertEquals(1000, CountingBean.codeReadCount);
+    }
+
+    @Test
+    public void testSameAsChainedComparator(){
+        List<CountingBean> list = buildList(500);
+        List<CountingBean> expected = new ArrayList<>(list);
+        Collections.sort(expected, BeanComparatorUtil.<CountingBean> chainedComparator("price desc", "code"));
+
+        assertEquals(expected, sortListByPropertyNamesValue(list, "price desc", "code"));
+    }
+
+    @Test
+    public void testSameAsPropertyComparator(){
+        List<CountingBean> list = buildList(500);
+        list.add(null);
+        list.add(0, null);
+
+        List<CountingBean> expected = new ArrayList<>(list);
+        Collections.sort(expected, BeanComparatorUtil.<CountingBean> propertyComparator("price desc"));
+
+        assertEquals(expected, sortListByPropertyNamesValue(list, "price desc"));
+    }
+
+    @Test
+    public void testFixedOrderReadOnce(){
+        List<CountingBean> list = buildList(100);
+        CountingBean.reset();
+
+        sortListByFixedOrderPropertyValueArray(list, "price", 3, 1);
+        assertEquals(100, CountingBean.priceReadCount);
+    }
+
+    @Test
+    public void testSingleElement(){
+        List<CountingBean> list = toList(new CountingBean(1, "a"));
+        CountingBean.reset();
+
+        sortListByPropertyNamesValue(list, "price");
+        assertEquals(0, CountingBean.priceReadCount);
+    }
+
+    //---------------------------------------------------------------
+
+    private static List<CountingBean> buildList(int size){
+        Random random = new Random(31);
+        List<CountingBean> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i){
+            //包含 null 属性值以及大量相同的值
+            Integer price = 0 == i % 17 ? null : random.nextInt(10);
+            list.add(new CountingBean(price, 0 == i % 13 ? null : "code" + random.nextInt(50)));
+        }
+        return list;
+    }
+
+    //---------------------------------------------------------------
+
+    public static class CountingBean{
+
+        private static int    priceReadCount;
+
+        private static int    codeReadCount;
+
+        private final Integer price;
+
+        private final String  code;
+
+        public CountingBean(Integer price, String code){
+            this.price = price;
+            this.code = code;
+        }
+
+        static void reset(){
+            priceReadCount = 0;
+            codeReadCount = 0;
+        }
+
+        public Integer getPrice(){
+            priceReadCount++;
+            return price;
+        }
+
+        public String getCode(){
+            codeReadCount++;
+            return code;
+        }
+    }
+}
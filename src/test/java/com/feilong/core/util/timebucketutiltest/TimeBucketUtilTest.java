@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.timebucketutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.date.DateUtil.toDate;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.feilong.core.date.TimeBucket;
+import com.feilong.core.util.AggregateUtil;
+import com.feilong.core.util.NumberSummaryStatistics;
+import com.feilong.core.util.TimeBucketUtil;
+import com.feilong.store.member.User;
+
+/**
+ * The Class TimeBucketUtilTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public class TimeBucketUtilTest{
+
+    /** The locale. */
+    private static Locale    locale;
+
+    //---------------------------------------------------------------
+
+    private final User       user1 = newUser(1L, 18, "2016-06-28 01:21:12");
+
+    private final User       user2 = newUser(2L, 20, "2016-06-28 23:59:59");
+
+    private final User       user3 = newUser(3L, 30, "2016-07-01 00:00:00");
+
+    private final User       user4 = newUser(4L, null, "2016-07-01 10:00:00");
+
+    private final List<User> list  = toList(user3, user1, newUser(5L, 40, null), user4, user2);
+
+    //---------------------------------------------------------------
+
+    /**
+     * 测试数据使用 {@link com.feilong.core.date.DateUtil#toDate(String, String...)} 构造,固定成公历的 Locale(th_TH 会解析成佛历).
+     */
+    @BeforeClass
+    public static void beforeClass(){
+        locale = Locale.getDefault();
+        Locale.setDefault(Locale.CHINA);
+    }
+
+    @AfterClass
+    public static void afterClass(){
+        Locale.setDefault(locale);
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testGroup(){
+        SortedMap<Long, List<User>> map = TimeBucketUtil.group(list, "date", TimeBucket.DAY);
+
+        long day = TimeBucket.DAY.getIndex(user1.getDate());
+        assertEquals(toList(day, day + 3), new ArrayList<>(map.keySet()));
+        assertEquals(toList(user1, user2), map.get(day));
+        assertEquals(toList(user3, user4), map.get(day + 3));
+    }
+
+    @Test
+    public void testGroupFillEmptyBuckets(){
+        SortedMap<Long, List<User>> map = TimeBucketUtil.group(list, "date", TimeBucket.DAY, true);
+
+        long day = TimeBucket.DAY.getIndex(user1.getDate());
+        assertEquals(toList(day, day + 1, day + 2, day + 3), new ArrayList<>(map.keySet()));
+        assertTrue(map.get(day + 1).isEmpty());
+        assertTrue(map.get(day + 2).isEmpty());
+    }
+
+    @Test
+    public void testGroupCount(){
+        SortedMap<Long, Integer> map = TimeBucketUtil.groupCount(list, "date", TimeBucket.HOUR, true);
+
+        long hour = TimeBucket.HOUR.getIndex(user1.getDate());
+        assertEquals(TimeBucket.HOUR.getIndex(user4.getDate()) - hour + 1, map.size());
+        assertEquals(1, (int) map.get(hour));
+        assertEquals(0, (int) map.get(hour + 1));
+        assertEquals(hour, (long) map.firstKey());
+    }
+
+    @Test
+    public void testGroupCountMonth(){
+        SortedMap<Long, Integer> map = TimeBucketUtil.groupCount(list, "date", TimeBucket.MONTH, false);
+
+        long month = TimeBucket.MONTH.getIndex(user1.getDate());
+        assertEquals(2, (int) map.get(month));
+        assertEquals(2, (int) map.get(month + 1));
+        assertEquals(toDate("2016-07-01 00:00:00", COMMON_DATE_AND_TIME), TimeBucket.MONTH.getStartDate(map.lastKey()));
+    }
+
+    @Test
+    public void testGroupSummarize(){
+        SortedMap<Long, Map<String, NumberSummaryStatistics>> map = TimeBucketUtil
+                        .groupSummarize(list, "date", TimeBucket.DAY, toArray("age", "id"), true);
+
+        long day = TimeBucket.DAY.getIndex(user1.getDate());
+        assertEquals(4, map.size());
+
+        NumberSummaryStatistics age = map.get(day).get("age");
+        assertEquals(2, age.getCount());
+        assertEquals(new BigDecimal(38), age.getSum());
+
+        assertEquals(0, map.get(day + 1).get("age").getCount());
+
+        //null值不参与统计
+        assertEquals(1, map.get(day + 3).get("age").getCount());
+        assertEquals(2, map.get(day + 3).get("id").getCount());
+    }
+
+    /**
+     * 同一个时间段内的统计结果和 {@link AggregateUtil#summarize(Iterable, String)} 一致.
+     */
+    @Test
+    public void testGroupSummarizeSameAsAggregateUtil(){
+        SortedMap<Long, Map<String, NumberSummaryStatistics>> map = TimeBucketUtil
+                        .groupSummarize(toList(user1, user2), "date", TimeBucket.WEEK, toArray("age"), false);
+
+        NumberSummaryStatistics expected = AggregateUtil.summarize(toList(user1, user2), "age");
+        assertEquals(expected.toString(), map.get(map.firstKey()).get("age").toString());
+    }
+
+    //---------------------------------------------------------------
+
+    @Test
+    public void testNullOrEmpty(){
+        assertTrue(TimeBucketUtil.group(null, "date", TimeBucket.DAY).isEmpty());
+        assertTrue(TimeBucketUtil.groupCount(new ArrayList<User>(), "date", TimeBucket.DAY, true).isEmpty());
+        assertTrue(TimeBucketUtil.groupSummarize(null, "date", TimeBucket.DAY, toArray("age"), true).isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullDatePropertyName(){
+        TimeBucketUtil.group(list, null, TimeBucket.DAY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlankDatePropertyName(){
+        TimeBucketUtil.group(list, " ", TimeBucket.DAY);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullTimeBucket(){
+        TimeBucketUtil.groupCount(list, "date", null, false);
+    }
+
+    /**
+     * 一个错误的时间,按小时补齐会超过 {@link TimeBucketUtil#MAX_FILLED_BUCKET_COUNT}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFillEmptyBucketsTooMany(){
+        TimeBucketUtil.groupCount(toList(user1, newUser(6L, 1, "9999-12-31 00:00:00")), "date", TimeBucket.HOUR, true);
+    }
+
+    @Test
+    public void testFillEmptyBucketsNotFill(){
+        SortedMap<Long, Integer> map = TimeBucketUtil
+                        .groupCount(toList(user1, newUser(6L, 1, "9999-12-31 00:00:00")), "date", TimeBucket.HOUR, false);
+        assertEquals(2, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyValuePropertyNames(){
+        TimeBucketUtil.groupSummarize(list, "date", TimeBucket.DAY, new String[0], false);
+    }
+
+    //---------------------------------------------------------------
+
+    private static User newUser(Long id,Integer age,String date){
+        User user = new User(id, age);
+        user.setDate(null == date ? null : toDate(date, COMMON_DATE_AND_TIME));
+        return user;
+    }
+}